@@ -3,6 +3,9 @@
 -- 数据库: handsome_video_monitor
 -- 字符集: utf8mb4
 -- 排序规则: utf8mb4_unicode_ci
+-- 说明: 本文件为完整表结构参考；实际建库与结构变更由 src/main/resources/db/migration 下的版本脚本在应用启动时执行
+--       (V0 为最初的表结构基线，之后的变更各有版本脚本；已按本文件手工建库的数据库只记录基线版本，
+--        之后的脚本会跳过已存在的表、列和索引)
 
 -- 1. 视频信息表
 CREATE TABLE video_info (
@@ -14,6 +17,12 @@ CREATE TABLE video_info (
     file_path VARCHAR(500) COMMENT '视频文件路径',
     file_size BIGINT COMMENT '文件大小(字节)',
     duration INT COMMENT '视频时长(秒)',
+    width INT COMMENT '视频宽度(像素,由文件探测)',
+    height INT COMMENT '视频高度(像素,由文件探测)',
+    video_codec VARCHAR(32) COMMENT '视频编码(由文件探测)',
+    bit_rate BIGINT COMMENT '平均码率(bps,由文件探测)',
+    thumbnail_key CHAR(64) COMMENT '缩略图内容摘要(为空表示尚未生成)',
+    active_video_name VARCHAR(255) GENERATED ALWAYS AS (IF(status = 1, video_name, NULL)) VIRTUAL COMMENT '有效视频名称(生成列,用于唯一约束)',
     status TINYINT DEFAULT 1 COMMENT '状态:1-正常,0-删除',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
@@ -22,7 +31,14 @@ CREATE TABLE video_info (
     INDEX idx_shooting_time (shooting_time),
     INDEX idx_shooting_location (shooting_location),
     INDEX idx_video_source (video_source),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_status_create_time (status, create_time, id),
+    INDEX idx_thumbnail_key (thumbnail_key),
+    INDEX idx_video_codec (video_codec),
+    UNIQUE INDEX uk_active_video_name (active_video_name),
+    -- 全文索引(ngram分词,需保持 ngram_token_size=2,并建议关闭 innodb_ft_enable_stopword)
+    FULLTEXT INDEX ft_video_name (video_name) WITH PARSER ngram,
+    FULLTEXT INDEX ft_shooting_location (shooting_location) WITH PARSER ngram
 ) ENGINE=InnoDB 
   DEFAULT CHARSET=utf8mb4 
   COLLATE=utf8mb4_unicode_ci 
@@ -48,6 +64,8 @@ CREATE TABLE video_analysis_result (
   DEFAULT CHARSET=utf8mb4 
   COLLATE=utf8mb4_unicode_ci 
   COMMENT='视频分析结果表-存储视频分析的结果数据';
+-- 复合索引(视频+时间、视频+类型+时间、类型+时间、状态+时间)由
+-- src/main/resources/db/migration/V1__analysis_result_composite_indexes.sql 在应用启动时添加
 
 -- 3. 用户信息表
 CREATE TABLE user_info (
@@ -163,6 +181,144 @@ CREATE TABLE monitor_point (
   COLLATE=utf8mb4_unicode_ci 
   COMMENT='监控点位表-存储监控设备的地理位置和状态信息';
 
+-- 9. 视频分析任务表
+CREATE TABLE video_analysis_job (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '任务编号',
+    video_id BIGINT NOT NULL COMMENT '视频编号',
+    analysis_type VARCHAR(50) NOT NULL COMMENT '分析类型',
+    job_status TINYINT DEFAULT 0 COMMENT '任务状态:0-排队中,1-执行中,2-成功,3-失败',
+    result_id BIGINT COMMENT '分析结果编号(成功时回填)',
+    error_message VARCHAR(500) COMMENT '失败原因',
+    claim_token CHAR(32) COMMENT '领取标识(每次领取重新生成,回写状态时校验)',
+    start_time DATETIME COMMENT '开始执行时间',
+    finish_time DATETIME COMMENT '结束时间',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '提交时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    
+    INDEX idx_status_type (job_status, analysis_type, id),
+    INDEX idx_video_id (video_id)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='视频分析任务表-异步分析任务队列';
+
+-- 10. 视频分组计数表（按来源/地点物化的视频数量，由增删改同步维护）
+CREATE TABLE video_stat_counter (
+    dimension VARCHAR(20) NOT NULL COMMENT '统计维度:source-来源,location-拍摄地点',
+    dim_value VARCHAR(255) NOT NULL DEFAULT '' COMMENT '维度取值(空值记为空字符串)',
+    video_count BIGINT NOT NULL DEFAULT 0 COMMENT '有效视频数量',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    
+    PRIMARY KEY (dimension, dim_value)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='视频分组计数表-视频来源和地点统计';
+
+-- 11. 分析结果小时汇总表
+CREATE TABLE analysis_stat_hourly (
+    bucket_time DATETIME NOT NULL COMMENT '小时桶起始时间(整点)',
+    analysis_type VARCHAR(50) NOT NULL COMMENT '分析类型',
+    result_count BIGINT NOT NULL DEFAULT 0 COMMENT '分析结果数量',
+    confidence_sum DECIMAL(20,4) NOT NULL DEFAULT 0 COMMENT '置信度之和',
+    confidence_count BIGINT NOT NULL DEFAULT 0 COMMENT '有置信度的结果数量',
+    
+    PRIMARY KEY (bucket_time, analysis_type)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='分析结果小时汇总表-按小时和分析类型统计';
+
+-- 12. 分析结果天汇总表
+CREATE TABLE analysis_stat_daily (
+    bucket_time DATETIME NOT NULL COMMENT '天桶起始时间(零点)',
+    analysis_type VARCHAR(50) NOT NULL COMMENT '分析类型',
+    result_count BIGINT NOT NULL DEFAULT 0 COMMENT '分析结果数量',
+    confidence_sum DECIMAL(20,4) NOT NULL DEFAULT 0 COMMENT '置信度之和',
+    confidence_count BIGINT NOT NULL DEFAULT 0 COMMENT '有置信度的结果数量',
+    
+    PRIMARY KEY (bucket_time, analysis_type)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='分析结果天汇总表-按天和分析类型统计';
+
+-- 13. 汇总回填进度表(各分批回填任务共用)
+CREATE TABLE analysis_rollup_checkpoint (
+    job_name VARCHAR(50) PRIMARY KEY COMMENT '回填任务名',
+    watermark_id BIGINT NOT NULL COMMENT '回填上限ID(之后的结果由增量维护)',
+    last_id BIGINT NOT NULL DEFAULT 0 COMMENT '已回填到的ID',
+    finished TINYINT NOT NULL DEFAULT 0 COMMENT '是否完成:0-否,1-是',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='汇总回填进度表-记录历史数据回填位置';
+
+-- 14. 检测流量分钟表
+CREATE TABLE analysis_detection_minute (
+    object_class VARCHAR(32) NOT NULL COMMENT '目标类别:person-人员,vehicle-车辆等',
+    bucket_time DATETIME NOT NULL COMMENT '分钟桶起始时间(拍摄时间+检测偏移)',
+    video_id BIGINT NOT NULL COMMENT '视频编号',
+    detection_count INT NOT NULL DEFAULT 0 COMMENT '检测数量',
+    
+    PRIMARY KEY (object_class, bucket_time, video_id),
+    INDEX idx_video_id (video_id)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='检测流量分钟表-按目标类别、分钟和视频统计检测数量';
+
+-- 15. 分析结果二进制表
+CREATE TABLE video_analysis_payload (
+    result_id BIGINT PRIMARY KEY COMMENT '分析结果编号',
+    format_version TINYINT NOT NULL COMMENT '编码格式版本',
+    payload MEDIUMBLOB NOT NULL COMMENT '分析结果二进制(摘要、置信度、检测目标及其余字段)',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    
+    FOREIGN KEY (result_id) REFERENCES video_analysis_result(id) ON DELETE CASCADE
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='分析结果二进制表-与分析结果分表存放，列表查询不读取';
+
+-- 16. 数据库迁移记录表(应用启动时自动创建)
+CREATE TABLE schema_migration (
+    version INT PRIMARY KEY COMMENT '迁移版本号',
+    description VARCHAR(200) NOT NULL COMMENT '迁移说明',
+    script VARCHAR(255) NOT NULL COMMENT '脚本文件名',
+    checksum CHAR(64) COMMENT '脚本校验和(SHA-256)',
+    baseline TINYINT NOT NULL DEFAULT 0 COMMENT '是否为只记录未执行的基线版本:0-否,1-是',
+    execution_ms BIGINT NOT NULL DEFAULT 0 COMMENT '执行耗时(毫秒)',
+    installed_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '执行时间'
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='数据库迁移记录表-记录已执行的 db/migration 脚本';
+
+-- 17. 访问令牌吊销表
+CREATE TABLE token_revocation (
+    revoke_key VARCHAR(64) PRIMARY KEY COMMENT '吊销键:t:令牌ID-单个令牌,u:用户ID-用户在吊销时间之前签发的令牌',
+    revoke_value BIGINT NOT NULL COMMENT '令牌为过期时间,用户为吊销时间(毫秒时间戳)',
+    expire_at BIGINT NOT NULL COMMENT '记录失效时间(毫秒时间戳,之后所覆盖的令牌均已过期)',
+    
+    INDEX idx_expire_at (expire_at)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='访问令牌吊销表-持久化令牌吊销名单';
+
+-- 18. 检测流量基准时间表
+CREATE TABLE analysis_detection_base (
+    result_id BIGINT PRIMARY KEY COMMENT '分析结果编号',
+    base_time DATETIME NOT NULL COMMENT '计入检测流量时的基准时间(拍摄时间,没有时为分析时间)',
+    
+    FOREIGN KEY (result_id) REFERENCES video_analysis_result(id) ON DELETE CASCADE
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='检测流量基准时间表-记录分析结果计入分钟桶时使用的基准时间';
+
 -- 初始化数据
 
 -- 插入默认角色
@@ -0,0 +1,61 @@
+package com.fyp.handsome.config;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 实时告警配置
+ * 对应配置前缀：handsome.alert
+ * @author ziye
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "handsome.alert")
+public class AlertProperties {
+
+    /**
+     * 产生告警的分析类型
+     */
+    private List<String> analysisTypes = new ArrayList<>(List.of("event_detection", "behavior_analysis"));
+
+    /**
+     * 产生告警的最低置信度（置信度为空的结果不产生告警）
+     */
+    private BigDecimal minConfidence = new BigDecimal("0.8");
+
+    /**
+     * 高级别告警的最低置信度，低于此值为中级别
+     */
+    private BigDecimal highConfidence = new BigDecimal("0.9");
+
+    /**
+     * 告警环形缓冲区容量（向上取整为2的幂），决定可补发的历史告警条数
+     */
+    private int bufferSize = 1024;
+
+    /**
+     * 每个订阅者待发送队列容量，满时丢弃最旧的告警
+     */
+    private int subscriberQueueSize = 256;
+
+    /**
+     * 推送线程数
+     */
+    private int dispatchThreads = 4;
+
+    /**
+     * SSE连接超时时间（分钟），超时后客户端按最后序号重连
+     */
+    private long emitterTimeoutMinutes = 30;
+
+    /**
+     * 心跳间隔（秒），用于保持连接并及时清理断开的订阅者
+     */
+    private long heartbeatSeconds = 15;
+}
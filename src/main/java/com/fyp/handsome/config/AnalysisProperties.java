@@ -0,0 +1,293 @@
+package com.fyp.handsome.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 视频分析配置
+ * 对应配置前缀：handsome.analysis
+ * @author ziye
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "handsome.analysis")
+public class AnalysisProperties {
+
+    /**
+     * 上游视频理解服务允许的最大并发（百炼异步接口默认2，最高可调至10）
+     */
+    public static final int UPSTREAM_CONCURRENCY_LIMIT = 10;
+
+    /**
+     * 分析器实现：stub-本地模拟分析器，remote-外部视频理解服务
+     */
+    private String analyzer = "stub";
+
+    /**
+     * 全局并发任务数
+     */
+    private int maxConcurrency = 2;
+
+    /**
+     * 各分析类型的并发任务数，未配置的类型使用全局并发数
+     */
+    private Map<String, Integer> typeConcurrency = new HashMap<>();
+
+    /**
+     * 任务队列轮询间隔（毫秒），有新任务提交时会立即唤醒
+     */
+    private long pollIntervalMs = 1000;
+
+    /**
+     * 执行中任务的心跳超时时间（分钟），执行中任务每1/3超时时间刷新一次心跳，超时未刷新的任务放回队列
+     */
+    private long staleJobMinutes = 30;
+
+    /**
+     * 本地模拟分析器的模拟耗时（毫秒）
+     */
+    private long stubLatencyMs = 0;
+
+    /**
+     * 外部视频理解服务配置
+     */
+    private Remote remote = new Remote();
+
+    /**
+     * 本地模拟服务配置
+     */
+    private MockServer mockServer = new MockServer();
+
+    /**
+     * 分析统计汇总配置
+     */
+    private Rollup rollup = new Rollup();
+
+    /**
+     * 分析结果存储配置
+     */
+    private Payload payload = new Payload();
+
+    /**
+     * 获取生效的全局并发数（限制在上游允许范围内）
+     */
+    public int getEffectiveMaxConcurrency() {
+        return Math.max(1, Math.min(maxConcurrency, UPSTREAM_CONCURRENCY_LIMIT));
+    }
+
+    /**
+     * 获取指定分析类型生效的并发数
+     */
+    public int getEffectiveTypeConcurrency(String analysisType) {
+        Integer concurrency = typeConcurrency.get(analysisType);
+        int globalConcurrency = getEffectiveMaxConcurrency();
+        if (concurrency == null) {
+            return globalConcurrency;
+        }
+        return Math.max(1, Math.min(concurrency, globalConcurrency));
+    }
+
+    /**
+     * 分析结果存储配置
+     */
+    @Data
+    public static class Payload {
+
+        /**
+         * 存储方式：只存JSON
+         */
+        public static final String STORAGE_JSON = "json";
+
+        /**
+         * 存储方式：JSON和二进制都存
+         */
+        public static final String STORAGE_BOTH = "both";
+
+        /**
+         * 存储方式：只存二进制（二进制能原样还原出JSON时 analysis_result 列为空，读取时由二进制还原；否则仍保留JSON）
+         */
+        public static final String STORAGE_BINARY = "binary";
+
+        /**
+         * 新分析结果的存储方式：json、both、binary
+         */
+        private String storage = STORAGE_JSON;
+
+        /**
+         * 是否在启动后把已有的JSON分析结果转换为二进制（按当前存储方式处理JSON列）
+         */
+        private boolean migrationEnabled = false;
+
+        /**
+         * 转换每批处理的结果数
+         */
+        private int migrationBatchSize = 500;
+
+        /**
+         * 转换批次失败时的最大重试次数（用尽后逐条转换，失败的结果跳过）
+         */
+        private int migrationMaxRetries = 3;
+
+        /**
+         * 转换批次首次重试前的等待时间（毫秒），之后每次翻倍
+         */
+        private long migrationRetryBackoffMillis = 1000;
+
+        /**
+         * 是否写入二进制
+         */
+        public boolean isBinaryEnabled() {
+            return STORAGE_BOTH.equals(storage) || STORAGE_BINARY.equals(storage);
+        }
+
+        /**
+         * 是否保留JSON列
+         */
+        public boolean isJsonEnabled() {
+            return !STORAGE_BINARY.equals(storage);
+        }
+    }
+
+    /**
+     * 分析统计汇总配置
+     */
+    @Data
+    public static class Rollup {
+
+        /**
+         * 是否在启动后回填历史分析结果
+         */
+        private boolean backfillEnabled = true;
+
+        /**
+         * 回填每批处理的最大分析结果ID跨度（按耗时自动调整，见 handsome.migration.backfill）
+         */
+        private int backfillChunkSize = 5000;
+
+        /**
+         * 汇总与分析结果表核对的间隔（秒），小于等于0时不核对；历史回填完成后才核对
+         */
+        private long reconcileIntervalSeconds = 3600;
+
+        /**
+         * 核对最近多少个已结束的自然日（当天由增量维护，不核对）
+         */
+        private int reconcileDays = 7;
+    }
+
+    /**
+     * 外部视频理解服务配置
+     */
+    @Data
+    public static class Remote {
+
+        /**
+         * 服务地址
+         */
+        private String baseUrl = "https://quanmiaolightapp.cn-beijing.aliyuncs.com";
+
+        /**
+         * 业务空间ID
+         */
+        private String workspaceId;
+
+        /**
+         * 访问凭证（以Bearer方式携带）
+         */
+        private String apiKey;
+
+        /**
+         * 视频VL模型
+         */
+        private String videoModelId = "qwen-vl-max-latest";
+
+        /**
+         * 视频文件访问地址前缀，与视频文件路径拼接后作为videoUrl
+         */
+        private String videoUrlPrefix = "";
+
+        /**
+         * 同时进行的请求数
+         */
+        private int maxConcurrency = 2;
+
+        /**
+         * 每秒允许发起的请求数
+         */
+        private double requestsPerSecond = 2.0;
+
+        /**
+         * 令牌桶容量（允许的突发请求数）
+         */
+        private int burst = 2;
+
+        /**
+         * 最大重试次数
+         */
+        private int maxRetries = 3;
+
+        /**
+         * 重试初始退避时间（毫秒）
+         */
+        private long initialBackoffMs = 500;
+
+        /**
+         * 重试最大退避时间（毫秒）
+         */
+        private long maxBackoffMs = 10000;
+
+        /**
+         * 连接超时时间（毫秒）
+         */
+        private long connectTimeoutMs = 5000;
+
+        /**
+         * 单次请求超时时间（毫秒），视频理解耗时较长
+         */
+        private long requestTimeoutMs = 600000;
+
+        /**
+         * 获取生效的并发数（限制在上游允许范围内）
+         */
+        public int getEffectiveMaxConcurrency() {
+            return Math.max(1, Math.min(maxConcurrency, UPSTREAM_CONCURRENCY_LIMIT));
+        }
+    }
+
+    /**
+     * 本地模拟服务配置（离线压测用，模拟上游的并发限制和SSE分段返回）
+     */
+    @Data
+    public static class MockServer {
+
+        /**
+         * 是否启动本地模拟服务
+         */
+        private boolean enabled = false;
+
+        /**
+         * 监听端口
+         */
+        private int port = 18080;
+
+        /**
+         * 模拟服务允许的并发任务数，超出返回429
+         */
+        private int maxConcurrency = 2;
+
+        /**
+         * 每个任务推送的进度事件数
+         */
+        private int eventCount = 5;
+
+        /**
+         * 事件间隔（毫秒）
+         */
+        private long eventIntervalMs = 200;
+    }
+}
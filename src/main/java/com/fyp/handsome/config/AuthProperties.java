@@ -0,0 +1,137 @@
+package com.fyp.handsome.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 认证与权限配置
+ * 对应配置前缀：handsome.auth
+ * @author ziye
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "handsome.auth")
+public class AuthProperties {
+
+    /**
+     * 是否要求所有非匿名接口携带令牌，为false时未携带令牌的请求由 @CurrentUser 参数决定是否拒绝
+     */
+    private boolean requireAuthentication = false;
+
+    /**
+     * 匿名接口路径（不经过认证拦截器）
+     */
+    private List<String> anonymousPaths = new ArrayList<>(List.of(
+            "/api/user/login", "/api/user/register", "/api/user/refresh-token"));
+
+    /**
+     * 用户权限缓存配置
+     */
+    private PermissionCache permissionCache = new PermissionCache();
+
+    /**
+     * 访问令牌配置
+     */
+    private AccessToken accessToken = new AccessToken();
+
+    /**
+     * 刷新令牌存储配置
+     */
+    private TokenStore tokenStore = new TokenStore();
+
+    /**
+     * 用户权限缓存配置
+     */
+    @Data
+    public static class PermissionCache {
+
+        /**
+         * 最多缓存的用户数
+         */
+        private long maxSize = 10000;
+
+        /**
+         * 缓存过期时间（分钟），作为精确失效之外的兜底
+         */
+        private long expireMinutes = 30;
+    }
+
+    /**
+     * 访问令牌配置（HMAC签名的无状态令牌）
+     */
+    @Data
+    public static class AccessToken {
+
+        /**
+         * 签名密钥（Base64），为空时启动生成随机密钥，重启后已签发的令牌失效
+         */
+        private String secret;
+
+        /**
+         * 访问令牌有效期（分钟）
+         */
+        private long ttlMinutes = 30;
+
+        /**
+         * 吊销名单布隆过滤器的预期容量
+         */
+        private int denylistExpectedInsertions = 10000;
+
+        /**
+         * 吊销名单布隆过滤器的误判率
+         */
+        private double denylistFalsePositiveRate = 0.01;
+
+        /**
+         * 吊销名单清理间隔（秒）
+         */
+        private long denylistCleanupSeconds = 60;
+    }
+
+    /**
+     * 刷新令牌存储配置
+     */
+    @Data
+    public static class TokenStore {
+
+        /**
+         * 存储实现：memory-进程内存储，file-进程内存储并以追加日志持久化到文件
+         */
+        private String type = "memory";
+
+        /**
+         * 刷新令牌有效期（分钟）
+         */
+        private long ttlMinutes = 10080;
+
+        /**
+         * 最大会话数，超出时淘汰最早过期的会话
+         */
+        private int maxSessions = 100000;
+
+        /**
+         * 时间轮刻度（毫秒）
+         */
+        private long wheelTickMs = 1000;
+
+        /**
+         * 时间轮槽数
+         */
+        private int wheelSize = 512;
+
+        /**
+         * 追加日志文件路径（type为file时生效）
+         */
+        private String filePath = "data/token-store.log";
+
+        /**
+         * 日志压缩阈值：记录数超过该值且超过存活会话数的2倍时重写日志
+         */
+        private int compactMinRecords = 10000;
+    }
+}
@@ -0,0 +1,22 @@
+package com.fyp.handsome.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 可视化大屏配置
+ * 对应配置前缀：handsome.dashboard
+ * @author ziye
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "handsome.dashboard")
+public class DashboardProperties {
+
+    /**
+     * 概览计数与数据库核对间隔（秒），小于等于0时不核对
+     */
+    private long reconcileIntervalSeconds = 300;
+}
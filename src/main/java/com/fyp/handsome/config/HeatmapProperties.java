@@ -0,0 +1,37 @@
+package com.fyp.handsome.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 热力图瓦片配置
+ * 对应配置前缀：handsome.heatmap
+ * @author ziye
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "handsome.heatmap")
+public class HeatmapProperties {
+
+    /**
+     * 最大缩放级别
+     */
+    private int maxZoom = 18;
+
+    /**
+     * 每个瓦片每行/列的网格数（瓦片为256像素）
+     */
+    private int gridSize = 32;
+
+    /**
+     * 瓦片缓存条数上限
+     */
+    private long tileCacheSize = 10000;
+
+    /**
+     * 从数据库全量重建按天计数的间隔（分钟），用于修正增量更新的偏差，小于等于0时只在启动时加载
+     */
+    private long rebuildIntervalMinutes = 60;
+}
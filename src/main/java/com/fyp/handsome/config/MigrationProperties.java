@@ -0,0 +1,79 @@
+package com.fyp.handsome.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 数据库版本迁移配置
+ * 对应配置前缀：handsome.migration
+ * @author ziye
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "handsome.migration")
+public class MigrationProperties {
+
+    /**
+     * 是否在启动时执行未执行过的迁移脚本
+     */
+    private boolean enabled = true;
+
+    /**
+     * 迁移脚本位置，文件名格式：V{版本号}__{说明}.sql
+     */
+    private String location = "classpath*:db/migration/*.sql";
+
+    /**
+     * 基线版本：数据库已有表结构但没有迁移记录时，只记录该版本而不执行
+     */
+    private int baselineVersion = 0;
+
+    /**
+     * 判断数据库是否已有表结构的表
+     */
+    private String baselineTable = "video_info";
+
+    /**
+     * 是否校验已执行脚本的校验和（脚本执行后被修改时启动失败）
+     */
+    private boolean validateChecksums = true;
+
+    /**
+     * 等待迁移锁的时间（秒），多个实例同时启动时只有一个执行迁移
+     */
+    private int lockTimeoutSeconds = 300;
+
+    /**
+     * 回填配置
+     */
+    private Backfill backfill = new Backfill();
+
+    /**
+     * 回填配置
+     */
+    @Data
+    public static class Backfill {
+
+        /**
+         * 每批目标耗时（毫秒），超过时批次减半，远小于时批次加倍（不超过任务的最大批次）
+         */
+        private long targetChunkMillis = 500;
+
+        /**
+         * 最小批次（主键跨度）
+         */
+        private int minChunkSize = 100;
+
+        /**
+         * 批次之间的暂停时间与本批耗时之比，1表示数据库最多一半时间用于回填
+         */
+        private double pauseRatio = 1.0;
+
+        /**
+         * 批次之间的最短暂停时间（毫秒）
+         */
+        private long minPauseMillis = 10;
+    }
+}
@@ -0,0 +1,32 @@
+package com.fyp.handsome.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 监控点位配置
+ * 对应配置前缀：handsome.monitor-point
+ * @author ziye
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "handsome.monitor-point")
+public class MonitorPointProperties {
+
+    /**
+     * 检查监控点表变化并重建空间索引的间隔（秒），小于等于0时只在启动时加载
+     */
+    private long refreshIntervalSeconds = 30;
+
+    /**
+     * 最近邻查询默认返回条数
+     */
+    private int defaultNearestLimit = 10;
+
+    /**
+     * 最近邻查询最大返回条数
+     */
+    private int maxNearestLimit = 100;
+}
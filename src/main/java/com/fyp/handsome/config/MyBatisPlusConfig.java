@@ -3,10 +3,14 @@ package com.fyp.handsome.config;
 import java.time.LocalDateTime;
 
 import org.apache.ibatis.reflection.MetaObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
 
 
 /**
@@ -16,6 +20,34 @@ import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 @Configuration
 public class MyBatisPlusConfig {
 
+    /**
+     * 数据库类型（决定分页方言，如 mysql、postgresql）
+     */
+    @Value("${handsome.pagination.db-type:mysql}")
+    private String dbType;
+
+    /**
+     * 单页最大条数，超出时按该值截断
+     */
+    @Value("${handsome.pagination.max-limit:100}")
+    private Long maxLimit;
+
+    /**
+     * MyBatis Plus 插件链
+     * 分页插件负责按方言改写 LIMIT，并生成去掉 ORDER BY 和无用 LEFT JOIN 的 COUNT 语句
+     */
+    @Bean
+    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+        PaginationInnerInterceptor paginationInterceptor = new PaginationInnerInterceptor(DbType.getDbType(dbType));
+        paginationInterceptor.setMaxLimit(maxLimit);
+        paginationInterceptor.setOptimizeJoin(true);
+        paginationInterceptor.setOverflow(false);
+        
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(paginationInterceptor);
+        return interceptor;
+    }
+
     /**
      * 自动填充处理器
      */
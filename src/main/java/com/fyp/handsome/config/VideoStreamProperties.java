@@ -0,0 +1,48 @@
+package com.fyp.handsome.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 视频文件播放配置
+ * 对应配置前缀：handsome.video.stream
+ * @author ziye
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "handsome.video.stream")
+public class VideoStreamProperties {
+
+    /**
+     * 视频文件根目录，相对路径的 file_path 基于该目录解析，且只允许访问该目录下的文件
+     */
+    private String rootDir = ".";
+
+    /**
+     * 缓存的已打开文件句柄上限
+     */
+    private int maxOpenFiles = 64;
+
+    /**
+     * 文件句柄空闲关闭时间（秒）
+     */
+    private long handleIdleSeconds = 60;
+
+    /**
+     * 单次响应最大字节数（仅限制开放式Range如 bytes=0-，0表示不限制）
+     * 播放器会按返回的Content-Range继续请求后续数据
+     */
+    private long maxChunkBytes = 8 * 1024 * 1024;
+
+    /**
+     * 支持时是否使用Tomcat sendfile直接由内核发送文件
+     */
+    private boolean sendfileEnabled = true;
+
+    /**
+     * 浏览器缓存时间（秒）
+     */
+    private long cacheMaxAgeSeconds = 3600;
+}
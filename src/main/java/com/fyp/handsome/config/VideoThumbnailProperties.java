@@ -0,0 +1,57 @@
+package com.fyp.handsome.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 视频缩略图配置
+ * 对应配置前缀：handsome.video.thumbnail
+ * @author ziye
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "handsome.video.thumbnail")
+public class VideoThumbnailProperties {
+
+    /**
+     * 是否启用后台缩略图生成
+     */
+    private boolean enabled = true;
+
+    /**
+     * 缩略图缓存目录
+     */
+    private String cacheDir = "data/thumbnails";
+
+    /**
+     * 缓存目录容量上限（字节），超出后按最近最少使用淘汰
+     */
+    private long maxCacheBytes = 512L * 1024 * 1024;
+
+    /**
+     * 封面图宽度（像素，高度按比例）
+     */
+    private int posterWidth = 480;
+
+    /**
+     * 关键帧条帧数
+     */
+    private int stripFrames = 8;
+
+    /**
+     * 关键帧条单帧宽度（像素）
+     */
+    private int stripFrameWidth = 160;
+
+    /**
+     * 扫描待生成视频的间隔（秒）
+     */
+    private long pollIntervalSeconds = 30;
+
+    /**
+     * 每次扫描读取的视频数
+     */
+    private int batchSize = 50;
+}
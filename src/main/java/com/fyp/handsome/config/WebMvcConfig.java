@@ -0,0 +1,39 @@
+package com.fyp.handsome.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fyp.handsome.security.AuthInterceptor;
+import com.fyp.handsome.security.CurrentUserArgumentResolver;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Web MVC 配置
+ * 注册认证拦截器和当前用户参数解析器
+ * @author ziye
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final AuthInterceptor authInterceptor;
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+    private final AuthProperties authProperties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(authInterceptor)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns(authProperties.getAnonymousPaths());
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+}
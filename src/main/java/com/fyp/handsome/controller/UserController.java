@@ -20,6 +20,8 @@ import com.fyp.handsome.dto.ResultCode;
 import com.fyp.handsome.entity.Permission;
 import com.fyp.handsome.entity.Role;
 import com.fyp.handsome.entity.User;
+import com.fyp.handsome.security.AuthPrincipal;
+import com.fyp.handsome.security.CurrentUser;
 import com.fyp.handsome.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -68,7 +70,8 @@ public class UserController {
      * 用户登出
      */
     @PostMapping("/logout")
-    public Result<Void> logout(@RequestParam Long userId) {
+    public Result<Void> logout(@CurrentUser AuthPrincipal principal) {
+        Long userId = principal.getUserId();
         try {
             if (userService.logout(userId)) {
                 return Result.success();
@@ -130,7 +133,8 @@ public class UserController {
      * 获取当前用户信息
      */
     @GetMapping("/info")
-    public Result<User> getUserInfo(@RequestParam Long userId) {
+    public Result<User> getUserInfo(@CurrentUser AuthPrincipal principal) {
+        Long userId = principal.getUserId();
         try {
             User user = userService.getById(userId);
             if (user != null) {
@@ -168,8 +172,10 @@ public class UserController {
      * 更新当前用户信息
      */
     @PutMapping("/info")
-    public Result<Void> updateUserInfo(@RequestBody User user) {
+    public Result<Void> updateUserInfo(@CurrentUser AuthPrincipal principal, @RequestBody User user) {
         try {
+            user.setId(principal.getUserId());
+            
             if (userService.updateUser(user)) {
                 return Result.success();
             } else {
@@ -206,9 +212,9 @@ public class UserController {
      * 修改密码
      */
     @PutMapping("/password")
-    public Result<Void> changePassword(@RequestBody Map<String, String> params) {
+    public Result<Void> changePassword(@CurrentUser AuthPrincipal principal, @RequestBody Map<String, String> params) {
         try {
-            Long userId = Long.valueOf(params.get("userId"));
+            Long userId = principal.getUserId();
             String oldPassword = params.get("oldPassword");
             String newPassword = params.get("newPassword");
             
@@ -366,12 +372,13 @@ public class UserController {
     public Result<IPage<User>> getUserList(
             @RequestParam(defaultValue = "1") Integer current,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean skipCount,
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String realName,
             @RequestParam(required = false) String email,
             @RequestParam(required = false) Integer status) {
         try {
-            Page<User> page = new Page<>(current, size);
+            Page<User> page = new Page<>(current, size, !skipCount);
             IPage<User> result = userService.getUsersPage(page, username, realName, email, status);
             
             return Result.success(result);
@@ -389,12 +396,13 @@ public class UserController {
     public Result<IPage<User>> getUsersPage(
             @RequestParam(defaultValue = "1") Integer current,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean skipCount,
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String realName,
             @RequestParam(required = false) String email,
             @RequestParam(required = false) Integer status) {
         try {
-            Page<User> page = new Page<>(current, size);
+            Page<User> page = new Page<>(current, size, !skipCount);
             IPage<User> result = userService.getUsersPage(page, username, realName, email, status);
             
             return Result.success(result);
@@ -485,11 +493,12 @@ public class UserController {
     public Result<IPage<Role>> getRolesPage(
             @RequestParam(defaultValue = "1") Integer current,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean skipCount,
             @RequestParam(required = false) String roleName,
             @RequestParam(required = false) String roleCode,
             @RequestParam(required = false) Integer status) {
         try {
-            Page<Role> page = new Page<>(current, size);
+            Page<Role> page = new Page<>(current, size, !skipCount);
             IPage<Role> result = userService.getRolesPage(page, roleName, roleCode, status);
             
             return Result.success(result);
@@ -580,12 +589,13 @@ public class UserController {
     public Result<IPage<Permission>> getPermissionsPage(
             @RequestParam(defaultValue = "1") Integer current,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean skipCount,
             @RequestParam(required = false) String permissionName,
             @RequestParam(required = false) String permissionCode,
             @RequestParam(required = false) Integer permissionType,
             @RequestParam(required = false) Integer status) {
         try {
-            Page<Permission> page = new Page<>(current, size);
+            Page<Permission> page = new Page<>(current, size, !skipCount);
             IPage<Permission> result = userService.getPermissionsPage(
                     page, permissionName, permissionCode, permissionType, status);
             
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,11 +14,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fyp.handsome.dto.Result;
 import com.fyp.handsome.dto.ResultCode;
+import com.fyp.handsome.dto.analysis.AnalysisPayload;
+import com.fyp.handsome.entity.VideoAnalysisJob;
 import com.fyp.handsome.entity.VideoAnalysisResult;
 import com.fyp.handsome.service.VideoAnalysisService;
 
@@ -105,19 +109,20 @@ public class VideoAnalysisController {
     }
 
     /**
-     * 批量分析视频
+     * 批量分析视频（异步执行，立即返回任务列表）
      */
     @PostMapping("/batch-analyze")
-    public Result<List<VideoAnalysisResult>> batchAnalyze(@RequestBody Map<String, Object> params) {
+    public Result<List<VideoAnalysisJob>> batchAnalyze(@RequestBody Map<String, Object> params) {
         try {
             @SuppressWarnings("unchecked")
-            List<Long> videoIds = (List<Long>) params.get("videoIds");
+            List<Number> rawVideoIds = (List<Number>) params.get("videoIds");
+            List<Long> videoIds = rawVideoIds == null ? List.of() : rawVideoIds.stream().map(Number::longValue).toList();
             String analysisType = (String) params.get("analysisType");
             
-            log.info("开始批量分析视频，videoIds：{}，analysisType：{}", videoIds, analysisType);
+            log.info("提交批量分析任务，videoIds：{}，analysisType：{}", videoIds, analysisType);
             
-            List<VideoAnalysisResult> results = videoAnalysisService.batchAnalyze(videoIds, analysisType);
-            return Result.success("批量分析完成", results);
+            List<VideoAnalysisJob> jobs = videoAnalysisService.batchAnalyze(videoIds, analysisType);
+            return Result.success("批量分析任务已提交", jobs);
             
         } catch (Exception e) {
             log.error("批量分析失败，错误：{}", e.getMessage(), e);
@@ -125,6 +130,49 @@ public class VideoAnalysisController {
         }
     }
 
+    // =================== 异步分析任务 ===================
+
+    /**
+     * 提交分析任务
+     */
+    @PostMapping("/jobs")
+    public Result<VideoAnalysisJob> submitAnalysisJob(
+            @RequestParam Long videoId,
+            @RequestParam String analysisType) {
+        try {
+            VideoAnalysisJob job = videoAnalysisService.submitAnalysisJob(videoId, analysisType);
+            return Result.success("分析任务已提交", job);
+            
+        } catch (Exception e) {
+            log.error("提交分析任务失败，videoId：{}，analysisType：{}，错误：{}", 
+                     videoId, analysisType, e.getMessage(), e);
+            return Result.error("提交分析任务失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询分析任务状态
+     */
+    @GetMapping("/jobs/{jobId}")
+    public Result<VideoAnalysisJob> getAnalysisJob(@PathVariable Long jobId) {
+        try {
+            VideoAnalysisJob job = videoAnalysisService.getAnalysisJob(jobId);
+            return Result.success(job);
+            
+        } catch (Exception e) {
+            log.error("查询分析任务失败，jobId：{}，错误：{}", jobId, e.getMessage(), e);
+            return Result.error("查询分析任务失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 订阅分析任务状态（SSE）
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeAnalysisJob(@PathVariable Long jobId) {
+        return videoAnalysisService.subscribeAnalysisJob(jobId);
+    }
+
     // =================== 查询分析结果 ===================
 
     /**
@@ -200,12 +248,13 @@ public class VideoAnalysisController {
     public Result<IPage<VideoAnalysisResult>> getAnalysisResultsPage(
             @RequestParam(defaultValue = "1") Integer current,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean skipCount,
             @RequestParam(required = false) Long videoId,
             @RequestParam(required = false) String analysisType,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime) {
         try {
-            Page<VideoAnalysisResult> page = new Page<>(current, size);
+            Page<VideoAnalysisResult> page = new Page<>(current, size, !skipCount);
             IPage<VideoAnalysisResult> result = videoAnalysisService.getAnalysisResultsPage(
                     page, videoId, analysisType, startTime, endTime);
             
@@ -358,6 +407,44 @@ public class VideoAnalysisController {
 
     // =================== 分析结果管理 ===================
 
+    /**
+     * 获取分析结果详情
+     */
+    @GetMapping("/{resultId}")
+    public Result<VideoAnalysisResult> getAnalysisResult(@PathVariable Long resultId) {
+        try {
+            VideoAnalysisResult result = videoAnalysisService.getAnalysisResultById(resultId);
+            if (result == null) {
+                return Result.error(ResultCode.ANALYSIS_NOT_FOUND);
+            }
+            return Result.success(result);
+            
+        } catch (Exception e) {
+            log.error("获取分析结果详情失败，resultId：{}，错误：{}", resultId, e.getMessage(), e);
+            return Result.error("获取分析结果详情失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取类型化分析结果（detections=false 时只返回摘要等字段，不解码检测明细）
+     */
+    @GetMapping("/{resultId}/payload")
+    public Result<AnalysisPayload> getAnalysisPayload(
+            @PathVariable Long resultId,
+            @RequestParam(defaultValue = "true") Boolean detections) {
+        try {
+            AnalysisPayload payload = videoAnalysisService.getAnalysisPayload(resultId, detections);
+            if (payload == null) {
+                return Result.error(ResultCode.ANALYSIS_NOT_FOUND);
+            }
+            return Result.success(payload);
+            
+        } catch (Exception e) {
+            log.error("获取类型化分析结果失败，resultId：{}，错误：{}", resultId, e.getMessage(), e);
+            return Result.error("获取类型化分析结果失败：" + e.getMessage());
+        }
+    }
+
     /**
      * 删除分析结果
      */
@@ -1,6 +1,16 @@
 package com.fyp.handsome.controller;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,17 +19,23 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.fyp.handsome.dto.Result;
+import com.fyp.handsome.dto.video.VideoBulkIngestResponse;
 import com.fyp.handsome.dto.video.VideoInfoCreateRequest;
+import com.fyp.handsome.dto.video.VideoInfoCursorPageResponse;
 import com.fyp.handsome.dto.video.VideoInfoPageResponse;
 import com.fyp.handsome.dto.video.VideoInfoQueryRequest;
 import com.fyp.handsome.dto.video.VideoInfoResponse;
 import com.fyp.handsome.dto.video.VideoInfoUpdateRequest;
 import com.fyp.handsome.service.VideoMvpService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,6 +50,8 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class VideoMvpController {
 
+    private static final String EXCEL_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
     private final VideoMvpService videoMvpService;
 
     /**
@@ -55,6 +73,42 @@ public class VideoMvpController {
         }
     }
 
+    /**
+     * 批量导入视频信息（请求体为NDJSON，每行一个创建请求）
+     * POST /api/v1/videos/bulk
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "application/json-seq", "text/plain"})
+    public Result<VideoBulkIngestResponse> bulkIngest(HttpServletRequest httpRequest) throws IOException {
+        log.info("接收到批量导入视频信息请求，Content-Length：{}", httpRequest.getContentLengthLong());
+        
+        try {
+            VideoBulkIngestResponse response = videoMvpService.bulkIngest(httpRequest.getInputStream());
+            return Result.success("批量导入完成", response);
+            
+        } catch (Exception e) {
+            log.error("批量导入视频信息失败，错误：{}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 从Excel/CSV文件导入视频信息（表头兼容导出文件）
+     * POST /api/v1/videos/import
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Result<VideoBulkIngestResponse> importVideos(@RequestPart("file") MultipartFile file) {
+        log.info("接收到文件导入视频信息请求，文件：{}，大小：{} bytes", file.getOriginalFilename(), file.getSize());
+        
+        try {
+            VideoBulkIngestResponse response = videoMvpService.importVideos(file);
+            return Result.success("导入完成", response);
+            
+        } catch (Exception e) {
+            log.error("文件导入视频信息失败，文件：{}，错误：{}", file.getOriginalFilename(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
     /**
      * 分页查询视频信息
      * GET /api/v1/videos
@@ -63,11 +117,17 @@ public class VideoMvpController {
     public Result<VideoInfoPageResponse> queryVideos(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean skipCount,
             @RequestParam(required = false) String videoName,
             @RequestParam(required = false) String shootingLocation,
             @RequestParam(required = false) String videoSource,
             @RequestParam(required = false) String startTime,
-            @RequestParam(required = false) String endTime) {
+            @RequestParam(required = false) String endTime,
+            @RequestParam(required = false) String videoCodec,
+            @RequestParam(required = false) Integer minWidth,
+            @RequestParam(required = false) Integer minHeight,
+            @RequestParam(required = false) Integer minDuration,
+            @RequestParam(required = false) Integer maxDuration) {
         
         log.info("接收到分页查询视频信息请求，页码：{}，大小：{}", page, size);
         
@@ -76,9 +136,15 @@ public class VideoMvpController {
             VideoInfoQueryRequest request = new VideoInfoQueryRequest();
             request.setPage(page);
             request.setSize(size);
+            request.setSkipCount(skipCount);
             request.setVideoName(videoName);
             request.setShootingLocation(shootingLocation);
             request.setVideoSource(videoSource);
+            request.setVideoCodec(videoCodec);
+            request.setMinWidth(minWidth);
+            request.setMinHeight(minHeight);
+            request.setMinDuration(minDuration);
+            request.setMaxDuration(maxDuration);
             
             // TODO: 处理时间参数的字符串转换
             // 这里暂时不处理时间参数，在后续版本中完善
@@ -92,6 +158,114 @@ public class VideoMvpController {
         }
     }
 
+    /**
+     * 游标分页查询视频信息（携带cursor参数时进入该模式，首页传 cursor= ）
+     * GET /api/v1/videos?cursor=
+     */
+    @GetMapping(params = "cursor")
+    public Result<VideoInfoCursorPageResponse> queryVideosByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String videoName,
+            @RequestParam(required = false) String shootingLocation,
+            @RequestParam(required = false) String videoSource) {
+        
+        log.info("接收到游标分页查询视频信息请求，游标：{}，大小：{}", cursor, size);
+        
+        try {
+            // 构建查询请求
+            VideoInfoQueryRequest request = new VideoInfoQueryRequest();
+            request.setCursor(cursor);
+            request.setSize(size);
+            request.setVideoName(videoName);
+            request.setShootingLocation(shootingLocation);
+            request.setVideoSource(videoSource);
+            
+            VideoInfoCursorPageResponse response = videoMvpService.queryVideosByCursor(request);
+            return Result.success("查询成功", response);
+            
+        } catch (Exception e) {
+            log.error("游标分页查询视频信息失败，错误：{}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 导出视频信息到Excel（游标读取、流式写出，可导出全部匹配条件的记录）
+     * GET /api/v1/videos/export
+     */
+    @GetMapping("/export")
+    public void exportVideos(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String videoName,
+            @RequestParam(required = false) String shootingLocation,
+            @RequestParam(required = false) String videoSource,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            HttpServletResponse httpResponse) throws IOException {
+        
+        log.info("接收到导出视频信息请求，指定ID数：{}", ids == null ? 0 : ids.size());
+        
+        try {
+            VideoInfoQueryRequest request = new VideoInfoQueryRequest();
+            request.setVideoName(videoName);
+            request.setShootingLocation(shootingLocation);
+            request.setVideoSource(videoSource);
+            request.setStartTime(startTime);
+            request.setEndTime(endTime);
+            
+            String fileName = "videos_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + ".xlsx";
+            httpResponse.setContentType(EXCEL_CONTENT_TYPE);
+            httpResponse.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(fileName).build().toString());
+            
+            videoMvpService.exportVideos(ids, request, httpResponse.getOutputStream());
+            
+        } catch (Exception e) {
+            log.error("导出视频信息失败，错误：{}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 视频统计（各来源、各地点数量）
+     * GET /api/v1/videos/statistics
+     */
+    @GetMapping("/statistics")
+    public Result<Map<String, Object>> getVideoStatistics() {
+        log.info("接收到视频统计请求");
+        
+        try {
+            Map<String, Object> statistics = videoMvpService.getVideoStatistics();
+            return Result.success("查询成功", statistics);
+            
+        } catch (Exception e) {
+            log.error("获取视频统计失败，错误：{}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 全文检索视频（按相关度排序，匹配视频名称和拍摄地点）
+     * GET /api/v1/videos/search?q=
+     */
+    @GetMapping("/search")
+    public Result<List<VideoInfoResponse>> searchVideos(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+
+        log.info("接收到全文检索视频请求，关键字：{}，条数：{}", q, limit);
+
+        try {
+            List<VideoInfoResponse> response = videoMvpService.searchVideos(q, limit);
+            return Result.success("查询成功", response);
+
+        } catch (Exception e) {
+            log.error("全文检索视频失败，关键字：{}，错误：{}", q, e.getMessage(), e);
+            throw e;
+        }
+    }
+
     /**
      * 根据ID查询视频信息
      * GET /api/v1/videos/{id}
@@ -110,6 +284,43 @@ public class VideoMvpController {
         }
     }
 
+    /**
+     * 播放视频文件（支持Range/If-Range/ETag，可直接作为video标签的src）
+     * GET /api/v1/videos/{id}/stream
+     */
+    @GetMapping("/{id}/stream")
+    public void streamVideo(@PathVariable Long id, HttpServletRequest httpRequest,
+                            HttpServletResponse httpResponse) throws IOException {
+        try {
+            videoMvpService.streamVideo(id, httpRequest, httpResponse);
+            
+        } catch (Exception e) {
+            log.error("播放视频文件失败，ID：{}，错误：{}", id, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 获取视频缩略图（封面或关键帧条，JPEG）
+     * GET /api/v1/videos/{id}/thumbnail
+     */
+    @GetMapping("/{id}/thumbnail")
+    public void getThumbnail(
+            @PathVariable Long id,
+            @RequestParam(required = false) String type,
+            @RequestParam(name = "v", required = false) String version,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) throws IOException {
+        
+        try {
+            videoMvpService.getThumbnail(id, type, version, httpRequest, httpResponse);
+            
+        } catch (Exception e) {
+            log.warn("获取视频缩略图失败，ID：{}，错误：{}", id, e.getMessage());
+            throw e;
+        }
+    }
+
     /**
      * 更新视频信息
      * PUT /api/v1/videos/{id}
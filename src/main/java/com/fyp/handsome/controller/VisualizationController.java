@@ -1,20 +1,25 @@
 package com.fyp.handsome.controller;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fyp.handsome.dto.Result;
+import com.fyp.handsome.dto.visualization.HeatmapTile;
 import com.fyp.handsome.service.VisualizationService;
 
 import lombok.RequiredArgsConstructor;
@@ -50,17 +55,20 @@ public class VisualizationController {
     }
 
     /**
-     * 获取指定区域的监控点
+     * 获取指定区域的监控点（传入中心点时按距离返回最近的监控点）
      */
     @GetMapping("/map/monitor-points/area")
     public Result<List<Map<String, Object>>> getMonitorPointsByArea(
-            @RequestParam Double minLatitude,
-            @RequestParam Double maxLatitude,
-            @RequestParam Double minLongitude,
-            @RequestParam Double maxLongitude) {
+            @RequestParam(required = false) Double minLatitude,
+            @RequestParam(required = false) Double maxLatitude,
+            @RequestParam(required = false) Double minLongitude,
+            @RequestParam(required = false) Double maxLongitude,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Integer limit) {
         try {
             List<Map<String, Object>> points = visualizationService.getMonitorPointsByArea(
-                    minLatitude, maxLatitude, minLongitude, maxLongitude);
+                    minLatitude, maxLatitude, minLongitude, maxLongitude, latitude, longitude, limit);
             return Result.success(points);
             
         } catch (Exception e) {
@@ -101,6 +109,27 @@ public class VisualizationController {
         }
     }
 
+    /**
+     * 获取热力图瓦片（cells 为差分编码的非零网格：[序号差, 数量, ...]）
+     */
+    @GetMapping("/map/heatmap/tiles/{z}/{x}/{y}")
+    public Result<HeatmapTile> getHeatmapTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            @RequestParam(defaultValue = "video") String layer,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            HeatmapTile tile = visualizationService.getHeatmapTile(layer, z, x, y, startDate, endDate);
+            return Result.success(tile);
+            
+        } catch (Exception e) {
+            log.error("获取热力图瓦片失败，瓦片：{}/{}/{}，错误：{}", z, x, y, e.getMessage(), e);
+            return Result.error("获取热力图瓦片失败：" + e.getMessage());
+        }
+    }
+
     // =================== 报表生成 ===================
 
     /**
@@ -172,6 +201,17 @@ public class VisualizationController {
         }
     }
 
+    /**
+     * 订阅实时事件告警（SSE）
+     * 断线重连时通过 Last-Event-ID 请求头或 lastSequence 参数补发之后的告警
+     */
+    @GetMapping(value = "/live/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeRealTimeAlerts(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long lastSequence) {
+        return visualizationService.subscribeRealTimeAlerts(lastEventId != null ? lastEventId : lastSequence);
+    }
+
     // =================== 仪表板数据 ===================
 
     /**
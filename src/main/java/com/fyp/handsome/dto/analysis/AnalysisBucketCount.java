@@ -0,0 +1,12 @@
+package com.fyp.handsome.dto.analysis;
+
+import java.time.LocalDateTime;
+
+/**
+ * 时间桶计数
+ * @param bucketTime 时间桶起始时间（小时桶为整点，天桶为零点）
+ * @param count 分析结果数量
+ * @author ziye
+ */
+public record AnalysisBucketCount(LocalDateTime bucketTime, long count) {
+}
@@ -0,0 +1,39 @@
+package com.fyp.handsome.dto.analysis;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * 分析结果类型化模型
+ * 摘要、整体置信度和检测目标为结构化字段，其余字段（分析器、任务ID、分镜描述、用量等）原样保留在 extra 中
+ * @param summary 摘要（可为空）
+ * @param confidence 整体置信度（可为空）
+ * @param detections 检测目标
+ * @param extra 其余字段的JSON对象（可为空）
+ * @author ziye
+ */
+public record AnalysisPayload(String summary, Double confidence, List<Detection> detections,
+                              @JsonRawValue String extra) {
+
+    /**
+     * 检测目标
+     * @param objectClass 目标类别
+     * @param count 数量
+     * @param offsetMillis 在视频中的偏移（毫秒）
+     * @param confidence 置信度（可为空）
+     * @param box 目标框（可为空）
+     */
+    public record Detection(String objectClass, int count, long offsetMillis, Double confidence, BoundingBox box) {
+    }
+
+    /**
+     * 目标框（相对画面的比例坐标或像素坐标，由分析器决定）
+     * @param x 左上角横坐标
+     * @param y 左上角纵坐标
+     * @param width 宽度
+     * @param height 高度
+     */
+    public record BoundingBox(float x, float y, float width, float height) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.fyp.handsome.dto.analysis;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 分析类型分组计数
+ * @param analysisType 分析类型
+ * @param count 分析结果数量
+ * @param confidenceSum 置信度之和
+ * @param confidenceCount 有置信度的结果数量
+ * @author ziye
+ */
+public record AnalysisTypeCount(String analysisType, long count, BigDecimal confidenceSum, long confidenceCount) {
+
+    /**
+     * 平均置信度，无置信度数据时为null
+     */
+    public BigDecimal averageConfidence() {
+        if (confidenceCount == 0 || confidenceSum == null) {
+            return null;
+        }
+        return confidenceSum.divide(BigDecimal.valueOf(confidenceCount), 4, RoundingMode.HALF_UP);
+    }
+}
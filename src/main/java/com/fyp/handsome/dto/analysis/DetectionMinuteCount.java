@@ -0,0 +1,12 @@
+package com.fyp.handsome.dto.analysis;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分钟检测数量
+ * @param bucketTime 分钟桶起始时间
+ * @param count 检测数量
+ * @author ziye
+ */
+public record DetectionMinuteCount(LocalDateTime bucketTime, long count) {
+}
@@ -0,0 +1,19 @@
+package com.fyp.handsome.dto.analysis;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待解析检测结果的分析记录
+ * @param resultId 分析结果ID
+ * @param videoId 视频ID
+ * @param analysisResult 分析结果JSON（只存二进制且可由二进制还原时为空）
+ * @param payload 分析结果二进制（未转换时为空）
+ * @param analysisTime 分析时间
+ * @param shootingTime 视频拍摄时间（可为空）
+ * @param countedBaseTime 计入检测流量时记录的基准时间（尚未计入或计入时未记录时为空）
+ * @author ziye
+ */
+public record DetectionSource(Long resultId, Long videoId, String analysisResult, byte[] payload,
+                              LocalDateTime analysisTime, LocalDateTime shootingTime,
+                              LocalDateTime countedBaseTime) {
+}
@@ -0,0 +1,18 @@
+package com.fyp.handsome.dto.analysis;
+
+import java.time.LocalDateTime;
+
+/**
+ * 流量统计汇总
+ * @param total 检测总数
+ * @param peakHour 高峰时段（0-23点，无数据时为null）
+ * @param peakHourCount 高峰时段检测数
+ * @param averageFlow 平均每小时检测数
+ * @param hourlyDistribution 各时段（0-23点）检测数
+ * @param peakMinute 检测数最多的分钟（无数据时为null）
+ * @param peakMinuteCount 该分钟的检测数
+ * @author ziye
+ */
+public record FlowSummary(long total, Integer peakHour, long peakHourCount, double averageFlow,
+                          long[] hourlyDistribution, LocalDateTime peakMinute, long peakMinuteCount) {
+}
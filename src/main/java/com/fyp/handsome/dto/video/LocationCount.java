@@ -0,0 +1,10 @@
+package com.fyp.handsome.dto.video;
+
+/**
+ * 拍摄地点分组计数
+ * @param location 拍摄地点（未填写时为空字符串）
+ * @param count 视频数量
+ * @author ziye
+ */
+public record LocationCount(String location, long count) {
+}
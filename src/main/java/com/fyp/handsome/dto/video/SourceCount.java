@@ -0,0 +1,10 @@
+package com.fyp.handsome.dto.video;
+
+/**
+ * 视频来源分组计数
+ * @param source 视频来源（未填写时为空字符串）
+ * @param count 视频数量
+ * @author ziye
+ */
+public record SourceCount(String source, long count) {
+}
@@ -0,0 +1,12 @@
+package com.fyp.handsome.dto.video;
+
+import java.time.LocalDateTime;
+
+/**
+ * 视频新增数量时间桶计数
+ * @param bucketTime 时间桶起始时间（小时桶为整点，天桶为零点）
+ * @param count 该时间桶内新增的有效视频数量
+ * @author ziye
+ */
+public record VideoBucketCount(LocalDateTime bucketTime, long count) {
+}
@@ -0,0 +1,100 @@
+package com.fyp.handsome.dto.video;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 视频信息批量导入响应DTO
+ * 汇总整体导入结果，并按批次、按行报告失败原因
+ * @author ziye
+ */
+@Data
+public class VideoBulkIngestResponse {
+
+    /**
+     * 读取的有效数据行数（不含空行）
+     */
+    private Integer totalLines = 0;
+
+    /**
+     * 成功写入条数
+     */
+    private Integer successCount = 0;
+
+    /**
+     * 失败条数（校验失败、名称重复、批次写入失败）
+     */
+    private Integer failedCount = 0;
+
+    /**
+     * 各批次写入结果
+     */
+    private List<ChunkResult> chunks = new ArrayList<>();
+
+    /**
+     * 行级错误明细（超过上限后只计数不记录）
+     */
+    private List<LineError> errors = new ArrayList<>();
+
+    /**
+     * 批次写入结果
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkResult {
+
+        /**
+         * 批次序号（从1开始）
+         */
+        private Integer chunkIndex;
+
+        /**
+         * 批次起始行号
+         */
+        private Integer startLine;
+
+        /**
+         * 批次结束行号
+         */
+        private Integer endLine;
+
+        /**
+         * 本批次写入条数
+         */
+        private Integer insertedCount;
+
+        /**
+         * 本批次是否写入成功
+         */
+        private Boolean success;
+
+        /**
+         * 失败原因（成功时为null）
+         */
+        private String message;
+    }
+
+    /**
+     * 行级错误
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+
+        /**
+         * 行号（从1开始）
+         */
+        private Integer lineNumber;
+
+        /**
+         * 错误信息
+         */
+        private String message;
+    }
+}
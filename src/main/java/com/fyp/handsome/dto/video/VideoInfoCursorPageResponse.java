@@ -0,0 +1,34 @@
+package com.fyp.handsome.dto.video;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 视频信息游标分页响应DTO
+ * 用于返回游标（键集）分页查询结果，不统计总数
+ * @author ziye
+ */
+@Data
+public class VideoInfoCursorPageResponse {
+
+    /**
+     * 当前页数据列表
+     */
+    private List<VideoInfoResponse> content;
+
+    /**
+     * 每页大小
+     */
+    private Integer size;
+
+    /**
+     * 下一页游标（没有下一页时为null）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否有下一页
+     */
+    private Boolean hasNext;
+}
@@ -22,6 +22,11 @@ public class VideoInfoQueryRequest {
      */
     private Integer size = 10;
 
+    /**
+     * 是否跳过总数统计（无限滚动场景使用，跳过后不返回total和totalPages）
+     */
+    private Boolean skipCount = false;
+
     /**
      * 视频名称（模糊查询）
      */
@@ -46,4 +51,34 @@ public class VideoInfoQueryRequest {
      * 拍摄结束时间
      */
     private LocalDateTime endTime;
+
+    /**
+     * 视频编码（精确查询，如 h264、h265）
+     */
+    private String videoCodec;
+
+    /**
+     * 最小宽度（像素）
+     */
+    private Integer minWidth;
+
+    /**
+     * 最小高度（像素）
+     */
+    private Integer minHeight;
+
+    /**
+     * 最短时长（秒）
+     */
+    private Integer minDuration;
+
+    /**
+     * 最长时长（秒）
+     */
+    private Integer maxDuration;
+
+    /**
+     * 分页游标（游标分页模式使用，首页传空字符串，后续传上一页返回的nextCursor）
+     */
+    private String cursor;
 } 
\ No newline at end of file
@@ -52,6 +52,36 @@ public class VideoInfoResponse {
      */
     private Integer duration;
 
+    /**
+     * 视频宽度（像素）
+     */
+    private Integer width;
+
+    /**
+     * 视频高度（像素）
+     */
+    private Integer height;
+
+    /**
+     * 视频编码
+     */
+    private String videoCodec;
+
+    /**
+     * 平均码率（bps）
+     */
+    private Long bitRate;
+
+    /**
+     * 封面图地址（尚未生成时为null）
+     */
+    private String thumbnailUrl;
+
+    /**
+     * 关键帧条地址（尚未生成时为null）
+     */
+    private String keyframeStripUrl;
+
     /**
      * 状态：1-正常，0-删除
      */
@@ -0,0 +1,10 @@
+package com.fyp.handsome.dto.video;
+
+/**
+ * 视频全文检索命中结果
+ * @param id 视频ID
+ * @param score 相关度得分
+ * @author ziye
+ */
+public record VideoSearchHit(Long id, double score) {
+}
@@ -0,0 +1,21 @@
+package com.fyp.handsome.dto.visualization;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 实时告警
+ * @param sequence 告警序号（进程内递增，用于断线后补发）
+ * @param resultId 分析结果ID
+ * @param videoId 视频ID
+ * @param videoName 视频名称
+ * @param shootingLocation 拍摄地点
+ * @param analysisType 分析类型
+ * @param level 告警级别：high、medium
+ * @param confidenceScore 置信度
+ * @param time 分析时间
+ * @author ziye
+ */
+public record AlertMessage(long sequence, Long resultId, Long videoId, String videoName, String shootingLocation,
+                           String analysisType, String level, BigDecimal confidenceScore, LocalDateTime time) {
+}
@@ -0,0 +1,17 @@
+package com.fyp.handsome.dto.visualization;
+
+/**
+ * 热力图瓦片
+ * 瓦片按 gridSize × gridSize 划分网格，cells 只包含非零网格，
+ * 按网格序号（行优先）递增排列并差分编码：[序号差, 数量, 序号差, 数量, ...]，首个序号差即网格序号本身
+ * @param z 缩放级别
+ * @param x 瓦片列号
+ * @param y 瓦片行号
+ * @param gridSize 每行/列网格数
+ * @param max 单个网格最大数量
+ * @param total 瓦片内数量合计
+ * @param cells 差分编码后的非零网格
+ * @author ziye
+ */
+public record HeatmapTile(int z, int x, int y, int gridSize, long max, long total, long[] cells) {
+}
@@ -0,0 +1,13 @@
+package com.fyp.handsome.dto.visualization;
+
+import java.time.LocalDate;
+
+/**
+ * 地点按天计数
+ * @param location 拍摄地点
+ * @param day 日期
+ * @param count 数量
+ * @author ziye
+ */
+public record LocationDayCount(String location, LocalDate day, long count) {
+}
@@ -0,0 +1,93 @@
+package com.fyp.handsome.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 监控点位实体类
+ * 对应数据库表：monitor_point
+ * @author ziye
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("monitor_point")
+public class MonitorPoint {
+
+    /**
+     * 状态：离线
+     */
+    public static final int STATUS_OFFLINE = 0;
+
+    /**
+     * 状态：在线
+     */
+    public static final int STATUS_ONLINE = 1;
+
+    /**
+     * 状态：维护中
+     */
+    public static final int STATUS_MAINTENANCE = 2;
+
+    /**
+     * 监控点ID（主键）
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 监控点名称
+     */
+    @TableField("point_name")
+    private String pointName;
+
+    /**
+     * 监控点编码
+     */
+    @TableField("point_code")
+    private String pointCode;
+
+    /**
+     * 纬度
+     */
+    @TableField("latitude")
+    private BigDecimal latitude;
+
+    /**
+     * 经度
+     */
+    @TableField("longitude")
+    private BigDecimal longitude;
+
+    /**
+     * 详细地址
+     */
+    @TableField("address")
+    private String address;
+
+    /**
+     * 状态：1-在线，0-离线，2-维护中
+     */
+    @TableField("status")
+    private Integer status;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "update_time", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
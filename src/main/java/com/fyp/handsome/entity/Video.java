@@ -70,6 +70,36 @@ public class Video {
     @TableField("duration")
     private Integer duration;
 
+    /**
+     * 视频宽度（像素，由文件探测）
+     */
+    @TableField("width")
+    private Integer width;
+
+    /**
+     * 视频高度（像素，由文件探测）
+     */
+    @TableField("height")
+    private Integer height;
+
+    /**
+     * 视频编码（如 h264、h265，由文件探测）
+     */
+    @TableField("video_codec")
+    private String videoCodec;
+
+    /**
+     * 平均码率（bps，由文件探测）
+     */
+    @TableField("bit_rate")
+    private Long bitRate;
+
+    /**
+     * 缩略图内容摘要（为空表示尚未生成）
+     */
+    @TableField("thumbnail_key")
+    private String thumbnailKey;
+
     /**
      * 状态：1-正常，0-删除
      */
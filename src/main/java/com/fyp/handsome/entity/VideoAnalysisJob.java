@@ -0,0 +1,110 @@
+package com.fyp.handsome.entity;
+
+import java.time.LocalDateTime;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 视频分析任务实体类
+ * 对应数据库表：video_analysis_job
+ * @author ziye
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("video_analysis_job")
+public class VideoAnalysisJob {
+
+    /**
+     * 任务状态：排队中
+     */
+    public static final int STATUS_PENDING = 0;
+
+    /**
+     * 任务状态：执行中
+     */
+    public static final int STATUS_RUNNING = 1;
+
+    /**
+     * 任务状态：成功
+     */
+    public static final int STATUS_SUCCEEDED = 2;
+
+    /**
+     * 任务状态：失败
+     */
+    public static final int STATUS_FAILED = 3;
+
+    /**
+     * 任务ID（主键）
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 视频编号
+     */
+    @TableField("video_id")
+    private Long videoId;
+
+    /**
+     * 分析类型
+     */
+    @TableField("analysis_type")
+    private String analysisType;
+
+    /**
+     * 任务状态：0-排队中，1-执行中，2-成功，3-失败
+     */
+    @TableField("job_status")
+    private Integer jobStatus;
+
+    /**
+     * 分析结果编号（成功后回填）
+     */
+    @TableField("result_id")
+    private Long resultId;
+
+    /**
+     * 失败原因
+     */
+    @TableField("error_message")
+    private String errorMessage;
+
+    /**
+     * 开始执行时间
+     */
+    @TableField("start_time")
+    private LocalDateTime startTime;
+
+    /**
+     * 结束时间
+     */
+    @TableField("finish_time")
+    private LocalDateTime finishTime;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "update_time", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+
+    /**
+     * 是否已结束（成功或失败）
+     */
+    public boolean isFinished() {
+        return jobStatus != null && (jobStatus == STATUS_SUCCEEDED || jobStatus == STATUS_FAILED);
+    }
+}
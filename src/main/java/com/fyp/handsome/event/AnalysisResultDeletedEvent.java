@@ -0,0 +1,18 @@
+package com.fyp.handsome.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 分析结果删除事件
+ * 分析结果逻辑删除后按条发布
+ * @param resultId 分析结果ID
+ * @param videoId 视频ID
+ * @param analysisType 分析类型
+ * @param analysisTime 分析时间
+ * @param confidenceScore 置信度（可为空）
+ * @author ziye
+ */
+public record AnalysisResultDeletedEvent(Long resultId, Long videoId, String analysisType,
+                                         LocalDateTime analysisTime, BigDecimal confidenceScore) {
+}
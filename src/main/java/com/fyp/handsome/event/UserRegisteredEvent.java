@@ -0,0 +1,10 @@
+package com.fyp.handsome.event;
+
+/**
+ * 用户注册事件
+ * 新用户保存成功后发布
+ * @param userId 用户ID
+ * @author ziye
+ */
+public record UserRegisteredEvent(Long userId) {
+}
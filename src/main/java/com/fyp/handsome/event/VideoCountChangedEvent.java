@@ -0,0 +1,10 @@
+package com.fyp.handsome.event;
+
+/**
+ * 有效视频数量变化事件
+ * 视频新增、删除或状态变化后发布
+ * @param delta 数量变化（新增为正，删除为负）
+ * @author ziye
+ */
+public record VideoCountChangedEvent(long delta) {
+}
@@ -0,0 +1,14 @@
+package com.fyp.handsome.event;
+
+import java.time.LocalDate;
+
+/**
+ * 拍摄地点视频数量变化事件
+ * 视频新增、删除或地点/拍摄时间变化后按（地点, 拍摄日期）分组发布
+ * @param shootingLocation 拍摄地点
+ * @param shootingDate 拍摄日期
+ * @param delta 数量变化（新增为正，删除为负）
+ * @author ziye
+ */
+public record VideoLocationCountChangedEvent(String shootingLocation, LocalDate shootingDate, long delta) {
+}
@@ -0,0 +1,19 @@
+package com.fyp.handsome.exception;
+
+import com.fyp.handsome.dto.ResultCode;
+
+/**
+ * 未认证异常
+ * 当接口需要登录而请求未携带有效令牌时抛出
+ * @author ziye
+ */
+public class UnauthorizedException extends VideoBusinessException {
+
+    /**
+     * 构造函数
+     * @param message 错误信息
+     */
+    public UnauthorizedException(String message) {
+        super(ResultCode.UNAUTHORIZED.getCode(), message);
+    }
+}
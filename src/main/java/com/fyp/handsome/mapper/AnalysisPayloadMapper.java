@@ -0,0 +1,96 @@
+package com.fyp.handsome.mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 分析结果二进制存储Mapper接口
+ * 二进制数据单独存放在 video_analysis_payload，分析结果列表查询不会读取
+ * @author ziye
+ */
+public interface AnalysisPayloadMapper {
+
+    /**
+     * 保存二进制分析结果（已存在时覆盖）
+     * @param resultId 分析结果ID
+     * @param formatVersion 编码格式版本
+     * @param payload 二进制数据
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO video_analysis_payload (result_id, format_version, payload) " +
+            "VALUES (#{resultId}, #{formatVersion}, #{payload}) " +
+            "ON DUPLICATE KEY UPDATE format_version = VALUES(format_version), payload = VALUES(payload)")
+    int upsert(@Param("resultId") Long resultId,
+               @Param("formatVersion") int formatVersion,
+               @Param("payload") byte[] payload);
+
+    /**
+     * 查询二进制分析结果
+     * @param resultId 分析结果ID
+     * @return 二进制数据，不存在时为null
+     */
+    @Select("SELECT payload FROM video_analysis_payload WHERE result_id = #{resultId}")
+    byte[] selectPayload(@Param("resultId") Long resultId);
+
+    /**
+     * 批量查询二进制分析结果（用于列表补全JSON）
+     * @param resultIds 分析结果ID
+     * @return 存在二进制的分析结果及其二进制数据
+     */
+    @Select("<script>" +
+            "SELECT result_id, payload FROM video_analysis_payload WHERE result_id IN " +
+            "<foreach collection='resultIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    @ConstructorArgs({
+            @Arg(column = "result_id", javaType = Long.class),
+            @Arg(column = "payload", javaType = byte[].class)
+    })
+    List<StoredPayload> selectPayloads(@Param("resultIds") Collection<Long> resultIds);
+
+    /**
+     * 查询尚未转换为二进制的分析结果（按ID递增分批读取）
+     * @param afterId 起始ID（不含）
+     * @param limit 每批数量
+     * @return 待转换的分析结果
+     */
+    @Select("SELECT r.id, r.analysis_result FROM video_analysis_result r " +
+            "LEFT JOIN video_analysis_payload p ON p.result_id = r.id " +
+            "WHERE r.id > #{afterId} AND r.analysis_result IS NOT NULL AND p.result_id IS NULL " +
+            "ORDER BY r.id LIMIT #{limit}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class),
+            @Arg(column = "analysis_result", javaType = String.class)
+    })
+    List<PendingResult> selectPendingResults(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 清空JSON列（只存二进制时使用）
+     * @param resultId 分析结果ID
+     * @return 影响行数
+     */
+    @Update("UPDATE video_analysis_result SET analysis_result = NULL WHERE id = #{resultId}")
+    int clearJson(@Param("resultId") Long resultId);
+
+    /**
+     * 待转换的分析结果
+     * @param id 分析结果ID
+     * @param analysisResult 分析结果JSON
+     */
+    record PendingResult(Long id, String analysisResult) {
+    }
+
+    /**
+     * 已存储的二进制分析结果
+     * @param resultId 分析结果ID
+     * @param payload 二进制数据
+     */
+    record StoredPayload(Long resultId, byte[] payload) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.fyp.handsome.mapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import com.fyp.handsome.dto.analysis.AnalysisBucketCount;
+import com.fyp.handsome.dto.analysis.AnalysisTypeCount;
+
+/**
+ * 分析结果汇总Mapper接口
+ * 维护按（小时, 分析类型）和（天, 分析类型）汇总的数量与置信度之和
+ * @author ziye
+ */
+public interface AnalysisRollupMapper {
+
+    /**
+     * 小时汇总表
+     */
+    String TABLE_HOURLY = "analysis_stat_hourly";
+
+    /**
+     * 天汇总表
+     */
+    String TABLE_DAILY = "analysis_stat_daily";
+
+    // =================== 增量维护 ===================
+
+    /**
+     * 增减单个汇总桶
+     * @param table 汇总表（{@link #TABLE_HOURLY} 或 {@link #TABLE_DAILY}）
+     * @param bucketTime 时间桶起始时间
+     * @param analysisType 分析类型
+     * @param countDelta 数量增量
+     * @param confidenceDelta 置信度增量
+     * @param confidenceCountDelta 有置信度的结果数量增量
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO ${table} (bucket_time, analysis_type, result_count, confidence_sum, confidence_count) " +
+            "VALUES (#{bucketTime}, #{analysisType}, #{countDelta}, #{confidenceDelta}, #{confidenceCountDelta}) " +
+            "ON DUPLICATE KEY UPDATE result_count = result_count + VALUES(result_count), " +
+            "confidence_sum = confidence_sum + VALUES(confidence_sum), " +
+            "confidence_count = confidence_count + VALUES(confidence_count)")
+    int increment(@Param("table") String table,
+                  @Param("bucketTime") LocalDateTime bucketTime,
+                  @Param("analysisType") String analysisType,
+                  @Param("countDelta") long countDelta,
+                  @Param("confidenceDelta") BigDecimal confidenceDelta,
+                  @Param("confidenceCountDelta") long confidenceCountDelta);
+
+    // =================== 历史回填 ===================
+
+    /**
+     * 按ID区间将分析结果汇总到小时表
+     * @param fromId 起始ID（不含）
+     * @param toId 结束ID（含）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO analysis_stat_hourly (bucket_time, analysis_type, result_count, confidence_sum, confidence_count) " +
+            "SELECT DATE_FORMAT(analysis_time, '%Y-%m-%d %H:00:00'), analysis_type, COUNT(*), " +
+            "IFNULL(SUM(confidence_score), 0), COUNT(confidence_score) " +
+            "FROM video_analysis_result " +
+            "WHERE id > #{fromId} AND id <= #{toId} AND status = 1 AND analysis_time IS NOT NULL " +
+            "GROUP BY DATE_FORMAT(analysis_time, '%Y-%m-%d %H:00:00'), analysis_type " +
+            "ON DUPLICATE KEY UPDATE result_count = result_count + VALUES(result_count), " +
+            "confidence_sum = confidence_sum + VALUES(confidence_sum), " +
+            "confidence_count = confidence_count + VALUES(confidence_count)")
+    int backfillHourly(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 按ID区间将分析结果汇总到天表
+     * @param fromId 起始ID（不含）
+     * @param toId 结束ID（含）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO analysis_stat_daily (bucket_time, analysis_type, result_count, confidence_sum, confidence_count) " +
+            "SELECT DATE(analysis_time), analysis_type, COUNT(*), " +
+            "IFNULL(SUM(confidence_score), 0), COUNT(confidence_score) " +
+            "FROM video_analysis_result " +
+            "WHERE id > #{fromId} AND id <= #{toId} AND status = 1 AND analysis_time IS NOT NULL " +
+            "GROUP BY DATE(analysis_time), analysis_type " +
+            "ON DUPLICATE KEY UPDATE result_count = result_count + VALUES(result_count), " +
+            "confidence_sum = confidence_sum + VALUES(confidence_sum), " +
+            "confidence_count = confidence_count + VALUES(confidence_count)")
+    int backfillDaily(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // =================== 核对 ===================
+
+    /**
+     * 按天和分析类型统计分析结果（用于核对天汇总）
+     * @param startTime 开始时间（含，天边界）
+     * @param endTime 结束时间（不含，天边界）
+     * @return 各天各分析类型的统计
+     */
+    @Select("SELECT TIMESTAMP(DATE(analysis_time)) AS bucket_time, analysis_type, COUNT(*) AS result_count, " +
+            "IFNULL(SUM(confidence_score), 0) AS confidence_sum, COUNT(confidence_score) AS confidence_count " +
+            "FROM video_analysis_result " +
+            "WHERE status = 1 AND analysis_time >= #{startTime} AND analysis_time < #{endTime} " +
+            "GROUP BY DATE(analysis_time), analysis_type")
+    @ConstructorArgs({
+            @Arg(column = "bucket_time", javaType = LocalDateTime.class),
+            @Arg(column = "analysis_type", javaType = String.class),
+            @Arg(column = "result_count", javaType = long.class),
+            @Arg(column = "confidence_sum", javaType = BigDecimal.class),
+            @Arg(column = "confidence_count", javaType = long.class)
+    })
+    List<DailyTotal> selectSourceDailyTotals(@Param("startTime") LocalDateTime startTime,
+                                             @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 查询天汇总（数量为0的行不返回）
+     * @param startTime 开始时间（含，天边界）
+     * @param endTime 结束时间（不含，天边界）
+     * @return 各天各分析类型的汇总
+     */
+    @Select("SELECT bucket_time, analysis_type, result_count, confidence_sum, confidence_count " +
+            "FROM analysis_stat_daily " +
+            "WHERE bucket_time >= #{startTime} AND bucket_time < #{endTime} AND result_count <> 0")
+    @ConstructorArgs({
+            @Arg(column = "bucket_time", javaType = LocalDateTime.class),
+            @Arg(column = "analysis_type", javaType = String.class),
+            @Arg(column = "result_count", javaType = long.class),
+            @Arg(column = "confidence_sum", javaType = BigDecimal.class),
+            @Arg(column = "confidence_count", javaType = long.class)
+    })
+    List<DailyTotal> selectDailyTotals(@Param("startTime") LocalDateTime startTime,
+                                       @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 删除区间内的汇总桶
+     * @param table 汇总表
+     * @param startTime 开始时间（含，桶边界）
+     * @param endTime 结束时间（不含，桶边界）
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM ${table} WHERE bucket_time >= #{startTime} AND bucket_time < #{endTime}")
+    int deleteBuckets(@Param("table") String table,
+                      @Param("startTime") LocalDateTime startTime,
+                      @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按分析时间区间重新汇总小时表（调用前先删除区间内的桶）
+     * @param startTime 开始时间（含，天边界）
+     * @param endTime 结束时间（不含，天边界）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO analysis_stat_hourly (bucket_time, analysis_type, result_count, confidence_sum, confidence_count) " +
+            "SELECT DATE_FORMAT(analysis_time, '%Y-%m-%d %H:00:00'), analysis_type, COUNT(*), " +
+            "IFNULL(SUM(confidence_score), 0), COUNT(confidence_score) " +
+            "FROM video_analysis_result " +
+            "WHERE status = 1 AND analysis_time >= #{startTime} AND analysis_time < #{endTime} " +
+            "GROUP BY DATE_FORMAT(analysis_time, '%Y-%m-%d %H:00:00'), analysis_type")
+    int rebuildHourly(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按分析时间区间重新汇总天表（调用前先删除区间内的桶）
+     * @param startTime 开始时间（含，天边界）
+     * @param endTime 结束时间（不含，天边界）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO analysis_stat_daily (bucket_time, analysis_type, result_count, confidence_sum, confidence_count) " +
+            "SELECT DATE(analysis_time), analysis_type, COUNT(*), " +
+            "IFNULL(SUM(confidence_score), 0), COUNT(confidence_score) " +
+            "FROM video_analysis_result " +
+            "WHERE status = 1 AND analysis_time >= #{startTime} AND analysis_time < #{endTime} " +
+            "GROUP BY DATE(analysis_time), analysis_type")
+    int rebuildDaily(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+
+    // =================== 查询 ===================
+
+    /**
+     * 汇总区间内的分析数量
+     * @param table 汇总表
+     * @param startTime 开始时间（含，桶边界）
+     * @param endTime 结束时间（不含，桶边界）
+     * @return 分析数量
+     */
+    @Select("SELECT IFNULL(SUM(result_count), 0) FROM ${table} " +
+            "WHERE bucket_time >= #{startTime} AND bucket_time < #{endTime}")
+    long sumCount(@Param("table") String table,
+                  @Param("startTime") LocalDateTime startTime,
+                  @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 区间内各时间桶的分析数量
+     * @param table 汇总表
+     * @param startTime 开始时间（含，桶边界）
+     * @param endTime 结束时间（不含，桶边界）
+     * @return 时间桶计数列表（按时间升序，无数据的桶不返回）
+     */
+    @Select("SELECT bucket_time, SUM(result_count) AS result_count FROM ${table} " +
+            "WHERE bucket_time >= #{startTime} AND bucket_time < #{endTime} " +
+            "GROUP BY bucket_time ORDER BY bucket_time")
+    @ConstructorArgs({
+            @Arg(column = "bucket_time", javaType = LocalDateTime.class),
+            @Arg(column = "result_count", javaType = long.class)
+    })
+    List<AnalysisBucketCount> selectBucketCounts(@Param("table") String table,
+                                                 @Param("startTime") LocalDateTime startTime,
+                                                 @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 区间内各分析类型的数量和置信度（起止时间为空时统计全部）
+     * @param table 汇总表
+     * @param startTime 开始时间（含，桶边界，可选）
+     * @param endTime 结束时间（不含，桶边界，可选）
+     * @return 分析类型计数列表
+     */
+    @Select("<script>" +
+            "SELECT analysis_type, SUM(result_count) AS result_count, " +
+            "SUM(confidence_sum) AS confidence_sum, SUM(confidence_count) AS confidence_count " +
+            "FROM ${table} WHERE 1 = 1" +
+            "<if test='startTime != null'> AND bucket_time &gt;= #{startTime}</if>" +
+            "<if test='endTime != null'> AND bucket_time &lt; #{endTime}</if>" +
+            " GROUP BY analysis_type HAVING SUM(result_count) &gt; 0 ORDER BY result_count DESC" +
+            "</script>")
+    @ConstructorArgs({
+            @Arg(column = "analysis_type", javaType = String.class),
+            @Arg(column = "result_count", javaType = long.class),
+            @Arg(column = "confidence_sum", javaType = BigDecimal.class),
+            @Arg(column = "confidence_count", javaType = long.class)
+    })
+    List<AnalysisTypeCount> selectTypeCounts(@Param("table") String table,
+                                             @Param("startTime") LocalDateTime startTime,
+                                             @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 单天单分析类型的统计
+     * @param bucketTime 天
+     * @param analysisType 分析类型
+     * @param resultCount 数量
+     * @param confidenceSum 置信度之和
+     * @param confidenceCount 有置信度的结果数量
+     */
+    record DailyTotal(LocalDateTime bucketTime, String analysisType, long resultCount, BigDecimal confidenceSum,
+                      long confidenceCount) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.fyp.handsome.mapper;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 回填进度Mapper接口
+ * 各回填任务按主键区间推进，进度记录在 analysis_rollup_checkpoint
+ * @author ziye
+ */
+public interface BackfillMapper {
+
+    /**
+     * 创建回填进度（已存在时忽略），回填上限为源表当前最大主键
+     * @param jobName 回填任务名
+     * @param table 源表名（由代码指定，不能来自外部输入）
+     * @return 影响行数
+     */
+    @Insert("INSERT IGNORE INTO analysis_rollup_checkpoint (job_name, watermark_id, last_id, finished) " +
+            "SELECT #{jobName}, IFNULL(MAX(id), 0), 0, IF(MAX(id) IS NULL, 1, 0) FROM ${table}")
+    int insertCheckpointIfAbsent(@Param("jobName") String jobName, @Param("table") String table);
+
+    /**
+     * 查询回填进度
+     * @param jobName 回填任务名
+     * @return 回填进度，不存在时为null
+     */
+    @Select("SELECT watermark_id, last_id, finished FROM analysis_rollup_checkpoint WHERE job_name = #{jobName}")
+    @ConstructorArgs({
+            @Arg(column = "watermark_id", javaType = long.class),
+            @Arg(column = "last_id", javaType = long.class),
+            @Arg(column = "finished", javaType = boolean.class)
+    })
+    Checkpoint selectCheckpoint(@Param("jobName") String jobName);
+
+    /**
+     * 推进回填进度（以原进度为条件，多实例同时回填时只有一个能推进）
+     * @param jobName 回填任务名
+     * @param fromId 原进度
+     * @param toId 新进度
+     * @param finished 是否完成
+     * @return 影响行数
+     */
+    @Update("UPDATE analysis_rollup_checkpoint SET last_id = #{toId}, finished = #{finished} " +
+            "WHERE job_name = #{jobName} AND last_id = #{fromId}")
+    int advanceCheckpoint(@Param("jobName") String jobName,
+                          @Param("fromId") long fromId,
+                          @Param("toId") long toId,
+                          @Param("finished") boolean finished);
+
+    /**
+     * 回填进度
+     * @param watermarkId 回填上限ID，大于该ID的记录由增量维护
+     * @param lastId 已回填到的ID
+     * @param finished 是否已完成
+     */
+    record Checkpoint(long watermarkId, long lastId, boolean finished) {
+    }
+}
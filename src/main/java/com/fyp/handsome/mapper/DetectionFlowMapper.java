@@ -0,0 +1,135 @@
+package com.fyp.handsome.mapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import com.fyp.handsome.dto.analysis.DetectionMinuteCount;
+import com.fyp.handsome.dto.analysis.DetectionSource;
+
+/**
+ * 检测流量Mapper接口
+ * 维护按（目标类别, 分钟, 视频）统计的检测数量，用于人员/车辆流量统计
+ * @author ziye
+ */
+public interface DetectionFlowMapper {
+
+    /**
+     * 增减单个分钟桶
+     * @param objectClass 目标类别
+     * @param bucketTime 分钟桶起始时间
+     * @param videoId 视频ID
+     * @param delta 数量增量
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO analysis_detection_minute (object_class, bucket_time, video_id, detection_count) " +
+            "VALUES (#{objectClass}, #{bucketTime}, #{videoId}, #{delta}) " +
+            "ON DUPLICATE KEY UPDATE detection_count = detection_count + VALUES(detection_count)")
+    int increment(@Param("objectClass") String objectClass,
+                  @Param("bucketTime") LocalDateTime bucketTime,
+                  @Param("videoId") Long videoId,
+                  @Param("delta") long delta);
+
+    /**
+     * 记录分析结果计入检测流量时使用的基准时间（已有记录时覆盖）
+     * @param bases 分析结果ID及基准时间
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO analysis_detection_base (result_id, base_time) VALUES " +
+            "<foreach collection='bases' item='base' separator=','>(#{base.resultId}, #{base.baseTime})</foreach>" +
+            " ON DUPLICATE KEY UPDATE base_time = VALUES(base_time)" +
+            "</script>")
+    int upsertBaseTimes(@Param("bases") List<BaseTime> bases);
+
+    /**
+     * 删除分析结果的基准时间记录（扣减后调用）
+     * @param resultId 分析结果ID
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM analysis_detection_base WHERE result_id = #{resultId}")
+    int deleteBaseTime(@Param("resultId") Long resultId);
+
+    /**
+     * 查询单条分析结果的检测来源（不过滤已删除结果，删除后扣减时使用）
+     * @param resultId 分析结果ID
+     * @return 检测来源，不存在时为null
+     */
+    @Select("SELECT r.id, r.video_id, r.analysis_result, p.payload, r.analysis_time, v.shooting_time, b.base_time " +
+            "FROM video_analysis_result r LEFT JOIN video_info v ON v.id = r.video_id " +
+            "LEFT JOIN video_analysis_payload p ON p.result_id = r.id " +
+            "LEFT JOIN analysis_detection_base b ON b.result_id = r.id WHERE r.id = #{resultId}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class),
+            @Arg(column = "video_id", javaType = Long.class),
+            @Arg(column = "analysis_result", javaType = String.class),
+            @Arg(column = "payload", javaType = byte[].class),
+            @Arg(column = "analysis_time", javaType = LocalDateTime.class),
+            @Arg(column = "shooting_time", javaType = LocalDateTime.class),
+            @Arg(column = "base_time", javaType = LocalDateTime.class)
+    })
+    DetectionSource selectSource(@Param("resultId") Long resultId);
+
+    /**
+     * 按ID区间查询有效分析结果的检测来源（用于历史回填）
+     * @param fromId 起始ID（不含）
+     * @param toId 结束ID（含）
+     * @return 检测来源列表
+     */
+    @Select("SELECT r.id, r.video_id, r.analysis_result, p.payload, r.analysis_time, v.shooting_time, b.base_time " +
+            "FROM video_analysis_result r LEFT JOIN video_info v ON v.id = r.video_id " +
+            "LEFT JOIN video_analysis_payload p ON p.result_id = r.id " +
+            "LEFT JOIN analysis_detection_base b ON b.result_id = r.id " +
+            "WHERE r.id > #{fromId} AND r.id <= #{toId} AND r.status = 1")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class),
+            @Arg(column = "video_id", javaType = Long.class),
+            @Arg(column = "analysis_result", javaType = String.class),
+            @Arg(column = "payload", javaType = byte[].class),
+            @Arg(column = "analysis_time", javaType = LocalDateTime.class),
+            @Arg(column = "shooting_time", javaType = LocalDateTime.class),
+            @Arg(column = "base_time", javaType = LocalDateTime.class)
+    })
+    List<DetectionSource> selectSources(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 流式读取区间内各分钟的检测数量（按主键顺序范围扫描，按时间升序返回，无数据的分钟不返回）
+     * @param objectClass 目标类别
+     * @param startTime 开始时间（含，可选）
+     * @param endTime 结束时间（不含，可选）
+     * @param handler 逐行处理器
+     */
+    @Select("<script>" +
+            "SELECT bucket_time, SUM(detection_count) AS detection_count FROM analysis_detection_minute " +
+            "WHERE object_class = #{objectClass}" +
+            "<if test='startTime != null'> AND bucket_time &gt;= #{startTime}</if>" +
+            "<if test='endTime != null'> AND bucket_time &lt; #{endTime}</if>" +
+            " GROUP BY bucket_time ORDER BY bucket_time" +
+            "</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ConstructorArgs({
+            @Arg(column = "bucket_time", javaType = LocalDateTime.class),
+            @Arg(column = "detection_count", javaType = long.class)
+    })
+    void selectMinuteCounts(@Param("objectClass") String objectClass,
+                            @Param("startTime") LocalDateTime startTime,
+                            @Param("endTime") LocalDateTime endTime,
+                            ResultHandler<DetectionMinuteCount> handler);
+
+    /**
+     * 分析结果计入检测流量时的基准时间
+     * @param resultId 分析结果ID
+     * @param baseTime 基准时间
+     */
+    record BaseTime(Long resultId, LocalDateTime baseTime) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.fyp.handsome.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Select;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.fyp.handsome.entity.MonitorPoint;
+
+/**
+ * 监控点位Mapper接口
+ * @author ziye
+ */
+public interface MonitorPointMapper extends BaseMapper<MonitorPoint> {
+
+    /**
+     * 查询全部监控点（用于构建内存空间索引）
+     * @return 监控点列表
+     */
+    @Select("SELECT id, point_name, point_code, latitude, longitude, address, status FROM monitor_point")
+    List<MonitorPoint> selectAllForIndex();
+
+    /**
+     * 查询监控点表版本（记录数 + 最后更新时间），用于判断内存索引是否需要重建
+     * @return 版本字符串
+     */
+    @Select("SELECT CONCAT(COUNT(*), '|', IFNULL(MAX(update_time), '')) FROM monitor_point")
+    String selectVersion();
+}
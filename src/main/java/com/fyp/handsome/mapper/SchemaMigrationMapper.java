@@ -0,0 +1,100 @@
+package com.fyp.handsome.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 数据库迁移记录Mapper接口
+ * @author ziye
+ */
+public interface SchemaMigrationMapper {
+
+    /**
+     * 创建迁移记录表（已存在时忽略）
+     */
+    @Update("CREATE TABLE IF NOT EXISTS schema_migration (" +
+            "version INT PRIMARY KEY, " +
+            "description VARCHAR(200) NOT NULL, " +
+            "script VARCHAR(255) NOT NULL, " +
+            "checksum CHAR(64), " +
+            "baseline TINYINT NOT NULL DEFAULT 0, " +
+            "execution_ms BIGINT NOT NULL DEFAULT 0, " +
+            "installed_time DATETIME DEFAULT CURRENT_TIMESTAMP" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci")
+    void createTableIfAbsent();
+
+    /**
+     * 统计当前库中指定表的指定列（列为空时统计表）
+     * @param table 表名
+     * @param column 列名（可选）
+     * @return 数量
+     */
+    @Select("<script>" +
+            "SELECT COUNT(*) FROM information_schema.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{table}" +
+            "<if test='column != null'> AND COLUMN_NAME = #{column}</if>" +
+            "</script>")
+    int countColumns(@Param("table") String table, @Param("column") String column);
+
+    /**
+     * 补充校验和与基线列（由早期版本创建的记录表）
+     */
+    @Update("ALTER TABLE schema_migration ADD COLUMN checksum CHAR(64) AFTER script, " +
+            "ADD COLUMN baseline TINYINT NOT NULL DEFAULT 0 AFTER checksum")
+    void addChecksumColumns();
+
+    /**
+     * 查询已执行的迁移
+     * @return 已执行的迁移，按版本号排序
+     */
+    @Select("SELECT version, script, checksum FROM schema_migration ORDER BY version")
+    @ConstructorArgs({
+            @Arg(column = "version", javaType = int.class),
+            @Arg(column = "script", javaType = String.class),
+            @Arg(column = "checksum", javaType = String.class)
+    })
+    List<AppliedMigration> selectApplied();
+
+    /**
+     * 记录已执行的迁移
+     * @param version 版本号
+     * @param description 说明
+     * @param script 脚本文件名
+     * @param checksum 脚本校验和
+     * @param baseline 是否为只记录未执行的基线版本
+     * @param executionMs 执行耗时（毫秒）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO schema_migration (version, description, script, checksum, baseline, execution_ms) " +
+            "VALUES (#{version}, #{description}, #{script}, #{checksum}, #{baseline}, #{executionMs})")
+    int insert(@Param("version") int version,
+               @Param("description") String description,
+               @Param("script") String script,
+               @Param("checksum") String checksum,
+               @Param("baseline") boolean baseline,
+               @Param("executionMs") long executionMs);
+
+    /**
+     * 补记校验和（早期版本执行的迁移没有校验和）
+     * @param version 版本号
+     * @param checksum 脚本校验和
+     * @return 影响行数
+     */
+    @Update("UPDATE schema_migration SET checksum = #{checksum} WHERE version = #{version} AND checksum IS NULL")
+    int updateChecksum(@Param("version") int version, @Param("checksum") String checksum);
+
+    /**
+     * 已执行的迁移
+     * @param version 版本号
+     * @param script 脚本文件名
+     * @param checksum 脚本校验和（早期版本执行的为空）
+     */
+    record AppliedMigration(int version, String script, String checksum) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.fyp.handsome.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 访问令牌吊销记录Mapper接口
+ * @author ziye
+ */
+public interface TokenRevocationMapper {
+
+    /**
+     * 保存吊销记录（已存在时保留较大的值）
+     * @param revokeKey 吊销键
+     * @param revokeValue 令牌过期时间或用户吊销时间
+     * @param expireAt 记录失效时间
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO token_revocation (revoke_key, revoke_value, expire_at) " +
+            "VALUES (#{revokeKey}, #{revokeValue}, #{expireAt}) " +
+            "ON DUPLICATE KEY UPDATE revoke_value = GREATEST(revoke_value, VALUES(revoke_value)), " +
+            "expire_at = GREATEST(expire_at, VALUES(expire_at))")
+    int upsert(@Param("revokeKey") String revokeKey, @Param("revokeValue") long revokeValue,
+               @Param("expireAt") long expireAt);
+
+    /**
+     * 查询未失效的吊销记录
+     * @param nowMillis 当前时间
+     * @return 吊销记录
+     */
+    @Select("SELECT revoke_key, revoke_value FROM token_revocation WHERE expire_at > #{nowMillis}")
+    @ConstructorArgs({
+            @Arg(column = "revoke_key", javaType = String.class),
+            @Arg(column = "revoke_value", javaType = long.class)
+    })
+    List<Revocation> selectActive(@Param("nowMillis") long nowMillis);
+
+    /**
+     * 删除已失效的吊销记录
+     * @param nowMillis 当前时间
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM token_revocation WHERE expire_at <= #{nowMillis}")
+    int deleteExpired(@Param("nowMillis") long nowMillis);
+
+    /**
+     * 吊销记录
+     * @param revokeKey 吊销键
+     * @param revokeValue 令牌过期时间或用户吊销时间
+     */
+    record Revocation(String revokeKey, long revokeValue) {
+    }
+}
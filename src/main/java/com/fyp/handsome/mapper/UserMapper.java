@@ -126,6 +126,24 @@ public interface UserMapper extends BaseMapper<User> {
             "WHERE ur.role_id = #{roleId} AND u.status = 1")
     List<User> selectUsersByRoleId(@Param("roleId") Long roleId);
 
+    /**
+     * 查询拥有指定角色的用户ID（不区分用户和角色状态，用于权限缓存失效）
+     * @param roleId 角色ID
+     * @return 用户ID列表
+     */
+    @Select("SELECT user_id FROM user_role WHERE role_id = #{roleId}")
+    List<Long> selectUserIdsByRoleId(@Param("roleId") Long roleId);
+
+    /**
+     * 查询通过角色拥有指定权限的用户ID（不区分状态，用于权限缓存失效）
+     * @param permissionId 权限ID
+     * @return 用户ID列表
+     */
+    @Select("SELECT DISTINCT ur.user_id FROM user_role ur " +
+            "INNER JOIN role_permission rp ON ur.role_id = rp.role_id " +
+            "WHERE rp.permission_id = #{permissionId}")
+    List<Long> selectUserIdsByPermissionId(@Param("permissionId") Long permissionId);
+
     /**
      * 删除用户的所有角色关联
      * @param userId 用户ID
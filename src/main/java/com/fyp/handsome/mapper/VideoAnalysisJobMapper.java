@@ -0,0 +1,110 @@
+package com.fyp.handsome.mapper;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.fyp.handsome.entity.VideoAnalysisJob;
+
+/**
+ * 视频分析任务Mapper接口
+ * video_analysis_job 同时作为持久化任务队列使用
+ * @author ziye
+ */
+public interface VideoAnalysisJobMapper extends BaseMapper<VideoAnalysisJob> {
+
+    /**
+     * 多行VALUES批量提交任务
+     * @param jobs 任务列表（插入后回填ID）
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO video_analysis_job (video_id, analysis_type, job_status, create_time, update_time) VALUES " +
+            "<foreach collection='jobs' item='j' separator=','>" +
+            "(#{j.videoId}, #{j.analysisType}, #{j.jobStatus}, #{j.createTime}, #{j.updateTime})" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "jobs.id", keyColumn = "id")
+    int insertBatchValues(@Param("jobs") List<VideoAnalysisJob> jobs);
+
+    /**
+     * 查询存在排队任务的分析类型
+     * @return 分析类型列表
+     */
+    @Select("SELECT DISTINCT analysis_type FROM video_analysis_job WHERE job_status = 0")
+    List<String> selectPendingAnalysisTypes();
+
+    /**
+     * 按提交顺序查询指定类型的排队任务
+     * @param analysisType 分析类型
+     * @param limit 限制数量
+     * @return 排队任务列表
+     */
+    @Select("SELECT * FROM video_analysis_job WHERE job_status = 0 AND analysis_type = #{analysisType} " +
+            "ORDER BY id LIMIT #{limit}")
+    List<VideoAnalysisJob> selectPendingJobs(@Param("analysisType") String analysisType,
+                                             @Param("limit") Integer limit);
+
+    /**
+     * 领取任务（仅当任务仍处于排队状态时成功，多实例部署下保证只被领取一次）
+     * @param jobId 任务ID
+     * @param claimToken 本次领取的标识
+     * @return 影响行数，1表示领取成功
+     */
+    @Update("UPDATE video_analysis_job SET job_status = 1, claim_token = #{claimToken}, start_time = NOW(), " +
+            "update_time = NOW() WHERE id = #{jobId} AND job_status = 0")
+    int claimJob(@Param("jobId") Long jobId, @Param("claimToken") String claimToken);
+
+    /**
+     * 标记任务成功（仅当任务仍由本次领取执行中时成功）
+     * @param jobId 任务ID
+     * @param claimToken 领取标识
+     * @param resultId 分析结果编号
+     * @return 影响行数，0表示任务已被重新领取或已结束
+     */
+    @Update("UPDATE video_analysis_job SET job_status = 2, result_id = #{resultId}, error_message = NULL, " +
+            "finish_time = NOW(), update_time = NOW() " +
+            "WHERE id = #{jobId} AND job_status = 1 AND claim_token = #{claimToken}")
+    int markSucceeded(@Param("jobId") Long jobId, @Param("claimToken") String claimToken,
+                      @Param("resultId") Long resultId);
+
+    /**
+     * 标记任务失败（仅当任务仍由本次领取执行中时成功）
+     * @param jobId 任务ID
+     * @param claimToken 领取标识
+     * @param errorMessage 失败原因
+     * @return 影响行数，0表示任务已被重新领取或已结束
+     */
+    @Update("UPDATE video_analysis_job SET job_status = 3, error_message = #{errorMessage}, " +
+            "finish_time = NOW(), update_time = NOW() " +
+            "WHERE id = #{jobId} AND job_status = 1 AND claim_token = #{claimToken}")
+    int markFailed(@Param("jobId") Long jobId, @Param("claimToken") String claimToken,
+                   @Param("errorMessage") String errorMessage);
+
+    /**
+     * 刷新本实例执行中任务的心跳（更新时间）
+     * @param jobIds 执行中的任务ID
+     * @return 影响行数
+     */
+    @Update("<script>" +
+            "UPDATE video_analysis_job SET update_time = NOW() WHERE job_status = 1 AND id IN " +
+            "<foreach collection='jobIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int touchRunningJobs(@Param("jobIds") Collection<Long> jobIds);
+
+    /**
+     * 将心跳超时的执行中任务放回队列（用于实例异常退出后的恢复）
+     * @param staleBefore 更新时间早于该时间的执行中任务视为所在实例已退出
+     * @return 影响行数
+     */
+    @Update("UPDATE video_analysis_job SET job_status = 0, start_time = NULL, update_time = NOW() " +
+            "WHERE job_status = 1 AND update_time < #{staleBefore}")
+    int requeueStaleJobs(@Param("staleBefore") LocalDateTime staleBefore);
+}
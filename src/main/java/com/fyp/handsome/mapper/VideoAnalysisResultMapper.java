@@ -1,18 +1,30 @@
 package com.fyp.handsome.mapper;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fyp.handsome.dto.analysis.AnalysisTypeCount;
+import com.fyp.handsome.dto.visualization.LocationDayCount;
 import com.fyp.handsome.entity.VideoAnalysisResult;
 
 /**
  * 视频分析结果Mapper接口
+ * 列表查询只返回有效结果（status = 1）并按分析时间倒序，由复合索引直接按序读取，
+ * 索引见 db/migration/V1__analysis_result_composite_indexes.sql，执行计划由 VideoAnalysisResultQueryPlanTests 检查
  * @author ziye
  */
 public interface VideoAnalysisResultMapper extends BaseMapper<VideoAnalysisResult> {
@@ -22,7 +34,7 @@ public interface VideoAnalysisResultMapper extends BaseMapper<VideoAnalysisResul
      * @param videoId 视频ID
      * @return 分析结果列表
      */
-    @Select("SELECT * FROM video_analysis_result WHERE video_id = #{videoId} ORDER BY analysis_time DESC")
+    @Select("SELECT * FROM video_analysis_result WHERE status = 1 AND video_id = #{videoId} ORDER BY analysis_time DESC")
     List<VideoAnalysisResult> selectByVideoId(@Param("videoId") Long videoId);
 
     /**
@@ -30,7 +42,8 @@ public interface VideoAnalysisResultMapper extends BaseMapper<VideoAnalysisResul
      * @param analysisType 分析类型
      * @return 分析结果列表
      */
-    @Select("SELECT * FROM video_analysis_result WHERE analysis_type = #{analysisType} ORDER BY analysis_time DESC")
+    @Select("SELECT * FROM video_analysis_result WHERE status = 1 AND analysis_type = #{analysisType} " +
+            "ORDER BY analysis_time DESC")
     List<VideoAnalysisResult> selectByAnalysisType(@Param("analysisType") String analysisType);
 
     /**
@@ -39,21 +52,25 @@ public interface VideoAnalysisResultMapper extends BaseMapper<VideoAnalysisResul
      * @param analysisType 分析类型
      * @return 分析结果列表
      */
-    @Select("SELECT * FROM video_analysis_result WHERE video_id = #{videoId} AND analysis_type = #{analysisType} ORDER BY analysis_time DESC")
+    @Select("SELECT * FROM video_analysis_result WHERE status = 1 AND video_id = #{videoId} " +
+            "AND analysis_type = #{analysisType} ORDER BY analysis_time DESC")
     List<VideoAnalysisResult> selectByVideoIdAndType(@Param("videoId") Long videoId, 
                                                       @Param("analysisType") String analysisType);
 
     /**
-     * 根据时间范围查询分析结果 - 复杂查询，使用XML实现
+     * 根据时间范围查询分析结果（起止时间均包含）
      * @param startTime 开始时间
      * @param endTime 结束时间
      * @return 分析结果列表
      */
+    @Select("SELECT * FROM video_analysis_result " +
+            "WHERE status = 1 AND analysis_time >= #{startTime} AND analysis_time <= #{endTime} " +
+            "ORDER BY analysis_time DESC")
     List<VideoAnalysisResult> selectByAnalysisTimeRange(@Param("startTime") LocalDateTime startTime,
                                                          @Param("endTime") LocalDateTime endTime);
 
     /**
-     * 分页查询分析结果（带条件）- 复杂动态SQL，使用XML实现
+     * 分页查询分析结果（带条件）- 动态SQL，由分页插件改写LIMIT并生成COUNT
      * @param page 分页参数
      * @param videoId 视频ID（可选）
      * @param analysisType 分析类型（可选）
@@ -61,6 +78,14 @@ public interface VideoAnalysisResultMapper extends BaseMapper<VideoAnalysisResul
      * @param endTime 结束时间（可选）
      * @return 分页结果
      */
+    @Select("<script>" +
+            "SELECT * FROM video_analysis_result WHERE status = 1" +
+            "<if test='videoId != null'> AND video_id = #{videoId}</if>" +
+            "<if test='analysisType != null and analysisType != \"\"'> AND analysis_type = #{analysisType}</if>" +
+            "<if test='startTime != null'> AND analysis_time &gt;= #{startTime}</if>" +
+            "<if test='endTime != null'> AND analysis_time &lt;= #{endTime}</if>" +
+            " ORDER BY analysis_time DESC" +
+            "</script>")
     IPage<VideoAnalysisResult> selectPageWithConditions(Page<VideoAnalysisResult> page,
                                                          @Param("videoId") Long videoId,
                                                          @Param("analysisType") String analysisType,
@@ -68,26 +93,79 @@ public interface VideoAnalysisResultMapper extends BaseMapper<VideoAnalysisResul
                                                          @Param("endTime") LocalDateTime endTime);
 
     /**
-     * 统计各分析类型数量
-     * @return 统计结果列表
+     * 统计各分析类型数量和置信度（直接GROUP BY，汇总表回填完成前使用）
+     * @return 分析类型计数列表
      */
-    @Select("SELECT analysis_type, COUNT(*) as count FROM video_analysis_result GROUP BY analysis_type")
-    List<Object> countByAnalysisType();
+    @Select("SELECT analysis_type, COUNT(*) AS result_count, IFNULL(SUM(confidence_score), 0) AS confidence_sum, " +
+            "COUNT(confidence_score) AS confidence_count FROM video_analysis_result " +
+            "WHERE status = 1 GROUP BY analysis_type ORDER BY result_count DESC")
+    @ConstructorArgs({
+            @Arg(column = "analysis_type", javaType = String.class),
+            @Arg(column = "result_count", javaType = long.class),
+            @Arg(column = "confidence_sum", javaType = BigDecimal.class),
+            @Arg(column = "confidence_count", javaType = long.class)
+    })
+    List<AnalysisTypeCount> countByAnalysisType();
 
     /**
-     * 统计指定时间范围内的分析数量 - 复杂查询，使用XML实现
+     * 统计指定时间范围内的分析数量（起止时间均包含）
      * @param startTime 开始时间
      * @param endTime 结束时间
      * @return 分析数量
      */
+    @Select("SELECT COUNT(*) FROM video_analysis_result " +
+            "WHERE status = 1 AND analysis_time >= #{startTime} AND analysis_time <= #{endTime}")
     Long countByTimeRange(@Param("startTime") LocalDateTime startTime,
                           @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * 统计指定时间范围内的分析数量（不含结束时间，用于汇总桶之外的边缘区间）
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @return 分析数量
+     */
+    @Select("SELECT COUNT(*) FROM video_analysis_result " +
+            "WHERE status = 1 AND analysis_time >= #{startTime} AND analysis_time < #{endTime}")
+    long countByTimeRangeExclusive(@Param("startTime") LocalDateTime startTime,
+                                   @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 统计指定时间之后满足告警条件的分析结果数量
+     * @param analysisTypes 告警分析类型（不能为空）
+     * @param minConfidence 最低置信度
+     * @param startTime 开始时间（含）
+     * @return 告警数量
+     */
+    @Select("<script>" +
+            "SELECT COUNT(*) FROM video_analysis_result WHERE status = 1 AND analysis_time &gt;= #{startTime}" +
+            " AND confidence_score &gt;= #{minConfidence} AND analysis_type IN " +
+            "<foreach collection='analysisTypes' item='type' open='(' separator=',' close=')'>#{type}</foreach>" +
+            "</script>")
+    long countAlerts(@Param("analysisTypes") Collection<String> analysisTypes,
+                     @Param("minConfidence") BigDecimal minConfidence,
+                     @Param("startTime") LocalDateTime startTime);
+
+    /**
+     * 按（视频拍摄地点, 分析日期）流式统计分析结果数量（用于构建热力图）
+     * @param handler 逐行处理器
+     */
+    @Select("SELECT v.shooting_location AS location, DATE(r.analysis_time) AS day, COUNT(*) AS count " +
+            "FROM video_analysis_result r JOIN video_info v ON v.id = r.video_id " +
+            "WHERE r.status = 1 AND r.analysis_time IS NOT NULL " +
+            "GROUP BY v.shooting_location, DATE(r.analysis_time)")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ConstructorArgs({
+            @Arg(column = "location", javaType = String.class),
+            @Arg(column = "day", javaType = LocalDate.class),
+            @Arg(column = "count", javaType = long.class)
+    })
+    void selectLocationDayCounts(ResultHandler<LocationDayCount> handler);
+
     /**
      * 查询最新的分析结果
      * @param limit 限制数量
      * @return 最新分析结果列表
      */
-    @Select("SELECT * FROM video_analysis_result ORDER BY analysis_time DESC LIMIT #{limit}")
+    @Select("SELECT * FROM video_analysis_result WHERE status = 1 ORDER BY analysis_time DESC LIMIT #{limit}")
     List<VideoAnalysisResult> selectLatestResults(@Param("limit") Integer limit);
 } 
\ No newline at end of file
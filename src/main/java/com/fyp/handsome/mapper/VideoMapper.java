@@ -1,14 +1,29 @@
 package com.fyp.handsome.mapper;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fyp.handsome.dto.video.LocationCount;
+import com.fyp.handsome.dto.video.SourceCount;
+import com.fyp.handsome.dto.video.VideoBucketCount;
+import com.fyp.handsome.dto.video.VideoSearchHit;
+import com.fyp.handsome.dto.visualization.LocationDayCount;
 import com.fyp.handsome.entity.Video;
 
 /**
@@ -17,12 +32,25 @@ import com.fyp.handsome.entity.Video;
  */
 public interface VideoMapper extends BaseMapper<Video> {
 
+    String COLUMN_VIDEO_NAME = "video_name";
+    String COLUMN_SHOOTING_LOCATION = "shooting_location";
+
     /**
-     * 根据视频名称模糊查询视频列表
-     * @param videoName 视频名称
-     * @return 视频列表
+     * 视频名称关键字条件：关键字不少于一个分词长度时走全文索引短语匹配，否则退回 LIKE
+     * 参数需先经 FullTextSearchUtils.normalize 规范化
      */
-    List<Video> selectByVideoNameLike(@Param("videoName") String videoName);
+    String KEYWORD_FILTER_VIDEO_NAME =
+            "<choose><when test='videoName.length() &gt;= 2'>" +
+            " AND MATCH(video_name) AGAINST(CONCAT('\"', #{videoName}, '\"') IN BOOLEAN MODE)</when>" +
+            "<otherwise> AND video_name LIKE CONCAT('%', #{videoName}, '%')</otherwise></choose>";
+
+    /**
+     * 拍摄地点关键字条件（规则同视频名称）
+     */
+    String KEYWORD_FILTER_SHOOTING_LOCATION =
+            "<choose><when test='shootingLocation.length() &gt;= 2'>" +
+            " AND MATCH(shooting_location) AGAINST(CONCAT('\"', #{shootingLocation}, '\"') IN BOOLEAN MODE)</when>" +
+            "<otherwise> AND shooting_location LIKE CONCAT('%', #{shootingLocation}, '%')</otherwise></choose>";
 
     /**
      * 根据拍摄地点查询视频列表
@@ -66,6 +94,207 @@ public interface VideoMapper extends BaseMapper<Video> {
                                           @Param("startTime") LocalDateTime startTime,
                                           @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * 游标（键集）分页查询视频信息
+     * 按 (create_time, id) 倒序定位，命中 idx_status_create_time 复合索引，不做OFFSET扫描和COUNT统计
+     * @param videoName 视频名称（可选，全文检索）
+     * @param shootingLocation 拍摄地点（可选，全文检索）
+     * @param videoSource 视频来源（可选）
+     * @param startTime 拍摄开始时间（可选）
+     * @param endTime 拍摄结束时间（可选）
+     * @param cursorTime 游标创建时间（可选，为空表示首页）
+     * @param cursorId 游标记录ID（可选，为空表示首页）
+     * @param limit 查询条数
+     * @return 视频列表
+     */
+    @Select("<script>" +
+            "SELECT * FROM video_info WHERE status = 1" +
+            "<if test='videoName != null and videoName != \"\"'>" + KEYWORD_FILTER_VIDEO_NAME + "</if>" +
+            "<if test='shootingLocation != null and shootingLocation != \"\"'>" + KEYWORD_FILTER_SHOOTING_LOCATION + "</if>" +
+            "<if test='videoSource != null and videoSource != \"\"'> AND video_source = #{videoSource}</if>" +
+            "<if test='startTime != null'> AND shooting_time &gt;= #{startTime}</if>" +
+            "<if test='endTime != null'> AND shooting_time &lt;= #{endTime}</if>" +
+            "<if test='cursorTime != null and cursorId != null'>" +
+            " AND (create_time &lt; #{cursorTime} OR (create_time = #{cursorTime} AND id &lt; #{cursorId}))" +
+            "</if>" +
+            " ORDER BY create_time DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<Video> selectPageByCursor(@Param("videoName") String videoName,
+                                   @Param("shootingLocation") String shootingLocation,
+                                   @Param("videoSource") String videoSource,
+                                   @Param("startTime") LocalDateTime startTime,
+                                   @Param("endTime") LocalDateTime endTime,
+                                   @Param("cursorTime") LocalDateTime cursorTime,
+                                   @Param("cursorId") Long cursorId,
+                                   @Param("limit") Integer limit);
+
+    /**
+     * 流式查询视频信息（用于导出）
+     * MySQL驱动在 fetchSize 为 Integer.MIN_VALUE 时逐行读取结果集，需在事务内消费游标
+     * @param videoIds 视频ID列表（可选，为空时按条件导出）
+     * @param videoName 视频名称（可选，全文检索）
+     * @param shootingLocation 拍摄地点（可选，全文检索）
+     * @param videoSource 视频来源（可选）
+     * @param startTime 拍摄开始时间（可选）
+     * @param endTime 拍摄结束时间（可选）
+     * @return 视频游标
+     */
+    @Select("<script>" +
+            "SELECT * FROM video_info WHERE status = 1" +
+            "<if test='videoIds != null and videoIds.size() &gt; 0'> AND id IN " +
+            "<foreach collection='videoIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</if>" +
+            "<if test='videoName != null and videoName != \"\"'>" + KEYWORD_FILTER_VIDEO_NAME + "</if>" +
+            "<if test='shootingLocation != null and shootingLocation != \"\"'>" + KEYWORD_FILTER_SHOOTING_LOCATION + "</if>" +
+            "<if test='videoSource != null and videoSource != \"\"'> AND video_source = #{videoSource}</if>" +
+            "<if test='startTime != null'> AND shooting_time &gt;= #{startTime}</if>" +
+            "<if test='endTime != null'> AND shooting_time &lt;= #{endTime}</if>" +
+            " ORDER BY id" +
+            "</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Video> selectCursorForExport(@Param("videoIds") Collection<Long> videoIds,
+                                        @Param("videoName") String videoName,
+                                        @Param("shootingLocation") String shootingLocation,
+                                        @Param("videoSource") String videoSource,
+                                        @Param("startTime") LocalDateTime startTime,
+                                        @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 多行VALUES批量插入视频信息（单条INSERT语句写入整批数据）
+     * @param videos 视频列表（调用方需控制单批数量），写入后回填自增ID
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO video_info (video_name, shooting_time, shooting_location, video_source, " +
+            "file_path, file_size, duration, width, height, video_codec, bit_rate, status, create_time, update_time) VALUES " +
+            "<foreach collection='videos' item='v' separator=','>" +
+            "(#{v.videoName}, #{v.shootingTime}, #{v.shootingLocation}, #{v.videoSource}, " +
+            "#{v.filePath}, #{v.fileSize}, #{v.duration}, #{v.width}, #{v.height}, #{v.videoCodec}, #{v.bitRate}, " +
+            "#{v.status}, #{v.createTime}, #{v.updateTime})" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "videos.id", keyColumn = "id")
+    int insertBatchValues(@Param("videos") List<Video> videos);
+
+    /**
+     * 查询已存在的视频名称（用于批量导入时一次性校验名称唯一性）
+     * @param videoNames 待校验的视频名称集合
+     * @return 已存在的视频名称列表
+     */
+    @Select("<script>" +
+            "SELECT video_name FROM video_info WHERE status = 1 AND video_name IN " +
+            "<foreach collection='videoNames' item='name' open='(' separator=',' close=')'>#{name}</foreach>" +
+            "</script>")
+    List<String> selectExistingVideoNames(@Param("videoNames") Collection<String> videoNames);
+
+    /**
+     * 按小时或天统计时间范围内新增的有效视频数量（按 idx_status_create_time 范围扫描，左闭右开）
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param hourly 是否按小时分桶，否则按天
+     * @return 有新增视频的时间桶计数
+     */
+    @Select("<script>" +
+            "SELECT CAST(DATE_FORMAT(create_time, " +
+            "<choose><when test='hourly'>'%Y-%m-%d %H:00:00'</when><otherwise>'%Y-%m-%d 00:00:00'</otherwise></choose>" +
+            ") AS DATETIME) AS bucket_time, COUNT(*) AS video_count " +
+            "FROM video_info WHERE status = 1 AND create_time &gt;= #{startTime} AND create_time &lt; #{endTime} " +
+            "GROUP BY bucket_time" +
+            "</script>")
+    @ConstructorArgs({
+            @Arg(column = "bucket_time", javaType = LocalDateTime.class),
+            @Arg(column = "video_count", javaType = long.class)
+    })
+    List<VideoBucketCount> selectCreatedBucketCounts(@Param("startTime") LocalDateTime startTime,
+                                                     @Param("endTime") LocalDateTime endTime,
+                                                     @Param("hourly") boolean hourly);
+
+    /**
+     * 流式读取全部有效视频名称（用于导入前一次性加载名称集合）
+     * @param handler 逐行处理器
+     */
+    @Select("SELECT video_name FROM video_info WHERE status = 1")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    void selectActiveVideoNames(ResultHandler<String> handler);
+
+    /**
+     * 查询视频拍摄地点（不过滤已删除视频，与分析结果热力图的统计口径一致）
+     * @param id 视频ID
+     * @return 拍摄地点
+     */
+    @Select("SELECT shooting_location FROM video_info WHERE id = #{id}")
+    String selectShootingLocation(@Param("id") Long id);
+
+    /**
+     * 按（拍摄地点, 拍摄日期）流式统计视频数量（用于构建热力图）
+     * @param handler 逐行处理器
+     */
+    @Select("SELECT shooting_location AS location, DATE(shooting_time) AS day, COUNT(*) AS count FROM video_info " +
+            "WHERE status = 1 AND shooting_time IS NOT NULL GROUP BY shooting_location, DATE(shooting_time)")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ConstructorArgs({
+            @Arg(column = "location", javaType = String.class),
+            @Arg(column = "day", javaType = LocalDate.class),
+            @Arg(column = "count", javaType = long.class)
+    })
+    void selectLocationDayCounts(ResultHandler<LocationDayCount> handler);
+
+    /**
+     * 查询尚未生成缩略图的视频（按ID递增分批读取）
+     * @param afterId 起始ID（不含）
+     * @param limit 条数
+     * @return 仅包含ID和文件路径的视频列表
+     */
+    @Select("SELECT id, file_path FROM video_info " +
+            "WHERE thumbnail_key IS NULL AND id > #{afterId} AND status = 1 AND file_path IS NOT NULL AND file_path <> '' " +
+            "ORDER BY id LIMIT #{limit}")
+    List<Video> selectPendingThumbnails(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 更新缩略图内容摘要（传null时清除，视频会重新进入待生成队列）
+     * @param id 视频ID
+     * @param thumbnailKey 内容摘要
+     * @return 影响行数
+     */
+    @Update("UPDATE video_info SET thumbnail_key = #{thumbnailKey}, update_time = update_time WHERE id = #{id}")
+    int updateThumbnailKey(@Param("id") Long id, @Param("thumbnailKey") String thumbnailKey);
+
+    /**
+     * 全文检索单列，按相关度倒序返回命中ID
+     * @param column 检索列（{@link #COLUMN_VIDEO_NAME} 或 {@link #COLUMN_SHOOTING_LOCATION}）
+     * @param phrase 布尔模式短语表达式
+     * @param limit 返回条数
+     * @return 命中结果
+     */
+    @Select("SELECT id, MATCH(${column}) AGAINST(#{phrase} IN BOOLEAN MODE) AS score FROM video_info " +
+            "WHERE MATCH(${column}) AGAINST(#{phrase} IN BOOLEAN MODE) AND status = 1 " +
+            "ORDER BY score DESC, id DESC LIMIT #{limit}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class),
+            @Arg(column = "score", javaType = double.class)
+    })
+    List<VideoSearchHit> searchFullText(@Param("column") String column,
+                                        @Param("phrase") String phrase,
+                                        @Param("limit") int limit);
+
+    /**
+     * 单列子串检索（关键字短于分词长度时使用），命中结果得分均为1
+     * @param column 检索列（{@link #COLUMN_VIDEO_NAME} 或 {@link #COLUMN_SHOOTING_LOCATION}）
+     * @param keyword 关键字
+     * @param limit 返回条数
+     * @return 命中结果
+     */
+    @Select("SELECT id, 1 AS score FROM video_info " +
+            "WHERE ${column} LIKE CONCAT('%', #{keyword}, '%') AND status = 1 " +
+            "ORDER BY id DESC LIMIT #{limit}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class),
+            @Arg(column = "score", javaType = double.class)
+    })
+    List<VideoSearchHit> searchLike(@Param("column") String column,
+                                    @Param("keyword") String keyword,
+                                    @Param("limit") int limit);
+
     /**
      * 统计视频总数
      * @return 视频总数
@@ -74,9 +303,26 @@ public interface VideoMapper extends BaseMapper<Video> {
     Long countTotal();
 
     /**
-     * 统计各来源视频数量
-     * @return 统计结果列表
+     * 统计各来源视频数量（直接GROUP BY，用于计数表核对）
+     * @return 来源计数列表
+     */
+    @Select("SELECT IFNULL(video_source, '') AS source, COUNT(*) AS count FROM video_info " +
+            "WHERE status = 1 GROUP BY IFNULL(video_source, '')")
+    @ConstructorArgs({
+            @Arg(column = "source", javaType = String.class),
+            @Arg(column = "count", javaType = long.class)
+    })
+    List<SourceCount> countByVideoSource();
+
+    /**
+     * 统计各拍摄地点视频数量（直接GROUP BY，用于计数表核对）
+     * @return 地点计数列表
      */
-    @Select("SELECT video_source, COUNT(*) as count FROM video_info GROUP BY video_source")
-    List<Object> countByVideoSource();
+    @Select("SELECT IFNULL(shooting_location, '') AS location, COUNT(*) AS count FROM video_info " +
+            "WHERE status = 1 GROUP BY IFNULL(shooting_location, '')")
+    @ConstructorArgs({
+            @Arg(column = "location", javaType = String.class),
+            @Arg(column = "count", javaType = long.class)
+    })
+    List<LocationCount> countByShootingLocation();
 } 
\ No newline at end of file
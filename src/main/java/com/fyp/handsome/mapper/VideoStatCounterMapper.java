@@ -0,0 +1,83 @@
+package com.fyp.handsome.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import com.fyp.handsome.dto.video.LocationCount;
+import com.fyp.handsome.dto.video.SourceCount;
+
+/**
+ * 视频分组计数Mapper接口
+ * 维护 video_stat_counter 物化计数表，统计查询只读取分组行而不扫描 video_info
+ * @author ziye
+ */
+public interface VideoStatCounterMapper {
+
+    /**
+     * 维度：视频来源
+     */
+    String DIMENSION_SOURCE = "source";
+
+    /**
+     * 维度：拍摄地点
+     */
+    String DIMENSION_LOCATION = "location";
+
+    /**
+     * 增减指定分组的计数（分组不存在时插入）
+     * @param dimension 统计维度
+     * @param dimValue 维度取值
+     * @param delta 增量（可为负数）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO video_stat_counter (dimension, dim_value, video_count) " +
+            "VALUES (#{dimension}, #{dimValue}, GREATEST(#{delta}, 0)) " +
+            "ON DUPLICATE KEY UPDATE video_count = GREATEST(video_count + #{delta}, 0)")
+    int increment(@Param("dimension") String dimension,
+                  @Param("dimValue") String dimValue,
+                  @Param("delta") long delta);
+
+    /**
+     * 查询各来源视频数量
+     * @return 来源计数列表
+     */
+    @Select("SELECT dim_value, video_count FROM video_stat_counter " +
+            "WHERE dimension = 'source' AND video_count > 0 ORDER BY video_count DESC")
+    @ConstructorArgs({
+            @Arg(column = "dim_value", javaType = String.class),
+            @Arg(column = "video_count", javaType = long.class)
+    })
+    List<SourceCount> selectSourceCounts();
+
+    /**
+     * 查询各拍摄地点视频数量
+     * @return 地点计数列表
+     */
+    @Select("SELECT dim_value, video_count FROM video_stat_counter " +
+            "WHERE dimension = 'location' AND video_count > 0 ORDER BY video_count DESC")
+    @ConstructorArgs({
+            @Arg(column = "dim_value", javaType = String.class),
+            @Arg(column = "video_count", javaType = long.class)
+    })
+    List<LocationCount> selectLocationCounts();
+
+    /**
+     * 统计计数表行数（用于判断是否需要初始化）
+     * @return 行数
+     */
+    @Select("SELECT COUNT(*) FROM video_stat_counter")
+    long countRows();
+
+    /**
+     * 清空计数表
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM video_stat_counter")
+    int deleteAll();
+}
@@ -0,0 +1,75 @@
+package com.fyp.handsome.security;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fyp.handsome.config.AuthProperties;
+import com.fyp.handsome.dto.Result;
+import com.fyp.handsome.dto.ResultCode;
+import com.fyp.handsome.service.impl.user.AccessTokenClaims;
+import com.fyp.handsome.service.impl.user.UserAuthServiceImpl;
+import com.fyp.handsome.service.impl.user.UserPermissionCache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 认证拦截器
+ * 每个请求解析一次Bearer令牌并放入请求属性，令牌校验和权限集合均在内存中完成；
+ * 匿名接口在注册时排除，不经过本拦截器
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthInterceptor implements HandlerInterceptor {
+
+    /**
+     * 请求属性名：认证主体
+     */
+    public static final String PRINCIPAL_ATTRIBUTE = AuthPrincipal.class.getName();
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final UserAuthServiceImpl userAuthService;
+    private final UserPermissionCache userPermissionCache;
+    private final AuthProperties authProperties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            // 未携带令牌：按配置决定是否拒绝，不拒绝时由 @CurrentUser 参数决定
+            if (authProperties.isRequireAuthentication()) {
+                writeUnauthorized(response, "未登录");
+                return false;
+            }
+            return true;
+        }
+        
+        AccessTokenClaims claims = userAuthService.verifyAccessToken(header.substring(BEARER_PREFIX.length()).trim());
+        if (claims == null) {
+            writeUnauthorized(response, "登录已失效，请重新登录");
+            return false;
+        }
+        
+        request.setAttribute(PRINCIPAL_ATTRIBUTE,
+                new AuthPrincipal(claims.userId(), claims.username(), userPermissionCache.get(claims.userId())));
+        return true;
+    }
+
+    private void writeUnauthorized(HttpServletResponse response, String message) throws Exception {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), Result.error(ResultCode.UNAUTHORIZED.getCode(), message));
+    }
+}
@@ -0,0 +1,65 @@
+package com.fyp.handsome.security;
+
+import java.util.BitSet;
+import java.util.Set;
+
+import com.fyp.handsome.service.impl.user.UserPermissionCache;
+
+/**
+ * 当前请求的认证主体（不可变）
+ * 由认证拦截器在每个请求中解析一次，控制器方法通过 {@link CurrentUser} 注入
+ * @author ziye
+ */
+public final class AuthPrincipal {
+
+    private final Long userId;
+    private final String username;
+    private final UserPermissionCache.UserPermissions permissions;
+
+    public AuthPrincipal(Long userId, String username, UserPermissionCache.UserPermissions permissions) {
+        this.userId = userId;
+        this.username = username;
+        this.permissions = permissions;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 角色编码
+     */
+    public Set<String> getRoleCodes() {
+        return permissions.getRoleCodes();
+    }
+
+    /**
+     * 权限ID位图副本
+     */
+    public BitSet getPermissionIds() {
+        return permissions.getPermissionIds();
+    }
+
+    /**
+     * 是否拥有指定角色
+     */
+    public boolean hasRole(String roleCode) {
+        return permissions.getRoleCodes().contains(roleCode);
+    }
+
+    /**
+     * 是否拥有指定权限ID
+     */
+    public boolean hasPermissionId(Long permissionId) {
+        return permissionId != null && permissions.hasPermissionId(permissionId);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthPrincipal{userId=" + userId + ", username=" + username + ", roles=" + getRoleCodes() + "}";
+    }
+}
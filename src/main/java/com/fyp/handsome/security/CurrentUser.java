@@ -0,0 +1,23 @@
+package com.fyp.handsome.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 注入当前请求的认证主体
+ * 用于 {@link AuthPrincipal} 类型的控制器方法参数
+ * @author ziye
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+
+    /**
+     * 是否必须登录，为true且未登录时返回401，为false时未登录注入null
+     */
+    boolean required() default true;
+}
@@ -0,0 +1,44 @@
+package com.fyp.handsome.service;
+
+import java.time.Duration;
+
+/**
+ * 登录会话（token）存储接口
+ * 用于保存刷新令牌，每个用户同时只保留一个有效token，通过 handsome.auth.token-store.type 选择实现
+ * @author ziye
+ */
+public interface TokenStore {
+
+    /**
+     * 保存token（覆盖该用户之前的token）
+     * @param token 访问token
+     * @param userId 用户ID
+     * @param ttl 有效期
+     */
+    void store(String token, Long userId, Duration ttl);
+
+    /**
+     * 根据token获取用户ID
+     * @param token 访问token
+     * @return 用户ID，token不存在或已过期时返回null
+     */
+    Long getUserId(String token);
+
+    /**
+     * 移除指定token
+     * @param token 访问token
+     */
+    void remove(String token);
+
+    /**
+     * 移除用户的token
+     * @param userId 用户ID
+     */
+    void removeByUserId(Long userId);
+
+    /**
+     * 当前有效会话数
+     * @return 会话数
+     */
+    int size();
+}
@@ -4,9 +4,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.fyp.handsome.dto.analysis.AnalysisPayload;
+import com.fyp.handsome.entity.VideoAnalysisJob;
 import com.fyp.handsome.entity.VideoAnalysisResult;
 
 /**
@@ -41,15 +45,54 @@ public interface VideoAnalysisService extends IService<VideoAnalysisResult> {
     VideoAnalysisResult detectEvents(Long videoId);
 
     /**
-     * 批量分析视频
+     * 批量分析视频（异步执行，提交后立即返回任务列表）
      * @param videoIds 视频ID列表
      * @param analysisType 分析类型
-     * @return 分析结果列表
+     * @return 已提交的分析任务列表
+     */
+    List<VideoAnalysisJob> batchAnalyze(List<Long> videoIds, String analysisType);
+
+    // =================== 异步分析任务 ===================
+
+    /**
+     * 提交分析任务
+     * @param videoId 视频ID
+     * @param analysisType 分析类型
+     * @return 已提交的分析任务
+     */
+    VideoAnalysisJob submitAnalysisJob(Long videoId, String analysisType);
+
+    /**
+     * 查询分析任务状态
+     * @param jobId 任务ID
+     * @return 分析任务
      */
-    List<VideoAnalysisResult> batchAnalyze(List<Long> videoIds, String analysisType);
+    VideoAnalysisJob getAnalysisJob(Long jobId);
+
+    /**
+     * 订阅分析任务状态（SSE），任务结束后连接自动关闭
+     * @param jobId 任务ID
+     * @return SSE连接
+     */
+    SseEmitter subscribeAnalysisJob(Long jobId);
 
     // =================== 查询分析结果 ===================
 
+    /**
+     * 根据ID查询分析结果（只存二进制时由二进制还原JSON）
+     * @param resultId 结果ID
+     * @return 分析结果，不存在时为null
+     */
+    VideoAnalysisResult getAnalysisResultById(Long resultId);
+
+    /**
+     * 查询类型化分析结果
+     * @param resultId 结果ID
+     * @param includeDetections 是否包含检测明细
+     * @return 类型化分析结果，结果不存在或没有可解析的内容时为null
+     */
+    AnalysisPayload getAnalysisPayload(Long resultId, boolean includeDetections);
+
     /**
      * 根据视频ID查询分析结果
      * @param videoId 视频ID
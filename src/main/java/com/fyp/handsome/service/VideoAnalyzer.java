@@ -0,0 +1,27 @@
+package com.fyp.handsome.service;
+
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.entity.VideoAnalysisResult;
+
+/**
+ * 视频分析器接口
+ * 屏蔽具体的视频理解后端（本地模拟、外部服务等），通过 handsome.analysis.analyzer 选择实现
+ * @author ziye
+ */
+public interface VideoAnalyzer {
+
+    /**
+     * 获取分析器名称
+     * @return 分析器名称
+     */
+    String getName();
+
+    /**
+     * 分析视频内容
+     * @param video 视频信息
+     * @param analysisType 分析类型
+     * @return 分析结果（只需填充analysisResult、confidenceScore，其余字段由调用方补全）
+     * @throws Exception 分析失败
+     */
+    VideoAnalysisResult analyze(Video video, String analysisType) throws Exception;
+}
@@ -1,11 +1,24 @@
 package com.fyp.handsome.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fyp.handsome.dto.video.VideoBulkIngestResponse;
 import com.fyp.handsome.dto.video.VideoInfoCreateRequest;
+import com.fyp.handsome.dto.video.VideoInfoCursorPageResponse;
 import com.fyp.handsome.dto.video.VideoInfoPageResponse;
 import com.fyp.handsome.dto.video.VideoInfoQueryRequest;
 import com.fyp.handsome.dto.video.VideoInfoResponse;
 import com.fyp.handsome.dto.video.VideoInfoUpdateRequest;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 /**
  * 视频信息管理MVP服务接口
  * 专注于核心的CRUD功能
@@ -20,6 +33,20 @@ public interface VideoMvpService {
      */
     VideoInfoResponse createVideo(VideoInfoCreateRequest request);
 
+    /**
+     * 批量导入视频信息（NDJSON流式解析，分批写入）
+     * @param inputStream NDJSON输入流
+     * @return 导入结果
+     */
+    VideoBulkIngestResponse bulkIngest(InputStream inputStream);
+
+    /**
+     * 从Excel/CSV文件导入视频信息（流式解析，分批写入）
+     * @param file 上传文件（.xlsx 或 .csv，第一行为表头）
+     * @return 导入结果
+     */
+    VideoBulkIngestResponse importVideos(MultipartFile file);
+
     /**
      * 分页查询视频信息
      * @param request 查询请求
@@ -27,6 +54,21 @@ public interface VideoMvpService {
      */
     VideoInfoPageResponse queryVideos(VideoInfoQueryRequest request);
 
+    /**
+     * 游标分页查询视频信息
+     * @param request 查询请求（使用cursor字段定位）
+     * @return 游标分页查询结果
+     */
+    VideoInfoCursorPageResponse queryVideosByCursor(VideoInfoQueryRequest request);
+
+    /**
+     * 按关键字全文检索视频名称和拍摄地点
+     * @param keyword 关键字
+     * @param limit 返回条数（为空时默认20，最大100）
+     * @return 按相关度倒序排列的视频列表
+     */
+    List<VideoInfoResponse> searchVideos(String keyword, Integer limit);
+
     /**
      * 根据ID查询视频信息
      * @param id 视频ID
@@ -34,6 +76,25 @@ public interface VideoMvpService {
      */
     VideoInfoResponse getVideoById(Long id);
 
+    /**
+     * 播放视频文件（支持Range分段请求和条件请求）
+     * @param id 视频ID
+     * @param request HTTP请求
+     * @param response HTTP响应
+     */
+    void streamVideo(Long id, HttpServletRequest request, HttpServletResponse response) throws IOException;
+
+    /**
+     * 获取视频缩略图（从缩略图缓存读取，不访问视频源文件）
+     * @param id 视频ID
+     * @param type 图片类型：poster-封面（默认），strip-关键帧条
+     * @param version 地址中的内容版本
+     * @param request HTTP请求
+     * @param response HTTP响应
+     */
+    void getThumbnail(Long id, String type, String version,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException;
+
     /**
      * 更新视频信息
      * @param id 视频ID
@@ -47,4 +108,19 @@ public interface VideoMvpService {
      * @param id 视频ID
      */
     void deleteVideo(Long id);
+
+    /**
+     * 视频统计（总数、各来源数量、各地点数量）
+     * @return 统计结果
+     */
+    Map<String, Object> getVideoStatistics();
+
+    /**
+     * 按条件导出视频信息到Excel（流式写出）
+     * @param videoIds 视频ID列表（可选，为空时按条件导出全部）
+     * @param request 查询条件
+     * @param outputStream 输出流
+     * @return 导出行数
+     */
+    long exportVideos(List<Long> videoIds, VideoInfoQueryRequest request, OutputStream outputStream) throws IOException;
 } 
\ No newline at end of file
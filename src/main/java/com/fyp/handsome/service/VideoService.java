@@ -1,12 +1,17 @@
 package com.fyp.handsome.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.web.multipart.MultipartFile;
+
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.fyp.handsome.dto.video.VideoBulkIngestResponse;
 import com.fyp.handsome.entity.Video;
 
 /**
@@ -56,9 +61,9 @@ public interface VideoService extends IService<Video> {
     // =================== 查询操作 ===================
 
     /**
-     * 根据视频名称模糊查询
-     * @param videoName 视频名称
-     * @return 视频列表
+     * 根据视频名称全文检索
+     * @param videoName 视频名称关键字
+     * @return 视频列表（按相关度排序，最多100条）
      */
     List<Video> getVideosByName(String videoName);
 
@@ -140,18 +145,19 @@ public interface VideoService extends IService<Video> {
     boolean restoreVideoData(String backupPath);
 
     /**
-     * 导出视频信息到Excel
+     * 导出视频信息到Excel（流式写出，不在内存中缓存整个文件）
      * @param videoIds 视频ID列表（可选，为空则导出全部）
-     * @return Excel文件字节数组
+     * @param outputStream 输出流
+     * @return 导出行数
      */
-    byte[] exportToExcel(List<Long> videoIds);
+    long exportToExcel(List<Long> videoIds, OutputStream outputStream) throws IOException;
 
     /**
-     * 从Excel导入视频信息
-     * @param excelBytes Excel文件字节数组
-     * @return 导入结果
+     * 从Excel/CSV导入视频信息（流式读取，分批写入）
+     * @param file 上传文件（.xlsx 或 .csv，第一行为表头）
+     * @return 导入结果（含批次结果和行级错误）
      */
-    Map<String, Object> importFromExcel(byte[] excelBytes);
+    VideoBulkIngestResponse importFromExcel(MultipartFile file);
 
     // =================== 批量操作 ===================
 
@@ -1,9 +1,14 @@
 package com.fyp.handsome.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fyp.handsome.dto.visualization.HeatmapTile;
+
 /**
  * 可视化服务接口
  * 负责地图展示、报表生成逻辑
@@ -21,14 +26,19 @@ public interface VisualizationService {
 
     /**
      * 获取指定区域的监控点
-     * @param minLatitude 最小纬度
+     * 提供中心点时按距离由近到远返回最近的若干个（可同时限定区域）
+     * @param minLatitude 最小纬度（可选，区域四个参数需同时提供）
      * @param maxLatitude 最大纬度
-     * @param minLongitude 最小经度
+     * @param minLongitude 最小经度（大于最大经度时表示跨越180度经线）
      * @param maxLongitude 最大经度
+     * @param latitude 中心点纬度（可选）
+     * @param longitude 中心点经度（可选）
+     * @param limit 最近邻返回条数（可选，仅提供中心点时生效）
      * @return 监控点列表
      */
     List<Map<String, Object>> getMonitorPointsByArea(Double minLatitude, Double maxLatitude, 
-                                                      Double minLongitude, Double maxLongitude);
+                                                      Double minLongitude, Double maxLongitude,
+                                                      Double latitude, Double longitude, Integer limit);
 
     /**
      * 获取监控点状态统计
@@ -37,13 +47,25 @@ public interface VisualizationService {
     Map<String, Object> getMonitorPointStatusStatistics();
 
     /**
-     * 获取视频热力图数据
+     * 获取视频热力图数据（按监控点汇总，时间范围按天计算）
      * @param startTime 开始时间
      * @param endTime 结束时间
      * @return 热力图数据
      */
     Map<String, Object> getVideoHeatmapData(LocalDateTime startTime, LocalDateTime endTime);
 
+    /**
+     * 获取热力图瓦片（按Web墨卡托瓦片坐标预聚合的网格计数）
+     * @param layer 图层（video、analysis）
+     * @param z 缩放级别
+     * @param x 瓦片列号
+     * @param y 瓦片行号
+     * @param startDate 开始日期（可选）
+     * @param endDate 结束日期（可选）
+     * @return 热力图瓦片
+     */
+    HeatmapTile getHeatmapTile(String layer, int z, int x, int y, LocalDate startDate, LocalDate endDate);
+
     /**
      * 获取事件分布地图数据
      * @param eventType 事件类型（可选）
@@ -116,12 +138,19 @@ public interface VisualizationService {
     Map<String, Object> getLiveVideoByMonitorPoint(Long monitorPointId);
 
     /**
-     * 获取实时事件告警
+     * 获取最近的实时事件告警（由新到旧）
      * @param limit 限制数量
      * @return 实时事件列表
      */
     List<Map<String, Object>> getRealTimeAlerts(Integer limit);
 
+    /**
+     * 订阅实时事件告警（SSE）
+     * @param lastSequence 客户端最后收到的告警序号（可选，提供时补发之后的告警）
+     * @return SSE连接
+     */
+    SseEmitter subscribeRealTimeAlerts(Long lastSequence);
+
     // =================== 仪表板数据 ===================
 
     /**
@@ -131,7 +160,7 @@ public interface VisualizationService {
     Map<String, Object> getDashboardOverview();
 
     /**
-     * 获取视频统计图表数据
+     * 获取视频统计图表数据（各时间桶新增的有效视频数量，按创建时间）
      * @param chartType 图表类型（line、bar、pie等）
      * @param timeRange 时间范围
      * @return 图表数据
@@ -139,7 +168,7 @@ public interface VisualizationService {
     Map<String, Object> getVideoStatisticsChartData(String chartType, String timeRange);
 
     /**
-     * 获取分析结果统计图表数据
+     * 获取分析结果统计图表数据（data为各分析类型的数量，trend为各时间桶的分析数量）
      * @param chartType 图表类型
      * @param timeRange 时间范围
      * @return 图表数据
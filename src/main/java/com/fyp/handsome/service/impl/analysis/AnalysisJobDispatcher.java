@@ -0,0 +1,221 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.AnalysisProperties;
+import com.fyp.handsome.entity.VideoAnalysisJob;
+import com.fyp.handsome.mapper.VideoAnalysisJobMapper;
+import com.fyp.handsome.service.impl.migration.SchemaMigrationRunner;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分析任务调度组件
+ * 从持久化任务队列中领取任务，交给虚拟线程执行；
+ * 全局与各分析类型的并发数分别由信号量控制，不超过上游服务的并发上限；
+ * 执行中的任务定期刷新心跳，心跳超时的执行中任务（所在实例已退出）由任一实例定期放回队列；
+ * 依赖数据库迁移组件，启动时任务表已创建
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn(SchemaMigrationRunner.BEAN_NAME)
+public class AnalysisJobDispatcher implements SmartLifecycle {
+
+    /**
+     * 停止时等待执行中任务结束的时间（秒）
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /**
+     * 每个超时周期内刷新心跳的次数
+     */
+    private static final int HEARTBEATS_PER_STALE_PERIOD = 3;
+
+    private final VideoAnalysisJobMapper videoAnalysisJobMapper;
+    private final AnalysisJobExecutor analysisJobExecutor;
+    private final AnalysisProperties analysisProperties;
+
+    /**
+     * 各分析类型的并发信号量
+     */
+    private final Map<String, Semaphore> typePermits = new ConcurrentHashMap<>();
+
+    /**
+     * 唤醒信号（有新任务提交或任务结束时释放）
+     */
+    private final Semaphore wakeSignal = new Semaphore(0);
+
+    /**
+     * 本实例执行中的任务
+     */
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running = false;
+    private Semaphore globalPermits;
+    private ExecutorService workerExecutor;
+    private Thread dispatcherThread;
+    private long nextHeartbeatAt;
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        
+        // 回收上次异常退出时遗留的执行中任务
+        heartbeat();
+        
+        globalPermits = new Semaphore(analysisProperties.getEffectiveMaxConcurrency());
+        workerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        running = true;
+        dispatcherThread = Thread.ofVirtual().name("analysis-job-dispatcher").start(this::dispatchLoop);
+        log.info("分析任务调度已启动，全局并发数：{}", analysisProperties.getEffectiveMaxConcurrency());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wakeUp();
+        
+        workerExecutor.shutdown();
+        try {
+            dispatcherThread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+            if (!workerExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                // 未完成的任务保持执行中状态，心跳超时后回收
+                workerExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workerExecutor.shutdownNow();
+        }
+        log.info("分析任务调度已停止");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 唤醒调度线程，立即检查队列
+     */
+    public void wakeUp() {
+        wakeSignal.release();
+    }
+
+    /**
+     * 调度主循环
+     */
+    private void dispatchLoop() {
+        while (running) {
+            if (System.currentTimeMillis() >= nextHeartbeatAt) {
+                heartbeat();
+            }
+            try {
+                dispatchPendingJobs();
+            } catch (Exception e) {
+                log.error("调度分析任务失败，错误：{}", e.getMessage(), e);
+            }
+            
+            try {
+                wakeSignal.tryAcquire(analysisProperties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+                wakeSignal.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 刷新本实例执行中任务的心跳，并回收心跳超时的执行中任务
+     */
+    private void heartbeat() {
+        long staleMillis = TimeUnit.MINUTES.toMillis(Math.max(1, analysisProperties.getStaleJobMinutes()));
+        nextHeartbeatAt = System.currentTimeMillis() + staleMillis / HEARTBEATS_PER_STALE_PERIOD;
+        try {
+            if (!runningJobs.isEmpty()) {
+                videoAnalysisJobMapper.touchRunningJobs(List.copyOf(runningJobs));
+            }
+            LocalDateTime staleBefore = LocalDateTime.now().minus(staleMillis, ChronoUnit.MILLIS);
+            int requeued = videoAnalysisJobMapper.requeueStaleJobs(staleBefore);
+            if (requeued > 0) {
+                log.info("已将{}个超时分析任务放回队列", requeued);
+                wakeUp();
+            }
+        } catch (Exception e) {
+            log.error("回收超时分析任务失败，错误：{}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 按分析类型领取排队任务，直到并发许可用完
+     */
+    private void dispatchPendingJobs() {
+        if (globalPermits.availablePermits() == 0) {
+            return;
+        }
+        
+        List<String> analysisTypes = videoAnalysisJobMapper.selectPendingAnalysisTypes();
+        for (String analysisType : analysisTypes) {
+            Semaphore permits = typePermits.computeIfAbsent(analysisType,
+                    type -> new Semaphore(analysisProperties.getEffectiveTypeConcurrency(type)));
+            
+            int available = Math.min(permits.availablePermits(), globalPermits.availablePermits());
+            if (available <= 0) {
+                continue;
+            }
+            
+            List<VideoAnalysisJob> jobs = videoAnalysisJobMapper.selectPendingJobs(analysisType, available);
+            for (VideoAnalysisJob job : jobs) {
+                if (!globalPermits.tryAcquire()) {
+                    return;
+                }
+                if (!permits.tryAcquire()) {
+                    globalPermits.release();
+                    break;
+                }
+                
+                // 领取失败说明已被其他实例领取
+                String claimToken = UUID.randomUUID().toString().replace("-", "");
+                if (videoAnalysisJobMapper.claimJob(job.getId(), claimToken) != 1) {
+                    permits.release();
+                    globalPermits.release();
+                    continue;
+                }
+                
+                runningJobs.add(job.getId());
+                workerExecutor.execute(() -> {
+                    try {
+                        analysisJobExecutor.execute(job, claimToken);
+                    } finally {
+                        runningJobs.remove(job.getId());
+                        permits.release();
+                        globalPermits.release();
+                        wakeUp();
+                    }
+                });
+            }
+        }
+    }
+}
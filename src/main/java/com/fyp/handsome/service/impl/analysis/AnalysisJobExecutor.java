@@ -0,0 +1,158 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.time.LocalDateTime;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.entity.VideoAnalysisJob;
+import com.fyp.handsome.entity.VideoAnalysisResult;
+import com.fyp.handsome.event.AnalysisResultSavedEvent;
+import com.fyp.handsome.exception.VideoNotFoundException;
+import com.fyp.handsome.mapper.VideoAnalysisJobMapper;
+import com.fyp.handsome.mapper.VideoMapper;
+import com.fyp.handsome.service.VideoAnalyzer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分析任务执行组件
+ * 调用视频分析器并保存结果，同步分析接口与异步任务共用此逻辑；
+ * 异步任务的结果与任务状态在同一事务内写入，任务已被重新领取时丢弃本次结果
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class AnalysisJobExecutor {
+
+    /**
+     * 失败原因最大长度（与表字段一致）
+     */
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 500;
+
+    private final VideoMapper videoMapper;
+    private final AnalysisPayloadStore analysisPayloadStore;
+    private final VideoAnalysisJobMapper videoAnalysisJobMapper;
+    private final VideoAnalyzer videoAnalyzer;
+    private final AnalysisJobNotifier analysisJobNotifier;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public AnalysisJobExecutor(VideoMapper videoMapper, AnalysisPayloadStore analysisPayloadStore,
+                               VideoAnalysisJobMapper videoAnalysisJobMapper, VideoAnalyzer videoAnalyzer,
+                               AnalysisJobNotifier analysisJobNotifier, ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager) {
+        this.videoMapper = videoMapper;
+        this.analysisPayloadStore = analysisPayloadStore;
+        this.videoAnalysisJobMapper = videoAnalysisJobMapper;
+        this.videoAnalyzer = videoAnalyzer;
+        this.analysisJobNotifier = analysisJobNotifier;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 执行分析并保存结果
+     * @param videoId 视频ID
+     * @param analysisType 分析类型
+     * @return 已保存的分析结果
+     * @throws Exception 分析失败
+     */
+    public VideoAnalysisResult analyze(Long videoId, String analysisType) throws Exception {
+        VideoAnalysisResult result = runAnalyzer(videoId, analysisType);
+        analysisPayloadStore.insert(result);
+        publishSaved(result);
+        return result;
+    }
+
+    /**
+     * 执行已领取的任务，并回写任务状态
+     * 任务在执行期间因心跳超时被放回队列并重新领取时，本次的结果和状态都不再写入
+     * @param job 已领取的任务
+     * @param claimToken 领取标识
+     */
+    public void execute(VideoAnalysisJob job, String claimToken) {
+        log.info("开始执行分析任务，jobId：{}，videoId：{}，analysisType：{}，分析器：{}", 
+                job.getId(), job.getVideoId(), job.getAnalysisType(), videoAnalyzer.getName());
+        
+        job.setJobStatus(VideoAnalysisJob.STATUS_RUNNING);
+        job.setStartTime(LocalDateTime.now());
+        analysisJobNotifier.publish(job);
+        
+        try {
+            VideoAnalysisResult result = runAnalyzer(job.getVideoId(), job.getAnalysisType());
+            // 结果与任务状态同一事务写入，任务已不属于本次领取时整体回滚
+            boolean completed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                analysisPayloadStore.insert(result);
+                if (videoAnalysisJobMapper.markSucceeded(job.getId(), claimToken, result.getId()) == 1) {
+                    return true;
+                }
+                status.setRollbackOnly();
+                return false;
+            }));
+            if (!completed) {
+                log.warn("分析任务已被重新领取或已结束，丢弃本次结果，jobId：{}", job.getId());
+                return;
+            }
+            publishSaved(result);
+            
+            job.setJobStatus(VideoAnalysisJob.STATUS_SUCCEEDED);
+            job.setResultId(result.getId());
+            log.info("分析任务执行成功，jobId：{}，resultId：{}", job.getId(), result.getId());
+            
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            String errorMessage = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            if (videoAnalysisJobMapper.markFailed(job.getId(), claimToken, errorMessage) != 1) {
+                log.warn("分析任务已被重新领取或已结束，忽略本次失败，jobId：{}，错误：{}", job.getId(), e.getMessage());
+                return;
+            }
+            
+            job.setJobStatus(VideoAnalysisJob.STATUS_FAILED);
+            job.setErrorMessage(errorMessage);
+            log.error("分析任务执行失败，jobId：{}，错误：{}", job.getId(), e.getMessage(), e);
+        }
+        
+        job.setFinishTime(LocalDateTime.now());
+        analysisJobNotifier.publish(job);
+    }
+
+    /**
+     * 调用分析器并补全结果字段（耗时操作，不在事务内执行）
+     */
+    private VideoAnalysisResult runAnalyzer(Long videoId, String analysisType) throws Exception {
+        Video video = videoMapper.selectById(videoId);
+        if (video == null) {
+            throw new VideoNotFoundException(videoId);
+        }
+        
+        VideoAnalysisResult result = videoAnalyzer.analyze(video, analysisType);
+        result.setVideoId(videoId);
+        result.setAnalysisType(analysisType);
+        if (result.getAnalysisTime() == null) {
+            result.setAnalysisTime(LocalDateTime.now());
+        }
+        result.setStatus(1);
+        return result;
+    }
+
+    /**
+     * 发布分析结果已保存事件（结果已提交后调用）
+     */
+    private void publishSaved(VideoAnalysisResult result) {
+        eventPublisher.publishEvent(new AnalysisResultSavedEvent(result.getId(), result.getVideoId(),
+                result.getAnalysisType(), result.getAnalysisTime(), result.getConfidenceScore()));
+    }
+
+    /**
+     * 截断失败原因
+     */
+    private String truncate(String message) {
+        return message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message;
+    }
+}
@@ -0,0 +1,101 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fyp.handsome.entity.VideoAnalysisJob;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分析任务状态推送组件
+ * 维护任务的SSE订阅者，任务状态变化时推送，任务结束后关闭连接
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class AnalysisJobNotifier {
+
+    /**
+     * SSE连接超时时间（毫秒）
+     */
+    private static final long EMITTER_TIMEOUT_MS = 10 * 60 * 1000L;
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * 订阅任务状态
+     * 先注册订阅再读取当前状态，读取前后发生的状态变化都不会丢失（可能重复推送同一状态）
+     * @param jobId 任务ID
+     * @param currentState 读取当前任务状态（注册后立即推送一次）
+     * @return SSE连接
+     */
+    public SseEmitter subscribe(Long jobId, Supplier<VideoAnalysisJob> currentState) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        subscribers.computeIfAbsent(jobId, key -> new CopyOnWriteArraySet<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(jobId, emitter));
+        emitter.onTimeout(() -> unsubscribe(jobId, emitter));
+        emitter.onError(e -> unsubscribe(jobId, emitter));
+        
+        VideoAnalysisJob job;
+        try {
+            job = currentState.get();
+        } catch (RuntimeException e) {
+            unsubscribe(jobId, emitter);
+            throw e;
+        }
+        if (send(emitter, job) && job.isFinished()) {
+            unsubscribe(jobId, emitter);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * 推送任务状态变化
+     * @param job 最新任务状态
+     */
+    public void publish(VideoAnalysisJob job) {
+        Set<SseEmitter> emitters = job.isFinished() ? subscribers.remove(job.getId()) : subscribers.get(job.getId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            if (send(emitter, job) && job.isFinished()) {
+                emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * 发送单条状态事件
+     * @return 是否发送成功
+     */
+    private boolean send(SseEmitter emitter, VideoAnalysisJob job) {
+        try {
+            emitter.send(SseEmitter.event().name("job-status").data(job));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("推送分析任务状态失败，jobId：{}，错误：{}", job.getId(), e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * 移除订阅
+     */
+    private void unsubscribe(Long jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fyp.handsome.dto.ResultCode;
+import com.fyp.handsome.entity.VideoAnalysisJob;
+import com.fyp.handsome.exception.VideoBusinessException;
+import com.fyp.handsome.mapper.VideoAnalysisJobMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分析任务提交与查询组件
+ * 负责将分析请求写入任务队列并唤醒调度线程，提交后立即返回任务编号
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalysisJobService {
+
+    private final VideoAnalysisJobMapper videoAnalysisJobMapper;
+    private final AnalysisJobDispatcher analysisJobDispatcher;
+    private final AnalysisJobNotifier analysisJobNotifier;
+
+    /**
+     * 提交单个分析任务
+     * @param videoId 视频ID
+     * @param analysisType 分析类型
+     * @return 已入队的任务
+     */
+    public VideoAnalysisJob submit(Long videoId, String analysisType) {
+        return submitBatch(List.of(videoId), analysisType).get(0);
+    }
+
+    /**
+     * 批量提交分析任务（同一请求内重复的视频ID只提交一次）
+     * @param videoIds 视频ID列表
+     * @param analysisType 分析类型
+     * @return 已入队的任务列表
+     */
+    public List<VideoAnalysisJob> submitBatch(List<Long> videoIds, String analysisType) {
+        LocalDateTime now = LocalDateTime.now();
+        List<VideoAnalysisJob> jobs = new ArrayList<>();
+        for (Long videoId : new LinkedHashSet<>(videoIds)) {
+            VideoAnalysisJob job = new VideoAnalysisJob();
+            job.setVideoId(videoId);
+            job.setAnalysisType(analysisType);
+            job.setJobStatus(VideoAnalysisJob.STATUS_PENDING);
+            job.setCreateTime(now);
+            job.setUpdateTime(now);
+            jobs.add(job);
+        }
+        
+        videoAnalysisJobMapper.insertBatchValues(jobs);
+        analysisJobDispatcher.wakeUp();
+        
+        log.info("分析任务已提交，数量：{}，analysisType：{}", jobs.size(), analysisType);
+        return jobs;
+    }
+
+    /**
+     * 查询任务
+     * @param jobId 任务ID
+     * @return 任务
+     */
+    public VideoAnalysisJob getJob(Long jobId) {
+        VideoAnalysisJob job = videoAnalysisJobMapper.selectById(jobId);
+        if (job == null) {
+            throw new VideoBusinessException(ResultCode.ANALYSIS_NOT_FOUND.getCode(), "分析任务不存在，jobId：" + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * 订阅任务状态
+     * @param jobId 任务ID
+     * @return SSE连接
+     */
+    public SseEmitter subscribe(Long jobId) {
+        return analysisJobNotifier.subscribe(jobId, () -> getJob(jobId));
+    }
+}
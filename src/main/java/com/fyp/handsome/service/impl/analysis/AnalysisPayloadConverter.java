@@ -0,0 +1,203 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fyp.handsome.dto.analysis.AnalysisPayload;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分析结果JSON与类型化模型的转换
+ * JSON中 summary、confidence、detectedObjects 转为结构化字段，其余字段原样放入 extra；
+ * detectedObjects 元素可以是类别字符串，也可以是对象：
+ * class/type/label 为类别，count 为数量（默认1），offsetSeconds 或 offsetMillis 为在视频中的偏移，
+ * confidence/score 为置信度，box（x、y、width、height）或 bbox（[x, y, 宽, 高]）为目标框
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalysisPayloadConverter {
+
+    private static final String FIELD_SUMMARY = "summary";
+    private static final String FIELD_CONFIDENCE = "confidence";
+    private static final String FIELD_DETECTED_OBJECTS = "detectedObjects";
+
+    private static final Set<String> MODELED_FIELDS = Set.of(FIELD_SUMMARY, FIELD_CONFIDENCE, FIELD_DETECTED_OBJECTS);
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 解析分析结果JSON
+     * @param json 分析结果JSON
+     * @return 类型化模型，JSON为空或不是对象时返回null
+     */
+    public AnalysisPayload fromJson(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(json);
+        } catch (Exception e) {
+            log.debug("分析结果不是有效JSON：{}", e.getMessage());
+            return null;
+        }
+        if (root == null || !root.isObject()) {
+            return null;
+        }
+
+        String summary = root.hasNonNull(FIELD_SUMMARY) ? root.get(FIELD_SUMMARY).asText() : null;
+        Double confidence = root.path(FIELD_CONFIDENCE).isNumber() ? root.get(FIELD_CONFIDENCE).asDouble() : null;
+        List<AnalysisPayload.Detection> detections = new ArrayList<>();
+        JsonNode objects = root.path(FIELD_DETECTED_OBJECTS);
+        if (objects.isArray()) {
+            for (JsonNode object : objects) {
+                AnalysisPayload.Detection detection = toDetection(object);
+                if (detection != null) {
+                    detections.add(detection);
+                }
+            }
+        }
+
+        ObjectNode extra = objectMapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!MODELED_FIELDS.contains(field.getKey())) {
+                extra.set(field.getKey(), field.getValue());
+            }
+        }
+        return new AnalysisPayload(summary, confidence, detections, extra.isEmpty() ? null : extra.toString());
+    }
+
+    private static AnalysisPayload.Detection toDetection(JsonNode object) {
+        if (object.isTextual()) {
+            return new AnalysisPayload.Detection(object.asText(), 1, 0, null, null);
+        }
+        if (!object.isObject()) {
+            return null;
+        }
+        String objectClass = firstText(object, "class", "type", "label");
+        if (objectClass == null) {
+            return null;
+        }
+        int count = object.path("count").asInt(1);
+        long offsetMillis = object.has("offsetMillis")
+                ? object.path("offsetMillis").asLong(0)
+                : Math.round(object.path("offsetSeconds").asDouble(0) * 1000);
+        JsonNode score = object.hasNonNull("confidence") ? object.get("confidence") : object.get("score");
+        Double confidence = score != null && score.isNumber() ? score.asDouble() : null;
+        return new AnalysisPayload.Detection(objectClass, count, offsetMillis, confidence, toBox(object));
+    }
+
+    private static AnalysisPayload.BoundingBox toBox(JsonNode object) {
+        JsonNode box = object.path("box");
+        if (box.isObject()) {
+            return new AnalysisPayload.BoundingBox((float) box.path("x").asDouble(), (float) box.path("y").asDouble(),
+                    (float) box.path("width").asDouble(), (float) box.path("height").asDouble());
+        }
+        JsonNode bbox = object.path("bbox");
+        if (bbox.isArray() && bbox.size() == 4) {
+            return new AnalysisPayload.BoundingBox((float) bbox.get(0).asDouble(), (float) bbox.get(1).asDouble(),
+                    (float) bbox.get(2).asDouble(), (float) bbox.get(3).asDouble());
+        }
+        return null;
+    }
+
+    private static String firstText(JsonNode node, String... fields) {
+        for (String field : fields) {
+            if (node.hasNonNull(field)) {
+                return node.get(field).asText();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断类型化模型还原出的JSON是否与原JSON一致（字段顺序不计）
+     * 模型不覆盖的内容（缺少类别的检测目标、非数组的 detectedObjects、非数值的 confidence、非文本的 summary、
+     * 字段别名等）还原后会丢失或改变，此时不一致
+     * @param json 原分析结果JSON
+     * @param payload 类型化模型
+     * @return 是否一致，原JSON无法解析时为false
+     */
+    public boolean isLossless(String json, AnalysisPayload payload) {
+        if (json == null || payload == null) {
+            return false;
+        }
+        try {
+            return objectMapper.readTree(json).equals(objectMapper.readTree(toJson(payload)));
+        } catch (Exception e) {
+            log.debug("分析结果不是有效JSON：{}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 还原为分析结果JSON
+     * 只有类别的检测目标还原为字符串，其余还原为对象（偏移以秒表示，目标框以 box 表示）
+     * @param payload 类型化模型
+     * @return 分析结果JSON
+     */
+    public String toJson(AnalysisPayload payload) {
+        ObjectNode root = objectMapper.createObjectNode();
+        if (payload.summary() != null) {
+            root.put(FIELD_SUMMARY, payload.summary());
+        }
+        if (payload.confidence() != null) {
+            root.put(FIELD_CONFIDENCE, payload.confidence());
+        }
+        if (payload.detections() != null && !payload.detections().isEmpty()) {
+            ArrayNode objects = root.putArray(FIELD_DETECTED_OBJECTS);
+            for (AnalysisPayload.Detection detection : payload.detections()) {
+                if (detection.count() == 1 && detection.offsetMillis() == 0
+                        && detection.confidence() == null && detection.box() == null) {
+                    objects.add(detection.objectClass());
+                    continue;
+                }
+                ObjectNode object = objects.addObject();
+                object.put("class", detection.objectClass());
+                object.put("count", detection.count());
+                if (detection.offsetMillis() % 1000 == 0) {
+                    object.put("offsetSeconds", detection.offsetMillis() / 1000);
+                } else {
+                    object.put("offsetSeconds", detection.offsetMillis() / 1000.0);
+                }
+                if (detection.confidence() != null) {
+                    object.put("confidence", detection.confidence());
+                }
+                AnalysisPayload.BoundingBox box = detection.box();
+                if (box != null) {
+                    ObjectNode boxNode = object.putObject("box");
+                    boxNode.put("x", box.x());
+                    boxNode.put("y", box.y());
+                    boxNode.put("width", box.width());
+                    boxNode.put("height", box.height());
+                }
+            }
+        }
+        if (payload.extra() != null) {
+            try {
+                JsonNode extra = objectMapper.readTree(payload.extra());
+                if (extra.isObject()) {
+                    root.setAll((ObjectNode) extra);
+                }
+            } catch (Exception e) {
+                log.warn("分析结果其余字段不是有效JSON，已忽略：{}", e.getMessage());
+            }
+        }
+        return root.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fyp.handsome.config.AnalysisProperties;
+import com.fyp.handsome.mapper.AnalysisPayloadMapper;
+import com.fyp.handsome.util.AnalysisPayloadCodec;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分析结果二进制转换服务
+ * 启用后在后台按ID递增分批读取还没有二进制的分析结果，编码后写入 video_analysis_payload；
+ * 只存二进制时同一事务内清空JSON列（二进制能原样还原出JSON时才清空）。是否已转换以 video_analysis_payload 是否有记录为准，中断后重启会继续；
+ * 批次失败时退避重试，仍失败时逐条转换，个别结果失败只记录并跳过，不影响其余结果
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class AnalysisPayloadMigrationService implements AutoCloseable {
+
+    private final AnalysisPayloadMapper analysisPayloadMapper;
+    private final AnalysisPayloadStore analysisPayloadStore;
+    private final AnalysisProperties analysisProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean closed;
+
+    public AnalysisPayloadMigrationService(AnalysisPayloadMapper analysisPayloadMapper,
+                                           AnalysisPayloadStore analysisPayloadStore,
+                                           AnalysisProperties analysisProperties,
+                                           PlatformTransactionManager transactionManager) {
+        this.analysisPayloadMapper = analysisPayloadMapper;
+        this.analysisPayloadStore = analysisPayloadStore;
+        this.analysisProperties = analysisProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 启动后开始转换
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        AnalysisProperties.Payload config = analysisProperties.getPayload();
+        if (config.isMigrationEnabled() && config.isBinaryEnabled()) {
+            Thread.ofVirtual().name("analysis-payload-migration").start(this::runMigration);
+        }
+    }
+
+    private void runMigration() {
+        AnalysisProperties.Payload config = analysisProperties.getPayload();
+        int batchSize = Math.max(1, config.getMigrationBatchSize());
+        long afterId = 0;
+        long converted = 0;
+        long skipped = 0;
+        long keptJson = 0;
+        List<Long> failedIds = new ArrayList<>();
+        log.info("开始转换分析结果为二进制，存储方式：{}", config.getStorage());
+
+        while (!closed) {
+            try {
+                List<AnalysisPayloadMapper.PendingResult> batch =
+                        analysisPayloadMapper.selectPendingResults(afterId, batchSize);
+                if (batch.isEmpty()) {
+                    log.info("分析结果二进制转换完成，转换：{}，无法原样还原保留JSON：{}，无法解析跳过：{}，失败：{}，失败ID：{}",
+                            converted, keptJson, skipped, failedIds.size(), failedIds);
+                    return;
+                }
+                int[] counts = convertBatch(batch, failedIds);
+                afterId = batch.get(batch.size() - 1).id();
+                converted += counts[0];
+                skipped += counts[1];
+                keptJson += counts[2];
+                log.debug("分析结果二进制转换批次完成，截至ID：{}，本批转换：{}", afterId, counts[0]);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.info("分析结果二进制转换已中断，已转换到ID：{}", afterId);
+                return;
+            } catch (Exception e) {
+                // 读取待转换结果失败（数据库不可用等），中止本次转换，下次启动从未转换的结果继续
+                log.error("分析结果二进制转换失败，已转换到ID：{}，错误：{}", afterId, e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 转换一批结果
+     * 整批在一个事务中提交，失败时按退避间隔重试；重试用尽后逐条提交，仍失败的结果记录ID后跳过
+     * @return 转换数、无法解析跳过数和保留JSON数
+     */
+    private int[] convertBatch(List<AnalysisPayloadMapper.PendingResult> batch, List<Long> failedIds)
+            throws InterruptedException {
+        AnalysisProperties.Payload config = analysisProperties.getPayload();
+        int maxRetries = Math.max(0, config.getMigrationMaxRetries());
+        long backoffMillis = Math.max(0, config.getMigrationRetryBackoffMillis());
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> convert(batch));
+            } catch (Exception e) {
+                if (attempt >= maxRetries || closed) {
+                    log.warn("分析结果二进制转换批次失败，改为逐条转换，ID区间：[{}, {}]，错误：{}",
+                            batch.get(0).id(), batch.get(batch.size() - 1).id(), e.getMessage());
+                    break;
+                }
+                long delay = backoffMillis << Math.min(attempt, 10);
+                log.warn("分析结果二进制转换批次失败，{}ms后重试，第{}次，错误：{}", delay, attempt + 1, e.getMessage());
+                Thread.sleep(delay);
+            }
+        }
+
+        int[] counts = new int[3];
+        for (AnalysisPayloadMapper.PendingResult row : batch) {
+            try {
+                int[] rowCounts = transactionTemplate.execute(status -> convert(List.of(row)));
+                counts[0] += rowCounts[0];
+                counts[1] += rowCounts[1];
+                counts[2] += rowCounts[2];
+            } catch (Exception e) {
+                failedIds.add(row.id());
+                log.error("分析结果二进制转换失败，跳过，resultId：{}，错误：{}", row.id(), e.getMessage(), e);
+            }
+        }
+        return counts;
+    }
+
+    private int[] convert(List<AnalysisPayloadMapper.PendingResult> rows) {
+        boolean clearJson = !analysisProperties.getPayload().isJsonEnabled();
+        int done = 0;
+        int failed = 0;
+        int kept = 0;
+        for (AnalysisPayloadMapper.PendingResult row : rows) {
+            byte[] binary = analysisPayloadStore.encode(row.analysisResult());
+            if (binary == null) {
+                failed++;
+                continue;
+            }
+            analysisPayloadMapper.upsert(row.id(), AnalysisPayloadCodec.FORMAT_VERSION, binary);
+            if (clearJson) {
+                // 二进制不能原样还原的（模型不覆盖的字段或格式）保留JSON，不丢失原数据
+                if (analysisPayloadStore.canDropJson(row.analysisResult(), binary)) {
+                    analysisPayloadMapper.clearJson(row.id());
+                } else {
+                    kept++;
+                }
+            }
+            done++;
+        }
+        return new int[] {done, failed, kept};
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
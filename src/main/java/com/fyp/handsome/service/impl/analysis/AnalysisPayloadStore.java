@@ -0,0 +1,135 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fyp.handsome.config.AnalysisProperties;
+import com.fyp.handsome.dto.analysis.AnalysisPayload;
+import com.fyp.handsome.entity.VideoAnalysisResult;
+import com.fyp.handsome.mapper.AnalysisPayloadMapper;
+import com.fyp.handsome.mapper.VideoAnalysisResultMapper;
+import com.fyp.handsome.util.AnalysisPayloadCodec;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分析结果存储组件
+ * 按配置的存储方式保存分析结果JSON和/或二进制（二进制存放在 video_analysis_payload），
+ * 读取时优先使用二进制，没有二进制时解析JSON。
+ * 只存二进制时，只有二进制能原样还原出JSON的结果才清空JSON列，其余仍保留JSON
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalysisPayloadStore {
+
+    private final VideoAnalysisResultMapper videoAnalysisResultMapper;
+    private final AnalysisPayloadMapper analysisPayloadMapper;
+    private final AnalysisPayloadConverter analysisPayloadConverter;
+    private final AnalysisProperties analysisProperties;
+
+    /**
+     * 保存分析结果
+     * 只存二进制且二进制能原样还原时 analysis_result 列为空（否则仍按原样保存JSON），返回的对象仍保留JSON
+     * @param result 分析结果
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void insert(VideoAnalysisResult result) {
+        AnalysisProperties.Payload config = analysisProperties.getPayload();
+        String json = result.getAnalysisResult();
+        byte[] binary = config.isBinaryEnabled() ? encode(json) : null;
+        if (binary != null && !config.isJsonEnabled() && canDropJson(json, binary)) {
+            result.setAnalysisResult(null);
+        }
+        videoAnalysisResultMapper.insert(result);
+        if (binary != null) {
+            analysisPayloadMapper.upsert(result.getId(), AnalysisPayloadCodec.FORMAT_VERSION, binary);
+        }
+        result.setAnalysisResult(json);
+    }
+
+    /**
+     * 把分析结果JSON编码为二进制
+     * @param json 分析结果JSON
+     * @return 二进制数据，JSON为空或无法解析时为null
+     */
+    public byte[] encode(String json) {
+        AnalysisPayload payload = analysisPayloadConverter.fromJson(json);
+        return payload != null ? AnalysisPayloadCodec.encode(payload) : null;
+    }
+
+    /**
+     * 判断二进制是否能原样还原出JSON（能还原时才可以清空JSON列）
+     * @param json 分析结果JSON
+     * @param binary 由该JSON编码的二进制
+     * @return 是否能原样还原
+     */
+    public boolean canDropJson(String json, byte[] binary) {
+        return binary != null && analysisPayloadConverter.isLossless(json, AnalysisPayloadCodec.decode(binary));
+    }
+
+    /**
+     * 读取类型化分析结果
+     * @param result 分析结果
+     * @param includeDetections 是否包含检测明细（不包含时二进制的检测区不解码）
+     * @return 类型化分析结果，没有可解析的内容时为null
+     */
+    public AnalysisPayload load(VideoAnalysisResult result, boolean includeDetections) {
+        byte[] binary = analysisPayloadMapper.selectPayload(result.getId());
+        if (binary != null) {
+            AnalysisPayloadCodec.LazyPayload lazy = AnalysisPayloadCodec.open(binary);
+            return new AnalysisPayload(lazy.summary(), lazy.confidence(),
+                    includeDetections ? lazy.detections() : null, lazy.extra());
+        }
+        AnalysisPayload payload = analysisPayloadConverter.fromJson(result.getAnalysisResult());
+        if (payload == null || includeDetections) {
+            return payload;
+        }
+        return new AnalysisPayload(payload.summary(), payload.confidence(), null, payload.extra());
+    }
+
+    /**
+     * 补全只存二进制的分析结果JSON（用于详情接口，列表接口见 {@link #hydrate(Collection)}）
+     * @param result 分析结果
+     */
+    public void hydrate(VideoAnalysisResult result) {
+        if (result == null || result.getAnalysisResult() != null) {
+            return;
+        }
+        byte[] binary = analysisPayloadMapper.selectPayload(result.getId());
+        if (binary != null) {
+            result.setAnalysisResult(analysisPayloadConverter.toJson(AnalysisPayloadCodec.decode(binary)));
+        }
+    }
+
+    /**
+     * 批量补全只存二进制的分析结果JSON（用于列表接口，一次查询读取本页所需的二进制）
+     * @param results 分析结果
+     */
+    public void hydrate(Collection<VideoAnalysisResult> results) {
+        if (results == null || results.isEmpty()) {
+            return;
+        }
+        List<Long> resultIds = results.stream().filter(result -> result.getAnalysisResult() == null)
+                .map(VideoAnalysisResult::getId).toList();
+        if (resultIds.isEmpty()) {
+            return;
+        }
+        Map<Long, byte[]> payloads = analysisPayloadMapper.selectPayloads(resultIds).stream()
+                .collect(Collectors.toMap(AnalysisPayloadMapper.StoredPayload::resultId,
+                        AnalysisPayloadMapper.StoredPayload::payload));
+        for (VideoAnalysisResult result : results) {
+            byte[] binary = result.getAnalysisResult() == null ? payloads.get(result.getId()) : null;
+            if (binary != null) {
+                result.setAnalysisResult(analysisPayloadConverter.toJson(AnalysisPayloadCodec.decode(binary)));
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fyp.handsome.config.AnalysisProperties;
+import com.fyp.handsome.dto.analysis.AnalysisBucketCount;
+import com.fyp.handsome.dto.analysis.AnalysisTypeCount;
+import com.fyp.handsome.event.AnalysisResultDeletedEvent;
+import com.fyp.handsome.event.AnalysisResultSavedEvent;
+import com.fyp.handsome.mapper.AnalysisRollupMapper;
+import com.fyp.handsome.mapper.BackfillMapper;
+import com.fyp.handsome.mapper.VideoAnalysisResultMapper;
+import com.fyp.handsome.service.impl.migration.BackfillRunner;
+import com.fyp.handsome.service.impl.migration.BackfillTask;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分析结果汇总服务
+ * 维护（小时, 分析类型）和（天, 分析类型）两级汇总：
+ * 回填上限ID之后的结果由保存/删除事件增量更新，之前的历史结果作为回填任务按ID区间汇总，
+ * 每批汇总与进度推进在同一事务内提交，保证每条结果只计入一次。
+ * 增量更新失败（或事件丢失）会使汇总产生偏差，回填完成后定时按天与分析结果表核对，有偏差的天重新汇总
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class AnalysisRollupService implements BackfillTask, AutoCloseable {
+
+    private static final String BACKFILL_JOB = "analysis_rollup";
+
+    private static final String SOURCE_TABLE = "video_analysis_result";
+
+    private final AnalysisRollupMapper analysisRollupMapper;
+    private final VideoAnalysisResultMapper videoAnalysisResultMapper;
+    private final BackfillMapper backfillMapper;
+    private final AnalysisProperties analysisProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService reconciler;
+
+    /**
+     * 回填上限ID，-1表示尚未加载进度
+     */
+    private volatile long watermarkId = -1;
+
+    /**
+     * 已回填到的ID
+     */
+    private volatile long backfilledId;
+
+    /**
+     * 历史回填是否完成
+     */
+    private volatile boolean backfillFinished;
+
+    public AnalysisRollupService(AnalysisRollupMapper analysisRollupMapper,
+                                 VideoAnalysisResultMapper videoAnalysisResultMapper,
+                                 BackfillMapper backfillMapper,
+                                 AnalysisProperties analysisProperties,
+                                 PlatformTransactionManager transactionManager) {
+        this.analysisRollupMapper = analysisRollupMapper;
+        this.videoAnalysisResultMapper = videoAnalysisResultMapper;
+        this.backfillMapper = backfillMapper;
+        this.analysisProperties = analysisProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analysis-rollup-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动后加载回填进度（未完成的回填由 {@link BackfillRunner} 在后台继续），并开启定时核对
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            ensureCheckpoint();
+        } catch (Exception e) {
+            log.error("加载分析汇总回填进度失败，错误：{}", e.getMessage(), e);
+        }
+        long interval = analysisProperties.getRollup().getReconcileIntervalSeconds();
+        if (interval > 0) {
+            reconciler.scheduleWithFixedDelay(this::reconcileSafely, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    // =================== 增量维护 ===================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultSaved(AnalysisResultSavedEvent event) {
+        try {
+            ensureCheckpoint();
+            // 回填上限之前的结果由回填任务统计
+            if (event.resultId() != null && event.resultId() > watermarkId) {
+                apply(event.analysisType(), event.analysisTime(), event.confidenceScore(), 1);
+            }
+        } catch (Exception e) {
+            log.error("分析汇总增量更新失败，resultId：{}，错误：{}", event.resultId(), e.getMessage(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultDeleted(AnalysisResultDeletedEvent event) {
+        try {
+            ensureCheckpoint();
+            // 只扣减已计入汇总的结果：增量维护的，或已被回填的
+            if (event.resultId() != null && (event.resultId() > watermarkId || event.resultId() <= backfilledId)) {
+                apply(event.analysisType(), event.analysisTime(), event.confidenceScore(), -1);
+            }
+        } catch (Exception e) {
+            log.error("分析汇总扣减失败，resultId：{}，错误：{}", event.resultId(), e.getMessage(), e);
+        }
+    }
+
+    private void apply(String analysisType, LocalDateTime analysisTime, BigDecimal confidenceScore, int sign) {
+        if (analysisType == null || analysisTime == null) {
+            return;
+        }
+        BigDecimal confidenceDelta = confidenceScore == null ? BigDecimal.ZERO
+                : (sign > 0 ? confidenceScore : confidenceScore.negate());
+        long confidenceCountDelta = confidenceScore == null ? 0 : sign;
+
+        analysisRollupMapper.increment(AnalysisRollupMapper.TABLE_HOURLY, analysisTime.truncatedTo(ChronoUnit.HOURS),
+                analysisType, sign, confidenceDelta, confidenceCountDelta);
+        analysisRollupMapper.increment(AnalysisRollupMapper.TABLE_DAILY, analysisTime.truncatedTo(ChronoUnit.DAYS),
+                analysisType, sign, confidenceDelta, confidenceCountDelta);
+    }
+
+    // =================== 历史回填 ===================
+
+    /**
+     * 加载回填进度（首次使用时以当前最大结果ID作为回填上限）
+     */
+    private void ensureCheckpoint() {
+        if (watermarkId >= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (watermarkId >= 0) {
+                return;
+            }
+            backfillMapper.insertCheckpointIfAbsent(BACKFILL_JOB, SOURCE_TABLE);
+            BackfillMapper.Checkpoint checkpoint = backfillMapper.selectCheckpoint(BACKFILL_JOB);
+            backfilledId = checkpoint.lastId();
+            backfillFinished = checkpoint.finished();
+            watermarkId = checkpoint.watermarkId();
+            log.info("分析汇总回填进度，上限ID：{}，已回填：{}，完成：{}", watermarkId, backfilledId, backfillFinished);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return BACKFILL_JOB;
+    }
+
+    @Override
+    public String getSourceTable() {
+        return SOURCE_TABLE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return analysisProperties.getRollup().isBackfillEnabled();
+    }
+
+    @Override
+    public int getChunkSize() {
+        return analysisProperties.getRollup().getBackfillChunkSize();
+    }
+
+    /**
+     * 按ID区间汇总历史结果
+     */
+    @Override
+    public void processChunk(long fromId, long toId) {
+        analysisRollupMapper.backfillHourly(fromId, toId);
+        analysisRollupMapper.backfillDaily(fromId, toId);
+    }
+
+    @Override
+    public void onProgress(long backfilledId, boolean finished) {
+        this.backfilledId = backfilledId;
+        if (finished) {
+            backfillFinished = true;
+        }
+    }
+
+    /**
+     * 历史回填是否已完成（完成前汇总数据不完整）
+     */
+    public boolean isBackfillFinished() {
+        return backfillFinished;
+    }
+
+    // =================== 核对 ===================
+
+    /**
+     * 按天核对最近已结束自然日的汇总，有偏差的天在一个事务内删除并重新汇总（小时表和天表）
+     * 当天的结果仍在增量更新，不核对；核对期间删除的结果可能被重复扣减，下一轮核对会修正
+     * @return 重新汇总的天数
+     */
+    public int reconcile() {
+        if (!backfillFinished) {
+            log.debug("分析汇总回填未完成，跳过核对");
+            return 0;
+        }
+        LocalDateTime endTime = LocalDate.now().atStartOfDay();
+        LocalDateTime startTime = endTime.minusDays(Math.max(1, analysisProperties.getRollup().getReconcileDays()));
+        Map<LocalDateTime, Map<String, AnalysisRollupMapper.DailyTotal>> expected =
+                groupByDay(analysisRollupMapper.selectSourceDailyTotals(startTime, endTime));
+        Map<LocalDateTime, Map<String, AnalysisRollupMapper.DailyTotal>> actual =
+                groupByDay(analysisRollupMapper.selectDailyTotals(startTime, endTime));
+
+        int repaired = 0;
+        for (LocalDateTime day = startTime; day.isBefore(endTime); day = day.plusDays(1)) {
+            Map<String, AnalysisRollupMapper.DailyTotal> expectedDay = expected.getOrDefault(day, Map.of());
+            if (matches(expectedDay, actual.getOrDefault(day, Map.of()))) {
+                continue;
+            }
+            LocalDateTime dayStart = day;
+            LocalDateTime dayEnd = day.plusDays(1);
+            transactionTemplate.executeWithoutResult(status -> {
+                analysisRollupMapper.deleteBuckets(AnalysisRollupMapper.TABLE_HOURLY, dayStart, dayEnd);
+                analysisRollupMapper.deleteBuckets(AnalysisRollupMapper.TABLE_DAILY, dayStart, dayEnd);
+                analysisRollupMapper.rebuildHourly(dayStart, dayEnd);
+                analysisRollupMapper.rebuildDaily(dayStart, dayEnd);
+            });
+            repaired++;
+            log.info("分析汇总与结果表不一致，已重新汇总，日期：{}", day.toLocalDate());
+        }
+        return repaired;
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("核对分析汇总失败，错误：{}", e.getMessage(), e);
+        }
+    }
+
+    private static Map<LocalDateTime, Map<String, AnalysisRollupMapper.DailyTotal>> groupByDay(
+            List<AnalysisRollupMapper.DailyTotal> totals) {
+        Map<LocalDateTime, Map<String, AnalysisRollupMapper.DailyTotal>> grouped = new HashMap<>();
+        for (AnalysisRollupMapper.DailyTotal total : totals) {
+            grouped.computeIfAbsent(total.bucketTime(), key -> new HashMap<>()).put(total.analysisType(), total);
+        }
+        return grouped;
+    }
+
+    private static boolean matches(Map<String, AnalysisRollupMapper.DailyTotal> expected,
+                                   Map<String, AnalysisRollupMapper.DailyTotal> actual) {
+        if (!expected.keySet().equals(actual.keySet())) {
+            return false;
+        }
+        for (AnalysisRollupMapper.DailyTotal total : expected.values()) {
+            AnalysisRollupMapper.DailyTotal rollup = actual.get(total.analysisType());
+            if (rollup.resultCount() != total.resultCount() || rollup.confidenceCount() != total.confidenceCount()
+                    || Objects.requireNonNullElse(rollup.confidenceSum(), BigDecimal.ZERO)
+                            .compareTo(Objects.requireNonNullElse(total.confidenceSum(), BigDecimal.ZERO)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        reconciler.shutdownNow();
+    }
+
+    // =================== 查询 ===================
+
+    /**
+     * 各分析类型的数量和置信度
+     * @param startTime 开始时间（含，可选，按天对齐）
+     * @param endTime 结束时间（不含，可选，按天对齐）
+     */
+    public List<AnalysisTypeCount> getTypeCounts(LocalDateTime startTime, LocalDateTime endTime) {
+        String table = isDayAligned(startTime) && isDayAligned(endTime)
+                ? AnalysisRollupMapper.TABLE_DAILY : AnalysisRollupMapper.TABLE_HOURLY;
+        return analysisRollupMapper.selectTypeCounts(table, startTime, endTime);
+    }
+
+    /**
+     * 各小时的分析数量
+     */
+    public List<AnalysisBucketCount> getHourlyCounts(LocalDateTime startTime, LocalDateTime endTime) {
+        return analysisRollupMapper.selectBucketCounts(AnalysisRollupMapper.TABLE_HOURLY, startTime, endTime);
+    }
+
+    /**
+     * 各天的分析数量
+     */
+    public List<AnalysisBucketCount> getDailyCounts(LocalDateTime startTime, LocalDateTime endTime) {
+        return analysisRollupMapper.selectBucketCounts(AnalysisRollupMapper.TABLE_DAILY, startTime, endTime);
+    }
+
+    /**
+     * 统计时间范围内的分析数量（起止时间均包含）
+     * 整天部分读天汇总，整点部分读小时汇总，首尾不足一小时的部分直接按索引计数
+     */
+    public long countBetween(LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime hourStart = ceil(startTime, ChronoUnit.HOURS);
+        LocalDateTime hourEnd = endTime.truncatedTo(ChronoUnit.HOURS);
+        if (!hourStart.isBefore(hourEnd)) {
+            return videoAnalysisResultMapper.countByTimeRange(startTime, endTime);
+        }
+
+        long count = videoAnalysisResultMapper.countByTimeRangeExclusive(startTime, hourStart)
+                + videoAnalysisResultMapper.countByTimeRange(hourEnd, endTime);
+
+        LocalDateTime dayStart = ceil(hourStart, ChronoUnit.DAYS);
+        LocalDateTime dayEnd = hourEnd.truncatedTo(ChronoUnit.DAYS);
+        if (dayStart.isBefore(dayEnd)) {
+            count += analysisRollupMapper.sumCount(AnalysisRollupMapper.TABLE_HOURLY, hourStart, dayStart)
+                    + analysisRollupMapper.sumCount(AnalysisRollupMapper.TABLE_DAILY, dayStart, dayEnd)
+                    + analysisRollupMapper.sumCount(AnalysisRollupMapper.TABLE_HOURLY, dayEnd, hourEnd);
+        } else {
+            count += analysisRollupMapper.sumCount(AnalysisRollupMapper.TABLE_HOURLY, hourStart, hourEnd);
+        }
+        return count;
+    }
+
+    private static LocalDateTime ceil(LocalDateTime time, ChronoUnit unit) {
+        LocalDateTime truncated = time.truncatedTo(unit);
+        return truncated.equals(time) ? truncated : truncated.plus(1, unit);
+    }
+
+    private static boolean isDayAligned(LocalDateTime time) {
+        return time == null || time.equals(time.truncatedTo(ChronoUnit.DAYS));
+    }
+}
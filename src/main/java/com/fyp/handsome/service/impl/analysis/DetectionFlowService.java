@@ -0,0 +1,352 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fyp.handsome.config.AnalysisProperties;
+import com.fyp.handsome.dto.analysis.AnalysisPayload;
+import com.fyp.handsome.dto.analysis.DetectionMinuteCount;
+import com.fyp.handsome.dto.analysis.DetectionSource;
+import com.fyp.handsome.dto.analysis.FlowSummary;
+import com.fyp.handsome.event.AnalysisResultDeletedEvent;
+import com.fyp.handsome.event.AnalysisResultSavedEvent;
+import com.fyp.handsome.mapper.BackfillMapper;
+import com.fyp.handsome.mapper.DetectionFlowMapper;
+import com.fyp.handsome.service.impl.migration.BackfillRunner;
+import com.fyp.handsome.service.impl.migration.BackfillTask;
+import com.fyp.handsome.util.AnalysisPayloadCodec;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 检测流量服务
+ * 分析结果写入时解析一次其中的检测目标，按（目标类别, 分钟, 视频）累加到 analysis_detection_minute，
+ * 流量统计只对该表做范围扫描，不再逐条解析JSON。
+ * 时间以视频拍摄时间加检测偏移为准，视频没有拍摄时间时使用分析时间；计入时使用的基准时间记录在
+ * analysis_detection_base，删除结果时按该时间扣减，之后修改视频拍摄时间不会扣错分钟桶；
+ * 增量维护与历史回填的分工与 {@link AnalysisRollupService} 相同（回填进度共用 analysis_rollup_checkpoint）
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class DetectionFlowService implements BackfillTask {
+
+    /**
+     * 目标类别：人员
+     */
+    public static final String CLASS_PERSON = "person";
+
+    /**
+     * 目标类别：车辆
+     */
+    public static final String CLASS_VEHICLE = "vehicle";
+
+    private static final String BACKFILL_JOB = "detection_flow";
+
+    private static final String SOURCE_TABLE = "video_analysis_result";
+
+    /**
+     * 目标类别最大长度（与表字段一致）
+     */
+    private static final int MAX_CLASS_LENGTH = 32;
+
+    /**
+     * 类别同义词归一
+     */
+    private static final Map<String, String> CLASS_ALIASES = Map.of(
+            "people", CLASS_PERSON, "pedestrian", CLASS_PERSON,
+            "car", CLASS_VEHICLE, "truck", CLASS_VEHICLE, "bus", CLASS_VEHICLE,
+            "motorcycle", CLASS_VEHICLE, "van", CLASS_VEHICLE);
+
+    private final DetectionFlowMapper detectionFlowMapper;
+    private final BackfillMapper backfillMapper;
+    private final AnalysisProperties analysisProperties;
+    private final AnalysisPayloadConverter analysisPayloadConverter;
+
+    /**
+     * 回填上限ID，-1表示尚未加载进度
+     */
+    private volatile long watermarkId = -1;
+
+    /**
+     * 已回填到的ID
+     */
+    private volatile long backfilledId;
+
+    /**
+     * 历史回填是否完成
+     */
+    private volatile boolean backfillFinished;
+
+    /**
+     * 分钟桶键
+     */
+    private record MinuteKey(String objectClass, LocalDateTime bucketTime, Long videoId) {
+    }
+
+    public DetectionFlowService(DetectionFlowMapper detectionFlowMapper, BackfillMapper backfillMapper,
+                                AnalysisProperties analysisProperties, AnalysisPayloadConverter analysisPayloadConverter) {
+        this.detectionFlowMapper = detectionFlowMapper;
+        this.backfillMapper = backfillMapper;
+        this.analysisProperties = analysisProperties;
+        this.analysisPayloadConverter = analysisPayloadConverter;
+    }
+
+    /**
+     * 启动后加载回填进度（未完成的回填由 {@link BackfillRunner} 在后台继续）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            ensureCheckpoint();
+        } catch (Exception e) {
+            log.error("加载检测流量回填进度失败，错误：{}", e.getMessage(), e);
+        }
+    }
+
+    // =================== 增量维护 ===================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultSaved(AnalysisResultSavedEvent event) {
+        try {
+            ensureCheckpoint();
+            if (event.resultId() == null || event.resultId() <= watermarkId) {
+                return;
+            }
+            DetectionSource source = detectionFlowMapper.selectSource(event.resultId());
+            if (source == null) {
+                return;
+            }
+            LocalDateTime baseTime = baseTimeOf(source);
+            apply(source, baseTime, 1);
+            if (baseTime != null) {
+                detectionFlowMapper.upsertBaseTimes(
+                        List.of(new DetectionFlowMapper.BaseTime(source.resultId(), baseTime)));
+            }
+        } catch (Exception e) {
+            log.error("检测流量增量更新失败，resultId：{}，错误：{}", event.resultId(), e.getMessage(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultDeleted(AnalysisResultDeletedEvent event) {
+        try {
+            ensureCheckpoint();
+            // 只扣减已计入的结果：增量维护的，或已被回填的
+            if (event.resultId() == null || (event.resultId() <= watermarkId && event.resultId() > backfilledId)) {
+                return;
+            }
+            DetectionSource source = detectionFlowMapper.selectSource(event.resultId());
+            if (source == null) {
+                return;
+            }
+            // 按计入时的基准时间扣减；没有记录的（基准时间表加入之前计入的）按当前拍摄时间扣减
+            apply(source, source.countedBaseTime() != null ? source.countedBaseTime() : baseTimeOf(source), -1);
+            detectionFlowMapper.deleteBaseTime(source.resultId());
+        } catch (Exception e) {
+            log.error("检测流量扣减失败，resultId：{}，错误：{}", event.resultId(), e.getMessage(), e);
+        }
+    }
+
+    private void apply(DetectionSource source, LocalDateTime baseTime, int sign) {
+        Map<MinuteKey, Long> counts = new HashMap<>();
+        collect(counts, source, baseTime);
+        counts.forEach((key, count) ->
+                detectionFlowMapper.increment(key.objectClass(), key.bucketTime(), key.videoId(), sign * count));
+    }
+
+    // =================== 解析 ===================
+
+    /**
+     * 分钟桶的基准时间：视频拍摄时间，没有时为分析时间
+     */
+    private static LocalDateTime baseTimeOf(DetectionSource source) {
+        return source.shootingTime() != null ? source.shootingTime() : source.analysisTime();
+    }
+
+    /**
+     * 解析单条分析结果的检测目标并按基准时间累加到分钟桶
+     * 有二进制时只解码检测区，否则解析JSON（检测目标的格式见 {@link AnalysisPayloadConverter}）
+     */
+    private void collect(Map<MinuteKey, Long> counts, DetectionSource source, LocalDateTime baseTime) {
+        if (baseTime == null) {
+            return;
+        }
+        List<AnalysisPayload.Detection> detections;
+        try {
+            detections = detectionsOf(source);
+        } catch (Exception e) {
+            log.debug("分析结果无法解析，跳过检测解析，resultId：{}，错误：{}", source.resultId(), e.getMessage());
+            return;
+        }
+        for (AnalysisPayload.Detection detection : detections) {
+            String objectClass = normalizeClass(detection.objectClass());
+            if (objectClass == null || detection.count() <= 0) {
+                continue;
+            }
+            LocalDateTime bucketTime = baseTime.plus(detection.offsetMillis(), ChronoUnit.MILLIS)
+                    .truncatedTo(ChronoUnit.MINUTES);
+            counts.merge(new MinuteKey(objectClass, bucketTime, source.videoId()), (long) detection.count(), Long::sum);
+        }
+    }
+
+    private List<AnalysisPayload.Detection> detectionsOf(DetectionSource source) {
+        if (source.payload() != null) {
+            return AnalysisPayloadCodec.open(source.payload()).detections();
+        }
+        AnalysisPayload payload = analysisPayloadConverter.fromJson(source.analysisResult());
+        return payload != null ? payload.detections() : List.of();
+    }
+
+    private static String normalizeClass(String objectClass) {
+        if (objectClass == null || objectClass.isBlank()) {
+            return null;
+        }
+        String normalized = objectClass.trim().toLowerCase(Locale.ROOT);
+        normalized = CLASS_ALIASES.getOrDefault(normalized, normalized);
+        return normalized.length() > MAX_CLASS_LENGTH ? normalized.substring(0, MAX_CLASS_LENGTH) : normalized;
+    }
+
+    // =================== 历史回填 ===================
+
+    /**
+     * 加载回填进度（首次使用时以当前最大结果ID作为回填上限）
+     */
+    private void ensureCheckpoint() {
+        if (watermarkId >= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (watermarkId >= 0) {
+                return;
+            }
+            backfillMapper.insertCheckpointIfAbsent(BACKFILL_JOB, SOURCE_TABLE);
+            BackfillMapper.Checkpoint checkpoint = backfillMapper.selectCheckpoint(BACKFILL_JOB);
+            backfilledId = checkpoint.lastId();
+            backfillFinished = checkpoint.finished();
+            watermarkId = checkpoint.watermarkId();
+            log.info("检测流量回填进度，上限ID：{}，已回填：{}，完成：{}", watermarkId, backfilledId, backfillFinished);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return BACKFILL_JOB;
+    }
+
+    @Override
+    public String getSourceTable() {
+        return SOURCE_TABLE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return analysisProperties.getRollup().isBackfillEnabled();
+    }
+
+    @Override
+    public int getChunkSize() {
+        return analysisProperties.getRollup().getBackfillChunkSize();
+    }
+
+    /**
+     * 按ID区间解析历史结果并累加分钟桶，同时记录各结果的基准时间
+     */
+    @Override
+    public void processChunk(long fromId, long toId) {
+        Map<MinuteKey, Long> counts = new HashMap<>();
+        List<DetectionFlowMapper.BaseTime> bases = new ArrayList<>();
+        for (DetectionSource source : detectionFlowMapper.selectSources(fromId, toId)) {
+            LocalDateTime baseTime = baseTimeOf(source);
+            collect(counts, source, baseTime);
+            if (baseTime != null) {
+                bases.add(new DetectionFlowMapper.BaseTime(source.resultId(), baseTime));
+            }
+        }
+        counts.forEach((key, count) ->
+                detectionFlowMapper.increment(key.objectClass(), key.bucketTime(), key.videoId(), count));
+        if (!bases.isEmpty()) {
+            detectionFlowMapper.upsertBaseTimes(bases);
+        }
+    }
+
+    @Override
+    public void onProgress(long backfilledId, boolean finished) {
+        this.backfilledId = backfilledId;
+        if (finished) {
+            backfillFinished = true;
+        }
+    }
+
+    /**
+     * 历史回填是否已完成（完成前流量数据不完整）
+     */
+    public boolean isBackfillFinished() {
+        return backfillFinished;
+    }
+
+    // =================== 查询 ===================
+
+    /**
+     * 统计目标类别的流量
+     * 按时间顺序流式读取各分钟的检测数，边读边累加到小时和时段直方图，不在内存中保留明细
+     * @param objectClass 目标类别
+     * @param startTime 开始时间（含，可选）
+     * @param endTime 结束时间（不含，可选）
+     * @return 流量汇总
+     */
+    public FlowSummary getFlowSummary(String objectClass, LocalDateTime startTime, LocalDateTime endTime) {
+        long[] hourOfDay = new long[24];
+        long[] total = new long[1];
+        LocalDateTime[] first = new LocalDateTime[1];
+        LocalDateTime[] last = new LocalDateTime[1];
+        LocalDateTime[] peakMinute = new LocalDateTime[1];
+        long[] peakMinuteCount = new long[1];
+
+        detectionFlowMapper.selectMinuteCounts(objectClass, startTime, endTime, context -> {
+            DetectionMinuteCount row = context.getResultObject();
+            if (row.count() <= 0) {
+                return;
+            }
+            total[0] += row.count();
+            hourOfDay[row.bucketTime().getHour()] += row.count();
+            if (row.count() > peakMinuteCount[0]) {
+                peakMinuteCount[0] = row.count();
+                peakMinute[0] = row.bucketTime();
+            }
+            if (first[0] == null) {
+                first[0] = row.bucketTime();
+            }
+            last[0] = row.bucketTime();
+        });
+
+        Integer peakHour = null;
+        for (int hour = 0; hour < hourOfDay.length; hour++) {
+            if (hourOfDay[hour] > 0 && (peakHour == null || hourOfDay[hour] > hourOfDay[peakHour])) {
+                peakHour = hour;
+            }
+        }
+
+        // 平均每小时流量：有起止时间时按查询区间计算，否则按有数据的首尾分钟计算
+        LocalDateTime rangeStart = startTime != null ? startTime : first[0];
+        LocalDateTime rangeEnd = endTime != null ? endTime : (last[0] != null ? last[0].plusMinutes(1) : null);
+        double averageFlow = 0;
+        if (rangeStart != null && rangeEnd != null && rangeEnd.isAfter(rangeStart)) {
+            double hours = Math.max(1, Duration.between(rangeStart, rangeEnd).toMinutes()) / 60.0;
+            averageFlow = total[0] / hours;
+        }
+        return new FlowSummary(total[0], peakHour, peakHour != null ? hourOfDay[peakHour] : 0, averageFlow,
+                hourOfDay, peakMinute[0], peakMinuteCount[0]);
+    }
+}
@@ -0,0 +1,50 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.AnalysisProperties;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.entity.VideoAnalysisResult;
+import com.fyp.handsome.service.VideoAnalyzer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 本地模拟视频分析器
+ * 不依赖外部服务，返回固定的检测结果，可配置模拟耗时
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "handsome.analysis.analyzer", havingValue = "stub", matchIfMissing = true)
+public class LocalStubVideoAnalyzer implements VideoAnalyzer {
+
+    private final AnalysisProperties analysisProperties;
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public VideoAnalysisResult analyze(Video video, String analysisType) throws Exception {
+        log.debug("本地模拟分析，videoId：{}，analysisType：{}", video.getId(), analysisType);
+        
+        // 模拟分析耗时
+        if (analysisProperties.getStubLatencyMs() > 0) {
+            Thread.sleep(analysisProperties.getStubLatencyMs());
+        }
+        
+        VideoAnalysisResult result = new VideoAnalysisResult();
+        result.setAnalysisResult("{\"detectedObjects\":[\"person\",\"vehicle\"],\"confidence\":0.85}");
+        result.setConfidenceScore(new BigDecimal("0.8500"));
+        result.setAnalysisTime(LocalDateTime.now());
+        return result;
+    }
+}
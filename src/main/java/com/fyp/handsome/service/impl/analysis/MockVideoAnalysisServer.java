@@ -0,0 +1,160 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fyp.handsome.config.AnalysisProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 本地模拟视频理解服务
+ * 模拟上游的并发限制（超出返回429）和SSE分段返回，用于离线压测任务队列和客户端吞吐；
+ * 将 handsome.analysis.remote.base-url 指向 http://127.0.0.1:{port} 即可使用
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "handsome.analysis.mock-server.enabled", havingValue = "true")
+public class MockVideoAnalysisServer implements SmartLifecycle {
+
+    private final AnalysisProperties analysisProperties;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong throttledRequests = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @Override
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        AnalysisProperties.MockServer mock = analysisProperties.getMockServer();
+        try {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", mock.getPort()), 0);
+            server.createContext("/", this::handle);
+            server.setExecutor(executor);
+            server.start();
+            log.info("本地模拟视频理解服务已启动，端口：{}，并发上限：{}", mock.getPort(), mock.getMaxConcurrency());
+        } catch (IOException e) {
+            log.error("启动本地模拟视频理解服务失败，端口：{}，错误：{}", mock.getPort(), e.getMessage(), e);
+            server = null;
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        log.info("本地模拟视频理解服务已停止，完成任务：{}，限流拒绝：{}", completedTasks.get(), throttledRequests.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * 处理视频理解请求
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())
+                    || !exchange.getRequestURI().getPath().endsWith("/quanmiao/lightapp/runVideoAnalysis")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getRequestBody().readAllBytes();
+            
+            AnalysisProperties.MockServer mock = analysisProperties.getMockServer();
+            if (activeTasks.incrementAndGet() > mock.getMaxConcurrency()) {
+                activeTasks.decrementAndGet();
+                throttledRequests.incrementAndGet();
+                byte[] body = "{\"code\":\"Throttling\",\"message\":\"Request was denied due to concurrency limit.\"}"
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(429, body.length);
+                exchange.getResponseBody().write(body);
+                return;
+            }
+            
+            try {
+                streamEvents(exchange, mock);
+                completedTasks.incrementAndGet();
+            } finally {
+                activeTasks.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 分段推送进度事件，最后一个事件携带完整结果
+     */
+    private void streamEvents(HttpExchange exchange, AnalysisProperties.MockServer mock) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream;charset=UTF-8");
+        exchange.sendResponseHeaders(200, 0);
+        
+        String taskId = UUID.randomUUID().toString();
+        OutputStream out = exchange.getResponseBody();
+        int eventCount = Math.max(1, mock.getEventCount());
+        StringBuilder text = new StringBuilder();
+        
+        for (int i = 1; i <= eventCount; i++) {
+            try {
+                Thread.sleep(mock.getEventIntervalMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            
+            boolean finished = i == eventCount;
+            text.append("模拟分析片段").append(i).append("；");
+            
+            ObjectNode message = objectMapper.createObjectNode();
+            ObjectNode header = message.putObject("header");
+            header.put("event", finished ? "task-finished" : "task-progress-generating");
+            header.put("taskId", taskId);
+            ObjectNode output = message.putObject("payload").putObject("output");
+            ObjectNode generateResult = output.putObject("videoGenerateResult");
+            generateResult.put("generateFinished", finished);
+            generateResult.put("text", text.toString());
+            if (finished) {
+                ObjectNode shot = output.putObject("videoAnalysisResult").putArray("videoShotAnalysisResults").addObject();
+                shot.put("startTime", 0);
+                shot.put("endTime", 10000);
+                shot.put("text", "画面中有行人和车辆经过");
+            }
+            
+            out.write(("event: " + header.get("event").asText() + "\ndata: " 
+                    + objectMapper.writeValueAsString(message) + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+}
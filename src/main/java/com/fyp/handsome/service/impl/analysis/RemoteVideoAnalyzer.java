@@ -0,0 +1,112 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fyp.handsome.config.AnalysisProperties;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.entity.VideoAnalysisResult;
+import com.fyp.handsome.service.VideoAnalyzer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 外部视频理解服务分析器（阿里百炼视频理解）
+ * 请求的并发、限流和重试由 VideoAnalysisHttpClient 负责
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "handsome.analysis.analyzer", havingValue = "remote")
+public class RemoteVideoAnalyzer implements VideoAnalyzer {
+
+    private final VideoAnalysisHttpClient videoAnalysisHttpClient;
+    private final AnalysisProperties analysisProperties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String getName() {
+        return "remote";
+    }
+
+    @Override
+    public VideoAnalysisResult analyze(Video video, String analysisType) throws Exception {
+        log.debug("提交外部视频理解，videoId：{}，analysisType：{}，进行中：{}，等待中：{}", video.getId(), analysisType,
+                videoAnalysisHttpClient.getInFlightCount(), videoAnalysisHttpClient.getQueueLength());
+        
+        JsonNode output;
+        try {
+            output = videoAnalysisHttpClient.runVideoAnalysis(buildRequest(video, analysisType)).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        
+        BigDecimal confidence = resolveConfidence(output);
+        ObjectNode analysisResult = toAnalysisResult(output, analysisType);
+        if (confidence != null) {
+            analysisResult.put("confidence", confidence);
+        }
+        
+        VideoAnalysisResult result = new VideoAnalysisResult();
+        result.setAnalysisResult(objectMapper.writeValueAsString(analysisResult));
+        result.setConfidenceScore(confidence);
+        result.setAnalysisTime(LocalDateTime.now());
+        return result;
+    }
+
+    /**
+     * 构建视频理解请求
+     */
+    private ObjectNode buildRequest(Video video, String analysisType) {
+        AnalysisProperties.Remote remote = analysisProperties.getRemote();
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("videoUrl", remote.getVideoUrlPrefix() + video.getFilePath());
+        request.put("videoModelId", remote.getVideoModelId());
+        request.put("videoExtraInfo", "分析类型：" + analysisType);
+        request.putArray("generateOptions").add("videoGenerate");
+        return request;
+    }
+
+    /**
+     * 结果置信度：响应带有 0~1 的 confidence 时使用响应值，否则为空
+     * （上游目前不返回置信度，为空的结果不参与平均置信度统计和告警判断）
+     */
+    private BigDecimal resolveConfidence(JsonNode output) {
+        JsonNode confidence = output.path("confidence");
+        if (confidence.isNumber() && confidence.asDouble() >= 0 && confidence.asDouble() <= 1) {
+            return confidence.decimalValue().setScale(4, RoundingMode.HALF_UP);
+        }
+        return null;
+    }
+
+    /**
+     * 提取需要保存的分析结果（摘要、分镜描述和用量）
+     */
+    private ObjectNode toAnalysisResult(JsonNode output, String analysisType) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("analyzer", getName());
+        result.put("analysisType", analysisType);
+        if (output.hasNonNull("taskId")) {
+            result.set("taskId", output.get("taskId"));
+        }
+        result.put("summary", output.path("videoGenerateResult").path("text").asText(""));
+        JsonNode shots = output.path("videoAnalysisResult").path("videoShotAnalysisResults");
+        if (shots.isArray()) {
+            result.set("shots", shots);
+        }
+        if (output.hasNonNull("usage")) {
+            result.set("usage", output.get("usage"));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.util.function.Consumer;
+
+/**
+ * SSE事件增量解析器
+ * 逐行输入响应体，遇到空行时拼装出完整事件并回调，不需要缓存整个响应
+ * @author ziye
+ */
+public class SseEventParser {
+
+    /**
+     * SSE事件
+     * @param event 事件名（未指定时为message）
+     * @param data 事件数据（多行data以换行拼接）
+     * @param id 事件ID
+     */
+    public record SseEvent(String event, String data, String id) {
+    }
+
+    private final Consumer<SseEvent> listener;
+
+    private String eventName;
+    private String lastEventId;
+    private StringBuilder data;
+
+    public SseEventParser(Consumer<SseEvent> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 输入一行（不含换行符）
+     * @param line 响应行
+     */
+    public void feed(String line) {
+        if (line.isEmpty()) {
+            dispatch();
+            return;
+        }
+        // 注释行
+        if (line.charAt(0) == ':') {
+            return;
+        }
+        
+        int colon = line.indexOf(':');
+        String field = colon < 0 ? line : line.substring(0, colon);
+        String value = colon < 0 ? "" : line.substring(colon + 1);
+        if (value.startsWith(" ")) {
+            value = value.substring(1);
+        }
+        
+        switch (field) {
+            case "event" -> eventName = value;
+            case "id" -> lastEventId = value;
+            case "data" -> {
+                if (data == null) {
+                    data = new StringBuilder(value);
+                } else {
+                    data.append('\n').append(value);
+                }
+            }
+            default -> {
+                // 忽略retry等其他字段
+            }
+        }
+    }
+
+    /**
+     * 响应结束时调用，输出最后一个未以空行结尾的事件
+     */
+    public void finish() {
+        dispatch();
+    }
+
+    private void dispatch() {
+        if (data != null) {
+            listener.accept(new SseEvent(eventName != null ? eventName : "message", data.toString(), lastEventId));
+        }
+        eventName = null;
+        data = null;
+    }
+}
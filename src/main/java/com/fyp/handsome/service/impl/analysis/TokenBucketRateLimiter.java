@@ -0,0 +1,58 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限流器
+ * 按固定速率补充令牌，允许不超过桶容量的突发请求
+ * @author ziye
+ */
+public class TokenBucketRateLimiter {
+
+    private final double permitsPerNano;
+    private final double capacity;
+
+    private double availablePermits;
+    private long lastRefillNanos;
+
+    /**
+     * @param permitsPerSecond 每秒补充的令牌数
+     * @param capacity 桶容量
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int capacity) {
+        if (permitsPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("令牌桶速率和容量必须大于0");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.availablePermits = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取一个令牌，令牌不足时阻塞等待
+     * @throws InterruptedException 等待被中断
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = reserve()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * 尝试获取一个令牌
+     * @return 获取成功返回0，否则返回还需等待的纳秒数
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        availablePermits = Math.min(capacity, availablePermits + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+        
+        if (availablePermits >= 1) {
+            availablePermits -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - availablePermits) / permitsPerNano));
+    }
+}
@@ -0,0 +1,275 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fyp.handsome.config.AnalysisProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 外部视频理解服务HTTP客户端
+ * 基于JDK HttpClient异步发送请求，SSE响应逐行增量解析；
+ * 通过信号量限制同时进行的任务数（并发满时调用方等待，形成背压），
+ * 通过令牌桶限制请求速率，对限流和服务端错误按带抖动的指数退避重试
+ * @author ziye
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "handsome.analysis.analyzer", havingValue = "remote")
+public class VideoAnalysisHttpClient implements AutoCloseable {
+
+    /**
+     * 视频理解接口路径
+     */
+    private static final String RUN_VIDEO_ANALYSIS_PATH = "/%s/quanmiao/lightapp/runVideoAnalysis";
+
+    /**
+     * 错误响应体最大保留长度
+     */
+    private static final int MAX_ERROR_BODY_LENGTH = 500;
+
+    private final AnalysisProperties.Remote remoteProperties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final Semaphore concurrencyPermits;
+    private final TokenBucketRateLimiter rateLimiter;
+
+    public VideoAnalysisHttpClient(AnalysisProperties analysisProperties, ObjectMapper objectMapper) {
+        this.remoteProperties = analysisProperties.getRemote();
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(remoteProperties.getConnectTimeoutMs()))
+                .executor(executor)
+                .build();
+        this.concurrencyPermits = new Semaphore(remoteProperties.getEffectiveMaxConcurrency(), true);
+        this.rateLimiter = new TokenBucketRateLimiter(remoteProperties.getRequestsPerSecond(), remoteProperties.getBurst());
+    }
+
+    /**
+     * 提交视频理解请求
+     * 并发已满时在调用线程等待许可；许可在任务（含重试）结束后释放
+     * @param request 请求体
+     * @return 最终输出（payload.output及usage）
+     * @throws InterruptedException 等待并发许可时被中断
+     */
+    public CompletableFuture<JsonNode> runVideoAnalysis(ObjectNode request) throws InterruptedException {
+        concurrencyPermits.acquire();
+        try {
+            return attempt(request, 0).whenComplete((output, error) -> concurrencyPermits.release());
+        } catch (RuntimeException e) {
+            concurrencyPermits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 当前等待并发许可的调用数
+     */
+    public int getQueueLength() {
+        return concurrencyPermits.getQueueLength();
+    }
+
+    /**
+     * 当前进行中的任务数
+     */
+    public int getInFlightCount() {
+        return remoteProperties.getEffectiveMaxConcurrency() - concurrencyPermits.availablePermits();
+    }
+
+    /**
+     * 发送一次请求，失败时按需调度重试
+     */
+    private CompletableFuture<JsonNode> attempt(ObjectNode request, int attempt) {
+        return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        rateLimiter.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CompletionException(e);
+                    }
+                    return buildHttpRequest(request);
+                }, executor)
+                .thenCompose(httpRequest -> httpClient.sendAsync(httpRequest, this::handleResponse))
+                .thenApply(HttpResponse::body)
+                .handle((output, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(output);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (attempt < remoteProperties.getMaxRetries() && isRetryable(cause)) {
+                        long delayMs = backoffMillis(attempt);
+                        log.warn("视频理解请求失败，{}ms后第{}次重试，错误：{}", delayMs, attempt + 1, cause.getMessage());
+                        return CompletableFuture.supplyAsync(() -> request,
+                                        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, executor))
+                                .thenCompose(ignored -> attempt(request, attempt + 1));
+                    }
+                    return CompletableFuture.<JsonNode>failedFuture(cause);
+                })
+                .thenCompose(future -> future);
+    }
+
+    private HttpRequest buildHttpRequest(ObjectNode request) {
+        try {
+            String path = String.format(RUN_VIDEO_ANALYSIS_PATH, remoteProperties.getWorkspaceId());
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(remoteProperties.getBaseUrl() + path))
+                    .timeout(Duration.ofMillis(remoteProperties.getRequestTimeoutMs()))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "text/event-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request)));
+            if (remoteProperties.getApiKey() != null && !remoteProperties.getApiKey().isBlank()) {
+                builder.header("Authorization", "Bearer " + remoteProperties.getApiKey());
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * 成功响应按SSE逐行解析；失败响应读取响应体后转为异常
+     */
+    private HttpResponse.BodySubscriber<JsonNode> handleResponse(HttpResponse.ResponseInfo responseInfo) {
+        int statusCode = responseInfo.statusCode();
+        if (statusCode / 100 == 2) {
+            return BodySubscribers.mapping(
+                    BodySubscribers.fromLineSubscriber(new AnalysisStreamSubscriber(), subscriber -> subscriber,
+                            StandardCharsets.UTF_8, null),
+                    AnalysisStreamSubscriber::getOutput);
+        }
+        return BodySubscribers.mapping(BodySubscribers.ofString(StandardCharsets.UTF_8), body -> {
+            String message = body.length() > MAX_ERROR_BODY_LENGTH ? body.substring(0, MAX_ERROR_BODY_LENGTH) : body;
+            throw new RemoteAnalysisException(statusCode, "视频理解服务返回" + statusCode + "：" + message);
+        });
+    }
+
+    /**
+     * 是否可重试：网络异常、限流、服务端错误
+     */
+    private boolean isRetryable(Throwable error) {
+        if (error instanceof RemoteAnalysisException remoteError) {
+            return remoteError.getStatusCode() == 429 || remoteError.getStatusCode() >= 500;
+        }
+        return error instanceof IOException;
+    }
+
+    /**
+     * 指数退避时间（等抖动：在退避上限的一半到上限之间随机，保留最小退避间隔）
+     */
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(remoteProperties.getMaxBackoffMs(),
+                remoteProperties.getInitialBackoffMs() << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    /**
+     * 外部服务错误
+     */
+    public static class RemoteAnalysisException extends RuntimeException {
+
+        private final int statusCode;
+
+        public RemoteAnalysisException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+
+    /**
+     * SSE响应订阅者
+     * 每个事件携带截至当前的输出，逐个合并后保留最新值；事件头带错误码时以失败结束
+     */
+    private class AnalysisStreamSubscriber implements Flow.Subscriber<String> {
+
+        private final SseEventParser parser = new SseEventParser(this::onEvent);
+        private final ObjectNode output = objectMapper.createObjectNode();
+        private RemoteAnalysisException error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            parser.feed(line);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // 由HttpClient以异常方式完成响应
+        }
+
+        @Override
+        public void onComplete() {
+            parser.finish();
+        }
+
+        private void onEvent(SseEventParser.SseEvent event) {
+            if (error != null) {
+                return;
+            }
+            try {
+                JsonNode message = objectMapper.readTree(event.data());
+                JsonNode header = message.path("header");
+                String errorCode = header.path("errorCode").asText("");
+                if (!errorCode.isEmpty()) {
+                    // 记录错误后忽略后续事件，响应结束时以失败完成
+                    error = new RemoteAnalysisException(200, "视频理解任务失败：" + errorCode + " " 
+                            + header.path("errorMessage").asText(""));
+                    return;
+                }
+                if (header.hasNonNull("taskId")) {
+                    output.put("taskId", header.get("taskId").asText());
+                }
+                JsonNode payload = message.path("payload");
+                if (payload.path("output").isObject()) {
+                    payload.path("output").fields().forEachRemaining(entry -> output.set(entry.getKey(), entry.getValue()));
+                }
+                if (payload.hasNonNull("usage")) {
+                    output.set("usage", payload.get("usage"));
+                }
+            } catch (IOException e) {
+                log.warn("忽略无法解析的SSE事件，event：{}，错误：{}", event.event(), e.getMessage());
+            }
+        }
+
+        private JsonNode getOutput() {
+            if (error != null) {
+                throw error;
+            }
+            return output;
+        }
+    }
+}
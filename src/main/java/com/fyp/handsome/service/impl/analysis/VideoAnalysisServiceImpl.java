@@ -1,18 +1,31 @@
 package com.fyp.handsome.service.impl.analysis;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.fyp.handsome.dto.ResultCode;
+import com.fyp.handsome.dto.analysis.AnalysisPayload;
+import com.fyp.handsome.dto.analysis.AnalysisTypeCount;
+import com.fyp.handsome.dto.analysis.FlowSummary;
+import com.fyp.handsome.entity.VideoAnalysisJob;
 import com.fyp.handsome.entity.VideoAnalysisResult;
+import com.fyp.handsome.event.AnalysisResultDeletedEvent;
+import com.fyp.handsome.exception.VideoBusinessException;
+import com.fyp.handsome.exception.VideoValidationException;
 import com.fyp.handsome.mapper.VideoAnalysisResultMapper;
 import com.fyp.handsome.service.VideoAnalysisService;
 
@@ -30,31 +43,22 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
         implements VideoAnalysisService {
 
     private final VideoAnalysisResultMapper videoAnalysisResultMapper;
+    private final AnalysisJobExecutor analysisJobExecutor;
+    private final AnalysisJobService analysisJobService;
+    private final AnalysisRollupService analysisRollupService;
+    private final DetectionFlowService detectionFlowService;
+    private final AnalysisPayloadStore analysisPayloadStore;
+    private final ApplicationEventPublisher eventPublisher;
 
     // =================== 视频分析操作 ===================
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public VideoAnalysisResult analyzeVideoContent(Long videoId, String analysisType) {
         try {
             log.info("开始执行视频内容分析，videoId：{}，analysisType：{}", videoId, analysisType);
             
-            // 创建分析结果对象
-            VideoAnalysisResult result = new VideoAnalysisResult();
-            result.setVideoId(videoId);
-            result.setAnalysisType(analysisType);
-            result.setAnalysisTime(LocalDateTime.now());
-            result.setStatus(1);
-            
-            // 模拟分析过程
-            String analysisResult = performContentAnalysis(videoId, analysisType);
-            result.setAnalysisResult(analysisResult);
-            
-            // 设置置信度分数（模拟）
-            result.setConfidenceScore(new BigDecimal("0.8500"));
-            
-            // 保存分析结果
-            save(result);
+            // 分析器调用耗时较长，不在事务内执行，结果单独保存
+            VideoAnalysisResult result = analysisJobExecutor.analyze(videoId, analysisType);
             
             log.info("视频内容分析完成，resultId：{}", result.getId());
             return result;
@@ -67,7 +71,6 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public VideoAnalysisResult analyzeBehavior(Long videoId) {
         try {
             log.info("开始执行行为分析，videoId：{}", videoId);
@@ -79,7 +82,6 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public VideoAnalysisResult detectEvents(Long videoId) {
         try {
             log.info("开始执行事件检测，videoId：{}", videoId);
@@ -91,32 +93,66 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public List<VideoAnalysisResult> batchAnalyze(List<Long> videoIds, String analysisType) {
+    public List<VideoAnalysisJob> batchAnalyze(List<Long> videoIds, String analysisType) {
+        validateAnalysisType(analysisType);
+        if (videoIds == null || videoIds.isEmpty()) {
+            throw new VideoValidationException("视频ID列表不能为空");
+        }
+        
+        log.info("提交批量分析任务，视频数量：{}，analysisType：{}", videoIds.size(), analysisType);
+        return analysisJobService.submitBatch(videoIds, analysisType);
+    }
+
+    // =================== 异步分析任务 ===================
+
+    @Override
+    public VideoAnalysisJob submitAnalysisJob(Long videoId, String analysisType) {
+        validateAnalysisType(analysisType);
+        if (videoId == null) {
+            throw new VideoValidationException("视频ID不能为空");
+        }
+        return analysisJobService.submit(videoId, analysisType);
+    }
+
+    @Override
+    public VideoAnalysisJob getAnalysisJob(Long jobId) {
+        return analysisJobService.getJob(jobId);
+    }
+
+    @Override
+    public SseEmitter subscribeAnalysisJob(Long jobId) {
+        return analysisJobService.subscribe(jobId);
+    }
+
+    // =================== 查询分析结果 ===================
+
+    @Override
+    public VideoAnalysisResult getAnalysisResultById(Long resultId) {
         try {
-            log.info("开始批量分析视频，videoIds：{}，analysisType：{}", videoIds, analysisType);
-            
-            List<VideoAnalysisResult> results = videoIds.stream()
-                    .map(videoId -> analyzeVideoContent(videoId, analysisType))
-                    .filter(result -> result != null)
-                    .toList();
-            
-            log.info("批量分析完成，成功分析{}个视频", results.size());
-            return results;
-            
+            VideoAnalysisResult result = getById(resultId);
+            analysisPayloadStore.hydrate(result);
+            return result;
         } catch (Exception e) {
-            log.error("批量分析失败，videoIds：{}，analysisType：{}，错误：{}", 
-                     videoIds, analysisType, e.getMessage(), e);
-            return List.of();
+            log.error("查询分析结果失败，resultId：{}，错误：{}", resultId, e.getMessage(), e);
+            return null;
         }
     }
 
-    // =================== 查询分析结果 ===================
+    @Override
+    public AnalysisPayload getAnalysisPayload(Long resultId, boolean includeDetections) {
+        try {
+            VideoAnalysisResult result = getById(resultId);
+            return result != null ? analysisPayloadStore.load(result, includeDetections) : null;
+        } catch (Exception e) {
+            log.error("查询类型化分析结果失败，resultId：{}，错误：{}", resultId, e.getMessage(), e);
+            return null;
+        }
+    }
 
     @Override
     public List<VideoAnalysisResult> getAnalysisResultsByVideoId(Long videoId) {
         try {
-            return videoAnalysisResultMapper.selectByVideoId(videoId);
+            return hydrate(videoAnalysisResultMapper.selectByVideoId(videoId));
         } catch (Exception e) {
             log.error("查询视频分析结果失败，videoId：{}，错误：{}", videoId, e.getMessage(), e);
             return List.of();
@@ -126,7 +162,7 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Override
     public List<VideoAnalysisResult> getAnalysisResultsByType(String analysisType) {
         try {
-            return videoAnalysisResultMapper.selectByAnalysisType(analysisType);
+            return hydrate(videoAnalysisResultMapper.selectByAnalysisType(analysisType));
         } catch (Exception e) {
             log.error("根据分析类型查询结果失败，analysisType：{}，错误：{}", analysisType, e.getMessage(), e);
             return List.of();
@@ -136,7 +172,7 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Override
     public List<VideoAnalysisResult> getAnalysisResults(Long videoId, String analysisType) {
         try {
-            return videoAnalysisResultMapper.selectByVideoIdAndType(videoId, analysisType);
+            return hydrate(videoAnalysisResultMapper.selectByVideoIdAndType(videoId, analysisType));
         } catch (Exception e) {
             log.error("查询指定视频和类型的分析结果失败，videoId：{}，analysisType：{}，错误：{}", 
                      videoId, analysisType, e.getMessage(), e);
@@ -147,7 +183,7 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Override
     public List<VideoAnalysisResult> getAnalysisResultsByTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
         try {
-            return videoAnalysisResultMapper.selectByAnalysisTimeRange(startTime, endTime);
+            return hydrate(videoAnalysisResultMapper.selectByAnalysisTimeRange(startTime, endTime));
         } catch (Exception e) {
             log.error("根据时间范围查询分析结果失败，startTime：{}，endTime：{}，错误：{}", 
                      startTime, endTime, e.getMessage(), e);
@@ -159,7 +195,10 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     public IPage<VideoAnalysisResult> getAnalysisResultsPage(Page<VideoAnalysisResult> page, Long videoId, 
                                                               String analysisType, LocalDateTime startTime, LocalDateTime endTime) {
         try {
-            return videoAnalysisResultMapper.selectPageWithConditions(page, videoId, analysisType, startTime, endTime);
+            IPage<VideoAnalysisResult> result =
+                    videoAnalysisResultMapper.selectPageWithConditions(page, videoId, analysisType, startTime, endTime);
+            analysisPayloadStore.hydrate(result.getRecords());
+            return result;
         } catch (Exception e) {
             log.error("分页查询分析结果失败，错误：{}", e.getMessage(), e);
             return new Page<>();
@@ -169,7 +208,7 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Override
     public List<VideoAnalysisResult> getLatestAnalysisResults(Integer limit) {
         try {
-            return videoAnalysisResultMapper.selectLatestResults(limit);
+            return hydrate(videoAnalysisResultMapper.selectLatestResults(limit));
         } catch (Exception e) {
             log.error("查询最新分析结果失败，limit：{}，错误：{}", limit, e.getMessage(), e);
             return List.of();
@@ -181,9 +220,10 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Override
     public Map<String, Long> getCountByAnalysisType() {
         try {
-            List<Object> results = videoAnalysisResultMapper.countByAnalysisType();
-            Map<String, Long> countMap = new HashMap<>();
-            // TODO: 处理查询结果，转换为Map格式
+            Map<String, Long> countMap = new LinkedHashMap<>();
+            for (AnalysisTypeCount typeCount : getTypeCounts()) {
+                countMap.put(typeCount.analysisType(), typeCount.count());
+            }
             return countMap;
         } catch (Exception e) {
             log.error("统计各分析类型数量失败，错误：{}", e.getMessage(), e);
@@ -194,6 +234,10 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Override
     public Long getCountByTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
         try {
+            // 汇总表回填完成后按时间桶统计，否则直接计数
+            if (analysisRollupService.isBackfillFinished()) {
+                return analysisRollupService.countBetween(startTime, endTime);
+            }
             return videoAnalysisResultMapper.countByTimeRange(startTime, endTime);
         } catch (Exception e) {
             log.error("统计时间范围内分析数量失败，startTime：{}，endTime：{}，错误：{}", 
@@ -205,13 +249,22 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Override
     public Map<String, Object> getAnalysisStatistics() {
         try {
+            List<AnalysisTypeCount> typeCounts = getTypeCounts();
+            Map<String, Long> countByType = new LinkedHashMap<>();
+            Map<String, BigDecimal> averageConfidenceByType = new LinkedHashMap<>();
+            long totalCount = 0;
+            for (AnalysisTypeCount typeCount : typeCounts) {
+                countByType.put(typeCount.analysisType(), typeCount.count());
+                averageConfidenceByType.put(typeCount.analysisType(), typeCount.averageConfidence());
+                totalCount += typeCount.count();
+            }
+            
+            LocalDateTime now = LocalDateTime.now();
             Map<String, Object> statistics = new HashMap<>();
-            statistics.put("totalCount", count());
-            statistics.put("countByType", getCountByAnalysisType());
-            statistics.put("todayCount", getCountByTimeRange(
-                    LocalDateTime.now().withHour(0).withMinute(0).withSecond(0),
-                    LocalDateTime.now().withHour(23).withMinute(59).withSecond(59)
-            ));
+            statistics.put("totalCount", totalCount);
+            statistics.put("countByType", countByType);
+            statistics.put("averageConfidenceByType", averageConfidenceByType);
+            statistics.put("todayCount", getCountByTimeRange(now.truncatedTo(ChronoUnit.DAYS), now));
             return statistics;
         } catch (Exception e) {
             log.error("获取分析统计概览失败，错误：{}", e.getMessage(), e);
@@ -222,12 +275,9 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Override
     public Map<String, Object> getPersonFlowStatistics(LocalDateTime startTime, LocalDateTime endTime) {
         try {
-            // TODO: 实现人员流量统计逻辑
-            Map<String, Object> statistics = new HashMap<>();
-            statistics.put("totalPersonCount", 0);
-            statistics.put("peakHour", "14:00-15:00");
-            statistics.put("averageFlow", 0);
-            return statistics;
+            return toFlowStatistics("totalPersonCount",
+                    detectionFlowService.getFlowSummary(DetectionFlowService.CLASS_PERSON,
+                            startTime, toExclusiveMinute(endTime)));
         } catch (Exception e) {
             log.error("获取人员流量统计失败，错误：{}", e.getMessage(), e);
             return new HashMap<>();
@@ -237,12 +287,9 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Override
     public Map<String, Object> getVehicleFlowStatistics(LocalDateTime startTime, LocalDateTime endTime) {
         try {
-            // TODO: 实现车辆流量统计逻辑
-            Map<String, Object> statistics = new HashMap<>();
-            statistics.put("totalVehicleCount", 0);
-            statistics.put("peakHour", "17:00-18:00");
-            statistics.put("averageFlow", 0);
-            return statistics;
+            return toFlowStatistics("totalVehicleCount",
+                    detectionFlowService.getFlowSummary(DetectionFlowService.CLASS_VEHICLE,
+                            startTime, toExclusiveMinute(endTime)));
         } catch (Exception e) {
             log.error("获取车辆流量统计失败，错误：{}", e.getMessage(), e);
             return new HashMap<>();
@@ -287,7 +334,12 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteAnalysisResult(Long resultId) {
         try {
-            return removeById(resultId);
+            VideoAnalysisResult result = getById(resultId);
+            boolean removed = removeById(resultId);
+            if (removed && result != null) {
+                publishDeleted(List.of(result));
+            }
+            return removed;
         } catch (Exception e) {
             log.error("删除分析结果失败，resultId：{}，错误：{}", resultId, e.getMessage(), e);
             return false;
@@ -298,7 +350,12 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteAnalysisResults(List<Long> resultIds) {
         try {
-            return removeByIds(resultIds);
+            List<VideoAnalysisResult> results = listByIds(resultIds);
+            boolean removed = removeByIds(resultIds);
+            if (removed) {
+                publishDeleted(results);
+            }
+            return removed;
         } catch (Exception e) {
             log.error("批量删除分析结果失败，resultIds：{}，错误：{}", resultIds, e.getMessage(), e);
             return false;
@@ -309,7 +366,7 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteAnalysisResultsByVideoId(Long videoId) {
         try {
-            List<VideoAnalysisResult> results = getAnalysisResultsByVideoId(videoId);
+            List<VideoAnalysisResult> results = videoAnalysisResultMapper.selectByVideoId(videoId);
             List<Long> resultIds = results.stream().map(VideoAnalysisResult::getId).toList();
             return deleteAnalysisResults(resultIds);
         } catch (Exception e) {
@@ -345,18 +402,66 @@ public class VideoAnalysisServiceImpl extends ServiceImpl<VideoAnalysisResultMap
     // =================== 私有辅助方法 ===================
 
     /**
-     * 执行具体的内容分析
+     * 各分析类型的数量和置信度：汇总表回填完成后读天汇总，否则直接分组统计
      */
-    private String performContentAnalysis(Long videoId, String analysisType) {
-        // 模拟分析过程
-        Map<String, Object> result = new HashMap<>();
-        result.put("videoId", videoId);
-        result.put("analysisType", analysisType);
-        result.put("detectedObjects", List.of("person", "vehicle"));
-        result.put("confidence", 0.85);
-        result.put("timestamp", LocalDateTime.now());
-        
-        // 简单的JSON字符串模拟
-        return "{\"detectedObjects\":[\"person\",\"vehicle\"],\"confidence\":0.85}";
+    private List<AnalysisTypeCount> getTypeCounts() {
+        if (analysisRollupService.isBackfillFinished()) {
+            return analysisRollupService.getTypeCounts(null, null);
+        }
+        return videoAnalysisResultMapper.countByAnalysisType();
+    }
+
+    /**
+     * 补全列表中只存二进制的分析结果JSON
+     */
+    private List<VideoAnalysisResult> hydrate(List<VideoAnalysisResult> results) {
+        analysisPayloadStore.hydrate(results);
+        return results;
+    }
+
+    /**
+     * 发布分析结果删除事件（事务提交后更新汇总和大屏计数）
+     */
+    private void publishDeleted(List<VideoAnalysisResult> results) {
+        for (VideoAnalysisResult result : results) {
+            eventPublisher.publishEvent(new AnalysisResultDeletedEvent(
+                    result.getId(), result.getVideoId(), result.getAnalysisType(), result.getAnalysisTime(),
+                    result.getConfidenceScore()));
+        }
+    }
+
+    /**
+     * 流量统计结果
+     * @param totalKey 总数字段名
+     */
+    private Map<String, Object> toFlowStatistics(String totalKey, FlowSummary summary) {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put(totalKey, summary.total());
+        statistics.put("peakHour", summary.peakHour() == null ? null
+                : String.format("%02d:00-%02d:00", summary.peakHour(), summary.peakHour() + 1));
+        statistics.put("peakHourCount", summary.peakHourCount());
+        statistics.put("averageFlow", BigDecimal.valueOf(summary.averageFlow()).setScale(2, RoundingMode.HALF_UP));
+        statistics.put("hourlyDistribution", summary.hourlyDistribution());
+        statistics.put("peakMinute", summary.peakMinute());
+        statistics.put("peakMinuteCount", summary.peakMinuteCount());
+        statistics.put("backfillFinished", detectionFlowService.isBackfillFinished());
+        return statistics;
+    }
+
+    /**
+     * 结束时间（含）所在分钟的下一分钟，作为分钟桶查询的上界
+     */
+    private static LocalDateTime toExclusiveMinute(LocalDateTime endTime) {
+        return endTime == null ? null : endTime.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    }
+
+    /**
+     * 校验分析类型
+     */
+    private void validateAnalysisType(String analysisType) {
+        if (!isAnalysisAlgorithmAvailable(analysisType)) {
+            throw new VideoBusinessException(ResultCode.ANALYSIS_TYPE_NOT_SUPPORTED.getCode(), 
+                    "分析类型不支持：" + analysisType);
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.fyp.handsome.service.impl.migration;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fyp.handsome.config.MigrationProperties;
+import com.fyp.handsome.mapper.BackfillMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 回填执行器
+ * 启动后在后台虚拟线程中依次执行已启用且未完成的回填任务，中断后下次启动从已提交的进度继续
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class BackfillRunner implements AutoCloseable {
+
+    private final BackfillMapper backfillMapper;
+    private final List<BackfillTask> tasks;
+    private final MigrationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean closed;
+
+    public BackfillRunner(BackfillMapper backfillMapper, List<BackfillTask> tasks, MigrationProperties properties,
+                          PlatformTransactionManager transactionManager) {
+        this.backfillMapper = backfillMapper;
+        this.tasks = tasks;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<BackfillTask> enabled = tasks.stream().filter(BackfillTask::isEnabled).toList();
+        if (!enabled.isEmpty()) {
+            Thread.ofVirtual().name("backfill-runner").start(() -> enabled.forEach(this::run));
+        }
+    }
+
+    /**
+     * 加载回填进度（首次执行时以源表当前最大主键作为回填上限）
+     * @param task 回填任务
+     * @return 回填进度
+     */
+    public BackfillMapper.Checkpoint loadCheckpoint(BackfillTask task) {
+        backfillMapper.insertCheckpointIfAbsent(task.getName(), task.getSourceTable());
+        return backfillMapper.selectCheckpoint(task.getName());
+    }
+
+    /**
+     * 执行回填任务直到完成、失败或应用关闭
+     * @param task 回填任务
+     * @return 是否已完成
+     */
+    public boolean run(BackfillTask task) {
+        MigrationProperties.Backfill config = properties.getBackfill();
+        int maxChunkSize = Math.max(1, task.getChunkSize());
+        int minChunkSize = Math.max(1, Math.min(config.getMinChunkSize(), maxChunkSize));
+        int chunkSize = maxChunkSize;
+        long backfilledId = 0;
+
+        while (!closed) {
+            try {
+                BackfillMapper.Checkpoint checkpoint = loadCheckpoint(task);
+                backfilledId = checkpoint.lastId();
+                if (checkpoint.finished() || checkpoint.lastId() >= checkpoint.watermarkId()) {
+                    task.onProgress(checkpoint.lastId(), true);
+                    log.info("回填完成，任务：{}，上限ID：{}", task.getName(), checkpoint.watermarkId());
+                    return true;
+                }
+                task.onProgress(checkpoint.lastId(), false);
+
+                long fromId = checkpoint.lastId();
+                long toId = Math.min(fromId + chunkSize, checkpoint.watermarkId());
+                boolean finished = toId >= checkpoint.watermarkId();
+                long start = System.currentTimeMillis();
+                Boolean advanced = transactionTemplate.execute(status -> {
+                    task.processChunk(fromId, toId);
+                    if (backfillMapper.advanceCheckpoint(task.getName(), fromId, toId, finished) == 0) {
+                        // 进度已被其他实例推进，放弃本批
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                    return true;
+                });
+                long elapsed = System.currentTimeMillis() - start;
+                if (Boolean.TRUE.equals(advanced)) {
+                    backfilledId = toId;
+                    task.onProgress(toId, finished);
+                    log.debug("回填批次完成，任务：{}，ID区间：({}, {}]，耗时：{}ms", task.getName(), fromId, toId, elapsed);
+                }
+
+                // 按本批耗时调整批次大小，并暂停让出数据库资源
+                if (elapsed > config.getTargetChunkMillis()) {
+                    chunkSize = Math.max(minChunkSize, chunkSize / 2);
+                } else if (elapsed * 2 < config.getTargetChunkMillis()) {
+                    chunkSize = (int) Math.min(maxChunkSize, chunkSize * 2L);
+                }
+                Thread.sleep(Math.max(config.getMinPauseMillis(), (long) (elapsed * config.getPauseRatio())));
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.info("回填已中断，任务：{}，已回填到ID：{}", task.getName(), backfilledId);
+                return false;
+            } catch (Exception e) {
+                log.error("回填失败，任务：{}，已回填到ID：{}，错误：{}", task.getName(), backfilledId, e.getMessage(), e);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
@@ -0,0 +1,44 @@
+package com.fyp.handsome.service.impl.migration;
+
+/**
+ * 回填任务
+ * 由 {@link BackfillRunner} 按源表主键区间分批执行：每批处理与进度推进在同一事务内提交，
+ * 批次大小按耗时自动调整，批次之间按耗时暂停，避免长时间占用锁和数据库资源
+ * @author ziye
+ */
+public interface BackfillTask {
+
+    /**
+     * 回填任务名（进度记录的键）
+     */
+    String getName();
+
+    /**
+     * 源表名，回填上限为首次执行时源表的最大主键
+     */
+    String getSourceTable();
+
+    /**
+     * 是否启用
+     */
+    boolean isEnabled();
+
+    /**
+     * 每批最大主键跨度
+     */
+    int getChunkSize();
+
+    /**
+     * 处理一批（在事务内执行，与进度推进一起提交）
+     * @param fromId 起始ID（不含）
+     * @param toId 结束ID（含）
+     */
+    void processChunk(long fromId, long toId);
+
+    /**
+     * 回填进度变化（读取到已提交的进度或本批提交后调用）
+     * @param backfilledId 已回填到的ID
+     * @param finished 是否已完成
+     */
+    void onProgress(long backfilledId, boolean finished);
+}
@@ -0,0 +1,242 @@
+package com.fyp.handsome.service.impl.migration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.MigrationProperties;
+import com.fyp.handsome.mapper.SchemaMigrationMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 数据库版本迁移
+ * 启动时按版本号顺序执行 db/migration 下尚未执行过的脚本，执行结果及脚本校验和记录在 schema_migration：
+ * <ul>
+ *     <li>多个实例同时启动时通过数据库命名锁（GET_LOCK）串行，只有一个实例执行迁移</li>
+ *     <li>已执行的脚本被修改时启动失败（校验和不一致），新的结构变更应新增版本</li>
+ *     <li>数据库已有表结构但没有迁移记录时（按 doc/database_design.sql 手工建库），基线版本只记录不执行，
+ *     之后的脚本照常执行（建表、加列和加索引前均检查是否已存在）</li>
+ *     <li>脚本不在事务中执行（MySQL 的 DDL 会隐式提交），中途失败后重启会从头重新执行该脚本</li>
+ * </ul>
+ * 在本组件初始化时执行，早于各 SmartLifecycle 组件（如任务调度器）和 Web 服务器启动，
+ * 后台任务开始查询、请求进入时表结构已是最新；迁移失败时应用启动失败。
+ * 启动时即访问数据库的组件应声明 {@code @DependsOn(SchemaMigrationRunner.BEAN_NAME)}。
+ * 大表的数据填充不放在迁移脚本中，由 {@link BackfillRunner} 在启动后分批执行
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaMigrationRunner implements InitializingBean {
+
+    /**
+     * 组件名（供 {@code @DependsOn} 引用）
+     */
+    public static final String BEAN_NAME = "schemaMigrationRunner";
+
+    /**
+     * 脚本文件名：V{版本号}__{说明}.sql
+     */
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    /**
+     * 迁移锁名
+     */
+    private static final String LOCK_NAME = "handsome.schema_migration";
+
+    private static final String HISTORY_TABLE = "schema_migration";
+
+    private final DataSource dataSource;
+    private final SchemaMigrationMapper schemaMigrationMapper;
+    private final MigrationProperties properties;
+
+    /**
+     * 迁移脚本
+     */
+    private record Migration(int version, String description, String script, byte[] content, String checksum) {
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException, SQLException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<Migration> migrations = loadMigrations();
+
+        // 锁连接只用于持有命名锁，迁移语句使用其他连接执行，连接关闭时锁自动释放
+        try (Connection lockConnection = dataSource.getConnection()) {
+            acquireLock(lockConnection);
+            try {
+                migrate(migrations);
+            } finally {
+                releaseLock(lockConnection);
+            }
+        }
+    }
+
+    private void migrate(List<Migration> migrations) {
+        boolean existingSchema = schemaMigrationMapper.countColumns(properties.getBaselineTable(), null) > 0;
+        schemaMigrationMapper.createTableIfAbsent();
+        if (schemaMigrationMapper.countColumns(HISTORY_TABLE, "checksum") == 0) {
+            schemaMigrationMapper.addChecksumColumns();
+        }
+
+        Map<Integer, SchemaMigrationMapper.AppliedMigration> applied = schemaMigrationMapper.selectApplied().stream()
+                .collect(Collectors.toMap(SchemaMigrationMapper.AppliedMigration::version, Function.identity()));
+        validate(migrations, applied);
+        int latestApplied = applied.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+
+        List<Migration> pending = migrations.stream().filter(migration -> !applied.containsKey(migration.version()))
+                .toList();
+        if (pending.isEmpty()) {
+            log.info("数据库已是最新版本，已执行迁移数：{}", applied.size());
+            return;
+        }
+
+        for (Migration migration : pending) {
+            if (migration.version() == properties.getBaselineVersion() && existingSchema) {
+                // 已有表结构的数据库，基线只记录不执行
+                schemaMigrationMapper.insert(migration.version(), migration.description(), migration.script(),
+                        migration.checksum(), true, 0);
+                log.info("数据库已有表结构，记录基线版本：{}，脚本：{}", migration.version(), migration.script());
+                continue;
+            }
+            if (migration.version() < latestApplied) {
+                log.warn("迁移脚本版本低于已执行的最新版本，按顺序补执行，版本：{}，最新版本：{}",
+                        migration.version(), latestApplied);
+            }
+
+            log.info("执行数据库迁移，版本：{}，脚本：{}", migration.version(), migration.script());
+            long start = System.currentTimeMillis();
+            try {
+                ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                        new ByteArrayResource(migration.content(), migration.script()));
+                populator.setSqlScriptEncoding(StandardCharsets.UTF_8.name());
+                populator.execute(dataSource);
+            } catch (Exception e) {
+                log.error("数据库迁移失败，版本：{}，脚本：{}，错误：{}", migration.version(), migration.script(),
+                        e.getMessage(), e);
+                throw e;
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            schemaMigrationMapper.insert(migration.version(), migration.description(), migration.script(),
+                    migration.checksum(), false, elapsed);
+            log.info("数据库迁移完成，版本：{}，耗时：{}ms", migration.version(), elapsed);
+        }
+    }
+
+    /**
+     * 校验已执行脚本的校验和（早期版本执行、没有校验和的记录补记当前校验和）
+     */
+    private void validate(List<Migration> migrations, Map<Integer, SchemaMigrationMapper.AppliedMigration> applied) {
+        for (Migration migration : migrations) {
+            SchemaMigrationMapper.AppliedMigration appliedMigration = applied.get(migration.version());
+            if (appliedMigration == null) {
+                continue;
+            }
+            if (appliedMigration.checksum() == null) {
+                schemaMigrationMapper.updateChecksum(migration.version(), migration.checksum());
+            } else if (!appliedMigration.checksum().equals(migration.checksum())) {
+                if (properties.isValidateChecksums()) {
+                    throw new IllegalStateException("已执行的迁移脚本被修改，版本：" + migration.version()
+                            + "，脚本：" + migration.script() + "，结构变更请新增迁移版本");
+                }
+                log.warn("已执行的迁移脚本被修改，版本：{}，脚本：{}", migration.version(), migration.script());
+            }
+        }
+        Set<Integer> known = migrations.stream().map(Migration::version).collect(Collectors.toSet());
+        applied.keySet().stream().filter(version -> !known.contains(version))
+                .forEach(version -> log.warn("数据库中有本地不存在的迁移版本：{}", version));
+    }
+
+    private void acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, properties.getLockTimeoutSeconds());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getInt(1) != 1) {
+                    throw new IllegalStateException("等待数据库迁移锁超时，其他实例可能正在执行迁移");
+                }
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.execute();
+        } catch (SQLException e) {
+            log.warn("释放数据库迁移锁失败，连接关闭后自动释放，错误：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 加载迁移脚本并按版本号排序（版本号重复时启动失败）
+     */
+    private List<Migration> loadMigrations() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(properties.getLocation());
+        List<Migration> migrations = new ArrayList<>();
+        Set<Integer> versions = new HashSet<>();
+        for (Resource resource : resources) {
+            String script = resource.getFilename() != null ? resource.getFilename() : "";
+            Matcher matcher = SCRIPT_NAME.matcher(script);
+            if (!matcher.matches()) {
+                log.warn("忽略不符合命名规则的迁移脚本：{}", script);
+                continue;
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (!versions.add(version)) {
+                throw new IllegalStateException("迁移脚本版本号重复：" + version);
+            }
+            byte[] content;
+            try (InputStream in = resource.getInputStream()) {
+                content = in.readAllBytes();
+            }
+            migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), script, content,
+                    checksum(content)));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        return migrations;
+    }
+
+    /**
+     * 脚本校验和（统一换行符后计算，不受检出时换行符转换影响）
+     */
+    private static String checksum(byte[] content) {
+        String normalized = new String(content, StandardCharsets.UTF_8).replace("\r\n", "\n");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.fyp.handsome.service.impl.user;
+
+/**
+ * 访问令牌声明
+ * 令牌不携带角色和权限，每次请求按用户ID从权限缓存读取当前权限，角色变更无需等待令牌过期
+ * @param tokenId 令牌唯一标识
+ * @param userId 用户ID
+ * @param username 用户名
+ * @param issuedAt 签发时间（毫秒时间戳）
+ * @param expiresAt 过期时间（毫秒时间戳）
+ * @author ziye
+ */
+public record AccessTokenClaims(String tokenId, Long userId, String username, long issuedAt, long expiresAt) {
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired(long nowMillis) {
+        return expiresAt <= nowMillis;
+    }
+}
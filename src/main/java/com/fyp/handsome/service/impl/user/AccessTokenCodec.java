@@ -0,0 +1,134 @@
+package com.fyp.handsome.service.impl.user;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fyp.handsome.config.AuthProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 访问令牌编解码组件
+ * 令牌格式：base64url(声明JSON) + "." + base64url(HMAC-SHA256签名)，验证只做签名和过期校验，不访问数据库
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class AccessTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+    private final Mac prototypeMac;
+
+    public AccessTokenCodec(AuthProperties authProperties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.prototypeMac = createMac(resolveSecret(authProperties.getAccessToken().getSecret()));
+    }
+
+    /**
+     * 签发访问令牌
+     * @param claims 令牌声明
+     * @return 访问令牌
+     */
+    public String encode(AccessTokenClaims claims) {
+        try {
+            String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return payload + "." + ENCODER.encodeToString(sign(payload));
+        } catch (Exception e) {
+            throw new IllegalStateException("签发访问令牌失败", e);
+        }
+    }
+
+    /**
+     * 构造新令牌的声明
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param ttlMillis 有效期（毫秒）
+     * @return 令牌声明
+     */
+    public AccessTokenClaims newClaims(Long userId, String username, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return new AccessTokenClaims(UUID.randomUUID().toString(), userId, username, now, now + ttlMillis);
+    }
+
+    /**
+     * 校验并解析访问令牌
+     * @param token 访问令牌
+     * @return 令牌声明，格式错误、签名不符或已过期时返回null
+     */
+    public AccessTokenClaims decode(String token) {
+        if (token == null) {
+            return null;
+        }
+        int separator = token.indexOf('.');
+        if (separator <= 0 || separator != token.lastIndexOf('.')) {
+            return null;
+        }
+        
+        try {
+            String payload = token.substring(0, separator);
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            
+            AccessTokenClaims claims = objectMapper.readValue(DECODER.decode(payload), AccessTokenClaims.class);
+            if (claims.userId() == null || claims.isExpired(System.currentTimeMillis())) {
+                return null;
+            }
+            return claims;
+        } catch (Exception e) {
+            log.debug("访问令牌解析失败，错误：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            // Mac实例非线程安全，每次克隆已初始化的原型
+            Mac mac = (Mac) prototypeMac.clone();
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC实例不支持克隆", e);
+        }
+    }
+
+    private static byte[] resolveSecret(String configuredSecret) {
+        if (configuredSecret == null || configuredSecret.isBlank()) {
+            log.warn("未配置访问令牌签名密钥（handsome.auth.access-token.secret），已生成随机密钥，重启后已签发的令牌将失效");
+            byte[] secret = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secret);
+            return secret;
+        }
+        byte[] secret = Base64.getDecoder().decode(configuredSecret);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("访问令牌签名密钥长度不能少于" + MIN_SECRET_BYTES + "字节");
+        }
+        return secret;
+    }
+
+    private static Mac createMac(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化HMAC失败", e);
+        }
+    }
+}
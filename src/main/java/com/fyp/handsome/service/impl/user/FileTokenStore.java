@@ -0,0 +1,192 @@
+package com.fyp.handsome.service.impl.user;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.AuthProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 文件持久化token存储
+ * 在进程内存储的基础上，将会话变更以追加日志写入本地文件，重启后重放日志恢复会话；
+ * 日志记录数超过阈值时重写为仅包含存活会话的快照。
+ * 文件中只保存token的SHA-256摘要，不保存token原文，会话也以摘要为键。
+ * 日志格式（首行为格式标记，其余每行一条，空格分隔）：P 摘要 userId expireAtMillis / R 摘要；
+ * 没有格式标记的旧日志中记录的是token原文，重放时转为摘要，启动压缩后不再保留原文
+ * @author ziye
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "handsome.auth.token-store.type", havingValue = "file")
+public class FileTokenStore extends InMemoryTokenStore {
+
+    private static final String PUT = "P";
+    private static final String REMOVE = "R";
+
+    /**
+     * 日志格式标记（记录中为token摘要）
+     */
+    private static final String HEADER = "# sha256";
+
+    private final Path logFile;
+    private final int compactMinRecords;
+
+    private BufferedWriter writer;
+    private int recordCount;
+
+    public FileTokenStore(AuthProperties authProperties, MeterRegistry meterRegistry) {
+        super(authProperties, meterRegistry);
+        this.logFile = Path.of(authProperties.getTokenStore().getFilePath());
+        this.compactMinRecords = authProperties.getTokenStore().getCompactMinRecords();
+        
+        synchronized (lock) {
+            try {
+                replay();
+                compactLocked();
+            } catch (IOException e) {
+                throw new UncheckedIOException("初始化token日志失败：" + logFile, e);
+            }
+        }
+    }
+
+    @Override
+    protected String keyOf(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    @Override
+    protected void onStored(Session session) {
+        append(PUT + " " + session.token + " " + session.userId + " " + session.expireAtMillis);
+    }
+
+    @Override
+    protected void onRemoved(Session session) {
+        append(REMOVE + " " + session.token);
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        synchronized (lock) {
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+            } catch (IOException e) {
+                log.error("关闭token日志失败，文件：{}，错误：{}", logFile, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 重放日志恢复会话（已过期的会话直接跳过）
+     */
+    private void replay() throws IOException {
+        if (!Files.exists(logFile)) {
+            return;
+        }
+        
+        int restored = 0;
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            boolean hashed = HEADER.equals(line);
+            if (hashed) {
+                line = reader.readLine();
+            }
+            for (; line != null; line = reader.readLine()) {
+                String[] parts = line.split(" ");
+                try {
+                    if (PUT.equals(parts[0]) && parts.length == 4) {
+                        String key = hashed ? parts[1] : keyOf(parts[1]);
+                        restoreLocked(new Session(key, Long.valueOf(parts[2]), Long.parseLong(parts[3])));
+                        restored++;
+                    } else if (REMOVE.equals(parts[0]) && parts.length == 2) {
+                        discardLocked(hashed ? parts[1] : keyOf(parts[1]));
+                    } else {
+                        skipped++;
+                    }
+                } catch (NumberFormatException e) {
+                    // 进程异常退出时最后一行可能不完整
+                    skipped++;
+                }
+            }
+        }
+        log.info("token日志重放完成，文件：{}，记录：{}，恢复会话：{}，跳过：{}", logFile, restored, size(), skipped);
+    }
+
+    /**
+     * 追加一条记录，必要时压缩日志（持有写锁）
+     */
+    private void append(String record) {
+        try {
+            writer.write(record);
+            writer.newLine();
+            writer.flush();
+            recordCount++;
+            
+            if (recordCount > compactMinRecords && recordCount > size() * 2) {
+                compactLocked();
+            }
+        } catch (IOException e) {
+            // 持久化失败不影响进程内会话，仅影响重启后恢复
+            log.error("写入token日志失败，文件：{}，错误：{}", logFile, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 将存活会话写入临时文件后原子替换日志
+     * 压缩失败时保留原日志，并重新打开写入流继续追加
+     */
+    private void compactLocked() throws IOException {
+        Path parent = logFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = null;
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+            tempFile = Files.createTempFile(parent, logFile.getFileName().toString(), ".tmp");
+            int live = 0;
+            try (BufferedWriter snapshot = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                snapshot.write(HEADER);
+                snapshot.newLine();
+                for (Session session : liveSessions()) {
+                    snapshot.write(PUT + " " + session.token + " " + session.userId + " " + session.expireAtMillis);
+                    snapshot.newLine();
+                    live++;
+                }
+            }
+            Files.move(tempFile, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tempFile = null;
+            recordCount = live;
+            log.debug("token日志已压缩，文件：{}，存活会话：{}", logFile, live);
+        } finally {
+            if (tempFile != null) {
+                Files.deleteIfExists(tempFile);
+            }
+            writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+}
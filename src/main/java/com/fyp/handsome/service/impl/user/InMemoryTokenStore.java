@@ -0,0 +1,299 @@
+package com.fyp.handsome.service.impl.user;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.AuthProperties;
+import com.fyp.handsome.service.TokenStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 进程内token存储
+ * 会话按过期时间挂到时间轮上，由后台线程按刻度批量清理（查询时也会检查过期）；
+ * 会话数超过上限时淘汰最早过期的会话（另按过期时间排序索引，时间轮槽位按刻度取模，跨轮的会话不能按槽位顺序比较）。
+ * 指标：handsome.auth.sessions（存活会话数）、handsome.auth.token.lookups（按result区分命中，
+ * 取速率即每秒查询数）、handsome.auth.token.evictions（按cause区分过期/容量淘汰）
+ * @author ziye
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "handsome.auth.token-store.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenStore implements TokenStore, AutoCloseable {
+
+    /**
+     * 会话
+     */
+    protected static final class Session {
+
+        /**
+         * 会话键（由 {@link #keyOf(String)} 从token计算）
+         */
+        final String token;
+        final Long userId;
+        final long expireAtMillis;
+        int slot;
+
+        Session(String token, Long userId, long expireAtMillis) {
+            this.token = token;
+            this.userId = userId;
+            this.expireAtMillis = expireAtMillis;
+        }
+
+        boolean isExpired(long nowMillis) {
+            return expireAtMillis <= nowMillis;
+        }
+    }
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Session> userSessions = new ConcurrentHashMap<>();
+
+    /**
+     * 写操作锁（登录、登出、清理），读操作无锁
+     */
+    protected final Object lock = new Object();
+
+    private final int maxSessions;
+    private final long tickMillis;
+    private final List<Set<Session>> wheel;
+    private long currentTick;
+
+    /**
+     * 按过期时间排序的会话（过期时间相同时按会话键），用于容量淘汰
+     */
+    private final NavigableSet<Session> byExpiry = new TreeSet<>(
+            Comparator.<Session>comparingLong(session -> session.expireAtMillis).thenComparing(session -> session.token));
+
+    private final ScheduledExecutorService ticker;
+    private final Counter lookupHits;
+    private final Counter lookupMisses;
+    private final Counter expiredEvictions;
+    private final Counter capacityEvictions;
+
+    public InMemoryTokenStore(AuthProperties authProperties, MeterRegistry meterRegistry) {
+        AuthProperties.TokenStore config = authProperties.getTokenStore();
+        this.maxSessions = Math.max(1, config.getMaxSessions());
+        this.tickMillis = Math.max(1, config.getWheelTickMs());
+        this.wheel = new ArrayList<>(config.getWheelSize());
+        for (int i = 0; i < Math.max(1, config.getWheelSize()); i++) {
+            wheel.add(new HashSet<>());
+        }
+        this.currentTick = System.currentTimeMillis() / tickMillis;
+        
+        Gauge.builder("handsome.auth.sessions", sessions, Map::size)
+                .description("存活的登录会话数")
+                .register(meterRegistry);
+        this.lookupHits = Counter.builder("handsome.auth.token.lookups").tag("result", "hit").register(meterRegistry);
+        this.lookupMisses = Counter.builder("handsome.auth.token.lookups").tag("result", "miss").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("handsome.auth.token.evictions").tag("cause", "expired").register(meterRegistry);
+        this.capacityEvictions = Counter.builder("handsome.auth.token.evictions").tag("cause", "capacity").register(meterRegistry);
+        
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-store-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::expireSafely, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void store(String token, Long userId, Duration ttl) {
+        synchronized (lock) {
+            putLocked(new Session(keyOf(token), userId, System.currentTimeMillis() + ttl.toMillis()));
+        }
+    }
+
+    @Override
+    public Long getUserId(String token) {
+        Session session = token == null ? null : sessions.get(keyOf(token));
+        if (session == null || session.isExpired(System.currentTimeMillis())) {
+            lookupMisses.increment();
+            return null;
+        }
+        lookupHits.increment();
+        return session.userId;
+    }
+
+    @Override
+    public void remove(String token) {
+        synchronized (lock) {
+            Session session = sessions.get(keyOf(token));
+            if (session != null) {
+                removeLocked(session);
+                onRemoved(session);
+            }
+        }
+    }
+
+    @Override
+    public void removeByUserId(Long userId) {
+        synchronized (lock) {
+            Session session = userSessions.get(userId);
+            if (session != null) {
+                removeLocked(session);
+                onRemoved(session);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    // =================== 子类扩展点 ===================
+
+    /**
+     * 由token计算会话键，默认直接使用token
+     */
+    protected String keyOf(String token) {
+        return token;
+    }
+
+    /**
+     * 会话保存后回调（持有写锁）
+     */
+    protected void onStored(Session session) {
+    }
+
+    /**
+     * 会话被主动移除或按容量淘汰后回调（持有写锁），过期清理不回调
+     */
+    protected void onRemoved(Session session) {
+    }
+
+    /**
+     * 保存会话，不触发回调（用于子类恢复数据）
+     */
+    protected void restoreLocked(Session session) {
+        if (!session.isExpired(System.currentTimeMillis())) {
+            insertLocked(session);
+        }
+    }
+
+    /**
+     * 移除会话，不触发回调（用于子类恢复数据）
+     * @param key 会话键
+     */
+    protected void discardLocked(String key) {
+        Session session = sessions.get(key);
+        if (session != null) {
+            removeLocked(session);
+        }
+    }
+
+    /**
+     * 当前存活的会话快照
+     */
+    protected List<Session> liveSessions() {
+        long now = System.currentTimeMillis();
+        return sessions.values().stream().filter(session -> !session.isExpired(now)).toList();
+    }
+
+    // =================== 私有方法 ===================
+
+    private void putLocked(Session session) {
+        insertLocked(session);
+        onStored(session);
+        
+        while (sessions.size() > maxSessions) {
+            Session victim = findEarliestExpiring();
+            if (victim == null) {
+                break;
+            }
+            removeLocked(victim);
+            capacityEvictions.increment();
+            onRemoved(victim);
+        }
+    }
+
+    private void insertLocked(Session session) {
+        // 同一用户只保留最新的token
+        Session previous = userSessions.get(session.userId);
+        if (previous != null) {
+            removeLocked(previous);
+        }
+        Session replaced = sessions.get(session.token);
+        if (replaced != null) {
+            removeLocked(replaced);
+        }
+        
+        long tick = Math.max(session.expireAtMillis / tickMillis, currentTick);
+        session.slot = (int) (tick % wheel.size());
+        wheel.get(session.slot).add(session);
+        byExpiry.add(session);
+        sessions.put(session.token, session);
+        userSessions.put(session.userId, session);
+    }
+
+    private void removeLocked(Session session) {
+        sessions.remove(session.token, session);
+        userSessions.remove(session.userId, session);
+        wheel.get(session.slot).remove(session);
+        byExpiry.remove(session);
+    }
+
+    /**
+     * 推进时间轮，清理到期槽位中的过期会话（未到期的属于后续轮次，保留在槽中）
+     */
+    private void expire() {
+        long now = System.currentTimeMillis();
+        long targetTick = now / tickMillis;
+        int expired = 0;
+        synchronized (lock) {
+            long steps = Math.min(targetTick - currentTick + 1, wheel.size());
+            long startTick = targetTick - steps + 1;
+            for (long tick = startTick; tick <= targetTick; tick++) {
+                Set<Session> slot = wheel.get((int) (tick % wheel.size()));
+                for (Session session : List.copyOf(slot)) {
+                    if (session.isExpired(now)) {
+                        removeLocked(session);
+                        expired++;
+                    }
+                }
+            }
+            currentTick = targetTick + 1;
+        }
+        if (expired > 0) {
+            expiredEvictions.increment(expired);
+            log.debug("清理过期会话{}个，剩余{}个", expired, sessions.size());
+        }
+    }
+
+    private void expireSafely() {
+        try {
+            expire();
+        } catch (Exception e) {
+            log.error("清理过期会话失败，错误：{}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 查找最早过期的会话
+     */
+    private Session findEarliestExpiring() {
+        return byExpiry.isEmpty() ? null : byExpiry.first();
+    }
+}
@@ -23,6 +23,7 @@ public class RolePermissionServiceImpl {
 
     private final RoleMapper roleMapper;
     private final PermissionMapper permissionMapper;
+    private final UserPermissionCache userPermissionCache;
 
     // =================== 角色权限关系管理 ===================
 
@@ -41,6 +42,7 @@ public class RolePermissionServiceImpl {
                 }
             }
             
+            userPermissionCache.invalidateRole(roleId);
             log.info("角色权限分配成功，roleId：{}，permissionIds：{}", roleId, permissionIds);
             return true;
         } catch (Exception e) {
@@ -60,6 +62,7 @@ public class RolePermissionServiceImpl {
                 }
             }
             
+            userPermissionCache.invalidateRole(roleId);
             log.info("移除角色权限成功，roleId：{}，permissionIds：{}", roleId, permissionIds);
             return true;
         } catch (Exception e) {
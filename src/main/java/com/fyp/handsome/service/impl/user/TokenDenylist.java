@@ -0,0 +1,246 @@
+package com.fyp.handsome.service.impl.user;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.AuthProperties;
+import com.fyp.handsome.mapper.TokenRevocationMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 访问令牌吊销名单
+ * 布隆过滤器在前、精确集合在后：绝大多数未吊销的令牌只需一次布隆过滤器判断；
+ * 支持按令牌吊销和按用户吊销（该用户在吊销时间之前签发的令牌全部失效，用于登出和禁用用户）。
+ * 条目在对应令牌全部过期后清理，清理时重建布隆过滤器。
+ * 吊销同时写入 token_revocation，启动时加载、清理时同步，重启后及其他实例吊销的令牌同样被拒绝
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class TokenDenylist implements AutoCloseable {
+
+    private static final String TOKEN_PREFIX = "t:";
+    private static final String USER_PREFIX = "u:";
+
+    private final TokenRevocationMapper tokenRevocationMapper;
+    private final long accessTokenTtlMillis;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+
+    /**
+     * 精确集合：t:令牌ID -> 令牌过期时间；u:用户ID -> 吊销时间
+     */
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+    private final ScheduledExecutorService cleaner;
+
+    public TokenDenylist(TokenRevocationMapper tokenRevocationMapper, AuthProperties authProperties) {
+        this.tokenRevocationMapper = tokenRevocationMapper;
+        AuthProperties.AccessToken config = authProperties.getAccessToken();
+        this.accessTokenTtlMillis = TimeUnit.MINUTES.toMillis(config.getTtlMinutes());
+        this.expectedInsertions = Math.max(16, config.getDenylistExpectedInsertions());
+        this.falsePositiveRate = config.getDenylistFalsePositiveRate();
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-denylist-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, config.getDenylistCleanupSeconds());
+        this.cleaner.scheduleWithFixedDelay(this::cleanupSafely, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 启动后加载持久化的吊销记录（迁移已创建吊销表）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            int loaded = syncFromDatabase();
+            log.info("令牌吊销名单已加载，条目：{}", loaded);
+        } catch (Exception e) {
+            log.error("加载令牌吊销名单失败，错误：{}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 吊销单个令牌
+     * @param claims 令牌声明
+     */
+    public void revokeToken(AccessTokenClaims claims) {
+        String key = TOKEN_PREFIX + claims.tokenId();
+        add(key, claims.expiresAt());
+        persist(key, claims.expiresAt(), claims.expiresAt());
+    }
+
+    /**
+     * 吊销用户当前时间之前签发的所有令牌
+     * @param userId 用户ID
+     */
+    public void revokeUser(Long userId) {
+        String key = USER_PREFIX + userId;
+        long now = System.currentTimeMillis();
+        add(key, now);
+        persist(key, now, now + accessTokenTtlMillis);
+    }
+
+    /**
+     * 判断令牌是否已被吊销
+     * @param claims 令牌声明
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(AccessTokenClaims claims) {
+        BloomFilter filter = bloomFilter;
+        
+        String tokenKey = TOKEN_PREFIX + claims.tokenId();
+        if (filter.mightContain(tokenKey) && entries.containsKey(tokenKey)) {
+            return true;
+        }
+        
+        String userKey = USER_PREFIX + claims.userId();
+        if (filter.mightContain(userKey)) {
+            Long revokedAt = entries.get(userKey);
+            return revokedAt != null && claims.issuedAt() <= revokedAt;
+        }
+        return false;
+    }
+
+    /**
+     * 当前名单条目数
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() {
+        cleaner.shutdownNow();
+    }
+
+    private synchronized void add(String key, long value) {
+        entries.merge(key, value, Math::max);
+        bloomFilter.put(key);
+    }
+
+    /**
+     * 写入吊销表（失败时本实例内仍然生效，仅影响重启后和其他实例）
+     */
+    private void persist(String key, long value, long expireAt) {
+        try {
+            tokenRevocationMapper.upsert(key, value, expireAt);
+        } catch (Exception e) {
+            log.error("保存令牌吊销记录失败，key：{}，错误：{}", key, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 合并吊销表中未失效的记录
+     * @return 合并的记录数
+     */
+    private int syncFromDatabase() {
+        List<TokenRevocationMapper.Revocation> revocations =
+                tokenRevocationMapper.selectActive(System.currentTimeMillis());
+        revocations.forEach(revocation -> add(revocation.revokeKey(), revocation.revokeValue()));
+        return revocations.size();
+    }
+
+    /**
+     * 同步吊销表，清理已无意义的条目并重建布隆过滤器
+     */
+    synchronized void cleanup() {
+        long now = System.currentTimeMillis();
+        try {
+            tokenRevocationMapper.deleteExpired(now);
+            syncFromDatabase();
+        } catch (Exception e) {
+            log.error("同步令牌吊销记录失败，错误：{}", e.getMessage(), e);
+        }
+        
+        int before = entries.size();
+        entries.entrySet().removeIf(entry -> entry.getKey().startsWith(TOKEN_PREFIX)
+                ? entry.getValue() <= now
+                : entry.getValue() + accessTokenTtlMillis <= now);
+        if (entries.size() == before) {
+            return;
+        }
+        
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, entries.size() * 2), falsePositiveRate);
+        entries.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        log.debug("令牌吊销名单已清理，条目：{} -> {}", before, entries.size());
+    }
+
+    private void cleanupSafely() {
+        try {
+            cleanup();
+        } catch (Exception e) {
+            log.error("清理令牌吊销名单失败，错误：{}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 布隆过滤器（双重哈希生成k个位置，位数组无锁读写）
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            double p = Math.min(Math.max(falsePositiveRate, 1e-6), 0.5);
+            this.bitCount = (int) Math.max(64, Math.ceil(-expectedInsertions * Math.log(p) / (Math.log(2) * Math.log(2))));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        void put(String key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int index = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << index;
+                bits.getAndAccumulate(index >>> 6, mask, (current, bit) -> current | bit);
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int index = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * FNV-1a 64位哈希
+         */
+        private static long hash64(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package com.fyp.handsome.service.impl.user;
 
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fyp.handsome.config.AuthProperties;
+import com.fyp.handsome.entity.Role;
 import com.fyp.handsome.entity.User;
 import com.fyp.handsome.mapper.PermissionMapper;
 import com.fyp.handsome.mapper.RoleMapper;
 import com.fyp.handsome.mapper.UserMapper;
+import com.fyp.handsome.service.TokenStore;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,15 +30,17 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UserAuthServiceImpl {
 
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     private final UserMapper userMapper;
     private final RoleMapper roleMapper;
     private final PermissionMapper permissionMapper;
     private final UserRoleServiceImpl userRoleService;
     private final UserPermissionServiceImpl userPermissionService;
-    
-    // 简单的token存储（实际项目中应使用Redis）
-    private final Map<String, Long> tokenUserMap = new ConcurrentHashMap<>();
-    private final Map<Long, String> userTokenMap = new ConcurrentHashMap<>();
+    private final AccessTokenCodec accessTokenCodec;
+    private final TokenDenylist tokenDenylist;
+    private final TokenStore tokenStore;
+    private final AuthProperties authProperties;
 
     // =================== 用户认证 ===================
 
@@ -65,13 +72,11 @@ public class UserAuthServiceImpl {
             // 更新最后登录时间
             userMapper.updateLastLoginTime(user.getId());
             
-            // 生成token
+            // 签发访问令牌（无状态）和刷新令牌（覆盖该用户之前的刷新令牌）
+            List<Role> roles = userRoleService.getUserRoles(user.getId());
             String token = generateToken(user);
-            String refreshToken = generateRefreshToken(user);
-            
-            // 存储token映射关系
-            tokenUserMap.put(token, user.getId());
-            userTokenMap.put(user.getId(), token);
+            String refreshToken = generateRefreshToken();
+            tokenStore.store(refreshToken, user.getId(), getRefreshTokenTtl());
             
             // 构建登录成功结果
             Map<String, Object> result = new HashMap<>();
@@ -79,8 +84,9 @@ public class UserAuthServiceImpl {
             result.put("message", "登录成功");
             result.put("token", token);
             result.put("refreshToken", refreshToken);
+            result.put("expiresIn", getAccessTokenTtl().toSeconds());
             result.put("user", user);
-            result.put("roles", userRoleService.getUserRoles(user.getId()));
+            result.put("roles", roles);
             result.put("permissions", userPermissionService.getUserPermissions(user.getId()));
             
             log.info("用户登录成功，username：{}", username);
@@ -96,11 +102,9 @@ public class UserAuthServiceImpl {
         try {
             log.info("用户登出，userId：{}", userId);
             
-            // 移除token映射关系
-            String token = userTokenMap.remove(userId);
-            if (token != null) {
-                tokenUserMap.remove(token);
-            }
+            // 吊销已签发的访问令牌，移除刷新令牌
+            tokenDenylist.revokeUser(userId);
+            tokenStore.removeByUserId(userId);
             
             log.info("用户登出成功，userId：{}", userId);
             return true;
@@ -112,32 +116,24 @@ public class UserAuthServiceImpl {
 
     public Map<String, Object> refreshToken(String refreshToken) {
         try {
-            log.info("刷新token，refreshToken：{}", refreshToken);
+            log.info("刷新token");
             
-            // 简化实现：从refreshToken中解析用户ID
-            // 实际项目中应该使用JWT或其他方式
-            if (refreshToken.startsWith("refresh_")) {
-                String userIdStr = refreshToken.substring(8); // 去掉 "refresh_" 前缀
-                Long userId = Long.valueOf(userIdStr.split("_")[0]);
-                
+            Long userId = tokenStore.getUserId(refreshToken);
+            if (userId != null) {
+                // 刷新为低频操作，重新确认用户状态
                 User user = userMapper.selectById(userId);
                 if (user != null && user.getStatus() == 1) {
-                    // 生成新的token
                     String newToken = generateToken(user);
-                    String newRefreshToken = generateRefreshToken(user);
+                    String newRefreshToken = generateRefreshToken();
                     
-                    // 更新token映射
-                    String oldToken = userTokenMap.get(userId);
-                    if (oldToken != null) {
-                        tokenUserMap.remove(oldToken);
-                    }
-                    tokenUserMap.put(newToken, userId);
-                    userTokenMap.put(userId, newToken);
+                    // 轮换刷新令牌（旧刷新令牌随之失效）
+                    tokenStore.store(newRefreshToken, userId, getRefreshTokenTtl());
                     
                     Map<String, Object> result = new HashMap<>();
                     result.put("success", true);
                     result.put("token", newToken);
                     result.put("refreshToken", newRefreshToken);
+                    result.put("expiresIn", getAccessTokenTtl().toSeconds());
                     return result;
                 }
             }
@@ -147,7 +143,7 @@ public class UserAuthServiceImpl {
             result.put("message", "refreshToken无效");
             return result;
         } catch (Exception e) {
-            log.error("刷新token失败，refreshToken：{}，错误：{}", refreshToken, e.getMessage(), e);
+            log.error("刷新token失败，错误：{}", e.getMessage(), e);
             Map<String, Object> result = new HashMap<>();
             result.put("success", false);
             result.put("message", "token刷新失败");
@@ -155,21 +151,36 @@ public class UserAuthServiceImpl {
         }
     }
 
+    /**
+     * 验证访问令牌（只校验签名、过期和吊销名单，不访问数据库）
+     * @param token 访问令牌
+     * @return 令牌声明，无效时返回null
+     */
+    public AccessTokenClaims verifyAccessToken(String token) {
+        AccessTokenClaims claims = accessTokenCodec.decode(token);
+        if (claims == null || tokenDenylist.isRevoked(claims)) {
+            return null;
+        }
+        return claims;
+    }
+
+    /**
+     * 验证token，返回的用户信息只包含令牌中携带的字段
+     */
     public User validateToken(String token) {
         try {
-            log.debug("验证token：{}", token);
-            
-            Long userId = tokenUserMap.get(token);
-            if (userId != null) {
-                User user = userMapper.selectById(userId);
-                if (user != null && user.getStatus() == 1) {
-                    return user;
-                }
+            AccessTokenClaims claims = verifyAccessToken(token);
+            if (claims == null) {
+                return null;
             }
             
-            return null;
+            User user = new User();
+            user.setId(claims.userId());
+            user.setUsername(claims.username());
+            user.setStatus(1);
+            return user;
         } catch (Exception e) {
-            log.error("token验证失败，token：{}，错误：{}", token, e.getMessage(), e);
+            log.error("token验证失败，错误：{}", e.getMessage(), e);
             return null;
         }
     }
@@ -187,17 +198,34 @@ public class UserAuthServiceImpl {
     }
 
     /**
-     * 生成访问token（简化实现）
+     * 访问令牌有效期
+     */
+    private Duration getAccessTokenTtl() {
+        return Duration.ofMinutes(authProperties.getAccessToken().getTtlMinutes());
+    }
+
+    /**
+     * 刷新令牌有效期
+     */
+    private Duration getRefreshTokenTtl() {
+        return Duration.ofMinutes(authProperties.getTokenStore().getTtlMinutes());
+    }
+
+    /**
+     * 签发访问令牌（携带用户ID、用户名和过期时间，权限每次请求从权限缓存读取）
      */
     private String generateToken(User user) {
-        return "token_" + user.getId() + "_" + System.currentTimeMillis();
+        return accessTokenCodec.encode(accessTokenCodec.newClaims(user.getId(), user.getUsername(),
+                getAccessTokenTtl().toMillis()));
     }
 
     /**
-     * 生成刷新token（简化实现）
+     * 生成刷新令牌（随机不透明字符串）
      */
-    private String generateRefreshToken(User user) {
-        return "refresh_" + user.getId() + "_" + UUID.randomUUID().toString();
+    private String generateRefreshToken() {
+        byte[] bytes = new byte[32];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
     /**
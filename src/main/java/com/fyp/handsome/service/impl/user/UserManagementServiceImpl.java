@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -15,6 +16,7 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.fyp.handsome.entity.Permission;
 import com.fyp.handsome.entity.Role;
 import com.fyp.handsome.entity.User;
+import com.fyp.handsome.event.UserRegisteredEvent;
 import com.fyp.handsome.mapper.PermissionMapper;
 import com.fyp.handsome.mapper.RoleMapper;
 import com.fyp.handsome.mapper.UserMapper;
@@ -35,6 +37,8 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
     private final RoleMapper roleMapper;
     private final PermissionMapper permissionMapper;
     private final UserAuthServiceImpl userAuthService;
+    private final UserPermissionCache userPermissionCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     // =================== 用户管理 ===================
 
@@ -73,6 +77,7 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
             
             if (result) {
                 log.info("用户注册成功，userId：{}", user.getId());
+                eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
             }
             
             return result;
@@ -98,6 +103,7 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
         try {
             // 先移除token映射
             userAuthService.logout(userId);
+            userPermissionCache.invalidateUser(userId);
             return removeById(userId);
         } catch (Exception e) {
             log.error("删除用户失败，userId：{}，错误：{}", userId, e.getMessage(), e);
@@ -110,6 +116,7 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
         try {
             // 先移除所有用户的token映射
             userIds.forEach(userAuthService::logout);
+            userPermissionCache.invalidateUsers(userIds);
             return removeByIds(userIds);
         } catch (Exception e) {
             log.error("批量删除用户失败，userIds：{}，错误：{}", userIds, e.getMessage(), e);
@@ -128,6 +135,7 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
             User user = new User();
             user.setId(userId);
             user.setStatus(status);
+            userPermissionCache.invalidateUser(userId);
             return updateById(user);
         } catch (Exception e) {
             log.error("更新用户状态失败，userId：{}，status：{}，错误：{}", userId, status, e.getMessage(), e);
@@ -227,18 +235,8 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
                 wrapper.eq(User::getStatus, status);
             }
             
-            // 手动计算总数以修复分页总数为0的问题
-            long totalCount = count(wrapper);
-            
-            // 执行分页查询
-            IPage<User> result = page(page, wrapper);
-            
-            // 如果分页结果的总数为0，则手动设置总数
-            if (result.getTotal() == 0 && totalCount > 0) {
-                result.setTotal(totalCount);
-            }
-            
-            return result;
+            // 分页插件负责LIMIT改写和COUNT统计
+            return page(page, wrapper);
         } catch (Exception e) {
             log.error("分页查询用户失败，错误：{}", e.getMessage(), e);
             return new Page<>();
@@ -269,7 +267,11 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
     @Transactional(rollbackFor = Exception.class)
     public boolean updateRole(Role role) {
         try {
-            return roleMapper.updateById(role) > 0;
+            boolean result = roleMapper.updateById(role) > 0;
+            if (result) {
+                userPermissionCache.invalidateRole(role.getId());
+            }
+            return result;
         } catch (Exception e) {
             log.error("更新角色失败，roleId：{}，错误：{}", role.getId(), e.getMessage(), e);
             return false;
@@ -279,7 +281,11 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteRole(Long roleId) {
         try {
-            return roleMapper.deleteById(roleId) > 0;
+            boolean result = roleMapper.deleteById(roleId) > 0;
+            if (result) {
+                userPermissionCache.invalidateRole(roleId);
+            }
+            return result;
         } catch (Exception e) {
             log.error("删除角色失败，roleId：{}，错误：{}", roleId, e.getMessage(), e);
             return false;
@@ -309,18 +315,8 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
                 wrapper.eq(Role::getStatus, status);
             }
             
-            // 手动计算总数以修复分页总数为0的问题
-            long totalCount = roleMapper.selectCount(wrapper);
-            
-            // 执行分页查询
-            IPage<Role> result = roleMapper.selectPage(page, wrapper);
-            
-            // 如果分页结果的总数为0，则手动设置总数
-            if (result.getTotal() == 0 && totalCount > 0) {
-                result.setTotal(totalCount);
-            }
-            
-            return result;
+            // 分页插件负责LIMIT改写和COUNT统计
+            return roleMapper.selectPage(page, wrapper);
         } catch (Exception e) {
             log.error("分页查询角色失败，错误：{}", e.getMessage(), e);
             return new Page<>();
@@ -332,7 +328,11 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
     @Transactional(rollbackFor = Exception.class)
     public boolean addPermission(Permission permission) {
         try {
-            return permissionMapper.insert(permission) > 0;
+            boolean result = permissionMapper.insert(permission) > 0;
+            if (result) {
+                userPermissionCache.invalidatePermission(null);
+            }
+            return result;
         } catch (Exception e) {
             log.error("新增权限失败，permissionName：{}，错误：{}", permission.getPermissionName(), e.getMessage(), e);
             return false;
@@ -342,7 +342,11 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
     @Transactional(rollbackFor = Exception.class)
     public boolean updatePermission(Permission permission) {
         try {
-            return permissionMapper.updateById(permission) > 0;
+            boolean result = permissionMapper.updateById(permission) > 0;
+            if (result) {
+                userPermissionCache.invalidatePermission(permission.getId());
+            }
+            return result;
         } catch (Exception e) {
             log.error("更新权限失败，permissionId：{}，错误：{}", permission.getId(), e.getMessage(), e);
             return false;
@@ -352,7 +356,11 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
     @Transactional(rollbackFor = Exception.class)
     public boolean deletePermission(Long permissionId) {
         try {
-            return permissionMapper.deleteById(permissionId) > 0;
+            boolean result = permissionMapper.deleteById(permissionId) > 0;
+            if (result) {
+                userPermissionCache.invalidatePermission(permissionId);
+            }
+            return result;
         } catch (Exception e) {
             log.error("删除权限失败，permissionId：{}，错误：{}", permissionId, e.getMessage(), e);
             return false;
@@ -386,18 +394,8 @@ public class UserManagementServiceImpl extends ServiceImpl<UserMapper, User> {
                 wrapper.eq(Permission::getStatus, status);
             }
             
-            // 手动计算总数以修复分页总数为0的问题
-            long totalCount = permissionMapper.selectCount(wrapper);
-            
-            // 执行分页查询
-            IPage<Permission> result = permissionMapper.selectPage(page, wrapper);
-            
-            // 如果分页结果的总数为0，则手动设置总数
-            if (result.getTotal() == 0 && totalCount > 0) {
-                result.setTotal(totalCount);
-            }
-            
-            return result;
+            // 分页插件负责LIMIT改写和COUNT统计
+            return permissionMapper.selectPage(page, wrapper);
         } catch (Exception e) {
             log.error("分页查询权限失败，错误：{}", e.getMessage(), e);
             return new Page<>();
@@ -0,0 +1,258 @@
+package com.fyp.handsome.service.impl.user;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fyp.handsome.config.AuthProperties;
+import com.fyp.handsome.entity.Permission;
+import com.fyp.handsome.entity.Role;
+import com.fyp.handsome.mapper.PermissionMapper;
+import com.fyp.handsome.mapper.RoleMapper;
+import com.fyp.handsome.mapper.UserMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用户权限缓存
+ * 按用户缓存编译后的权限集合（权限ID位图 + 角色编码），权限判断无需访问数据库；
+ * 用户角色、角色权限、角色和权限本身变更时按影响范围精确失效，事务内的失效在提交后执行
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class UserPermissionCache {
+
+    private final UserMapper userMapper;
+    private final RoleMapper roleMapper;
+    private final PermissionMapper permissionMapper;
+
+    /**
+     * 用户ID -> 编译后的权限集合
+     */
+    private final Cache<Long, UserPermissions> cache;
+
+    /**
+     * 失效版本号，加载期间发生过失效的结果不写入缓存，避免写回旧数据
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 权限编码 -> 权限ID（启用的权限）
+     */
+    private volatile Map<String, Long> permissionIds;
+
+    public UserPermissionCache(UserMapper userMapper, RoleMapper roleMapper, PermissionMapper permissionMapper,
+                               AuthProperties authProperties) {
+        this.userMapper = userMapper;
+        this.roleMapper = roleMapper;
+        this.permissionMapper = permissionMapper;
+        AuthProperties.PermissionCache config = authProperties.getPermissionCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(Duration.ofMinutes(config.getExpireMinutes()))
+                .build();
+    }
+
+    // =================== 查询 ===================
+
+    /**
+     * 获取用户编译后的权限集合（未命中时从数据库加载）
+     * @param userId 用户ID
+     * @return 权限集合
+     */
+    public UserPermissions get(Long userId) {
+        UserPermissions cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long loadVersion = version.get();
+        UserPermissions loaded = load(userId);
+        if (version.get() == loadVersion) {
+            cache.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 根据权限编码获取权限ID
+     * @param permissionCode 权限编码
+     * @return 权限ID，不存在或未启用时返回null
+     */
+    public Long resolvePermissionId(String permissionCode) {
+        Map<String, Long> ids = permissionIds;
+        if (ids == null) {
+            ids = loadPermissionIds();
+        }
+        return ids.get(permissionCode);
+    }
+
+    /**
+     * 判断用户是否拥有指定权限
+     * @param userId 用户ID
+     * @param permissionCode 权限编码
+     * @return 是否拥有
+     */
+    public boolean hasPermission(Long userId, String permissionCode) {
+        Long permissionId = resolvePermissionId(permissionCode);
+        return permissionId != null && get(userId).hasPermissionId(permissionId);
+    }
+
+    // =================== 失效 ===================
+
+    /**
+     * 用户的角色关系或状态变更
+     * @param userId 用户ID
+     */
+    public void invalidateUser(Long userId) {
+        afterCommit(() -> {
+            version.incrementAndGet();
+            cache.invalidate(userId);
+        });
+    }
+
+    /**
+     * 批量用户变更
+     * @param userIds 用户ID列表
+     */
+    public void invalidateUsers(Collection<Long> userIds) {
+        afterCommit(() -> {
+            version.incrementAndGet();
+            cache.invalidateAll(userIds);
+        });
+    }
+
+    /**
+     * 角色的权限关系或角色本身变更（含启用/禁用），失效拥有该角色的用户
+     * @param roleId 角色ID
+     */
+    public void invalidateRole(Long roleId) {
+        afterCommit(() -> {
+            version.incrementAndGet();
+            cache.invalidateAll(userMapper.selectUserIdsByRoleId(roleId));
+        });
+    }
+
+    /**
+     * 权限本身变更（编码、状态、删除），刷新编码映射并失效通过角色拥有该权限的用户
+     * @param permissionId 权限ID，为null时表示新增权限（尚未分配给任何角色）
+     */
+    public void invalidatePermission(Long permissionId) {
+        afterCommit(() -> {
+            version.incrementAndGet();
+            permissionIds = null;
+            if (permissionId != null) {
+                cache.invalidateAll(userMapper.selectUserIdsByPermissionId(permissionId));
+            }
+        });
+    }
+
+    // =================== 私有方法 ===================
+
+    private UserPermissions load(Long userId) {
+        List<Role> roles = roleMapper.selectRolesByUserId(userId);
+        List<Permission> permissions = permissionMapper.selectPermissionsByUserId(userId);
+        
+        BitSet ids = new BitSet();
+        for (Permission permission : permissions) {
+            ids.set(Math.toIntExact(permission.getId()));
+        }
+        Set<Long> roleIds = new HashSet<>();
+        Set<String> roleCodes = new HashSet<>();
+        for (Role role : roles) {
+            roleIds.add(role.getId());
+            roleCodes.add(role.getRoleCode());
+        }
+        return new UserPermissions(userId, Set.copyOf(roleIds), Set.copyOf(roleCodes), ids);
+    }
+
+    private synchronized Map<String, Long> loadPermissionIds() {
+        if (permissionIds != null) {
+            return permissionIds;
+        }
+        long loadVersion = version.get();
+        Map<String, Long> ids = new HashMap<>();
+        for (Permission permission : permissionMapper.selectEnabledPermissions()) {
+            ids.put(permission.getPermissionCode(), permission.getId());
+        }
+        Map<String, Long> loaded = Map.copyOf(ids);
+        if (version.get() == loadVersion) {
+            permissionIds = loaded;
+        }
+        log.debug("权限编码映射已加载，数量：{}", loaded.size());
+        return loaded;
+    }
+
+    /**
+     * 当前存在事务时在提交后执行，否则立即执行
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 编译后的用户权限集合（不可变）
+     */
+    public static final class UserPermissions {
+
+        private final Long userId;
+        private final Set<Long> roleIds;
+        private final Set<String> roleCodes;
+        private final BitSet permissionIds;
+
+        UserPermissions(Long userId, Set<Long> roleIds, Set<String> roleCodes, BitSet permissionIds) {
+            this.userId = userId;
+            this.roleIds = roleIds;
+            this.roleCodes = roleCodes;
+            this.permissionIds = permissionIds;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public Set<Long> getRoleIds() {
+            return roleIds;
+        }
+
+        public Set<String> getRoleCodes() {
+            return roleCodes;
+        }
+
+        /**
+         * 是否拥有指定权限ID
+         */
+        public boolean hasPermissionId(Long permissionId) {
+            return permissionId >= 0 && permissionId <= Integer.MAX_VALUE && permissionIds.get(permissionId.intValue());
+        }
+
+        /**
+         * 权限ID位图副本
+         */
+        public BitSet getPermissionIds() {
+            return (BitSet) permissionIds.clone();
+        }
+    }
+}
@@ -5,7 +5,6 @@ import java.util.List;
 import org.springframework.stereotype.Service;
 
 import com.fyp.handsome.entity.Permission;
-import com.fyp.handsome.entity.Role;
 import com.fyp.handsome.mapper.PermissionMapper;
 
 import lombok.RequiredArgsConstructor;
@@ -21,15 +20,14 @@ import lombok.extern.slf4j.Slf4j;
 public class UserPermissionServiceImpl {
 
     private final PermissionMapper permissionMapper;
-    private final UserRoleServiceImpl userRoleService;
+    private final UserPermissionCache userPermissionCache;
 
     // =================== 权限验证 ===================
 
     public boolean hasPermission(Long userId, String permissionCode) {
         try {
-            List<Permission> permissions = getUserPermissions(userId);
-            return permissions.stream()
-                    .anyMatch(permission -> permission.getPermissionCode().equals(permissionCode));
+            // 命中缓存时为一次哈希查找和一次位图判断，无数据库访问
+            return userPermissionCache.hasPermission(userId, permissionCode);
         } catch (Exception e) {
             log.error("检查用户权限失败，userId：{}，permissionCode：{}，错误：{}", userId, permissionCode, e.getMessage(), e);
             return false;
@@ -38,9 +36,7 @@ public class UserPermissionServiceImpl {
 
     public boolean hasRole(Long userId, String roleCode) {
         try {
-            List<Role> roles = userRoleService.getUserRoles(userId);
-            return roles.stream()
-                    .anyMatch(role -> role.getRoleCode().equals(roleCode));
+            return userPermissionCache.get(userId).getRoleCodes().contains(roleCode);
         } catch (Exception e) {
             log.error("检查用户角色失败，userId：{}，roleCode：{}，错误：{}", userId, roleCode, e.getMessage(), e);
             return false;
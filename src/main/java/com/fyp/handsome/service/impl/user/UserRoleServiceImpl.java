@@ -23,6 +23,7 @@ public class UserRoleServiceImpl {
 
     private final UserMapper userMapper;
     private final RoleMapper roleMapper;
+    private final UserPermissionCache userPermissionCache;
 
     // =================== 用户角色关系管理 ===================
 
@@ -41,6 +42,7 @@ public class UserRoleServiceImpl {
                 }
             }
             
+            userPermissionCache.invalidateUser(userId);
             log.info("用户角色分配成功，userId：{}，roleIds：{}", userId, roleIds);
             return true;
         } catch (Exception e) {
@@ -60,6 +62,7 @@ public class UserRoleServiceImpl {
                 }
             }
             
+            userPermissionCache.invalidateUser(userId);
             log.info("移除用户角色成功，userId：{}，roleIds：{}", userId, roleIds);
             return true;
         } catch (Exception e) {
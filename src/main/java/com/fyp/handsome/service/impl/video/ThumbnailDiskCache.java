@@ -0,0 +1,169 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.VideoThumbnailProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 缩略图磁盘缓存
+ * 按内容摘要寻址（相同内容的视频共用同一组图片），目录总大小超过上限时按最近最少使用淘汰；
+ * 启动后首次使用时扫描目录重建索引，按文件修改时间近似恢复使用顺序
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class ThumbnailDiskCache {
+
+    private static final String FILE_SUFFIX = ".jpg";
+
+    private final Path cacheDir;
+    private final long maxBytes;
+
+    /**
+     * 相对路径 -> 文件大小，按访问顺序排列（最久未使用在前）
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private boolean loaded;
+
+    public ThumbnailDiskCache(VideoThumbnailProperties properties) {
+        this.cacheDir = Paths.get(properties.getCacheDir()).toAbsolutePath().normalize();
+        this.maxBytes = properties.getMaxCacheBytes();
+    }
+
+    /**
+     * 读取缓存文件
+     * @param key 内容摘要
+     * @param variant 图片类型
+     * @return 文件路径，未缓存时返回null
+     */
+    public synchronized Path get(String key, String variant) {
+        ensureLoaded();
+        String name = relativeName(key, variant);
+        if (entries.get(name) == null) {
+            return null;
+        }
+        Path path = cacheDir.resolve(name);
+        if (!Files.exists(path)) {
+            // 被外部删除
+            totalBytes -= entries.remove(name);
+            return null;
+        }
+        return path;
+    }
+
+    /**
+     * 是否已缓存（不影响淘汰顺序）
+     */
+    public synchronized boolean contains(String key, String variant) {
+        ensureLoaded();
+        String name = relativeName(key, variant);
+        return entries.containsKey(name) && Files.exists(cacheDir.resolve(name));
+    }
+
+    /**
+     * 写入缓存文件（先写临时文件再原子替换，读取方不会看到写了一半的文件）
+     */
+    public void put(String key, String variant, byte[] data) throws IOException {
+        String name = relativeName(key, variant);
+        Path target = cacheDir.resolve(name);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        synchronized (this) {
+            ensureLoaded();
+            Long previous = entries.put(name, (long) data.length);
+            totalBytes += data.length - (previous == null ? 0 : previous);
+            evict();
+        }
+    }
+
+    /**
+     * 淘汰最久未使用的文件直到总大小不超过上限
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            try {
+                Files.deleteIfExists(cacheDir.resolve(eldest.getKey()));
+            } catch (IOException e) {
+                log.warn("删除缩略图缓存文件失败：{}，错误：{}", eldest.getKey(), e.getMessage());
+                continue;
+            }
+            totalBytes -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 扫描缓存目录重建索引
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+        record CachedFile(String name, long size, long lastModified) {
+        }
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(cacheDir, 2)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX)).forEach(path -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    files.add(new CachedFile(cacheDir.relativize(path).toString().replace('\\', '/'),
+                            attributes.size(), attributes.lastModifiedTime().toMillis()));
+                } catch (IOException e) {
+                    log.warn("读取缩略图缓存文件失败：{}，错误：{}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.error("扫描缩略图缓存目录失败，目录：{}，错误：{}", cacheDir, e.getMessage(), e);
+            return;
+        }
+        files.sort(Comparator.comparingLong(CachedFile::lastModified));
+        for (CachedFile file : files) {
+            entries.put(file.name(), file.size());
+            totalBytes += file.size();
+        }
+        log.info("缩略图缓存索引已加载，文件数：{}，总大小：{} bytes", entries.size(), totalBytes);
+        evict();
+    }
+
+    /**
+     * 按摘要前两位分目录，避免单个目录文件过多
+     */
+    private static String relativeName(String key, String variant) {
+        return key.substring(0, 2) + "/" + key + "-" + variant + FILE_SUFFIX;
+    }
+}
@@ -0,0 +1,252 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fyp.handsome.dto.ResultCode;
+import com.fyp.handsome.dto.video.VideoBulkIngestResponse;
+import com.fyp.handsome.dto.video.VideoInfoCreateRequest;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.exception.VideoBusinessException;
+import com.fyp.handsome.exception.VideoValidationException;
+import com.fyp.handsome.mapper.VideoMapper;
+import com.fyp.handsome.util.BeanCopyUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 视频信息批量导入服务
+ * 逐行解析NDJSON请求体，按批次校验并以多行INSERT写入，内存占用只与批次大小相关
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class VideoBulkIngestService {
+
+    /**
+     * 响应中记录的行级错误上限
+     */
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final VideoMapper videoMapper;
+    private final VideoCreateService videoCreateService;
+    private final VideoStatCounterService videoStatCounterService;
+    private final VideoMetadataProbe videoMetadataProbe;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 每批写入条数
+     */
+    @Value("${handsome.video.bulk-chunk-size:500}")
+    private int chunkSize;
+
+    public VideoBulkIngestService(VideoMapper videoMapper, VideoCreateService videoCreateService,
+                                  VideoStatCounterService videoStatCounterService,
+                                  VideoMetadataProbe videoMetadataProbe, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.videoMapper = videoMapper;
+        this.videoCreateService = videoCreateService;
+        this.videoStatCounterService = videoStatCounterService;
+        this.videoMetadataProbe = videoMetadataProbe;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 批量导入视频信息
+     * @param inputStream NDJSON输入流（每行一个VideoInfoCreateRequest）
+     * @return 导入结果
+     */
+    public VideoBulkIngestResponse ingest(InputStream inputStream) {
+        log.info("开始执行视频批量导入，批次大小：{}", chunkSize);
+        
+        VideoBulkIngestResponse response = new VideoBulkIngestResponse();
+        Set<String> seenNames = new HashSet<>();
+        List<Video> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkLineNumbers = new ArrayList<>(chunkSize);
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!StringUtils.hasText(line)) {
+                    continue;
+                }
+                response.setTotalLines(response.getTotalLines() + 1);
+                
+                // 1. 解析并校验单行数据
+                Video video = parseLine(line, lineNumber, response);
+                if (video == null) {
+                    continue;
+                }
+                
+                // 2. 同一请求内的名称去重
+                if (!seenNames.add(video.getVideoName())) {
+                    recordLineError(response, lineNumber, "视频名称在本次导入中重复: " + video.getVideoName());
+                    continue;
+                }
+                
+                chunk.add(video);
+                chunkLineNumbers.add(lineNumber);
+                
+                // 3. 攒满一批后写入
+                if (chunk.size() >= chunkSize) {
+                    flushChunk(chunk, chunkLineNumbers, response);
+                    chunk.clear();
+                    chunkLineNumbers.clear();
+                }
+            }
+            
+            if (!chunk.isEmpty()) {
+                flushChunk(chunk, chunkLineNumbers, response);
+            }
+        } catch (IOException e) {
+            throw new VideoBusinessException(ResultCode.VIDEO_ADD_FAILED.getCode(), 
+                    "读取批量导入数据失败：" + e.getMessage(), e);
+        }
+        
+        log.info("视频批量导入完成，总行数：{}，成功：{}，失败：{}", 
+                response.getTotalLines(), response.getSuccessCount(), response.getFailedCount());
+        return response;
+    }
+
+    /**
+     * 解析并校验单行数据
+     * @return 校验通过的实体，失败时返回null并记录错误
+     */
+    private Video parseLine(String line, int lineNumber, VideoBulkIngestResponse response) {
+        try {
+            VideoInfoCreateRequest request = objectMapper.readValue(line, VideoInfoCreateRequest.class);
+            videoCreateService.validateCreateRequest(request);
+            
+            Video video = BeanCopyUtils.convertToEntity(request);
+            videoMetadataProbe.enrich(video);
+            LocalDateTime now = LocalDateTime.now();
+            video.setCreateTime(now);
+            video.setUpdateTime(now);
+            return video;
+            
+        } catch (JsonProcessingException e) {
+            recordLineError(response, lineNumber, "JSON格式错误: " + e.getOriginalMessage());
+        } catch (VideoValidationException e) {
+            recordLineError(response, lineNumber, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 写入一个批次：一次查询排除库中已存在的名称，再用单条多行INSERT写入；
+     * 查询之后被并发写入的同名视频由唯一索引（uk_active_video_name）拒绝，此时整批回滚后逐行写入
+     */
+    private void flushChunk(List<Video> chunk, List<Integer> lineNumbers, VideoBulkIngestResponse response) {
+        int chunkIndex = response.getChunks().size() + 1;
+        int startLine = lineNumbers.get(0);
+        int endLine = lineNumbers.get(lineNumbers.size() - 1);
+        List<Video> toInsert = new ArrayList<>(chunk.size());
+        List<Integer> toInsertLineNumbers = new ArrayList<>(chunk.size());
+        
+        try {
+            // 1. 批量校验名称唯一性
+            Set<String> existingNames = new HashSet<>(videoMapper.selectExistingVideoNames(
+                    chunk.stream().map(Video::getVideoName).toList()));
+            
+            for (int i = 0; i < chunk.size(); i++) {
+                Video video = chunk.get(i);
+                if (existingNames.contains(video.getVideoName())) {
+                    recordLineError(response, lineNumbers.get(i), "视频名称已存在: " + video.getVideoName());
+                } else {
+                    toInsert.add(video);
+                    toInsertLineNumbers.add(lineNumbers.get(i));
+                }
+            }
+            
+            // 2. 多行INSERT写入，计数在同一事务内更新
+            int inserted;
+            try {
+                inserted = insertRows(toInsert);
+            } catch (DuplicateKeyException e) {
+                log.warn("批次中有视频名称已被并发写入，逐行重试，批次：{}，行号：{}-{}", chunkIndex, startLine, endLine);
+                inserted = insertEachRow(toInsert, toInsertLineNumbers, response);
+            }
+            response.setSuccessCount(response.getSuccessCount() + inserted);
+            response.getChunks().add(new VideoBulkIngestResponse.ChunkResult(
+                    chunkIndex, startLine, endLine, inserted, true, null));
+            
+            log.debug("批次写入完成，批次：{}，行号：{}-{}，写入：{}", chunkIndex, startLine, endLine, inserted);
+            
+        } catch (Exception e) {
+            log.error("批次写入失败，批次：{}，行号：{}-{}，错误：{}", chunkIndex, startLine, endLine, e.getMessage(), e);
+            // 名称校验阶段失败时整批计为失败，写入阶段失败时只计入待写入部分
+            int failed = toInsert.isEmpty() ? chunk.size() : toInsert.size();
+            response.setFailedCount(response.getFailedCount() + failed);
+            response.getChunks().add(new VideoBulkIngestResponse.ChunkResult(
+                    chunkIndex, startLine, endLine, 0, false, e.getMessage()));
+        }
+    }
+
+    /**
+     * 多行INSERT写入并更新计数（同一事务）
+     * @return 写入行数
+     */
+    private int insertRows(List<Video> videos) {
+        if (videos.isEmpty()) {
+            return 0;
+        }
+        Integer rows = transactionTemplate.execute(status -> {
+            int inserted = videoMapper.insertBatchValues(videos);
+            videoStatCounterService.onCreated(videos);
+            return inserted;
+        });
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * 逐行写入，名称冲突或写入失败的行记为行级错误
+     * @return 写入行数
+     */
+    private int insertEachRow(List<Video> videos, List<Integer> lineNumbers, VideoBulkIngestResponse response) {
+        int inserted = 0;
+        for (int i = 0; i < videos.size(); i++) {
+            Video video = videos.get(i);
+            try {
+                inserted += insertRows(List.of(video));
+            } catch (DuplicateKeyException e) {
+                recordLineError(response, lineNumbers.get(i), "视频名称已存在: " + video.getVideoName());
+            } catch (Exception e) {
+                log.error("写入视频失败，行号：{}，名称：{}，错误：{}", lineNumbers.get(i), video.getVideoName(),
+                        e.getMessage(), e);
+                recordLineError(response, lineNumbers.get(i), "写入失败: " + e.getMessage());
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * 记录行级错误
+     */
+    private void recordLineError(VideoBulkIngestResponse response, int lineNumber, String message) {
+        response.setFailedCount(response.getFailedCount() + 1);
+        if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+            response.getErrors().add(new VideoBulkIngestResponse.LineError(lineNumber, message));
+        }
+    }
+}
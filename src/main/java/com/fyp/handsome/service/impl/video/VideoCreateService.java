@@ -2,6 +2,7 @@ package com.fyp.handsome.service.impl.video;
 
 import java.time.LocalDateTime;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -27,6 +28,8 @@ import lombok.extern.slf4j.Slf4j;
 public class VideoCreateService {
 
     private final VideoMapper videoMapper;
+    private final VideoStatCounterService videoStatCounterService;
+    private final VideoMetadataProbe videoMetadataProbe;
 
     /**
      * 创建视频信息
@@ -40,27 +43,36 @@ public class VideoCreateService {
         // 2. 检查视频名称唯一性
         checkVideoNameUnique(request.getVideoName());
         
-        // 3. 转换为实体对象
+        // 3. 转换为实体对象，并以文件探测结果覆盖大小和时长
         Video video = BeanCopyUtils.convertToEntity(request);
+        videoMetadataProbe.enrich(video);
         
         // 4. 设置创建时间
         video.setCreateTime(LocalDateTime.now());
         video.setUpdateTime(LocalDateTime.now());
         
-        // 5. 保存到数据库
-        int result = videoMapper.insert(video);
+        // 5. 保存到数据库（唯一性检查之后并发创建的同名视频由唯一索引拒绝）
+        int result;
+        try {
+            result = videoMapper.insert(video);
+        } catch (DuplicateKeyException e) {
+            throw new VideoNameDuplicateException(request.getVideoName());
+        }
         if (result <= 0) {
             throw new RuntimeException("保存视频信息失败");
         }
         
+        // 6. 更新分组计数
+        videoStatCounterService.onCreated(video);
+        
         log.info("视频信息创建成功，ID：{}，名称：{}", video.getId(), video.getVideoName());
         return video;
     }
 
     /**
-     * 校验创建请求参数
+     * 校验创建请求参数（批量导入复用同一套规则）
      */
-    private void validateCreateRequest(VideoInfoCreateRequest request) {
+    public void validateCreateRequest(VideoInfoCreateRequest request) {
         // 检查必填字段
         if (!StringUtils.hasText(request.getVideoName())) {
             throw new VideoValidationException("视频名称不能为空");
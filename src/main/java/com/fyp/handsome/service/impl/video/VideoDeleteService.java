@@ -21,6 +21,7 @@ import lombok.extern.slf4j.Slf4j;
 public class VideoDeleteService {
 
     private final VideoMapper videoMapper;
+    private final VideoStatCounterService videoStatCounterService;
 
     /**
      * 删除视频信息（逻辑删除）
@@ -47,6 +48,9 @@ public class VideoDeleteService {
             throw new RuntimeException("删除视频信息失败");
         }
         
+        // 5. 更新分组计数
+        videoStatCounterService.onDeleted(existingVideo);
+        
         log.info("视频信息删除成功，ID：{}", id);
     }
 
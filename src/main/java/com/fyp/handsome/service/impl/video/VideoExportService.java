@@ -0,0 +1,143 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fyp.handsome.dto.video.VideoInfoQueryRequest;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.mapper.VideoMapper;
+import com.fyp.handsome.util.FullTextSearchUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 视频信息导出服务
+ * 通过数据库游标逐行读取，使用SXSSF滑动窗口写出XLSX，内存中只保留窗口内的行，
+ * 导出行数不受堆内存限制
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VideoExportService {
+
+    /**
+     * 表头（导入时按表头名称识别列）
+     */
+    public static final List<String> HEADERS = List.of(
+            "ID", "视频名称", "拍摄时间", "拍摄地点", "视频来源", "文件路径", "文件大小(字节)", "视频时长(秒)", "创建时间");
+
+    /**
+     * 内存中保留的行数，超出部分刷写到临时文件
+     */
+    private static final int ROW_ACCESS_WINDOW = 200;
+
+    /**
+     * 单个工作表最大数据行数（XLSX上限为1048576行），超出后写入新工作表
+     */
+    private static final int MAX_ROWS_PER_SHEET = 1_000_000;
+
+    private final VideoMapper videoMapper;
+
+    /**
+     * 按条件导出视频信息
+     * @param videoIds 视频ID列表（可选，为空时按条件导出全部）
+     * @param request 查询条件（可选）
+     * @param outputStream 输出流（调用方负责关闭）
+     * @return 导出行数
+     */
+    @Transactional(readOnly = true)
+    public long export(Collection<Long> videoIds, VideoInfoQueryRequest request, OutputStream outputStream)
+            throws IOException {
+        VideoInfoQueryRequest filter = request != null ? request : new VideoInfoQueryRequest();
+        log.info("开始导出视频信息，指定ID数：{}，名称：{}，地点：{}，来源：{}", videoIds == null ? 0 : videoIds.size(),
+                filter.getVideoName(), filter.getShootingLocation(), filter.getVideoSource());
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Cursor<Video> cursor = videoMapper.selectCursorForExport(videoIds,
+                FullTextSearchUtils.normalize(filter.getVideoName()),
+                FullTextSearchUtils.normalize(filter.getShootingLocation()), filter.getVideoSource(), filter.getStartTime(), filter.getEndTime())) {
+
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+            Sheet sheet = null;
+            int rowIndex = 0;
+            long total = 0;
+            for (Video video : cursor) {
+                if (sheet == null || rowIndex > MAX_ROWS_PER_SHEET) {
+                    sheet = createSheet(workbook, workbook.getNumberOfSheets() + 1);
+                    rowIndex = 1;
+                }
+                writeRow(sheet.createRow(rowIndex++), video, dateStyle);
+                total++;
+            }
+            if (sheet == null) {
+                createSheet(workbook, 1);
+            }
+
+            workbook.write(outputStream);
+            outputStream.flush();
+            log.info("视频信息导出完成，行数：{}", total);
+            return total;
+
+        } finally {
+            // close() 同时删除SXSSF临时文件
+            workbook.close();
+        }
+    }
+
+    private Sheet createSheet(SXSSFWorkbook workbook, int sheetNumber) {
+        SXSSFSheet sheet = workbook.createSheet(sheetNumber == 1 ? "视频信息" : "视频信息" + sheetNumber);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.size(); i++) {
+            header.createCell(i).setCellValue(HEADERS.get(i));
+        }
+        return sheet;
+    }
+
+    private void writeRow(Row row, Video video, CellStyle dateStyle) {
+        row.createCell(0).setCellValue(video.getId());
+        row.createCell(1).setCellValue(video.getVideoName());
+        setDateCell(row, 2, video.getShootingTime(), dateStyle);
+        setStringCell(row, 3, video.getShootingLocation());
+        setStringCell(row, 4, video.getVideoSource());
+        setStringCell(row, 5, video.getFilePath());
+        if (video.getFileSize() != null) {
+            row.createCell(6).setCellValue(video.getFileSize());
+        }
+        if (video.getDuration() != null) {
+            row.createCell(7).setCellValue(video.getDuration());
+        }
+        setDateCell(row, 8, video.getCreateTime(), dateStyle);
+    }
+
+    private void setStringCell(Row row, int column, String value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value);
+        }
+    }
+
+    private void setDateCell(Row row, int column, LocalDateTime value, CellStyle dateStyle) {
+        if (value != null) {
+            Cell cell = row.createCell(column);
+            cell.setCellValue(value);
+            cell.setCellStyle(dateStyle);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.VideoStreamProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 视频文件句柄缓存
+ * 同一文件的并发和连续Range请求共用一个只读FileChannel（按位置读取，线程安全），
+ * 句柄按引用计数关闭：被淘汰时若仍有传输在进行，由最后一个使用者关闭
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class VideoFileHandleCache implements AutoCloseable {
+
+    private final Cache<Path, Handle> cache;
+
+    public VideoFileHandleCache(VideoStreamProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, properties.getMaxOpenFiles()))
+                .expireAfterAccess(Duration.ofSeconds(Math.max(1, properties.getHandleIdleSeconds())))
+                .removalListener((Path path, Handle handle, RemovalCause cause) -> {
+                    if (handle != null) {
+                        handle.release();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 获取文件句柄（使用完毕后必须关闭）
+     * 文件大小或修改时间变化时重新打开
+     * @param path 规范化后的文件路径
+     */
+    public Handle acquire(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        while (true) {
+            Handle handle;
+            try {
+                handle = cache.get(path, key -> open(key, attributes.size(), lastModified));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (handle.size() != attributes.size() || handle.lastModified() != lastModified) {
+                // 文件已被替换，丢弃旧句柄
+                cache.asMap().remove(path, handle);
+                continue;
+            }
+            if (handle.retain()) {
+                return handle;
+            }
+            // 句柄刚被淘汰关闭，重新打开
+            cache.asMap().remove(path, handle);
+        }
+    }
+
+    private Handle open(Path path, long size, long lastModified) {
+        try {
+            log.debug("打开视频文件句柄：{}", path);
+            return new Handle(path, FileChannel.open(path, StandardOpenOption.READ), size, lastModified);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cache.invalidateAll();
+        cache.cleanUp();
+    }
+
+    /**
+     * 引用计数的文件句柄，缓存本身持有一个引用
+     */
+    public static final class Handle implements AutoCloseable {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final long size;
+        private final long lastModified;
+        private final AtomicInteger refCount = new AtomicInteger(1);
+
+        private Handle(Path path, FileChannel channel, long size, long lastModified) {
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public Path path() {
+            return path;
+        }
+
+        public FileChannel channel() {
+            return channel;
+        }
+
+        /**
+         * 打开时的文件大小
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * 打开时的修改时间（毫秒）
+         */
+        public long lastModified() {
+            return lastModified;
+        }
+
+        private boolean retain() {
+            int current;
+            do {
+                current = refCount.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!refCount.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void release() {
+            if (refCount.decrementAndGet() == 0) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("关闭视频文件句柄失败：{}，错误：{}", path, e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.VideoStreamProperties;
+import com.fyp.handsome.exception.VideoValidationException;
+
+/**
+ * 视频文件路径解析
+ * 相对路径基于视频根目录解析，只允许访问根目录下的文件
+ * @author ziye
+ */
+@Component
+public class VideoFilePathResolver {
+
+    private final Path rootDir;
+
+    public VideoFilePathResolver(VideoStreamProperties properties) {
+        this.rootDir = Paths.get(properties.getRootDir()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 解析视频文件路径
+     * @param filePath video_info.file_path
+     * @return 规范化后的绝对路径
+     */
+    public Path resolve(String filePath) {
+        Path path;
+        try {
+            path = rootDir.resolve(filePath).normalize();
+        } catch (InvalidPathException e) {
+            throw new VideoValidationException("视频文件路径无效: " + filePath);
+        }
+        if (!path.startsWith(rootDir)) {
+            throw new VideoValidationException("视频文件不在允许访问的目录下: " + filePath);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,460 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import com.fyp.handsome.dto.ResultCode;
+import com.fyp.handsome.dto.video.VideoBulkIngestResponse;
+import com.fyp.handsome.dto.video.VideoInfoCreateRequest;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.exception.VideoBusinessException;
+import com.fyp.handsome.exception.VideoValidationException;
+import com.fyp.handsome.mapper.VideoMapper;
+import com.fyp.handsome.util.BeanCopyUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 视频信息文件导入服务
+ * XLSX使用SAX事件模型逐行解析（不构建工作簿对象），CSV逐字符解析；
+ * 导入前一次性加载库中已有名称用于去重，校验通过的行按批次以多行INSERT写入
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class VideoImportService {
+
+    /**
+     * 响应中记录的行级错误上限
+     */
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    /**
+     * 进度日志间隔（行）
+     */
+    private static final int PROGRESS_LOG_INTERVAL = 100_000;
+
+    /**
+     * 表头名称到字段的映射（兼容导出文件的中文表头和字段名）
+     */
+    private static final Map<String, String> HEADER_FIELDS = Map.ofEntries(
+            Map.entry("视频名称", "videoName"), Map.entry("videoname", "videoName"),
+            Map.entry("拍摄时间", "shootingTime"), Map.entry("shootingtime", "shootingTime"),
+            Map.entry("拍摄地点", "shootingLocation"), Map.entry("shootinglocation", "shootingLocation"),
+            Map.entry("视频来源", "videoSource"), Map.entry("videosource", "videoSource"),
+            Map.entry("文件路径", "filePath"), Map.entry("filepath", "filePath"),
+            Map.entry("文件大小(字节)", "fileSize"), Map.entry("文件大小", "fileSize"), Map.entry("filesize", "fileSize"),
+            Map.entry("视频时长(秒)", "duration"), Map.entry("视频时长", "duration"), Map.entry("duration", "duration"));
+
+    /**
+     * 支持的时间格式（导出格式、ISO格式及Excel常见显示格式）
+     */
+    private static final List<DateTimeFormatter> DATE_TIME_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy/M/d H:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy/M/d H:mm"),
+            DateTimeFormatter.ofPattern("M/d/yy H:mm"));
+
+    private final VideoMapper videoMapper;
+    private final VideoCreateService videoCreateService;
+    private final VideoStatCounterService videoStatCounterService;
+    private final VideoMetadataProbe videoMetadataProbe;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 每批写入条数
+     */
+    @Value("${handsome.video.bulk-chunk-size:500}")
+    private int chunkSize;
+
+    public VideoImportService(VideoMapper videoMapper, VideoCreateService videoCreateService,
+                              VideoStatCounterService videoStatCounterService, VideoMetadataProbe videoMetadataProbe,
+                              PlatformTransactionManager transactionManager) {
+        this.videoMapper = videoMapper;
+        this.videoCreateService = videoCreateService;
+        this.videoStatCounterService = videoStatCounterService;
+        this.videoMetadataProbe = videoMetadataProbe;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 导入视频信息文件
+     * @param file 上传文件（.xlsx 或 .csv，第一行为表头）
+     * @return 导入结果
+     */
+    public VideoBulkIngestResponse importFile(MultipartFile file) {
+        String fileName = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        boolean xlsx = fileName.endsWith(".xlsx");
+        if (!xlsx && !fileName.endsWith(".csv")) {
+            throw new VideoValidationException("仅支持导入xlsx或csv文件");
+        }
+        log.info("开始执行视频文件导入，文件：{}，大小：{} bytes，批次大小：{}", file.getOriginalFilename(), file.getSize(), chunkSize);
+
+        ImportSink sink = new ImportSink(loadExistingNames());
+        try {
+            if (xlsx) {
+                readXlsx(file, sink);
+            } else {
+                try (InputStream inputStream = file.getInputStream()) {
+                    readCsv(inputStream, sink);
+                }
+            }
+            sink.finish();
+        } catch (IOException e) {
+            throw new VideoBusinessException(ResultCode.VIDEO_ADD_FAILED.getCode(), "读取导入文件失败：" + e.getMessage(), e);
+        }
+
+        VideoBulkIngestResponse response = sink.response;
+        log.info("视频文件导入完成，总行数：{}，成功：{}，失败：{}",
+                response.getTotalLines(), response.getSuccessCount(), response.getFailedCount());
+        return response;
+    }
+
+    /**
+     * 一次性流式加载库中已有的视频名称
+     */
+    private Set<String> loadExistingNames() {
+        Set<String> names = new HashSet<>();
+        videoMapper.selectActiveVideoNames(context -> names.add(context.getResultObject()));
+        log.info("已加载现有视频名称：{} 个", names.size());
+        return names;
+    }
+
+    // =================== XLSX ===================
+
+    /**
+     * SAX方式逐行读取XLSX的所有工作表（每个工作表第一行为表头）
+     */
+    private void readXlsx(MultipartFile file, ImportSink sink) throws IOException {
+        // OPCPackage 以文件方式打开时按需读取压缩条目，不将整个文件载入内存
+        Path tempFile = Files.createTempFile("video-import-", ".xlsx");
+        try {
+            file.transferTo(tempFile);
+            try (OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ)) {
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                XSSFReader reader = new XSSFReader(pkg);
+                StylesTable styles = reader.getStylesTable();
+                DataFormatter formatter = new DataFormatter();
+
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                while (sheets.hasNext()) {
+                    try (InputStream sheet = sheets.next()) {
+                        XMLReader parser = XMLHelper.newXMLReader();
+                        parser.setContentHandler(new XSSFSheetXMLHandler(
+                                styles, null, strings, new SheetRowHandler(sink), formatter, false));
+                        parser.parse(new InputSource(sheet));
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("XLSX解析失败：" + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 工作表行处理器：收集一行的单元格后交给导入汇集器
+     */
+    private static class SheetRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ImportSink sink;
+        private final List<String> cells = new ArrayList<>();
+        private boolean headerRow = true;
+
+        SheetRowHandler(ImportSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            sink.nextLine();
+            if (headerRow) {
+                sink.header(cells);
+                headerRow = false;
+            } else {
+                sink.row(cells);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? cells.size() : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+        }
+    }
+
+    // =================== CSV ===================
+
+    /**
+     * 逐行读取CSV（UTF-8，支持引号包裹的字段、字段内逗号、换行和转义引号）
+     */
+    private void readCsv(InputStream inputStream, ImportSink sink) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            List<String> cells = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean headerRow = true;
+            boolean firstChar = true;
+            int c;
+            while ((c = reader.read()) != -1) {
+                // 跳过UTF-8 BOM
+                if (firstChar) {
+                    firstChar = false;
+                    if (c == '\uFEFF') {
+                        continue;
+                    }
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    cells.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    cells.add(field.toString());
+                    field.setLength(0);
+                    emitCsvRow(cells, headerRow, sink);
+                    headerRow = false;
+                    cells.clear();
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (field.length() > 0 || !cells.isEmpty()) {
+                cells.add(field.toString());
+                emitCsvRow(cells, headerRow, sink);
+            }
+        }
+    }
+
+    private void emitCsvRow(List<String> cells, boolean headerRow, ImportSink sink) {
+        sink.nextLine();
+        if (headerRow) {
+            sink.header(cells);
+        } else {
+            sink.row(cells);
+        }
+    }
+
+    // =================== 行处理与批量写入 ===================
+
+    /**
+     * 导入汇集器：按表头映射字段、校验、去重并攒批写入
+     */
+    private class ImportSink {
+
+        private final VideoBulkIngestResponse response = new VideoBulkIngestResponse();
+        private final Set<String> knownNames;
+        private final List<Video> chunk = new ArrayList<>(chunkSize);
+        private final List<Integer> chunkLineNumbers = new ArrayList<>(chunkSize);
+        private Map<String, Integer> columns = Map.of();
+        private int lineNumber;
+
+        ImportSink(Set<String> knownNames) {
+            this.knownNames = knownNames;
+        }
+
+        void nextLine() {
+            lineNumber++;
+        }
+
+        void header(List<String> cells) {
+            Map<String, Integer> mapping = new HashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                String cell = cells.get(i);
+                String field = cell == null ? null : HEADER_FIELDS.get(cell.trim().toLowerCase(Locale.ROOT));
+                if (field != null) {
+                    mapping.putIfAbsent(field, i);
+                }
+            }
+            if (!mapping.containsKey("videoName") || !mapping.containsKey("shootingTime")) {
+                throw new VideoValidationException("第" + lineNumber + "行表头缺少必需列：视频名称、拍摄时间");
+            }
+            columns = mapping;
+        }
+
+        void row(List<String> cells) {
+            if (cells.stream().noneMatch(StringUtils::hasText)) {
+                return;
+            }
+            response.setTotalLines(response.getTotalLines() + 1);
+
+            // 1. 解析并校验
+            Video video;
+            try {
+                VideoInfoCreateRequest request = toRequest(cells);
+                videoCreateService.validateCreateRequest(request);
+                video = BeanCopyUtils.convertToEntity(request);
+            } catch (VideoValidationException e) {
+                recordLineError(lineNumber, e.getMessage());
+                return;
+            }
+
+            // 2. 名称去重（库中已有名称 + 本次导入已出现的名称）
+            if (!knownNames.add(video.getVideoName())) {
+                recordLineError(lineNumber, "视频名称已存在: " + video.getVideoName());
+                return;
+            }
+
+            videoMetadataProbe.enrich(video);
+            LocalDateTime now = LocalDateTime.now();
+            video.setCreateTime(now);
+            video.setUpdateTime(now);
+            chunk.add(video);
+            chunkLineNumbers.add(lineNumber);
+
+            // 3. 攒满一批后写入
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+            if (response.getTotalLines() % PROGRESS_LOG_INTERVAL == 0) {
+                log.info("视频文件导入进度，已读取：{}，成功：{}，失败：{}",
+                        response.getTotalLines(), response.getSuccessCount(), response.getFailedCount());
+            }
+        }
+
+        void finish() {
+            if (!chunk.isEmpty()) {
+                flush();
+            }
+        }
+
+        private VideoInfoCreateRequest toRequest(List<String> cells) {
+            VideoInfoCreateRequest request = new VideoInfoCreateRequest();
+            request.setVideoName(trimToNull(cell(cells, "videoName")));
+            request.setShootingTime(parseDateTime(cell(cells, "shootingTime")));
+            request.setShootingLocation(trimToNull(cell(cells, "shootingLocation")));
+            request.setVideoSource(trimToNull(cell(cells, "videoSource")));
+            request.setFilePath(trimToNull(cell(cells, "filePath")));
+            String fileSize = trimToNull(cell(cells, "fileSize"));
+            String duration = trimToNull(cell(cells, "duration"));
+            try {
+                // Excel数值单元格可能带小数或科学计数法显示
+                request.setFileSize(fileSize == null ? null : new BigDecimal(fileSize).longValueExact());
+                request.setDuration(duration == null ? null : new BigDecimal(duration).intValueExact());
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new VideoValidationException("文件大小或视频时长格式错误");
+            }
+            return request;
+        }
+
+        private String cell(List<String> cells, String field) {
+            Integer index = columns.get(field);
+            return index == null || index >= cells.size() ? null : cells.get(index);
+        }
+
+        private void flush() {
+            int chunkIndex = response.getChunks().size() + 1;
+            int startLine = chunkLineNumbers.get(0);
+            int endLine = chunkLineNumbers.get(chunkLineNumbers.size() - 1);
+            try {
+                // 写入与计数在同一事务内，批次报告失败时不会留下已提交的行
+                Integer inserted = transactionTemplate.execute(status -> {
+                    int rows = videoMapper.insertBatchValues(chunk);
+                    videoStatCounterService.onCreated(chunk);
+                    return rows;
+                });
+                response.setSuccessCount(response.getSuccessCount() + inserted);
+                response.getChunks().add(new VideoBulkIngestResponse.ChunkResult(
+                        chunkIndex, startLine, endLine, inserted, true, null));
+            } catch (Exception e) {
+                log.error("批次写入失败，批次：{}，行号：{}-{}，错误：{}", chunkIndex, startLine, endLine, e.getMessage(), e);
+                response.setFailedCount(response.getFailedCount() + chunk.size());
+                response.getChunks().add(new VideoBulkIngestResponse.ChunkResult(
+                        chunkIndex, startLine, endLine, 0, false, e.getMessage()));
+                // 写入失败的名称不占用去重集合，允许修正后重新导入
+                chunk.forEach(video -> knownNames.remove(video.getVideoName()));
+            }
+            chunk.clear();
+            chunkLineNumbers.clear();
+        }
+
+        private void recordLineError(int line, String message) {
+            response.setFailedCount(response.getFailedCount() + 1);
+            if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+                response.getErrors().add(new VideoBulkIngestResponse.LineError(line, message));
+            }
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_TIME_FORMATS) {
+            try {
+                return LocalDateTime.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+                // 尝试下一种格式
+            }
+        }
+        throw new VideoValidationException("拍摄时间格式错误: " + text);
+    }
+}
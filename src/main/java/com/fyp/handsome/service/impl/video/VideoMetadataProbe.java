@@ -0,0 +1,65 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.exception.VideoValidationException;
+import com.fyp.handsome.util.Mp4MetadataUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 视频文件元数据探测
+ * 创建或更换文件时读取文件的真实大小、时长、分辨率、编码和码率，覆盖客户端提交的值；
+ * 文件不可读时保留客户端提交的值，不影响创建
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VideoMetadataProbe {
+
+    private final VideoFilePathResolver videoFilePathResolver;
+
+    /**
+     * 探测视频文件并回填元数据字段
+     * @param video 视频实体（需已设置filePath）
+     */
+    public void enrich(Video video) {
+        if (!StringUtils.hasText(video.getFilePath())) {
+            return;
+        }
+        try {
+            Path file = videoFilePathResolver.resolve(video.getFilePath());
+            Mp4MetadataUtils.Mp4Metadata metadata = Mp4MetadataUtils.probe(file);
+            if (metadata == null) {
+                // 非MP4文件只回填文件大小
+                video.setFileSize(Files.size(file));
+                return;
+            }
+            if (video.getDuration() != null && metadata.durationSeconds() != null
+                    && !video.getDuration().equals(metadata.durationSeconds())) {
+                log.debug("视频时长与文件不一致，文件：{}，提交值：{}，实际值：{}",
+                        video.getFilePath(), video.getDuration(), metadata.durationSeconds());
+            }
+            video.setFileSize(metadata.fileSize());
+            if (metadata.durationSeconds() != null) {
+                video.setDuration(metadata.durationSeconds());
+            }
+            video.setWidth(metadata.width());
+            video.setHeight(metadata.height());
+            video.setVideoCodec(metadata.videoCodec());
+            video.setBitRate(metadata.bitRate());
+        } catch (NoSuchFileException | VideoValidationException e) {
+            log.debug("跳过视频元数据探测，文件：{}，原因：{}", video.getFilePath(), e.getMessage());
+        } catch (Exception e) {
+            log.warn("视频元数据探测失败，文件：{}，错误：{}", video.getFilePath(), e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,21 @@
 package com.fyp.handsome.service.impl.video;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.fyp.handsome.dto.video.LocationCount;
+import com.fyp.handsome.dto.video.SourceCount;
+import com.fyp.handsome.dto.video.VideoBulkIngestResponse;
 import com.fyp.handsome.dto.video.VideoInfoCreateRequest;
+import com.fyp.handsome.dto.video.VideoInfoCursorPageResponse;
 import com.fyp.handsome.dto.video.VideoInfoPageResponse;
 import com.fyp.handsome.dto.video.VideoInfoQueryRequest;
 import com.fyp.handsome.dto.video.VideoInfoResponse;
@@ -13,6 +25,8 @@ import com.fyp.handsome.exception.VideoNotFoundException;
 import com.fyp.handsome.service.VideoMvpService;
 import com.fyp.handsome.util.BeanCopyUtils;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -29,8 +43,15 @@ public class VideoMvpServiceImpl implements VideoMvpService {
     // 依赖注入其他服务组件
     private final VideoCreateService videoCreateService;
     private final VideoQueryService videoQueryService;
+    private final VideoSearchService videoSearchService;
     private final VideoUpdateService videoUpdateService;
     private final VideoDeleteService videoDeleteService;
+    private final VideoBulkIngestService videoBulkIngestService;
+    private final VideoStatCounterService videoStatCounterService;
+    private final VideoExportService videoExportService;
+    private final VideoImportService videoImportService;
+    private final VideoStreamService videoStreamService;
+    private final VideoThumbnailService videoThumbnailService;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -53,6 +74,40 @@ public class VideoMvpServiceImpl implements VideoMvpService {
         }
     }
 
+    @Override
+    public VideoBulkIngestResponse bulkIngest(InputStream inputStream) {
+        log.info("开始批量导入视频信息");
+        
+        try {
+            // 委托给专门的批量导入服务（按批次提交，不使用整体事务）
+            VideoBulkIngestResponse response = videoBulkIngestService.ingest(inputStream);
+            
+            log.info("批量导入视频信息完成，成功：{}，失败：{}", response.getSuccessCount(), response.getFailedCount());
+            return response;
+            
+        } catch (Exception e) {
+            log.error("批量导入视频信息失败，错误：{}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public VideoBulkIngestResponse importVideos(MultipartFile file) {
+        log.info("开始从文件导入视频信息，文件：{}", file.getOriginalFilename());
+        
+        try {
+            // 委托给专门的文件导入服务（按批次提交，不使用整体事务）
+            VideoBulkIngestResponse response = videoImportService.importFile(file);
+            
+            log.info("文件导入视频信息完成，成功：{}，失败：{}", response.getSuccessCount(), response.getFailedCount());
+            return response;
+            
+        } catch (Exception e) {
+            log.error("文件导入视频信息失败，文件：{}，错误：{}", file.getOriginalFilename(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @Override
     public VideoInfoPageResponse queryVideos(VideoInfoQueryRequest request) {
         log.info("开始分页查询视频信息，页码：{}，大小：{}", request.getPage(), request.getSize());
@@ -70,6 +125,42 @@ public class VideoMvpServiceImpl implements VideoMvpService {
         }
     }
 
+    @Override
+    public VideoInfoCursorPageResponse queryVideosByCursor(VideoInfoQueryRequest request) {
+        log.info("开始游标分页查询视频信息，游标：{}，大小：{}", request.getCursor(), request.getSize());
+        
+        try {
+            // 委托给专门的查询服务
+            VideoInfoCursorPageResponse response = videoQueryService.queryVideosByCursor(request);
+            
+            log.info("游标分页查询视频信息成功，本页条数：{}，是否有下一页：{}", 
+                    response.getContent().size(), response.getHasNext());
+            return response;
+            
+        } catch (Exception e) {
+            log.error("游标分页查询视频信息失败，错误：{}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<VideoInfoResponse> searchVideos(String keyword, Integer limit) {
+        log.info("开始全文检索视频信息，关键字：{}，条数：{}", keyword, limit);
+        
+        try {
+            // 委托给专门的检索服务
+            List<VideoInfoResponse> responses = BeanCopyUtils.convertToResponseList(
+                    videoSearchService.search(keyword, limit));
+            
+            log.info("全文检索视频信息成功，关键字：{}，返回条数：{}", keyword, responses.size());
+            return responses;
+            
+        } catch (Exception e) {
+            log.error("全文检索视频信息失败，关键字：{}，错误：{}", keyword, e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @Override
     public VideoInfoResponse getVideoById(Long id) {
         log.info("开始根据ID查询视频信息，ID：{}", id);
@@ -93,6 +184,37 @@ public class VideoMvpServiceImpl implements VideoMvpService {
         }
     }
 
+    @Override
+    public void streamVideo(Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 播放器拖动时会频繁发起Range请求，只记录调试日志
+        log.debug("开始播放视频文件，ID：{}，Range：{}", id, request.getHeader("Range"));
+        
+        try {
+            // 委托给专门的播放服务
+            videoStreamService.stream(id, request, response);
+            
+        } catch (Exception e) {
+            log.error("播放视频文件失败，ID：{}，错误：{}", id, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void getThumbnail(Long id, String type, String version,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 列表页每行都会请求缩略图，只记录调试日志
+        log.debug("开始获取视频缩略图，ID：{}，类型：{}", id, type);
+        
+        try {
+            // 委托给专门的缩略图服务
+            videoThumbnailService.serve(id, type, version, request, response);
+            
+        } catch (Exception e) {
+            log.warn("获取视频缩略图失败，ID：{}，错误：{}", id, e.getMessage());
+            throw e;
+        }
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public VideoInfoResponse updateVideo(Long id, VideoInfoUpdateRequest request) {
@@ -130,4 +252,38 @@ public class VideoMvpServiceImpl implements VideoMvpService {
             throw e;
         }
     }
+
+    @Override
+    public Map<String, Object> getVideoStatistics() {
+        try {
+            // 读取物化计数表，按分组数返回，不扫描视频表
+            List<SourceCount> sourceCounts = videoStatCounterService.getSourceCounts();
+            List<LocationCount> locationCounts = videoStatCounterService.getLocationCounts();
+            
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("totalCount", sourceCounts.stream().mapToLong(SourceCount::count).sum());
+            statistics.put("countBySource", sourceCounts);
+            statistics.put("countByLocation", locationCounts);
+            return statistics;
+            
+        } catch (Exception e) {
+            log.error("获取视频统计失败，错误：{}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public long exportVideos(List<Long> videoIds, VideoInfoQueryRequest request, OutputStream outputStream)
+            throws IOException {
+        log.info("开始导出视频信息");
+        
+        try {
+            // 委托给专门的导出服务（游标读取，流式写出）
+            return videoExportService.export(videoIds, request, outputStream);
+            
+        } catch (Exception e) {
+            log.error("导出视频信息失败，错误：{}", e.getMessage(), e);
+            throw e;
+        }
+    }
 } 
\ No newline at end of file
@@ -7,7 +7,9 @@ import org.springframework.util.StringUtils;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fyp.handsome.dto.video.VideoInfoCursorPageResponse;
 import com.fyp.handsome.dto.video.VideoInfoPageResponse;
 import com.fyp.handsome.dto.video.VideoInfoQueryRequest;
 import com.fyp.handsome.dto.video.VideoInfoResponse;
@@ -15,6 +17,8 @@ import com.fyp.handsome.entity.Video;
 import com.fyp.handsome.exception.VideoValidationException;
 import com.fyp.handsome.mapper.VideoMapper;
 import com.fyp.handsome.util.BeanCopyUtils;
+import com.fyp.handsome.util.FullTextSearchUtils;
+import com.fyp.handsome.util.PageCursorUtils;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -60,8 +64,9 @@ public class VideoQueryService {
         // 1. 参数校验
         validateQueryRequest(request);
         
-        // 2. 构建分页对象
-        Page<Video> page = new Page<>(request.getPage(), request.getSize());
+        // 2. 构建分页对象（skipCount为true时不执行COUNT查询）
+        boolean searchCount = !Boolean.TRUE.equals(request.getSkipCount());
+        Page<Video> page = new Page<>(request.getPage(), request.getSize(), searchCount);
         
         // 3. 构建查询条件
         LambdaQueryWrapper<Video> queryWrapper = buildQueryWrapper(request);
@@ -70,12 +75,79 @@ public class VideoQueryService {
         IPage<Video> result = videoMapper.selectPage(page, queryWrapper);
         
         // 5. 转换为响应DTO
-        VideoInfoPageResponse response = convertToPageResponse(result);
+        VideoInfoPageResponse response = convertToPageResponse(result, searchCount);
         
         log.info("分页查询视频信息完成，总数：{}，当前页：{}", response.getTotal(), response.getPage());
         return response;
     }
 
+    /**
+     * 游标分页查询视频信息
+     * 基于 (create_time, id) 键集定位下一页，任意深度的翻页代价与首页相同
+     * @param request 查询请求（cursor为空表示首页）
+     * @return 游标分页查询结果
+     */
+    public VideoInfoCursorPageResponse queryVideosByCursor(VideoInfoQueryRequest request) {
+        log.info("开始游标分页查询视频信息，游标：{}，大小：{}", request.getCursor(), request.getSize());
+        
+        // 1. 参数校验
+        validatePageSize(request);
+        
+        // 2. 解析游标
+        PageCursorUtils.Cursor cursor = PageCursorUtils.decode(request.getCursor());
+        
+        // 3. 多查询一条用于判断是否存在下一页
+        int size = request.getSize();
+        List<Video> videos = videoMapper.selectPageByCursor(
+                FullTextSearchUtils.normalize(request.getVideoName()),
+                FullTextSearchUtils.normalize(request.getShootingLocation()),
+                request.getVideoSource(),
+                request.getStartTime(),
+                request.getEndTime(),
+                cursor != null ? cursor.createTime() : null,
+                cursor != null ? cursor.id() : null,
+                size + 1);
+        
+        boolean hasNext = videos.size() > size;
+        if (hasNext) {
+            videos = videos.subList(0, size);
+        }
+        
+        // 4. 转换为响应DTO
+        VideoInfoCursorPageResponse response = new VideoInfoCursorPageResponse();
+        response.setContent(BeanCopyUtils.convertToResponseList(videos));
+        response.setSize(size);
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            Video last = videos.get(videos.size() - 1);
+            response.setNextCursor(PageCursorUtils.encode(last.getCreateTime(), last.getId()));
+        }
+        
+        log.info("游标分页查询视频信息完成，本页条数：{}，是否有下一页：{}", videos.size(), hasNext);
+        return response;
+    }
+
+    /**
+     * 追加关键字检索条件
+     * @param queryWrapper 查询条件包装器
+     * @param column 检索列
+     * @param property 检索列对应的实体属性
+     * @param keyword 关键字
+     */
+    private void applyKeywordFilter(LambdaQueryWrapper<Video> queryWrapper, String column,
+                                    SFunction<Video, ?> property, String keyword) {
+        String normalized = FullTextSearchUtils.normalize(keyword);
+        if (normalized == null) {
+            return;
+        }
+        if (FullTextSearchUtils.isIndexable(normalized)) {
+            queryWrapper.apply("MATCH(" + column + ") AGAINST({0} IN BOOLEAN MODE)",
+                    FullTextSearchUtils.toPhrase(normalized));
+        } else {
+            queryWrapper.like(property, normalized);
+        }
+    }
+
     /**
      * 校验查询请求参数
      * @param request 查询请求
@@ -84,6 +156,14 @@ public class VideoQueryService {
         if (request.getPage() == null || request.getPage() < 1) {
             throw new VideoValidationException("页码必须大于0");
         }
+        validatePageSize(request);
+    }
+
+    /**
+     * 校验每页大小
+     * @param request 查询请求
+     */
+    private void validatePageSize(VideoInfoQueryRequest request) {
         if (request.getSize() == null || request.getSize() < 1) {
             throw new VideoValidationException("每页大小必须大于0");
         }
@@ -103,15 +183,10 @@ public class VideoQueryService {
         // 只查询有效记录（未删除的）
         queryWrapper.eq(Video::getStatus, 1);
         
-        // 视频名称模糊查询
-        if (StringUtils.hasText(request.getVideoName())) {
-            queryWrapper.like(Video::getVideoName, request.getVideoName());
-        }
-        
-        // 拍摄地点模糊查询
-        if (StringUtils.hasText(request.getShootingLocation())) {
-            queryWrapper.like(Video::getShootingLocation, request.getShootingLocation());
-        }
+        // 视频名称、拍摄地点全文检索（关键字过短时退回模糊查询）
+        applyKeywordFilter(queryWrapper, VideoMapper.COLUMN_VIDEO_NAME, Video::getVideoName, request.getVideoName());
+        applyKeywordFilter(queryWrapper, VideoMapper.COLUMN_SHOOTING_LOCATION, Video::getShootingLocation,
+                request.getShootingLocation());
         
         // 视频来源精确查询
         if (StringUtils.hasText(request.getVideoSource())) {
@@ -126,6 +201,23 @@ public class VideoQueryService {
             queryWrapper.le(Video::getShootingTime, request.getEndTime());
         }
         
+        // 媒体属性查询（由文件探测得到）
+        if (StringUtils.hasText(request.getVideoCodec())) {
+            queryWrapper.eq(Video::getVideoCodec, request.getVideoCodec());
+        }
+        if (request.getMinWidth() != null) {
+            queryWrapper.ge(Video::getWidth, request.getMinWidth());
+        }
+        if (request.getMinHeight() != null) {
+            queryWrapper.ge(Video::getHeight, request.getMinHeight());
+        }
+        if (request.getMinDuration() != null) {
+            queryWrapper.ge(Video::getDuration, request.getMinDuration());
+        }
+        if (request.getMaxDuration() != null) {
+            queryWrapper.le(Video::getDuration, request.getMaxDuration());
+        }
+        
         // 按创建时间倒序排列
         queryWrapper.orderByDesc(Video::getCreateTime);
         
@@ -135,9 +227,10 @@ public class VideoQueryService {
     /**
      * 转换分页结果为响应DTO
      * @param page 分页结果
+     * @param searchCount 是否统计了总数
      * @return 分页响应DTO
      */
-    private VideoInfoPageResponse convertToPageResponse(IPage<Video> page) {
+    private VideoInfoPageResponse convertToPageResponse(IPage<Video> page, boolean searchCount) {
         VideoInfoPageResponse response = new VideoInfoPageResponse();
         
         // 转换数据列表
@@ -147,14 +240,20 @@ public class VideoQueryService {
         // 设置分页信息
         response.setPage((int) page.getCurrent());
         response.setSize((int) page.getSize());
-        response.setTotal(page.getTotal());
-        response.setTotalPages((int) page.getPages());
-        
-        // 设置分页状态
         response.setIsFirst(page.getCurrent() == 1);
-        response.setIsLast(page.getCurrent() == page.getPages());
         response.setHasPrevious(page.getCurrent() > 1);
-        response.setHasNext(page.getCurrent() < page.getPages());
+        
+        if (searchCount) {
+            response.setTotal(page.getTotal());
+            response.setTotalPages((int) page.getPages());
+            response.setIsLast(page.getCurrent() >= page.getPages());
+            response.setHasNext(page.getCurrent() < page.getPages());
+        } else {
+            // 未统计总数时，以本页是否取满判断是否还有下一页
+            boolean hasNext = page.getRecords().size() >= page.getSize();
+            response.setIsLast(!hasNext);
+            response.setHasNext(hasNext);
+        }
         
         return response;
     }
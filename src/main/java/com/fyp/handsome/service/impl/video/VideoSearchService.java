@@ -0,0 +1,144 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.dto.video.VideoSearchHit;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.exception.VideoValidationException;
+import com.fyp.handsome.mapper.VideoMapper;
+import com.fyp.handsome.util.FullTextSearchUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 视频全文检索服务
+ * 先在全文索引上取得按相关度排序的视频ID，再按主键批量回表，
+ * 检索阶段只读索引，不扫描 video_info 全表
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VideoSearchService {
+
+    /**
+     * 默认返回条数
+     */
+    public static final int DEFAULT_LIMIT = 20;
+
+    /**
+     * 最大返回条数
+     */
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * 视频名称命中的得分权重（高于拍摄地点）
+     */
+    private static final double VIDEO_NAME_WEIGHT = 2.0;
+
+    /**
+     * 拍摄地点命中的得分权重
+     */
+    private static final double SHOOTING_LOCATION_WEIGHT = 1.0;
+
+    /**
+     * 每列候选条数相对返回条数的倍数（两列合并重排后再截取）
+     */
+    private static final int CANDIDATE_FACTOR = 2;
+
+    private final VideoMapper videoMapper;
+
+    /**
+     * 按关键字检索视频名称和拍摄地点
+     * @param keyword 关键字
+     * @param limit 返回条数（为空时取默认值）
+     * @return 按相关度倒序排列的视频列表
+     */
+    public List<Video> search(String keyword, Integer limit) {
+        String normalized = FullTextSearchUtils.normalize(keyword);
+        if (normalized == null) {
+            throw new VideoValidationException("搜索关键字不能为空");
+        }
+        int size = limit != null ? limit : DEFAULT_LIMIT;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new VideoValidationException("返回条数必须在1到" + MAX_LIMIT + "之间");
+        }
+
+        // 1. 两列分别检索，按权重合并得分
+        int candidates = size * CANDIDATE_FACTOR;
+        Map<Long, Double> scores = new HashMap<>();
+        for (VideoSearchHit hit : searchColumn(VideoMapper.COLUMN_VIDEO_NAME, normalized, candidates)) {
+            scores.merge(hit.id(), hit.score() * VIDEO_NAME_WEIGHT, Double::sum);
+        }
+        for (VideoSearchHit hit : searchColumn(VideoMapper.COLUMN_SHOOTING_LOCATION, normalized, candidates)) {
+            scores.merge(hit.id(), hit.score() * SHOOTING_LOCATION_WEIGHT, Double::sum);
+        }
+
+        // 2. 按得分倒序取前N个ID（得分相同时新记录在前）
+        List<Long> ids = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()))
+                .limit(size)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        List<Video> videos = hydrate(ids);
+        log.debug("视频全文检索完成，关键字：{}，命中：{} 条，返回：{} 条", normalized, scores.size(), videos.size());
+        return videos;
+    }
+
+    /**
+     * 按关键字检索视频名称
+     * @param keyword 关键字
+     * @param limit 返回条数
+     * @return 按相关度倒序排列的视频列表
+     */
+    public List<Video> searchByVideoName(String keyword, int limit) {
+        String normalized = FullTextSearchUtils.normalize(keyword);
+        if (normalized == null) {
+            return List.of();
+        }
+        List<Long> ids = searchColumn(VideoMapper.COLUMN_VIDEO_NAME, normalized, limit).stream()
+                .map(VideoSearchHit::id)
+                .collect(Collectors.toList());
+        return hydrate(ids);
+    }
+
+    /**
+     * 检索单列（关键字短于分词长度时退回子串匹配）
+     */
+    private List<VideoSearchHit> searchColumn(String column, String normalized, int limit) {
+        if (FullTextSearchUtils.isIndexable(normalized)) {
+            return videoMapper.searchFullText(column, FullTextSearchUtils.toPhrase(normalized), limit);
+        }
+        return videoMapper.searchLike(column, normalized, limit);
+    }
+
+    /**
+     * 按主键批量回表，保持检索结果的顺序
+     */
+    private List<Video> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Video> videoMap = videoMapper.selectByIds(ids).stream()
+                .collect(Collectors.toMap(Video::getId, Function.identity()));
+        List<Video> videos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Video video = videoMap.get(id);
+            // 检索与回表之间被删除的记录直接跳过
+            if (video != null) {
+                videos.add(video);
+            }
+        }
+        return videos;
+    }
+}
@@ -1,17 +1,26 @@
 package com.fyp.handsome.service.impl.video;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.web.multipart.MultipartFile;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.fyp.handsome.dto.video.LocationCount;
+import com.fyp.handsome.dto.video.SourceCount;
+import com.fyp.handsome.dto.video.VideoBulkIngestResponse;
 import com.fyp.handsome.entity.Video;
 import com.fyp.handsome.mapper.VideoMapper;
 import com.fyp.handsome.service.VideoService;
@@ -28,7 +37,16 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements VideoService {
 
+    /**
+     * 多行INSERT单批条数
+     */
+    private static final int BATCH_INSERT_SIZE = 500;
+
     private final VideoMapper videoMapper;
+    private final VideoStatCounterService videoStatCounterService;
+    private final VideoExportService videoExportService;
+    private final VideoImportService videoImportService;
+    private final VideoSearchService videoSearchService;
 
     // =================== 基础CRUD操作 ===================
 
@@ -40,7 +58,11 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
             if (video.getStatus() == null) {
                 video.setStatus(1);
             }
-            return save(video);
+            boolean saved = save(video);
+            if (saved) {
+                videoStatCounterService.onCreated(video);
+            }
+            return saved;
         } catch (Exception e) {
             log.error("新增视频失败：{}", e.getMessage(), e);
             return false;
@@ -51,7 +73,12 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteVideo(Long videoId) {
         try {
-            return removeById(videoId);
+            Video before = getById(videoId);
+            boolean removed = removeById(videoId);
+            if (removed && before != null) {
+                videoStatCounterService.onDeleted(before);
+            }
+            return removed;
         } catch (Exception e) {
             log.error("删除视频失败，videoId：{}，错误：{}", videoId, e.getMessage(), e);
             return false;
@@ -62,7 +89,12 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteVideos(List<Long> videoIds) {
         try {
-            return removeByIds(videoIds);
+            List<Video> before = listByIds(videoIds);
+            boolean removed = removeByIds(videoIds);
+            if (removed) {
+                videoStatCounterService.onDeleted(before);
+            }
+            return removed;
         } catch (Exception e) {
             log.error("批量删除视频失败，videoIds：{}，错误：{}", videoIds, e.getMessage(), e);
             return false;
@@ -73,7 +105,12 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
     @Transactional(rollbackFor = Exception.class)
     public boolean updateVideo(Video video) {
         try {
-            return updateById(video);
+            Video before = getById(video.getId());
+            boolean updated = updateById(video);
+            if (updated && before != null) {
+                videoStatCounterService.onUpdated(before, mergeGroupFields(before, video));
+            }
+            return updated;
         } catch (Exception e) {
             log.error("更新视频失败，videoId：{}，错误：{}", video.getId(), e.getMessage(), e);
             return false;
@@ -95,7 +132,7 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
     @Override
     public List<Video> getVideosByName(String videoName) {
         try {
-            return videoMapper.selectByVideoNameLike(videoName);
+            return videoSearchService.searchByVideoName(videoName, VideoSearchService.MAX_LIMIT);
         } catch (Exception e) {
             log.error("根据视频名称查询失败，videoName：{}，错误：{}", videoName, e.getMessage(), e);
             return List.of();
@@ -159,9 +196,10 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
     @Override
     public Map<String, Long> getCountBySource() {
         try {
-            List<Object> results = videoMapper.countByVideoSource();
-            Map<String, Long> countMap = new HashMap<>();
-            // TODO: 处理查询结果，转换为Map格式
+            Map<String, Long> countMap = new LinkedHashMap<>();
+            for (SourceCount sourceCount : videoStatCounterService.getSourceCounts()) {
+                countMap.put(sourceCount.source(), sourceCount.count());
+            }
             return countMap;
         } catch (Exception e) {
             log.error("统计各来源视频数量失败，错误：{}", e.getMessage(), e);
@@ -172,14 +210,10 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
     @Override
     public Map<String, Long> getCountByLocation() {
         try {
-            // 使用LambdaQueryWrapper进行分组统计
-            LambdaQueryWrapper<Video> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.select(Video::getShootingLocation)
-                       .groupBy(Video::getShootingLocation);
-            
-            List<Video> videos = list(queryWrapper);
-            Map<String, Long> countMap = new HashMap<>();
-            // TODO: 实现具体的统计逻辑
+            Map<String, Long> countMap = new LinkedHashMap<>();
+            for (LocationCount locationCount : videoStatCounterService.getLocationCounts()) {
+                countMap.put(locationCount.location(), locationCount.count());
+            }
             return countMap;
         } catch (Exception e) {
             log.error("统计各地点视频数量失败，错误：{}", e.getMessage(), e);
@@ -201,6 +235,19 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
         }
     }
 
+    /**
+     * 合并更新前记录与部分更新字段，得到更新后的分组字段（为空的字段表示未修改）
+     */
+    private Video mergeGroupFields(Video before, Video patch) {
+        Video after = new Video();
+        after.setVideoSource(patch.getVideoSource() != null ? patch.getVideoSource() : before.getVideoSource());
+        after.setShootingLocation(patch.getShootingLocation() != null
+                ? patch.getShootingLocation() : before.getShootingLocation());
+        after.setShootingTime(patch.getShootingTime() != null ? patch.getShootingTime() : before.getShootingTime());
+        after.setStatus(patch.getStatus() != null ? patch.getStatus() : before.getStatus());
+        return after;
+    }
+
     // =================== 备份恢复操作 ===================
 
     @Override
@@ -228,33 +275,22 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
     }
 
     @Override
-    public byte[] exportToExcel(List<Long> videoIds) {
+    public long exportToExcel(List<Long> videoIds, OutputStream outputStream) throws IOException {
         try {
-            // TODO: 实现Excel导出逻辑
-            log.info("导出视频信息到Excel，videoIds：{}", videoIds);
-            return new byte[0];
-        } catch (Exception e) {
+            return videoExportService.export(videoIds, null, outputStream);
+        } catch (IOException e) {
             log.error("导出视频信息到Excel失败，videoIds：{}，错误：{}", videoIds, e.getMessage(), e);
-            return new byte[0];
+            throw e;
         }
     }
 
     @Override
-    public Map<String, Object> importFromExcel(byte[] excelBytes) {
+    public VideoBulkIngestResponse importFromExcel(MultipartFile file) {
         try {
-            // TODO: 实现Excel导入逻辑
-            log.info("从Excel导入视频信息，文件大小：{} bytes", excelBytes.length);
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("message", "导入成功");
-            result.put("importCount", 0);
-            return result;
+            return videoImportService.importFile(file);
         } catch (Exception e) {
-            log.error("从Excel导入视频信息失败，错误：{}", e.getMessage(), e);
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", false);
-            result.put("message", "导入失败：" + e.getMessage());
-            return result;
+            log.error("从Excel导入视频信息失败，文件：{}，错误：{}", file.getOriginalFilename(), e.getMessage(), e);
+            throw e;
         }
     }
 
@@ -264,15 +300,29 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
     @Transactional(rollbackFor = Exception.class)
     public boolean addVideoBatch(List<Video> videos) {
         try {
-            // 设置默认状态
+            // 设置默认状态和时间（多行INSERT不经过自动填充）
+            LocalDateTime now = LocalDateTime.now();
             videos.forEach(video -> {
                 if (video.getStatus() == null) {
                     video.setStatus(1);
                 }
+                if (video.getCreateTime() == null) {
+                    video.setCreateTime(now);
+                }
+                video.setUpdateTime(now);
             });
-            return saveBatch(videos);
+            
+            // 按批次使用单条多行INSERT写入，计数随每批写入在同一事务内更新
+            for (int from = 0; from < videos.size(); from += BATCH_INSERT_SIZE) {
+                List<Video> chunk = videos.subList(from, Math.min(from + BATCH_INSERT_SIZE, videos.size()));
+                videoMapper.insertBatchValues(chunk);
+                videoStatCounterService.onCreated(chunk);
+            }
+            return true;
         } catch (Exception e) {
             log.error("批量新增视频失败，错误：{}", e.getMessage(), e);
+            // 返回失败时回滚已写入的批次，避免部分写入
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return false;
         }
     }
@@ -281,7 +331,18 @@ public class VideoServiceImpl extends ServiceImpl<VideoMapper, Video> implements
     @Transactional(rollbackFor = Exception.class)
     public boolean updateVideoBatch(List<Video> videos) {
         try {
-            return updateBatchById(videos);
+            Map<Long, Video> beforeMap = listByIds(videos.stream().map(Video::getId).toList()).stream()
+                    .collect(Collectors.toMap(Video::getId, Function.identity()));
+            boolean updated = updateBatchById(videos);
+            if (updated) {
+                for (Video video : videos) {
+                    Video before = beforeMap.get(video.getId());
+                    if (before != null) {
+                        videoStatCounterService.onUpdated(before, mergeGroupFields(before, video));
+                    }
+                }
+            }
+            return updated;
         } catch (Exception e) {
             log.error("批量更新视频失败，错误：{}", e.getMessage(), e);
             return false;
@@ -0,0 +1,274 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fyp.handsome.dto.video.LocationCount;
+import com.fyp.handsome.dto.video.SourceCount;
+import com.fyp.handsome.dto.video.VideoBucketCount;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.event.VideoCountChangedEvent;
+import com.fyp.handsome.event.VideoLocationCountChangedEvent;
+import com.fyp.handsome.mapper.VideoMapper;
+import com.fyp.handsome.mapper.VideoStatCounterMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 视频分组计数服务
+ * 在视频增删改时同步维护 video_stat_counter，来源/地点统计按分组数读取而不扫描视频表；
+ * 计数更新与视频写入处于同一事务（调用方有事务时），计数表为空时在启动后从视频表重建；
+ * 定时与视频表核对，有偏差时重建
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class VideoStatCounterService implements AutoCloseable {
+
+    private static final int ACTIVE_STATUS = 1;
+
+    private final VideoMapper videoMapper;
+    private final VideoStatCounterMapper videoStatCounterMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService reconciler;
+
+    /**
+     * 计数与视频表核对间隔（秒），小于等于0时不核对
+     */
+    @Value("${handsome.video.stat-counter-reconcile-seconds:600}")
+    private long reconcileIntervalSeconds;
+
+    public VideoStatCounterService(VideoMapper videoMapper, VideoStatCounterMapper videoStatCounterMapper,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager) {
+        this.videoMapper = videoMapper;
+        this.videoStatCounterMapper = videoStatCounterMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "video-stat-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动后初始化：计数表为空时从视频表重建，并开启定时核对
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (videoStatCounterMapper.countRows() == 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("初始化视频分组计数失败，错误：{}", e.getMessage(), e);
+        }
+        if (reconcileIntervalSeconds > 0) {
+            reconciler.scheduleWithFixedDelay(this::reconcile, reconcileIntervalSeconds, reconcileIntervalSeconds,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 从视频表全量重建计数（用于初始化或修正偏差）
+     * 先清空计数表再统计：清空持有的锁使并发的视频写入在重建提交后才能更新计数，
+     * 统计读取到的是清空之后的快照，重建结果与并发写入的增量不会重复或遗漏
+     */
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            videoStatCounterMapper.deleteAll();
+            List<SourceCount> sourceCounts = videoMapper.countByVideoSource();
+            List<LocationCount> locationCounts = videoMapper.countByShootingLocation();
+            sourceCounts.forEach(sourceCount -> videoStatCounterMapper.increment(
+                    VideoStatCounterMapper.DIMENSION_SOURCE, sourceCount.source(), sourceCount.count()));
+            locationCounts.forEach(locationCount -> videoStatCounterMapper.increment(
+                    VideoStatCounterMapper.DIMENSION_LOCATION, locationCount.location(), locationCount.count()));
+            log.info("视频分组计数重建完成，来源分组：{}，地点分组：{}", sourceCounts.size(), locationCounts.size());
+        });
+    }
+
+    /**
+     * 与视频表核对计数，有偏差时重建
+     * 核对本身不加锁，核对期间的并发写入可能造成误判，误判只会多一次重建
+     * @return 是否重建
+     */
+    public boolean reconcile() {
+        try {
+            Map<String, Long> expectedSources = videoMapper.countByVideoSource().stream()
+                    .collect(Collectors.toMap(SourceCount::source, SourceCount::count));
+            Map<String, Long> expectedLocations = videoMapper.countByShootingLocation().stream()
+                    .collect(Collectors.toMap(LocationCount::location, LocationCount::count));
+            Map<String, Long> actualSources = videoStatCounterMapper.selectSourceCounts().stream()
+                    .collect(Collectors.toMap(SourceCount::source, SourceCount::count));
+            Map<String, Long> actualLocations = videoStatCounterMapper.selectLocationCounts().stream()
+                    .collect(Collectors.toMap(LocationCount::location, LocationCount::count));
+            if (expectedSources.equals(actualSources) && expectedLocations.equals(actualLocations)) {
+                return false;
+            }
+            log.warn("视频分组计数与视频表不一致，开始重建");
+            rebuild();
+            return true;
+        } catch (Exception e) {
+            log.error("核对视频分组计数失败，错误：{}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        reconciler.shutdownNow();
+    }
+
+    /**
+     * 视频新增后更新计数
+     */
+    public void onCreated(Video video) {
+        applyChange(null, video);
+    }
+
+    /**
+     * 视频批量新增后更新计数（同一分组合并为一次更新）
+     */
+    public void onCreated(Collection<Video> videos) {
+        Map<String, Long> deltas = new TreeMap<>();
+        Map<LocationDay, Long> locationDeltas = new HashMap<>();
+        long countDelta = 0;
+        for (Video video : videos) {
+            countDelta += collect(deltas, locationDeltas, video, 1);
+        }
+        flush(deltas, locationDeltas, countDelta);
+    }
+
+    /**
+     * 视频删除后更新计数
+     * @param deleted 删除前的视频记录
+     */
+    public void onDeleted(Video deleted) {
+        applyChange(deleted, null);
+    }
+
+    /**
+     * 视频批量删除后更新计数
+     * @param deleted 删除前的视频记录
+     */
+    public void onDeleted(Collection<Video> deleted) {
+        Map<String, Long> deltas = new TreeMap<>();
+        Map<LocationDay, Long> locationDeltas = new HashMap<>();
+        long countDelta = 0;
+        for (Video video : deleted) {
+            countDelta += collect(deltas, locationDeltas, video, -1);
+        }
+        flush(deltas, locationDeltas, countDelta);
+    }
+
+    /**
+     * 视频更新后更新计数
+     * @param before 更新前的视频记录
+     * @param after 更新后的视频记录
+     */
+    public void onUpdated(Video before, Video after) {
+        applyChange(before, after);
+    }
+
+    /**
+     * 各来源视频数量
+     */
+    public List<SourceCount> getSourceCounts() {
+        return videoStatCounterMapper.selectSourceCounts();
+    }
+
+    /**
+     * 各拍摄地点视频数量
+     */
+    public List<LocationCount> getLocationCounts() {
+        return videoStatCounterMapper.selectLocationCounts();
+    }
+
+    /**
+     * 各时间桶新增的有效视频数量（按创建时间，左闭右开）
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param hourly 是否按小时分桶，否则按天
+     * @return 有新增视频的时间桶计数
+     */
+    public List<VideoBucketCount> getCreatedCounts(LocalDateTime startTime, LocalDateTime endTime, boolean hourly) {
+        return videoMapper.selectCreatedBucketCounts(startTime, endTime, hourly);
+    }
+
+    /**
+     * 按前后记录计算各分组增量并写入
+     */
+    private void applyChange(Video before, Video after) {
+        Map<String, Long> deltas = new TreeMap<>();
+        Map<LocationDay, Long> locationDeltas = new HashMap<>();
+        long countDelta = collect(deltas, locationDeltas, before, -1) + collect(deltas, locationDeltas, after, 1);
+        flush(deltas, locationDeltas, countDelta);
+    }
+
+    /**
+     * 累加单条记录的分组增量
+     * @return 有效视频数量增量（无效记录为0）
+     */
+    private int collect(Map<String, Long> deltas, Map<LocationDay, Long> locationDeltas, Video video, int sign) {
+        if (video == null || (video.getStatus() != null && video.getStatus() != ACTIVE_STATUS)) {
+            return 0;
+        }
+        deltas.merge(key(VideoStatCounterMapper.DIMENSION_SOURCE, video.getVideoSource()), (long) sign, Long::sum);
+        deltas.merge(key(VideoStatCounterMapper.DIMENSION_LOCATION, video.getShootingLocation()), (long) sign, Long::sum);
+        if (video.getShootingLocation() != null && video.getShootingTime() != null) {
+            locationDeltas.merge(new LocationDay(video.getShootingLocation(), video.getShootingTime().toLocalDate()),
+                    (long) sign, Long::sum);
+        }
+        return sign;
+    }
+
+    /**
+     * 写入增量并发布事件；键有序，多个事务按相同顺序加锁，避免计数行死锁
+     */
+    private void flush(Map<String, Long> deltas, Map<LocationDay, Long> locationDeltas, long countDelta) {
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                int separator = key.indexOf(':');
+                videoStatCounterMapper.increment(key.substring(0, separator), key.substring(separator + 1), delta);
+            }
+        });
+        if (countDelta != 0) {
+            eventPublisher.publishEvent(new VideoCountChangedEvent(countDelta));
+        }
+        locationDeltas.forEach((locationDay, delta) -> {
+            if (delta != 0) {
+                eventPublisher.publishEvent(new VideoLocationCountChangedEvent(
+                        locationDay.location(), locationDay.date(), delta));
+            }
+        });
+    }
+
+    private static String key(String dimension, String value) {
+        return dimension + ":" + (value == null ? "" : value);
+    }
+
+    /**
+     * 地点 + 拍摄日期分组键
+     */
+    private record LocationDay(String location, LocalDate date) {
+    }
+}
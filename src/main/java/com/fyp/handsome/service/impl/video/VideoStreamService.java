@@ -0,0 +1,193 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fyp.handsome.config.VideoStreamProperties;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.exception.VideoNotFoundException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 视频文件播放服务
+ * 支持Range/If-Range/ETag，播放器可在大文件中任意拖动；
+ * 文件内容不经过Java堆：Tomcat支持时交给sendfile由内核直接发送，否则通过FileChannel.transferTo写出
+ * @author ziye
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VideoStreamService {
+
+    /**
+     * Tomcat sendfile 请求属性（与 org.apache.coyote.Constants 中的定义一致）
+     */
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final VideoQueryService videoQueryService;
+    private final VideoFilePathResolver videoFilePathResolver;
+    private final VideoFileHandleCache videoFileHandleCache;
+    private final VideoStreamProperties properties;
+
+    /**
+     * 输出视频文件内容
+     * @param videoId 视频ID
+     * @param request HTTP请求（读取Range、If-Range、If-None-Match等请求头）
+     * @param response HTTP响应
+     */
+    public void stream(Long videoId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Video video = videoQueryService.getVideoById(videoId);
+        if (video == null) {
+            throw new VideoNotFoundException(videoId);
+        }
+        if (!StringUtils.hasText(video.getFilePath())) {
+            throw new VideoNotFoundException("视频文件不存在，ID: " + videoId);
+        }
+        Path path = videoFilePathResolver.resolve(video.getFilePath());
+
+        VideoFileHandleCache.Handle handle;
+        try {
+            handle = videoFileHandleCache.acquire(path);
+        } catch (NoSuchFileException e) {
+            throw new VideoNotFoundException("视频文件不存在，ID: " + videoId);
+        }
+
+        try (handle) {
+            long length = handle.size();
+            long lastModified = handle.lastModified();
+            String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+            // 1. 条件请求（If-None-Match / If-Modified-Since 命中时返回304）
+            if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+                return;
+            }
+
+            // 2. 计算输出区间
+            long start = 0;
+            long end = length - 1;
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            if (rangeHeader != null && length > 0 && isIfRangeSatisfied(request, etag, lastModified)) {
+                List<HttpRange> ranges = parseRanges(rangeHeader);
+                if (!ranges.isEmpty()) {
+                    try {
+                        // 多个区间合并为一个覆盖区间，避免multipart/byteranges
+                        start = Long.MAX_VALUE;
+                        end = -1;
+                        for (HttpRange range : ranges) {
+                            start = Math.min(start, range.getRangeStart(length));
+                            end = Math.max(end, range.getRangeEnd(length));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                        response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                        return;
+                    }
+                    // 开放式区间（如 bytes=0-）限制单次响应大小
+                    long maxChunk = properties.getMaxChunkBytes();
+                    if (maxChunk > 0 && end == length - 1 && end - start + 1 > maxChunk) {
+                        end = start + maxChunk - 1;
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            }
+
+            long count = end - start + 1;
+            response.setContentType(MediaTypeFactory.getMediaType(path.getFileName().toString())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+            response.setContentLengthLong(count);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.maxAge(properties.getCacheMaxAgeSeconds(), TimeUnit.SECONDS).cachePrivate().getHeaderValue());
+            if (count == 0 || "HEAD".equals(request.getMethod())) {
+                return;
+            }
+
+            // 3. 输出文件内容
+            if (properties.isSendfileEnabled() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+                request.setAttribute(SENDFILE_FILENAME_ATTR, path.toString());
+                request.setAttribute(SENDFILE_START_ATTR, start);
+                request.setAttribute(SENDFILE_END_ATTR, end + 1);
+                return;
+            }
+            transfer(handle.channel(), start, count, response);
+        }
+    }
+
+    /**
+     * 通过FileChannel.transferTo写出指定区间
+     */
+    private void transfer(FileChannel channel, long start, long count, HttpServletResponse response) {
+        long position = start;
+        long remaining = count;
+        try {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    // 文件被截断
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+            response.flushBuffer();
+        } catch (IOException e) {
+            // 播放器拖动进度或关闭页面时会主动断开连接
+            log.debug("视频传输中断，已发送：{} bytes，原因：{}", count - remaining, e.getMessage());
+        }
+    }
+
+    /**
+     * 解析Range请求头，格式错误时忽略Range返回完整内容
+     */
+    private List<HttpRange> parseRanges(String rangeHeader) {
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            log.debug("忽略无效的Range请求头：{}", rangeHeader);
+            return List.of();
+        }
+    }
+
+    /**
+     * If-Range 校验：与当前ETag（强比较）或最后修改时间一致时才按Range返回
+     */
+    private boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
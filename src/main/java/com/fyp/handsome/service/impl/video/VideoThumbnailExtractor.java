@@ -0,0 +1,167 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.jcodec.api.FrameGrab;
+import org.jcodec.api.JCodecException;
+import org.jcodec.common.io.FileChannelWrapper;
+import org.jcodec.common.io.NIOUtils;
+import org.jcodec.common.model.Picture;
+import org.jcodec.scale.AWTUtil;
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.VideoThumbnailProperties;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 视频缩略图提取器
+ * 使用JCodec（纯Java）解封装MP4并只解码关键帧：封面取约10%时长处的关键帧，
+ * 关键帧条在全片均匀取若干关键帧横向拼接
+ * @author ziye
+ */
+@Component
+@RequiredArgsConstructor
+public class VideoThumbnailExtractor {
+
+    /**
+     * 计算内容摘要时读取的文件头尾字节数
+     */
+    private static final int FINGERPRINT_SAMPLE_BYTES = 1024 * 1024;
+
+    /**
+     * 封面所在位置（占总时长比例），跳过片头黑屏
+     */
+    private static final double POSTER_POSITION = 0.1;
+
+    private final VideoThumbnailProperties properties;
+
+    /**
+     * 提取结果（JPEG）
+     */
+    public record Thumbnails(byte[] poster, byte[] strip) {
+    }
+
+    /**
+     * 计算视频内容摘要（文件大小 + 头尾各1MB + 输出参数的SHA-256）
+     * 同一文件被多条记录引用或被重新导入时得到相同摘要，输出参数变化时摘要随之变化
+     */
+    public String fingerprint(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        long size = Files.size(file);
+        digest.update(ByteBuffer.allocate(Long.BYTES).putLong(size).array());
+        try (InputStream in = Files.newInputStream(file)) {
+            digest.update(in.readNBytes(FINGERPRINT_SAMPLE_BYTES));
+            long tailStart = Math.max(FINGERPRINT_SAMPLE_BYTES, size - FINGERPRINT_SAMPLE_BYTES);
+            in.skipNBytes(Math.max(0, tailStart - FINGERPRINT_SAMPLE_BYTES));
+            digest.update(in.readAllBytes());
+        }
+        digest.update((properties.getPosterWidth() + "/" + properties.getStripFrames() + "/"
+                + properties.getStripFrameWidth()).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 提取封面和关键帧条
+     * @param file 视频文件
+     */
+    public Thumbnails extract(Path file) throws IOException {
+        try (FileChannelWrapper channel = NIOUtils.readableChannel(file.toFile())) {
+            FrameGrab grab = FrameGrab.createFrameGrab(channel);
+            double duration = grab.getVideoTrack().getMeta().getTotalDuration();
+
+            BufferedImage poster = keyFrameAt(grab, duration * POSTER_POSITION);
+            if (poster == null) {
+                poster = keyFrameAt(grab, 0);
+            }
+            if (poster == null) {
+                throw new IOException("视频中没有可解码的关键帧");
+            }
+
+            int frameCount = Math.max(1, properties.getStripFrames());
+            List<BufferedImage> frames = new ArrayList<>(frameCount);
+            for (int i = 0; i < frameCount; i++) {
+                BufferedImage frame = keyFrameAt(grab, duration * (i + 0.5) / frameCount);
+                if (frame != null) {
+                    frames.add(scale(frame, properties.getStripFrameWidth()));
+                }
+            }
+            if (frames.isEmpty()) {
+                frames.add(scale(poster, properties.getStripFrameWidth()));
+            }
+
+            return new Thumbnails(toJpeg(scale(poster, properties.getPosterWidth())), toJpeg(concat(frames)));
+        } catch (JCodecException e) {
+            throw new IOException("不支持的视频格式：" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 定位到指定时间之前最近的关键帧并解码（不解码中间的非关键帧）
+     */
+    private BufferedImage keyFrameAt(FrameGrab grab, double second) throws IOException, JCodecException {
+        grab.seekToSecondSloppy(Math.max(0, second));
+        Picture picture = grab.getNativeFrame();
+        return picture == null ? null : AWTUtil.toBufferedImage(picture);
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width) {
+        int targetWidth = Math.max(1, Math.min(width, source.getWidth()));
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static BufferedImage concat(List<BufferedImage> frames) {
+        int width = frames.stream().mapToInt(BufferedImage::getWidth).sum();
+        int height = frames.stream().mapToInt(BufferedImage::getHeight).max().orElse(1);
+        BufferedImage strip = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = strip.createGraphics();
+        try {
+            int x = 0;
+            for (BufferedImage frame : frames) {
+                graphics.drawImage(frame, x, 0, null);
+                x += frame.getWidth();
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return strip;
+    }
+
+    private static byte[] toJpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "jpg", out)) {
+            throw new IOException("JPEG编码器不可用");
+        }
+        return out.toByteArray();
+    }
+}
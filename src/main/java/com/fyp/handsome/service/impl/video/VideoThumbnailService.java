@@ -0,0 +1,211 @@
+package com.fyp.handsome.service.impl.video;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fyp.handsome.config.VideoThumbnailProperties;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.exception.VideoNotFoundException;
+import com.fyp.handsome.exception.VideoValidationException;
+import com.fyp.handsome.mapper.VideoMapper;
+import com.fyp.handsome.util.BeanCopyUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 视频缩略图服务
+ * 后台线程定期扫描 thumbnail_key 为空的视频，提取封面和关键帧条写入磁盘缓存后回写内容摘要；
+ * 列表页只读取缓存图片，不访问视频源文件
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class VideoThumbnailService implements AutoCloseable {
+
+    public static final String TYPE_POSTER = "poster";
+    public static final String TYPE_STRIP = "strip";
+
+    /**
+     * 带版本地址的缓存时间（一年，内容变化时地址随之变化）
+     */
+    private static final long IMMUTABLE_MAX_AGE_DAYS = 365;
+
+    private final VideoMapper videoMapper;
+    private final VideoFilePathResolver videoFilePathResolver;
+    private final VideoThumbnailExtractor videoThumbnailExtractor;
+    private final ThumbnailDiskCache thumbnailDiskCache;
+    private final VideoThumbnailProperties properties;
+
+    private final ScheduledExecutorService worker;
+
+    /**
+     * 本次运行中生成失败的视频（重启后重试）
+     */
+    private final Set<Long> failedVideoIds = ConcurrentHashMap.newKeySet();
+
+    public VideoThumbnailService(VideoMapper videoMapper,
+                                 VideoFilePathResolver videoFilePathResolver,
+                                 VideoThumbnailExtractor videoThumbnailExtractor,
+                                 ThumbnailDiskCache thumbnailDiskCache,
+                                 VideoThumbnailProperties properties) {
+        this.videoMapper = videoMapper;
+        this.videoFilePathResolver = videoFilePathResolver;
+        this.videoThumbnailExtractor = videoThumbnailExtractor;
+        this.thumbnailDiskCache = thumbnailDiskCache;
+        this.properties = properties;
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "video-thumbnail-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动后开启后台生成
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long interval = Math.max(1, properties.getPollIntervalSeconds());
+        worker.scheduleWithFixedDelay(this::generatePending, 0, interval, TimeUnit.SECONDS);
+    }
+
+    // =================== 后台生成 ===================
+
+    /**
+     * 为全部待生成视频生成缩略图
+     */
+    private void generatePending() {
+        long afterId = 0;
+        int generated = 0;
+        try {
+            while (!worker.isShutdown()) {
+                List<Video> batch = videoMapper.selectPendingThumbnails(afterId, Math.max(1, properties.getBatchSize()));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (Video video : batch) {
+                    afterId = video.getId();
+                    if (!failedVideoIds.contains(video.getId()) && generate(video)) {
+                        generated++;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("扫描待生成缩略图的视频失败，当前ID：{}，错误：{}", afterId, e.getMessage(), e);
+        }
+        if (generated > 0) {
+            log.info("缩略图生成完成，本轮生成：{} 个", generated);
+        }
+    }
+
+    /**
+     * 生成单个视频的缩略图（相同内容已缓存时直接复用）
+     * @return 是否成功
+     */
+    private boolean generate(Video video) {
+        try {
+            Path file = videoFilePathResolver.resolve(video.getFilePath());
+            String key = videoThumbnailExtractor.fingerprint(file);
+            if (!thumbnailDiskCache.contains(key, TYPE_POSTER) || !thumbnailDiskCache.contains(key, TYPE_STRIP)) {
+                VideoThumbnailExtractor.Thumbnails thumbnails = videoThumbnailExtractor.extract(file);
+                thumbnailDiskCache.put(key, TYPE_POSTER, thumbnails.poster());
+                thumbnailDiskCache.put(key, TYPE_STRIP, thumbnails.strip());
+            }
+            videoMapper.updateThumbnailKey(video.getId(), key);
+            log.debug("缩略图生成成功，视频ID：{}，摘要：{}", video.getId(), key);
+            return true;
+        } catch (Exception e) {
+            failedVideoIds.add(video.getId());
+            log.warn("缩略图生成失败，视频ID：{}，文件：{}，错误：{}", video.getId(), video.getFilePath(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 视频文件变更后重新生成缩略图
+     * @param videoId 视频ID
+     */
+    public void invalidate(Long videoId) {
+        failedVideoIds.remove(videoId);
+        videoMapper.updateThumbnailKey(videoId, null);
+    }
+
+    // =================== 读取 ===================
+
+    /**
+     * 输出缩略图
+     * @param videoId 视频ID
+     * @param type 图片类型：poster-封面，strip-关键帧条
+     * @param version 地址中的内容版本（与当前摘要一致时允许长期缓存）
+     */
+    public void serve(Long videoId, String type, String version,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String variant = StringUtils.hasText(type) ? type : TYPE_POSTER;
+        if (!TYPE_POSTER.equals(variant) && !TYPE_STRIP.equals(variant)) {
+            throw new VideoValidationException("缩略图类型只支持 poster 或 strip");
+        }
+        Video video = videoMapper.selectById(videoId);
+        if (video == null) {
+            throw new VideoNotFoundException(videoId);
+        }
+        String key = video.getThumbnailKey();
+        if (!StringUtils.hasText(key)) {
+            throw new VideoNotFoundException("视频缩略图尚未生成，ID: " + videoId);
+        }
+        Path path = thumbnailDiskCache.get(key, variant);
+        long size;
+        try {
+            if (path == null) {
+                throw new NoSuchFileException(key);
+            }
+            size = Files.size(path);
+        } catch (NoSuchFileException e) {
+            // 缓存文件已被淘汰，重新进入待生成队列
+            invalidate(videoId);
+            throw new VideoNotFoundException("视频缩略图尚未生成，ID: " + videoId);
+        }
+
+        String etag = "\"" + key + "-" + variant + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        // 只有与地址生成时完全相同的版本才允许长期缓存（过短的前缀可能对应多个内容）
+        boolean versioned = BeanCopyUtils.thumbnailVersion(key).equals(version);
+        CacheControl cacheControl = versioned
+                ? CacheControl.maxAge(IMMUTABLE_MAX_AGE_DAYS, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache();
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setContentLengthLong(size);
+        if (!"HEAD".equals(request.getMethod())) {
+            Files.copy(path, response.getOutputStream());
+        }
+    }
+
+    @Override
+    public void close() {
+        worker.shutdownNow();
+    }
+}
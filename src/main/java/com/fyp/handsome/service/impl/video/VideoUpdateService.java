@@ -2,10 +2,12 @@ package com.fyp.handsome.service.impl.video;
 
 import java.time.LocalDateTime;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.fyp.handsome.dto.video.VideoInfoUpdateRequest;
 import com.fyp.handsome.entity.Video;
 import com.fyp.handsome.exception.VideoNameDuplicateException;
@@ -28,6 +30,9 @@ import lombok.extern.slf4j.Slf4j;
 public class VideoUpdateService {
 
     private final VideoMapper videoMapper;
+    private final VideoStatCounterService videoStatCounterService;
+    private final VideoThumbnailService videoThumbnailService;
+    private final VideoMetadataProbe videoMetadataProbe;
 
     /**
      * 更新视频信息
@@ -50,19 +55,64 @@ public class VideoUpdateService {
             checkVideoNameUniqueForUpdate(request.getVideoName(), id);
         }
         
-        // 4. 复制更新字段
+        // 4. 记录分组字段原值后复制更新字段
+        Video before = snapshotGroupFields(existingVideo);
+        boolean fileChanged = request.getFilePath() != null && !request.getFilePath().equals(existingVideo.getFilePath());
         BeanCopyUtils.copyNonNullProperties(request, existingVideo);
+        if (fileChanged) {
+            // 媒体属性只来自文件探测，新文件不存在或不是MP4时不能沿用原文件的值
+            existingVideo.setWidth(null);
+            existingVideo.setHeight(null);
+            existingVideo.setVideoCodec(null);
+            existingVideo.setBitRate(null);
+            videoMetadataProbe.enrich(existingVideo);
+        }
         
-        // 5. 执行更新
-        int result = videoMapper.updateById(existingVideo);
+        // 5. 执行更新（updateById 跳过空值，更换文件后探测不到的媒体属性需显式置空；
+        //    唯一性检查之后并发改成同名的视频由唯一索引拒绝）
+        int result;
+        try {
+            result = fileChanged
+                    ? videoMapper.update(existingVideo, new LambdaUpdateWrapper<Video>()
+                            .eq(Video::getId, id)
+                            .set(existingVideo.getWidth() == null, Video::getWidth, null)
+                            .set(existingVideo.getHeight() == null, Video::getHeight, null)
+                            .set(existingVideo.getVideoCodec() == null, Video::getVideoCodec, null)
+                            .set(existingVideo.getBitRate() == null, Video::getBitRate, null))
+                    : videoMapper.updateById(existingVideo);
+        } catch (DuplicateKeyException e) {
+            throw new VideoNameDuplicateException(existingVideo.getVideoName());
+        }
         if (result <= 0) {
             throw new RuntimeException("更新视频信息失败");
         }
         
+        // 6. 更新分组计数（来源或地点变化时才会产生增量）
+        videoStatCounterService.onUpdated(before, existingVideo);
+        
+        // 7. 文件变化时重新生成缩略图
+        if (fileChanged) {
+            videoThumbnailService.invalidate(id);
+        }
+        
         log.info("视频信息更新成功，ID：{}，名称：{}", id, existingVideo.getVideoName());
         return existingVideo;
     }
 
+    /**
+     * 复制参与分组计数的字段
+     * @param video 视频实体
+     * @return 仅包含来源、地点、拍摄时间和状态的副本
+     */
+    private Video snapshotGroupFields(Video video) {
+        Video snapshot = new Video();
+        snapshot.setVideoSource(video.getVideoSource());
+        snapshot.setShootingLocation(video.getShootingLocation());
+        snapshot.setShootingTime(video.getShootingTime());
+        snapshot.setStatus(video.getStatus());
+        return snapshot;
+    }
+
     /**
      * 校验更新请求参数
      * @param id 视频ID
@@ -0,0 +1,318 @@
+package com.fyp.handsome.service.impl.visualization;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fyp.handsome.config.AlertProperties;
+import com.fyp.handsome.dto.visualization.AlertMessage;
+import com.fyp.handsome.entity.Video;
+import com.fyp.handsome.event.AnalysisResultSavedEvent;
+import com.fyp.handsome.mapper.VideoAnalysisResultMapper;
+import com.fyp.handsome.mapper.VideoMapper;
+import com.fyp.handsome.util.SequencedRingBuffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 实时告警总线
+ * 满足告警条件（分析类型 + 置信度）的分析结果保存后写入环形缓冲区，并分发给各SSE订阅者；
+ * 每个订阅者有独立的有界队列，由推送线程池发送，慢速客户端队列满时丢弃最旧的告警并通知客户端，
+ * 客户端可按最后收到的序号重连补发缓冲区内的告警
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class AlertBus implements AutoCloseable {
+
+    private static final String EVENT_ALERT = "alert";
+    private static final String EVENT_DROPPED = "dropped";
+
+    private static final String LEVEL_HIGH = "high";
+    private static final String LEVEL_MEDIUM = "medium";
+
+    private final VideoMapper videoMapper;
+    private final VideoAnalysisResultMapper videoAnalysisResultMapper;
+    private final AlertProperties properties;
+
+    private final SequencedRingBuffer<AlertMessage> buffer;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+
+    /**
+     * 今日告警数
+     */
+    private final AtomicReference<DailyCount> todayCount = new AtomicReference<>(new DailyCount(LocalDate.now(), 0));
+
+    private record DailyCount(LocalDate day, long count) {
+
+        DailyCount add(LocalDate today, long delta) {
+            return today.equals(day) ? new DailyCount(day, count + delta) : new DailyCount(today, delta);
+        }
+    }
+
+    public AlertBus(VideoMapper videoMapper, VideoAnalysisResultMapper videoAnalysisResultMapper,
+                    AlertProperties properties) {
+        this.videoMapper = videoMapper;
+        this.videoAnalysisResultMapper = videoAnalysisResultMapper;
+        this.properties = properties;
+        this.buffer = new SequencedRingBuffer<>(properties.getBufferSize());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(Math.max(1, properties.getDispatchThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "alert-dispatcher-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动后加载今日告警数并开启心跳
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (!properties.getAnalysisTypes().isEmpty()) {
+                LocalDate today = LocalDate.now();
+                long count = videoAnalysisResultMapper.countAlerts(properties.getAnalysisTypes(),
+                        properties.getMinConfidence(), today.atStartOfDay());
+                todayCount.updateAndGet(current -> current.add(today, count));
+            }
+        } catch (Exception e) {
+            log.error("加载今日告警数失败，错误：{}", e.getMessage(), e);
+        }
+        long interval = properties.getHeartbeatSeconds();
+        if (interval > 0) {
+            heartbeat.scheduleWithFixedDelay(() -> subscribers.forEach(Subscriber::heartbeat),
+                    interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    // =================== 发布 ===================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalysisResultSaved(AnalysisResultSavedEvent event) {
+        if (!isAlert(event)) {
+            return;
+        }
+        try {
+            Video video = event.videoId() == null ? null : videoMapper.selectById(event.videoId());
+            String level = event.confidenceScore().compareTo(properties.getHighConfidence()) >= 0
+                    ? LEVEL_HIGH : LEVEL_MEDIUM;
+            SequencedRingBuffer.Entry<AlertMessage> entry = buffer.append(sequence -> new AlertMessage(sequence,
+                    event.resultId(), event.videoId(),
+                    video != null ? video.getVideoName() : null, video != null ? video.getShootingLocation() : null,
+                    event.analysisType(), level, event.confidenceScore(), event.analysisTime()));
+            todayCount.updateAndGet(current -> current.add(LocalDate.now(), 1));
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry.value());
+            }
+        } catch (Exception e) {
+            log.error("发布实时告警失败，resultId：{}，错误：{}", event.resultId(), e.getMessage(), e);
+        }
+    }
+
+    private boolean isAlert(AnalysisResultSavedEvent event) {
+        return event.confidenceScore() != null
+                && event.confidenceScore().compareTo(properties.getMinConfidence()) >= 0
+                && properties.getAnalysisTypes().contains(event.analysisType());
+    }
+
+    // =================== 订阅 ===================
+
+    /**
+     * 订阅实时告警
+     * @param lastSequence 客户端最后收到的告警序号（可选，提供时补发缓冲区内之后的告警）
+     * @return SSE连接
+     */
+    public SseEmitter subscribe(Long lastSequence) {
+        SseEmitter emitter = createEmitter(TimeUnit.MINUTES.toMillis(properties.getEmitterTimeoutMinutes()));
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        // 先登记再读取缓冲区：登记前已写入的告警由补发覆盖，之后的告警进入队列，按序号去重
+        subscribers.add(subscriber);
+        if (lastSequence != null) {
+            // 序号在进程内递增，大于当前序号说明服务已重启，补发缓冲区内全部告警
+            long after = lastSequence > buffer.lastSequence() ? 0 : Math.max(0, lastSequence);
+            List<SequencedRingBuffer.Entry<AlertMessage>> replay = buffer.readAfter(after, buffer.capacity());
+            long replayUpTo = after;
+            if (!replay.isEmpty()) {
+                long firstSequence = replay.get(0).sequence();
+                if (firstSequence > after + 1) {
+                    // 请求的起始序号已被覆盖
+                    subscriber.dropped.addAndGet(firstSequence - after - 1);
+                }
+                replayUpTo = replay.get(replay.size() - 1).sequence();
+            }
+            subscriber.replay = replay.stream().map(SequencedRingBuffer.Entry::value).toList();
+            subscriber.replayUpTo = replayUpTo;
+        }
+        // 补发信息就绪后才开始推送，并立即发送一次心跳，让客户端尽快确认连接
+        subscriber.ready = true;
+        subscriber.heartbeat();
+        log.debug("新增实时告警订阅，lastSequence：{}，当前订阅数：{}", lastSequence, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * 创建SSE连接（测试中替换为记录发送内容的实现）
+     */
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    // =================== 查询 ===================
+
+    /**
+     * 最近的告警（由新到旧）
+     * @param limit 最多返回条数
+     */
+    public List<AlertMessage> getRecent(int limit) {
+        return buffer.readLatest(limit).stream().map(SequencedRingBuffer.Entry::value).toList();
+    }
+
+    /**
+     * 今日告警数
+     */
+    public long getTodayCount() {
+        DailyCount current = todayCount.get();
+        return current.day().equals(LocalDate.now()) ? current.count() : 0;
+    }
+
+    /**
+     * 当前订阅数
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * 单个SSE订阅者
+     * 同一时刻最多一个推送线程处理，保证发送顺序
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<AlertMessage> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+
+        /**
+         * 待补发的告警及补发截止序号（队列中不大于该序号的告警已由补发覆盖）
+         */
+        private volatile List<AlertMessage> replay;
+        private volatile long replayUpTo;
+
+        private volatile boolean ready;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getSubscriberQueueSize()));
+        }
+
+        void offer(AlertMessage message) {
+            while (!queue.offer(message)) {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+            schedule();
+        }
+
+        void heartbeat() {
+            heartbeatPending.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (ready && !closed && scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (Exception e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                List<AlertMessage> pending = replay;
+                if (pending != null) {
+                    replay = null;
+                    for (AlertMessage message : pending) {
+                        sendAlert(message);
+                    }
+                }
+                long droppedCount = dropped.getAndSet(0);
+                if (droppedCount > 0) {
+                    emitter.send(SseEmitter.event().name(EVENT_DROPPED).data(Map.of("count", droppedCount)));
+                }
+                AlertMessage message;
+                while ((message = queue.poll()) != null) {
+                    if (message.sequence() > replayUpTo) {
+                        sendAlert(message);
+                    }
+                }
+                if (heartbeatPending.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("推送实时告警失败，移除订阅者，错误：{}", e.getMessage());
+                unsubscribe(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty() || dropped.get() > 0 || heartbeatPending.get()) {
+                schedule();
+            }
+        }
+
+        private void sendAlert(AlertMessage message) throws IOException {
+            emitter.send(SseEmitter.event().id(String.valueOf(message.sequence())).name(EVENT_ALERT).data(message));
+        }
+    }
+
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+}
@@ -0,0 +1,145 @@
+package com.fyp.handsome.service.impl.visualization;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fyp.handsome.config.DashboardProperties;
+import com.fyp.handsome.event.AnalysisResultDeletedEvent;
+import com.fyp.handsome.event.AnalysisResultSavedEvent;
+import com.fyp.handsome.event.UserRegisteredEvent;
+import com.fyp.handsome.event.VideoCountChangedEvent;
+import com.fyp.handsome.mapper.UserMapper;
+import com.fyp.handsome.mapper.VideoAnalysisResultMapper;
+import com.fyp.handsome.mapper.VideoMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 大屏概览计数存储
+ * 启动后从数据库加载一次，之后由领域事件在事务提交后增量更新，读取时无锁；
+ * 定时与数据库核对，修正事件丢失或删除未发布事件带来的偏差
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class DashboardAggregateStore implements AutoCloseable {
+
+    private final VideoMapper videoMapper;
+    private final VideoAnalysisResultMapper videoAnalysisResultMapper;
+    private final UserMapper userMapper;
+    private final DashboardProperties dashboardProperties;
+
+    private final LongAdder totalVideos = new LongAdder();
+    private final LongAdder totalAnalysisResults = new LongAdder();
+    private final LongAdder totalUsers = new LongAdder();
+
+    private final ScheduledExecutorService reconciler;
+
+    public DashboardAggregateStore(VideoMapper videoMapper, VideoAnalysisResultMapper videoAnalysisResultMapper,
+                                   UserMapper userMapper, DashboardProperties dashboardProperties) {
+        this.videoMapper = videoMapper;
+        this.videoAnalysisResultMapper = videoAnalysisResultMapper;
+        this.userMapper = userMapper;
+        this.dashboardProperties = dashboardProperties;
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动后加载初始计数并开启定时核对
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+        long interval = dashboardProperties.getReconcileIntervalSeconds();
+        if (interval > 0) {
+            reconciler.scheduleWithFixedDelay(this::reconcile, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    // =================== 领域事件 ===================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoCountChanged(VideoCountChangedEvent event) {
+        totalVideos.add(event.delta());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalysisResultSaved(AnalysisResultSavedEvent event) {
+        totalAnalysisResults.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalysisResultDeleted(AnalysisResultDeletedEvent event) {
+        totalAnalysisResults.decrement();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        totalUsers.increment();
+    }
+
+    // =================== 读取 ===================
+
+    public long getTotalVideos() {
+        return totalVideos.sum();
+    }
+
+    public long getTotalAnalysisResults() {
+        return totalAnalysisResults.sum();
+    }
+
+    public long getTotalUsers() {
+        return totalUsers.sum();
+    }
+
+    // =================== 核对 ===================
+
+    /**
+     * 与数据库核对全部计数
+     */
+    public void reconcile() {
+        reconcile("totalVideos", totalVideos, () -> videoMapper.selectCount(null));
+        reconcile("totalAnalysisResults", totalAnalysisResults, () -> videoAnalysisResultMapper.selectCount(null));
+        reconcile("totalUsers", totalUsers, () -> userMapper.selectCount(null));
+    }
+
+    /**
+     * 核对单个计数：查询前后计数未变化时才修正，
+     * 查询期间有事件到达则跳过本轮，留给下一轮修正
+     */
+    private void reconcile(String name, LongAdder counter, LongSupplier dbCount) {
+        try {
+            long before = counter.sum();
+            long actual = dbCount.getAsLong();
+            long after = counter.sum();
+            if (before != after) {
+                log.debug("大屏计数核对跳过（查询期间有更新），计数：{}", name);
+                return;
+            }
+            long drift = actual - after;
+            if (drift != 0) {
+                counter.add(drift);
+                log.info("大屏计数已修正，计数：{}，偏差：{}，当前值：{}", name, drift, actual);
+            }
+        } catch (Exception e) {
+            log.error("大屏计数核对失败，计数：{}，错误：{}", name, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        reconciler.shutdownNow();
+    }
+}
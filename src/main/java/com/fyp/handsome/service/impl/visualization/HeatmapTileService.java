@@ -0,0 +1,430 @@
+package com.fyp.handsome.service.impl.visualization;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fyp.handsome.config.HeatmapProperties;
+import com.fyp.handsome.dto.visualization.HeatmapTile;
+import com.fyp.handsome.dto.visualization.LocationDayCount;
+import com.fyp.handsome.entity.MonitorPoint;
+import com.fyp.handsome.event.AnalysisResultDeletedEvent;
+import com.fyp.handsome.event.AnalysisResultSavedEvent;
+import com.fyp.handsome.event.VideoLocationCountChangedEvent;
+import com.fyp.handsome.mapper.VideoAnalysisResultMapper;
+import com.fyp.handsome.mapper.VideoMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 热力图瓦片服务
+ * 启动后按（拍摄地点, 日期）加载视频数与分析结果数，之后由领域事件增量更新；
+ * 视频没有经纬度，通过拍摄地点匹配监控点名称/地址定位到监控点坐标。
+ * 瓦片按需聚合到 gridSize × gridSize 网格并缓存，缓存键包含瓦片的数据版本，
+ * 增量更新时只递增受影响瓦片（各缩放级别下该监控点所在瓦片）的版本
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class HeatmapTileService implements AutoCloseable {
+
+    /**
+     * 图层：视频数量（按拍摄时间）
+     */
+    public static final String LAYER_VIDEO = "video";
+
+    /**
+     * 图层：分析结果数量（按分析时间）
+     */
+    public static final String LAYER_ANALYSIS = "analysis";
+
+    private static final List<String> LAYERS = List.of(LAYER_VIDEO, LAYER_ANALYSIS);
+
+    private static final int LAYER_VIDEO_INDEX = 0;
+    private static final int LAYER_ANALYSIS_INDEX = 1;
+
+    /**
+     * 瓦片像素尺寸
+     */
+    private static final int TILE_PIXELS = 256;
+
+    private final VideoMapper videoMapper;
+    private final VideoAnalysisResultMapper videoAnalysisResultMapper;
+    private final MonitorPointSpatialIndex monitorPointSpatialIndex;
+    private final HeatmapProperties properties;
+
+    private final ScheduledExecutorService rebuilder;
+    private final Cache<TileKey, HeatmapTile> tileCache;
+
+    /**
+     * 拍摄地点 -> 按天计数，全量重建时整体替换
+     */
+    private volatile Map<String, LocationSeries> series = new ConcurrentHashMap<>();
+
+    /**
+     * 全量重建次数，重建后旧瓦片缓存全部失效
+     */
+    private volatile long dataVersion;
+
+    /**
+     * 各瓦片的增量更新版本
+     */
+    private final Map<Long, Long> tileGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * 重建期间到达的增量（按图层，从该图层开始查询时记录），替换前重放到新计数上；
+     * 增量写入与替换都持有 {@link #rebuildLock}
+     */
+    private final Map<Integer, List<Delta>> pendingDeltas = new HashMap<>();
+
+    private final Object rebuildLock = new Object();
+
+    /**
+     * 瓦片缓存键
+     */
+    private record TileKey(int layer, int z, int x, int y, long fromDay, long toDay,
+                           long dataVersion, long generation, String indexVersion) {
+    }
+
+    /**
+     * 单条增量
+     */
+    private record Delta(int layer, String location, long day, long delta) {
+    }
+
+    /**
+     * 单个地点的按天计数（epochDay -> 各图层数量）
+     */
+    private static final class LocationSeries {
+
+        private final TreeMap<Long, long[]> days = new TreeMap<>();
+
+        synchronized void add(long day, int layer, long delta) {
+            days.computeIfAbsent(day, key -> new long[LAYERS.size()])[layer] += delta;
+        }
+
+        synchronized long sum(int layer, long fromDay, long toDay) {
+            long total = 0;
+            for (long[] counts : days.subMap(fromDay, true, toDay, true).values()) {
+                total += counts[layer];
+            }
+            return total;
+        }
+    }
+
+    public HeatmapTileService(VideoMapper videoMapper, VideoAnalysisResultMapper videoAnalysisResultMapper,
+                              MonitorPointSpatialIndex monitorPointSpatialIndex, HeatmapProperties properties) {
+        this.videoMapper = videoMapper;
+        this.videoAnalysisResultMapper = videoAnalysisResultMapper;
+        this.monitorPointSpatialIndex = monitorPointSpatialIndex;
+        this.properties = properties;
+        this.tileCache = Caffeine.newBuilder()
+                .maximumSize(properties.getTileCacheSize())
+                .build();
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heatmap-rebuilder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动后在后台加载按天计数并开启定时重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        long interval = properties.getRebuildIntervalMinutes();
+        if (interval > 0) {
+            rebuilder.scheduleWithFixedDelay(this::rebuild, 0, interval, TimeUnit.MINUTES);
+        } else {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    // =================== 领域事件 ===================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoLocationCountChanged(VideoLocationCountChangedEvent event) {
+        try {
+            apply(LAYER_VIDEO_INDEX, event.shootingLocation(), event.shootingDate(), event.delta());
+        } catch (Exception e) {
+            log.error("热力图增量更新失败，地点：{}，错误：{}", event.shootingLocation(), e.getMessage(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalysisResultSaved(AnalysisResultSavedEvent event) {
+        applyAnalysis(event.videoId(), event.analysisTime(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalysisResultDeleted(AnalysisResultDeletedEvent event) {
+        applyAnalysis(event.videoId(), event.analysisTime(), -1);
+    }
+
+    private void applyAnalysis(Long videoId, LocalDateTime analysisTime, long delta) {
+        if (videoId == null || analysisTime == null) {
+            return;
+        }
+        try {
+            String location = videoMapper.selectShootingLocation(videoId);
+            apply(LAYER_ANALYSIS_INDEX, location, analysisTime.toLocalDate(), delta);
+        } catch (Exception e) {
+            log.error("热力图增量更新失败，视频ID：{}，错误：{}", videoId, e.getMessage(), e);
+        }
+    }
+
+    private void apply(int layer, String location, LocalDate day, long delta) {
+        if (location == null || day == null || delta == 0) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            series.computeIfAbsent(location, key -> new LocationSeries()).add(day.toEpochDay(), layer, delta);
+            List<Delta> pending = pendingDeltas.get(layer);
+            if (pending != null) {
+                pending.add(new Delta(layer, location, day.toEpochDay(), delta));
+            }
+        }
+        MonitorPoint point = monitorPointSpatialIndex.findByLocation(location);
+        if (point == null) {
+            return;
+        }
+        double latitude = point.getLatitude().doubleValue();
+        double longitude = point.getLongitude().doubleValue();
+        for (int z = 0; z <= properties.getMaxZoom(); z++) {
+            long scale = 1L << z;
+            int x = (int) Math.min(scale - 1, (long) Math.floor(worldX(longitude, z) / TILE_PIXELS));
+            int y = (int) Math.min(scale - 1, (long) Math.floor(worldY(latitude, z) / TILE_PIXELS));
+            tileGenerations.merge(tileId(layer, z, x, y), 1L, Long::sum);
+        }
+    }
+
+    // =================== 查询 ===================
+
+    /**
+     * 获取热力图瓦片
+     * @param layer 图层（video/analysis，为空时默认video）
+     * @param z 缩放级别
+     * @param x 瓦片列号
+     * @param y 瓦片行号
+     * @param startDate 开始日期（含，可选）
+     * @param endDate 结束日期（含，可选）
+     * @return 瓦片
+     */
+    public HeatmapTile getTile(String layer, int z, int x, int y, LocalDate startDate, LocalDate endDate) {
+        int layerIndex = layerIndex(layer);
+        if (z < 0 || z > properties.getMaxZoom()) {
+            throw new IllegalArgumentException("缩放级别必须在0到" + properties.getMaxZoom() + "之间");
+        }
+        long scale = 1L << z;
+        if (x < 0 || x >= scale || y < 0 || y >= scale) {
+            throw new IllegalArgumentException("瓦片坐标超出范围");
+        }
+        long fromDay = startDate == null ? Long.MIN_VALUE : startDate.toEpochDay();
+        long toDay = endDate == null ? Long.MAX_VALUE : endDate.toEpochDay();
+        if (fromDay > toDay) {
+            throw new IllegalArgumentException("开始日期不能晚于结束日期");
+        }
+        TileKey key = new TileKey(layerIndex, z, x, y, fromDay, toDay, dataVersion,
+                tileGenerations.getOrDefault(tileId(layerIndex, z, x, y), 0L), monitorPointSpatialIndex.getVersion());
+        return tileCache.get(key, this::render);
+    }
+
+    /**
+     * 各监控点在日期范围内的数量（只包含数量大于0的监控点）
+     * @param layer 图层（video/analysis，为空时默认video）
+     * @param startDate 开始日期（含，可选）
+     * @param endDate 结束日期（含，可选）
+     * @return 监控点 -> 数量
+     */
+    public Map<MonitorPoint, Long> getPointIntensities(String layer, LocalDate startDate, LocalDate endDate) {
+        int layerIndex = layerIndex(layer);
+        long fromDay = startDate == null ? Long.MIN_VALUE : startDate.toEpochDay();
+        long toDay = endDate == null ? Long.MAX_VALUE : endDate.toEpochDay();
+        Map<String, LocationSeries> current = series;
+        Map<MonitorPoint, Long> result = new LinkedHashMap<>();
+        for (MonitorPoint point : monitorPointSpatialIndex.getAll()) {
+            long count = countAt(current, point, layerIndex, fromDay, toDay);
+            if (count > 0) {
+                result.put(point, count);
+            }
+        }
+        return result;
+    }
+
+    private HeatmapTile render(TileKey key) {
+        int z = key.z();
+        int gridSize = properties.getGridSize();
+        double minLongitude = tileLongitude(key.x(), z);
+        double maxLongitude = tileLongitude(key.x() + 1, z);
+        double maxLatitude = tileLatitude(key.y(), z);
+        double minLatitude = tileLatitude(key.y() + 1, z);
+
+        Map<String, LocationSeries> current = series;
+        long[] grid = new long[gridSize * gridSize];
+        for (MonitorPoint point : monitorPointSpatialIndex.search(minLatitude, maxLatitude, minLongitude, maxLongitude)) {
+            // 按像素坐标归属瓦片，落在瓦片边界上的点只计入一个瓦片
+            double pixelX = worldX(point.getLongitude().doubleValue(), z) - (double) key.x() * TILE_PIXELS;
+            double pixelY = worldY(point.getLatitude().doubleValue(), z) - (double) key.y() * TILE_PIXELS;
+            if (pixelX < 0 || pixelX >= TILE_PIXELS || pixelY < 0 || pixelY >= TILE_PIXELS) {
+                continue;
+            }
+            long count = countAt(current, point, key.layer(), key.fromDay(), key.toDay());
+            if (count > 0) {
+                int column = (int) (pixelX * gridSize / TILE_PIXELS);
+                int row = (int) (pixelY * gridSize / TILE_PIXELS);
+                grid[row * gridSize + column] += count;
+            }
+        }
+
+        long max = 0;
+        long total = 0;
+        long[] cells = new long[grid.length * 2];
+        int length = 0;
+        int previous = 0;
+        for (int i = 0; i < grid.length; i++) {
+            if (grid[i] > 0) {
+                cells[length++] = i - previous;
+                cells[length++] = grid[i];
+                previous = i;
+                max = Math.max(max, grid[i]);
+                total += grid[i];
+            }
+        }
+        return new HeatmapTile(z, key.x(), key.y(), gridSize, max, total, Arrays.copyOf(cells, length));
+    }
+
+    /**
+     * 监控点的数量：名称和地址分别作为拍摄地点统计，地址匹配到其他监控点时不重复计入
+     */
+    private long countAt(Map<String, LocationSeries> current, MonitorPoint point, int layer, long fromDay, long toDay) {
+        long count = countLocation(current, point, point.getPointName(), layer, fromDay, toDay);
+        if (point.getAddress() != null && !point.getAddress().equals(point.getPointName())) {
+            count += countLocation(current, point, point.getAddress(), layer, fromDay, toDay);
+        }
+        return count;
+    }
+
+    private long countLocation(Map<String, LocationSeries> current, MonitorPoint point, String location,
+                               int layer, long fromDay, long toDay) {
+        LocationSeries locationSeries = location == null ? null : current.get(location);
+        if (locationSeries == null || monitorPointSpatialIndex.findByLocation(location) != point) {
+            return 0;
+        }
+        return locationSeries.sum(layer, fromDay, toDay);
+    }
+
+    // =================== 重建 ===================
+
+    /**
+     * 从数据库全量重建按天计数
+     * 各图层开始查询后到达的增量先记录下来，查询完成后重放到新计数上再替换，重建期间的更新不会丢失
+     */
+    public void rebuild() {
+        try {
+            Map<String, LocationSeries> rebuilt = new ConcurrentHashMap<>();
+            startRecording(LAYER_VIDEO_INDEX);
+            videoMapper.selectLocationDayCounts(context -> put(rebuilt, LAYER_VIDEO_INDEX, context.getResultObject()));
+            startRecording(LAYER_ANALYSIS_INDEX);
+            videoAnalysisResultMapper.selectLocationDayCounts(
+                    context -> put(rebuilt, LAYER_ANALYSIS_INDEX, context.getResultObject()));
+
+            int replayed = 0;
+            synchronized (rebuildLock) {
+                for (List<Delta> pending : pendingDeltas.values()) {
+                    for (Delta delta : pending) {
+                        rebuilt.computeIfAbsent(delta.location(), key -> new LocationSeries())
+                                .add(delta.day(), delta.layer(), delta.delta());
+                    }
+                    replayed += pending.size();
+                }
+                pendingDeltas.clear();
+                series = rebuilt;
+                tileGenerations.clear();
+                dataVersion++;
+            }
+            log.info("热力图按天计数已重建，地点数：{}，重放增量：{}", rebuilt.size(), replayed);
+        } catch (Exception e) {
+            synchronized (rebuildLock) {
+                pendingDeltas.clear();
+            }
+            log.error("重建热力图按天计数失败，错误：{}", e.getMessage(), e);
+        }
+    }
+
+    private void startRecording(int layer) {
+        synchronized (rebuildLock) {
+            pendingDeltas.put(layer, new ArrayList<>());
+        }
+    }
+
+    private static void put(Map<String, LocationSeries> target, int layer, LocationDayCount row) {
+        if (row.location() != null && row.day() != null) {
+            target.computeIfAbsent(row.location(), key -> new LocationSeries())
+                    .add(row.day().toEpochDay(), layer, row.count());
+        }
+    }
+
+    // =================== 瓦片坐标 ===================
+
+    private static int layerIndex(String layer) {
+        if (layer == null || layer.isEmpty()) {
+            return LAYER_VIDEO_INDEX;
+        }
+        int index = LAYERS.indexOf(layer);
+        if (index < 0) {
+            throw new IllegalArgumentException("不支持的图层：" + layer);
+        }
+        return index;
+    }
+
+    private static long tileId(int layer, int z, int x, int y) {
+        return ((long) layer << 62) | ((long) z << 56) | ((long) x << 28) | y;
+    }
+
+    /**
+     * 经度对应的全局像素横坐标（Web墨卡托）
+     */
+    private static double worldX(double longitude, int z) {
+        return (longitude + 180) / 360 * TILE_PIXELS * (1L << z);
+    }
+
+    /**
+     * 纬度对应的全局像素纵坐标（Web墨卡托）
+     */
+    private static double worldY(double latitude, int z) {
+        double sin = Math.sin(Math.toRadians(Math.max(-85.05112878, Math.min(85.05112878, latitude))));
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return y * TILE_PIXELS * (1L << z);
+    }
+
+    private static double tileLongitude(int x, int z) {
+        return (double) x / (1L << z) * 360 - 180;
+    }
+
+    private static double tileLatitude(int y, int z) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2.0 * y / (1L << z)))));
+    }
+
+    @Override
+    public void close() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -0,0 +1,208 @@
+package com.fyp.handsome.service.impl.visualization;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fyp.handsome.config.MonitorPointProperties;
+import com.fyp.handsome.entity.MonitorPoint;
+import com.fyp.handsome.mapper.MonitorPointMapper;
+import com.fyp.handsome.util.PackedRTree;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 监控点空间索引
+ * 启动后从 monitor_point 加载全部点位构建内存R树，定时比对表版本（记录数 + 最后更新时间），
+ * 变化时整体重建并替换快照；查询只读当前快照，无锁
+ * @author ziye
+ */
+@Slf4j
+@Component
+public class MonitorPointSpatialIndex implements AutoCloseable {
+
+    private final MonitorPointMapper monitorPointMapper;
+    private final MonitorPointProperties properties;
+
+    private final ScheduledExecutorService refresher;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * 索引快照（构建后不再修改）
+     * @param version 构建时的表版本
+     * @param tree 点位R树
+     * @param points 全部点位
+     * @param statusCounts 各状态点位数量
+     * @param byLocation 名称/地址到点位的映射（用于按拍摄地点定位视频）
+     */
+    private record Snapshot(String version, PackedRTree<MonitorPoint> tree, List<MonitorPoint> points,
+                            Map<Integer, Long> statusCounts, Map<String, MonitorPoint> byLocation) {
+
+        static final Snapshot EMPTY = new Snapshot(null,
+                PackedRTree.build(List.of(), MonitorPointSpatialIndex::latitude, MonitorPointSpatialIndex::longitude),
+                List.of(), Map.of(), Map.of());
+    }
+
+    public MonitorPointSpatialIndex(MonitorPointMapper monitorPointMapper, MonitorPointProperties properties) {
+        this.monitorPointMapper = monitorPointMapper;
+        this.properties = properties;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "monitor-point-index-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动后加载索引并开启定时刷新
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        refresh();
+        long interval = properties.getRefreshIntervalSeconds();
+        if (interval > 0) {
+            refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 表版本变化时重建索引
+     */
+    public synchronized void refresh() {
+        try {
+            String version = monitorPointMapper.selectVersion();
+            if (Objects.equals(version, snapshot.version())) {
+                return;
+            }
+            List<MonitorPoint> points = monitorPointMapper.selectAllForIndex().stream()
+                    .filter(point -> point.getLatitude() != null && point.getLongitude() != null)
+                    .toList();
+            PackedRTree<MonitorPoint> tree = PackedRTree.build(points,
+                    MonitorPointSpatialIndex::latitude, MonitorPointSpatialIndex::longitude);
+            Map<Integer, Long> statusCounts = points.stream()
+                    .filter(point -> point.getStatus() != null)
+                    .collect(Collectors.groupingBy(MonitorPoint::getStatus, Collectors.counting()));
+            // 名称优先于地址，重名时取ID较小的点位
+            List<MonitorPoint> sortedById = points.stream().sorted(Comparator.comparing(MonitorPoint::getId)).toList();
+            Map<String, MonitorPoint> byLocation = new HashMap<>();
+            sortedById.forEach(point -> putLocation(byLocation, point.getPointName(), point));
+            sortedById.forEach(point -> putLocation(byLocation, point.getAddress(), point));
+            snapshot = new Snapshot(version, tree, points, statusCounts, byLocation);
+            log.info("监控点空间索引已重建，点位数：{}，版本：{}", points.size(), version);
+        } catch (Exception e) {
+            log.error("重建监控点空间索引失败，错误：{}", e.getMessage(), e);
+        }
+    }
+
+    // =================== 查询 ===================
+
+    /**
+     * 全部监控点
+     */
+    public List<MonitorPoint> getAll() {
+        return snapshot.points();
+    }
+
+    /**
+     * 当前索引版本（索引重建后变化）
+     */
+    public String getVersion() {
+        return snapshot.version();
+    }
+
+    /**
+     * 按拍摄地点查找监控点（匹配监控点名称或详细地址）
+     * @param location 拍摄地点
+     * @return 监控点，未匹配时返回null
+     */
+    public MonitorPoint findByLocation(String location) {
+        return location == null ? null : snapshot.byLocation().get(location);
+    }
+
+    /**
+     * 指定状态的监控点数量
+     * @param status 状态
+     */
+    public long countByStatus(int status) {
+        return snapshot.statusCounts().getOrDefault(status, 0L);
+    }
+
+    /**
+     * 矩形范围查询（minLongitude 大于 maxLongitude 时视为跨越180度经线）
+     */
+    public List<MonitorPoint> search(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        PackedRTree<MonitorPoint> tree = snapshot.tree();
+        List<MonitorPoint> result = new ArrayList<>();
+        for (PackedRTree.Box box : toBoxes(minLatitude, maxLatitude, minLongitude, maxLongitude)) {
+            result.addAll(tree.search(box));
+        }
+        return result;
+    }
+
+    /**
+     * 最近邻查询
+     * @param latitude 中心点纬度
+     * @param longitude 中心点经度
+     * @param limit 返回条数
+     * @param area 限定范围 [minLatitude, maxLatitude, minLongitude, maxLongitude]（可选）
+     * @return 由近到远的监控点及距离
+     */
+    public List<PackedRTree.Neighbor<MonitorPoint>> nearest(double latitude, double longitude, int limit,
+                                                           double[] area) {
+        PackedRTree<MonitorPoint> tree = snapshot.tree();
+        if (area == null) {
+            return tree.nearest(latitude, longitude, limit, null);
+        }
+        List<PackedRTree.Box> boxes = toBoxes(area[0], area[1], area[2], area[3]);
+        if (boxes.size() == 1) {
+            return tree.nearest(latitude, longitude, limit, boxes.get(0));
+        }
+        // 跨越180度经线时两侧分别查询后合并
+        List<PackedRTree.Neighbor<MonitorPoint>> merged = new ArrayList<>();
+        for (PackedRTree.Box box : boxes) {
+            merged.addAll(tree.nearest(latitude, longitude, limit, box));
+        }
+        merged.sort(Comparator.comparingDouble(PackedRTree.Neighbor<MonitorPoint>::distanceMeters));
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    private static void putLocation(Map<String, MonitorPoint> byLocation, String location, MonitorPoint point) {
+        if (location != null && !location.isEmpty()) {
+            byLocation.putIfAbsent(location, point);
+        }
+    }
+
+    private static List<PackedRTree.Box> toBoxes(double minLatitude, double maxLatitude,
+                                                 double minLongitude, double maxLongitude) {
+        if (minLongitude <= maxLongitude) {
+            return List.of(new PackedRTree.Box(minLatitude, maxLatitude, minLongitude, maxLongitude));
+        }
+        return List.of(new PackedRTree.Box(minLatitude, maxLatitude, minLongitude, 180),
+                new PackedRTree.Box(minLatitude, maxLatitude, -180, maxLongitude));
+    }
+
+    private static double latitude(MonitorPoint point) {
+        return point.getLatitude().doubleValue();
+    }
+
+    private static double longitude(MonitorPoint point) {
+        return point.getLongitude().doubleValue();
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+}
@@ -1,13 +1,29 @@
 package com.fyp.handsome.service.impl.visualization;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.stereotype.Service;
-
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fyp.handsome.config.MonitorPointProperties;
+import com.fyp.handsome.dto.analysis.AnalysisBucketCount;
+import com.fyp.handsome.dto.analysis.AnalysisTypeCount;
+import com.fyp.handsome.dto.video.VideoBucketCount;
+import com.fyp.handsome.dto.visualization.AlertMessage;
+import com.fyp.handsome.dto.visualization.HeatmapTile;
+import com.fyp.handsome.entity.MonitorPoint;
 import com.fyp.handsome.service.VisualizationService;
+import com.fyp.handsome.service.impl.analysis.AnalysisRollupService;
+import com.fyp.handsome.service.impl.video.VideoStatCounterService;
+import com.fyp.handsome.util.PackedRTree;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +37,14 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class VisualizationServiceImpl implements VisualizationService {
 
+    private final DashboardAggregateStore dashboardAggregateStore;
+    private final AnalysisRollupService analysisRollupService;
+    private final MonitorPointSpatialIndex monitorPointSpatialIndex;
+    private final MonitorPointProperties monitorPointProperties;
+    private final HeatmapTileService heatmapTileService;
+    private final AlertBus alertBus;
+    private final VideoStatCounterService videoStatCounterService;
+
     // =================== 地图展示 ===================
 
     @Override
@@ -28,17 +52,14 @@ public class VisualizationServiceImpl implements VisualizationService {
         try {
             log.info("获取监控点地图数据");
             
+            List<MonitorPoint> monitorPoints = monitorPointSpatialIndex.getAll();
             Map<String, Object> mapData = new HashMap<>();
-            mapData.put("totalPoints", 10);
-            mapData.put("onlinePoints", 8);
-            mapData.put("offlinePoints", 2);
-            
-            // 模拟监控点数据
-            List<Map<String, Object>> points = List.of(
-                createMonitorPoint(1L, "监控点1", 39.9042, 116.4074, 1),
-                createMonitorPoint(2L, "监控点2", 39.9100, 116.4200, 1),
-                createMonitorPoint(3L, "监控点3", 39.8900, 116.3900, 0)
-            );
+            mapData.put("totalPoints", monitorPoints.size());
+            mapData.put("onlinePoints", monitorPointSpatialIndex.countByStatus(MonitorPoint.STATUS_ONLINE));
+            mapData.put("offlinePoints", monitorPointSpatialIndex.countByStatus(MonitorPoint.STATUS_OFFLINE));
+            
+            List<Map<String, Object>> points = new ArrayList<>(monitorPoints.size());
+            monitorPoints.forEach(point -> points.add(createMonitorPoint(point)));
             
             mapData.put("points", points);
             return mapData;
@@ -51,16 +72,39 @@ public class VisualizationServiceImpl implements VisualizationService {
 
     @Override
     public List<Map<String, Object>> getMonitorPointsByArea(Double minLatitude, Double maxLatitude, 
-                                                             Double minLongitude, Double maxLongitude) {
+                                                             Double minLongitude, Double maxLongitude,
+                                                             Double latitude, Double longitude, Integer limit) {
+        // 参数错误直接抛出，由控制器返回错误信息
+        double[] area = validateArea(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        boolean nearest = latitude != null || longitude != null;
+        if (nearest) {
+            validateCoordinate(latitude, longitude);
+        } else if (area == null) {
+            throw new IllegalArgumentException("需提供区域范围或中心点");
+        }
+        int nearestLimit = limit != null ? limit : monitorPointProperties.getDefaultNearestLimit();
+        if (nearest && (nearestLimit < 1 || nearestLimit > monitorPointProperties.getMaxNearestLimit())) {
+            throw new IllegalArgumentException("返回条数必须在1到" + monitorPointProperties.getMaxNearestLimit() + "之间");
+        }
+        
         try {
-            log.info("获取指定区域监控点，区域：[{},{},{},{}]", 
-                    minLatitude, maxLatitude, minLongitude, maxLongitude);
-            
-            // TODO: 实现区域查询逻辑
-            return List.of(
-                createMonitorPoint(1L, "区域监控点1", 39.9042, 116.4074, 1),
-                createMonitorPoint(2L, "区域监控点2", 39.9100, 116.4200, 1)
-            );
+            log.debug("获取指定区域监控点，区域：[{},{},{},{}]，中心点：[{},{}]", 
+                    minLatitude, maxLatitude, minLongitude, maxLongitude, latitude, longitude);
+            
+            List<Map<String, Object>> points = new ArrayList<>();
+            if (nearest) {
+                // 最近邻查询，附带距离（米）
+                for (PackedRTree.Neighbor<MonitorPoint> neighbor
+                        : monitorPointSpatialIndex.nearest(latitude, longitude, nearestLimit, area)) {
+                    Map<String, Object> point = createMonitorPoint(neighbor.item());
+                    point.put("distance", Math.round(neighbor.distanceMeters() * 10) / 10.0);
+                    points.add(point);
+                }
+            } else {
+                monitorPointSpatialIndex.search(area[0], area[1], area[2], area[3])
+                        .forEach(point -> points.add(createMonitorPoint(point)));
+            }
+            return points;
             
         } catch (Exception e) {
             log.error("获取指定区域监控点失败，错误：{}", e.getMessage(), e);
@@ -73,12 +117,14 @@ public class VisualizationServiceImpl implements VisualizationService {
         try {
             log.info("获取监控点状态统计");
             
+            long total = monitorPointSpatialIndex.getAll().size();
+            long online = monitorPointSpatialIndex.countByStatus(MonitorPoint.STATUS_ONLINE);
             Map<String, Object> statistics = new HashMap<>();
-            statistics.put("total", 10);
-            statistics.put("online", 8);
-            statistics.put("offline", 2);
-            statistics.put("maintenance", 0);
-            statistics.put("onlineRate", 0.8);
+            statistics.put("total", total);
+            statistics.put("online", online);
+            statistics.put("offline", monitorPointSpatialIndex.countByStatus(MonitorPoint.STATUS_OFFLINE));
+            statistics.put("maintenance", monitorPointSpatialIndex.countByStatus(MonitorPoint.STATUS_MAINTENANCE));
+            statistics.put("onlineRate", total == 0 ? 0.0 : (double) online / total);
             
             return statistics;
             
@@ -97,12 +143,11 @@ public class VisualizationServiceImpl implements VisualizationService {
             heatmapData.put("startTime", startTime);
             heatmapData.put("endTime", endTime);
             
-            // 模拟热力图数据点
-            List<Map<String, Object>> dataPoints = List.of(
-                createHeatmapPoint(39.9042, 116.4074, 100),
-                createHeatmapPoint(39.9100, 116.4200, 80),
-                createHeatmapPoint(39.8900, 116.3900, 60)
-            );
+            // 按监控点汇总拍摄时间在范围内的视频数量
+            Map<MonitorPoint, Long> intensities = heatmapTileService.getPointIntensities(HeatmapTileService.LAYER_VIDEO,
+                    startTime != null ? startTime.toLocalDate() : null, endTime != null ? endTime.toLocalDate() : null);
+            List<Map<String, Object>> dataPoints = new ArrayList<>(intensities.size());
+            intensities.forEach((point, count) -> dataPoints.add(createHeatmapPoint(point, count)));
             
             heatmapData.put("dataPoints", dataPoints);
             return heatmapData;
@@ -113,6 +158,12 @@ public class VisualizationServiceImpl implements VisualizationService {
         }
     }
 
+    @Override
+    public HeatmapTile getHeatmapTile(String layer, int z, int x, int y, LocalDate startDate, LocalDate endDate) {
+        log.debug("获取热力图瓦片，图层：{}，瓦片：{}/{}/{}，日期范围：{} - {}", layer, z, x, y, startDate, endDate);
+        return heatmapTileService.getTile(layer, z, x, y, startDate, endDate);
+    }
+
     @Override
     public Map<String, Object> getEventDistributionMapData(String eventType, LocalDateTime startTime, LocalDateTime endTime) {
         try {
@@ -300,13 +351,11 @@ public class VisualizationServiceImpl implements VisualizationService {
     @Override
     public List<Map<String, Object>> getRealTimeAlerts(Integer limit) {
         try {
-            log.info("获取实时事件告警，limit：{}", limit);
+            log.debug("获取实时事件告警，limit：{}", limit);
             
-            return List.of(
-                createAlert(1L, "异常行为检测", "high", LocalDateTime.now().minusMinutes(5)),
-                createAlert(2L, "人员聚集", "medium", LocalDateTime.now().minusMinutes(10)),
-                createAlert(3L, "车辆违规", "low", LocalDateTime.now().minusMinutes(15))
-            );
+            List<Map<String, Object>> alerts = new ArrayList<>();
+            alertBus.getRecent(limit != null ? limit : 10).forEach(alert -> alerts.add(createAlert(alert)));
+            return alerts;
             
         } catch (Exception e) {
             log.error("获取实时事件告警失败，limit：{}，错误：{}", limit, e.getMessage(), e);
@@ -314,19 +363,24 @@ public class VisualizationServiceImpl implements VisualizationService {
         }
     }
 
+    @Override
+    public SseEmitter subscribeRealTimeAlerts(Long lastSequence) {
+        return alertBus.subscribe(lastSequence);
+    }
+
     // =================== 仪表板数据 ===================
 
     @Override
     public Map<String, Object> getDashboardOverview() {
         try {
-            log.info("获取仪表板概览数据");
+            log.debug("获取仪表板概览数据");
             
             Map<String, Object> overview = new HashMap<>();
-            overview.put("totalVideos", 1000);
-            overview.put("totalAnalysisResults", 850);
-            overview.put("totalUsers", 50);
-            overview.put("onlineMonitorPoints", 8);
-            overview.put("todayAlerts", 15);
+            overview.put("totalVideos", dashboardAggregateStore.getTotalVideos());
+            overview.put("totalAnalysisResults", dashboardAggregateStore.getTotalAnalysisResults());
+            overview.put("totalUsers", dashboardAggregateStore.getTotalUsers());
+            overview.put("onlineMonitorPoints", monitorPointSpatialIndex.countByStatus(MonitorPoint.STATUS_ONLINE));
+            overview.put("todayAlerts", alertBus.getTodayCount());
             
             return overview;
             
@@ -345,16 +399,15 @@ public class VisualizationServiceImpl implements VisualizationService {
             chartData.put("chartType", chartType);
             chartData.put("timeRange", timeRange);
             
-            // 模拟图表数据
-            List<Map<String, Object>> data = List.of(
-                createChartDataPoint("周一", 100),
-                createChartDataPoint("周二", 120),
-                createChartDataPoint("周三", 110),
-                createChartDataPoint("周四", 135),
-                createChartDataPoint("周五", 125)
-            );
+            // 按时间桶统计新增视频数量（按创建时间）：单日按小时，其余按天
+            ChartTimeRange range = resolveTimeRange(timeRange);
+            Map<LocalDateTime, Long> countByBucket = new HashMap<>();
+            for (VideoBucketCount bucket : videoStatCounterService.getCreatedCounts(
+                    range.start(), range.end(), range.hourly())) {
+                countByBucket.put(bucket.bucketTime(), bucket.count());
+            }
             
-            chartData.put("data", data);
+            chartData.put("data", createTimeSeries(range, countByBucket));
             return chartData;
             
         } catch (Exception e) {
@@ -373,14 +426,25 @@ public class VisualizationServiceImpl implements VisualizationService {
             chartData.put("chartType", chartType);
             chartData.put("timeRange", timeRange);
             
-            // 模拟分析统计数据
-            List<Map<String, Object>> data = List.of(
-                createChartDataPoint("人脸识别", 300),
-                createChartDataPoint("行为分析", 250),
-                createChartDataPoint("事件检测", 300)
-            );
+            // 按分析类型读取汇总
+            ChartTimeRange range = resolveTimeRange(timeRange);
+            List<Map<String, Object>> data = new ArrayList<>();
+            for (AnalysisTypeCount typeCount : analysisRollupService.getTypeCounts(range.start(), range.end())) {
+                Map<String, Object> dataPoint = createChartDataPoint(typeCount.analysisType(), typeCount.count());
+                dataPoint.put("averageConfidence", typeCount.averageConfidence());
+                data.add(dataPoint);
+            }
+            
+            // 按时间桶读取分析汇总：单日按小时，其余按天
+            List<AnalysisBucketCount> buckets = range.hourly()
+                    ? analysisRollupService.getHourlyCounts(range.start(), range.end())
+                    : analysisRollupService.getDailyCounts(range.start(), range.end());
+            Map<LocalDateTime, Long> countByBucket = new HashMap<>();
+            buckets.forEach(bucket -> countByBucket.put(bucket.bucketTime(), bucket.count()));
             
             chartData.put("data", data);
+            chartData.put("trend", createTimeSeries(range, countByBucket));
+            chartData.put("complete", analysisRollupService.isBackfillFinished());
             return chartData;
             
         } catch (Exception e) {
@@ -566,20 +630,54 @@ public class VisualizationServiceImpl implements VisualizationService {
 
     // =================== 私有辅助方法 ===================
 
-    private Map<String, Object> createMonitorPoint(Long id, String name, Double lat, Double lng, Integer status) {
+    private Map<String, Object> createMonitorPoint(MonitorPoint monitorPoint) {
         Map<String, Object> point = new HashMap<>();
-        point.put("id", id);
-        point.put("name", name);
-        point.put("latitude", lat);
-        point.put("longitude", lng);
-        point.put("status", status);
+        point.put("id", monitorPoint.getId());
+        point.put("name", monitorPoint.getPointName());
+        point.put("code", monitorPoint.getPointCode());
+        point.put("latitude", monitorPoint.getLatitude());
+        point.put("longitude", monitorPoint.getLongitude());
+        point.put("address", monitorPoint.getAddress());
+        point.put("status", monitorPoint.getStatus());
         return point;
     }
 
-    private Map<String, Object> createHeatmapPoint(Double lat, Double lng, Integer intensity) {
+    /**
+     * 校验区域范围参数
+     * @return [minLatitude, maxLatitude, minLongitude, maxLongitude]，未提供区域时返回null
+     */
+    private double[] validateArea(Double minLatitude, Double maxLatitude, Double minLongitude, Double maxLongitude) {
+        if (minLatitude == null && maxLatitude == null && minLongitude == null && maxLongitude == null) {
+            return null;
+        }
+        if (minLatitude == null || maxLatitude == null || minLongitude == null || maxLongitude == null) {
+            throw new IllegalArgumentException("区域范围的四个参数需同时提供");
+        }
+        validateCoordinate(minLatitude, minLongitude);
+        validateCoordinate(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude) {
+            throw new IllegalArgumentException("最小纬度不能大于最大纬度");
+        }
+        return new double[] {minLatitude, maxLatitude, minLongitude, maxLongitude};
+    }
+
+    /**
+     * 校验经纬度
+     */
+    private void validateCoordinate(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("中心点经纬度需同时提供");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("经纬度超出范围：纬度[-90,90]，经度[-180,180]");
+        }
+    }
+
+    private Map<String, Object> createHeatmapPoint(MonitorPoint monitorPoint, long intensity) {
         Map<String, Object> point = new HashMap<>();
-        point.put("latitude", lat);
-        point.put("longitude", lng);
+        point.put("pointId", monitorPoint.getId());
+        point.put("latitude", monitorPoint.getLatitude());
+        point.put("longitude", monitorPoint.getLongitude());
         point.put("intensity", intensity);
         return point;
     }
@@ -610,19 +708,65 @@ public class VisualizationServiceImpl implements VisualizationService {
         return video;
     }
 
-    private Map<String, Object> createAlert(Long id, String message, String level, LocalDateTime time) {
+    private Map<String, Object> createAlert(AlertMessage message) {
         Map<String, Object> alert = new HashMap<>();
-        alert.put("id", id);
-        alert.put("message", message);
-        alert.put("level", level);
-        alert.put("time", time);
+        alert.put("id", message.sequence());
+        alert.put("resultId", message.resultId());
+        alert.put("videoId", message.videoId());
+        alert.put("videoName", message.videoName());
+        alert.put("shootingLocation", message.shootingLocation());
+        alert.put("analysisType", message.analysisType());
+        alert.put("level", message.level());
+        alert.put("confidenceScore", message.confidenceScore());
+        alert.put("time", message.time());
         return alert;
     }
 
-    private Map<String, Object> createChartDataPoint(String label, Integer value) {
+    private Map<String, Object> createChartDataPoint(String label, Number value) {
         Map<String, Object> dataPoint = new HashMap<>();
         dataPoint.put("label", label);
         dataPoint.put("value", value);
         return dataPoint;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 按时间范围逐桶生成图表数据点（没有数据的桶计为0）
+     * @param range 图表时间范围
+     * @param countByBucket 时间桶起始时间 -> 数量
+     * @return 数据点列表（单日标签为"HH:00"，其余为"MM-dd"）
+     */
+    private List<Map<String, Object>> createTimeSeries(ChartTimeRange range, Map<LocalDateTime, Long> countByBucket) {
+        ChronoUnit unit = range.hourly() ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(range.hourly() ? "HH:00" : "MM-dd");
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (LocalDateTime bucket = range.start(); bucket.isBefore(range.end()); bucket = bucket.plus(1, unit)) {
+            data.add(createChartDataPoint(bucket.format(formatter), countByBucket.getOrDefault(bucket, 0L)));
+        }
+        return data;
+    }
+
+    /**
+     * 解析图表时间范围：today、yesterday为单日（按小时），
+     * this_week、last_week、this_month、last_month及其他取值按天（默认最近7天）
+     */
+    private ChartTimeRange resolveTimeRange(String timeRange) {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        LocalDateTime thisWeek = today.with(DayOfWeek.MONDAY);
+        LocalDateTime thisMonth = today.withDayOfMonth(1);
+        return switch (timeRange == null ? "" : timeRange) {
+            case "today" -> new ChartTimeRange(today, today.plusDays(1), true);
+            case "yesterday" -> new ChartTimeRange(today.minusDays(1), today, true);
+            case "this_week" -> new ChartTimeRange(thisWeek, thisWeek.plusWeeks(1), false);
+            case "last_week" -> new ChartTimeRange(thisWeek.minusWeeks(1), thisWeek, false);
+            case "this_month" -> new ChartTimeRange(thisMonth, thisMonth.plusMonths(1), false);
+            case "last_month" -> new ChartTimeRange(thisMonth.minusMonths(1), thisMonth, false);
+            default -> new ChartTimeRange(today.minusDays(6), today.plusDays(1), false);
+        };
+    }
+
+    /**
+     * 图表时间范围（左闭右开，按桶对齐）
+     */
+    private record ChartTimeRange(LocalDateTime start, LocalDateTime end, boolean hourly) {
+    }
+}
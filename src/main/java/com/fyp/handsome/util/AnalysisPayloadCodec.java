@@ -0,0 +1,319 @@
+package com.fyp.handsome.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fyp.handsome.dto.analysis.AnalysisPayload;
+
+/**
+ * 分析结果二进制编解码
+ * 格式（版本1）：
+ * <pre>
+ * 魔数(1) 版本(1) 标志位(varint)
+ * [摘要：长度(varint) + UTF-8] [整体置信度：万分位(varint)]
+ * 检测数(varint) 类别字典：类别数(varint) + 各类别字符串
+ * 检测区长度(varint) 检测区：每条为 类别序号(varint) 数量(varint) 偏移毫秒差值(zigzag varint)
+ *                            置信度万分位+1(varint，0表示为空) 目标框标志(1) [x y 宽 高(各4字节)]
+ * [其余字段：长度(varint) + UTF-8 JSON]
+ * </pre>
+ * 检测区带长度前缀，只读取摘要、数量等字段时可以整体跳过，见 {@link #open(byte[])}
+ * @author ziye
+ */
+public final class AnalysisPayloadCodec {
+
+    /**
+     * 当前格式版本
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0xA7;
+
+    private static final int FLAG_SUMMARY = 1;
+    private static final int FLAG_CONFIDENCE = 1 << 1;
+    private static final int FLAG_EXTRA = 1 << 2;
+
+    /**
+     * 置信度量化精度（与表字段 DECIMAL(5,4) 一致）
+     */
+    private static final double CONFIDENCE_SCALE = 10_000;
+
+    private AnalysisPayloadCodec() {
+    }
+
+    // =================== 编码 ===================
+
+    /**
+     * 编码
+     * @param payload 分析结果
+     * @return 二进制数据
+     */
+    public static byte[] encode(AnalysisPayload payload) {
+        List<AnalysisPayload.Detection> detections = payload.detections() != null ? payload.detections() : List.of();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + detections.size() * 8);
+        out.write(MAGIC);
+        out.write(FORMAT_VERSION);
+        int flags = (payload.summary() != null ? FLAG_SUMMARY : 0)
+                | (payload.confidence() != null ? FLAG_CONFIDENCE : 0)
+                | (payload.extra() != null ? FLAG_EXTRA : 0);
+        writeVarint(out, flags);
+        if (payload.summary() != null) {
+            writeString(out, payload.summary());
+        }
+        if (payload.confidence() != null) {
+            writeVarint(out, quantize(payload.confidence()));
+        }
+
+        // 类别字典
+        Map<String, Integer> classIndex = new HashMap<>();
+        List<String> classes = new ArrayList<>();
+        for (AnalysisPayload.Detection detection : detections) {
+            classIndex.computeIfAbsent(detection.objectClass(), key -> {
+                classes.add(key);
+                return classes.size() - 1;
+            });
+        }
+        writeVarint(out, detections.size());
+        writeVarint(out, classes.size());
+        for (String objectClass : classes) {
+            writeString(out, objectClass);
+        }
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream(detections.size() * 8);
+        long previousOffset = 0;
+        for (AnalysisPayload.Detection detection : detections) {
+            writeVarint(block, classIndex.get(detection.objectClass()));
+            writeVarint(block, Math.max(0, detection.count()));
+            writeVarint(block, zigzag(detection.offsetMillis() - previousOffset));
+            previousOffset = detection.offsetMillis();
+            writeVarint(block, detection.confidence() != null ? quantize(detection.confidence()) + 1 : 0);
+            AnalysisPayload.BoundingBox box = detection.box();
+            block.write(box != null ? 1 : 0);
+            if (box != null) {
+                writeFloat(block, box.x());
+                writeFloat(block, box.y());
+                writeFloat(block, box.width());
+                writeFloat(block, box.height());
+            }
+        }
+        writeVarint(out, block.size());
+        out.writeBytes(block.toByteArray());
+
+        if (payload.extra() != null) {
+            writeString(out, payload.extra());
+        }
+        return out.toByteArray();
+    }
+
+    // =================== 解码 ===================
+
+    /**
+     * 完整解码
+     * @param data 二进制数据
+     * @return 分析结果
+     */
+    public static AnalysisPayload decode(byte[] data) {
+        LazyPayload lazy = open(data);
+        return new AnalysisPayload(lazy.summary(), lazy.confidence(), lazy.detections(), lazy.extra());
+    }
+
+    /**
+     * 按需解码：打开时只读取摘要、置信度、检测数和其余字段，检测明细在首次访问时才解码
+     * @param data 二进制数据
+     * @return 按需解码的分析结果
+     */
+    public static LazyPayload open(byte[] data) {
+        Reader reader = new Reader(data);
+        if (reader.readByte() != MAGIC) {
+            throw new IllegalArgumentException("不是有效的分析结果二进制数据");
+        }
+        int version = reader.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的分析结果格式版本：" + version);
+        }
+        int flags = (int) reader.readVarint();
+        String summary = (flags & FLAG_SUMMARY) != 0 ? reader.readString() : null;
+        Double confidence = (flags & FLAG_CONFIDENCE) != 0 ? dequantize(reader.readVarint()) : null;
+        int detectionCount = (int) reader.readVarint();
+        int classCount = (int) reader.readVarint();
+        List<String> classes = new ArrayList<>(classCount);
+        for (int i = 0; i < classCount; i++) {
+            classes.add(reader.readString());
+        }
+        int blockLength = (int) reader.readVarint();
+        int blockStart = reader.position;
+        reader.skip(blockLength);
+        String extra = (flags & FLAG_EXTRA) != 0 ? reader.readString() : null;
+        return new LazyPayload(data, summary, confidence, detectionCount, classes, blockStart, extra);
+    }
+
+    /**
+     * 按需解码的分析结果
+     */
+    public static final class LazyPayload {
+
+        private final byte[] data;
+        private final String summary;
+        private final Double confidence;
+        private final int detectionCount;
+        private final List<String> classes;
+        private final int blockStart;
+        private final String extra;
+
+        private List<AnalysisPayload.Detection> detections;
+
+        private LazyPayload(byte[] data, String summary, Double confidence, int detectionCount,
+                            List<String> classes, int blockStart, String extra) {
+            this.data = data;
+            this.summary = summary;
+            this.confidence = confidence;
+            this.detectionCount = detectionCount;
+            this.classes = classes;
+            this.blockStart = blockStart;
+            this.extra = extra;
+        }
+
+        public String summary() {
+            return summary;
+        }
+
+        public Double confidence() {
+            return confidence;
+        }
+
+        public int detectionCount() {
+            return detectionCount;
+        }
+
+        /**
+         * 出现过的目标类别
+         */
+        public List<String> objectClasses() {
+            return classes;
+        }
+
+        public String extra() {
+            return extra;
+        }
+
+        /**
+         * 检测明细（首次访问时解码）
+         */
+        public List<AnalysisPayload.Detection> detections() {
+            if (detections == null) {
+                Reader reader = new Reader(data);
+                reader.position = blockStart;
+                List<AnalysisPayload.Detection> decoded = new ArrayList<>(detectionCount);
+                long offset = 0;
+                for (int i = 0; i < detectionCount; i++) {
+                    String objectClass = classes.get((int) reader.readVarint());
+                    int count = (int) reader.readVarint();
+                    offset += unzigzag(reader.readVarint());
+                    long quantized = reader.readVarint();
+                    Double detectionConfidence = quantized == 0 ? null : dequantize(quantized - 1);
+                    AnalysisPayload.BoundingBox box = reader.readByte() == 1
+                            ? new AnalysisPayload.BoundingBox(reader.readFloat(), reader.readFloat(),
+                                    reader.readFloat(), reader.readFloat())
+                            : null;
+                    decoded.add(new AnalysisPayload.Detection(objectClass, count, offset, detectionConfidence, box));
+                }
+                detections = List.copyOf(decoded);
+            }
+            return detections;
+        }
+    }
+
+    // =================== 基础读写 ===================
+
+    private static long quantize(double value) {
+        return Math.max(0, Math.round(value * CONFIDENCE_SCALE));
+    }
+
+    private static double dequantize(long value) {
+        return value / CONFIDENCE_SCALE;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void writeFloat(ByteArrayOutputStream out, float value) {
+        int bits = Float.floatToIntBits(value);
+        out.write(bits >>> 24);
+        out.write(bits >>> 16);
+        out.write(bits >>> 8);
+        out.write(bits);
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("分析结果二进制数据不完整");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("分析结果二进制数据损坏");
+        }
+
+        String readString() {
+            int length = (int) readVarint();
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalArgumentException("分析结果二进制数据不完整");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        float readFloat() {
+            int bits = (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+            return Float.intBitsToFloat(bits);
+        }
+
+        void skip(int length) {
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalArgumentException("分析结果二进制数据不完整");
+            }
+            position += length;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.util.StringUtils;
+
 import com.fyp.handsome.dto.video.VideoInfoCreateRequest;
 import com.fyp.handsome.dto.video.VideoInfoResponse;
 import com.fyp.handsome.dto.video.VideoInfoUpdateRequest;
@@ -16,6 +18,11 @@ import com.fyp.handsome.entity.Video;
  */
 public class BeanCopyUtils {
 
+    /**
+     * 缩略图地址中内容版本的长度（取内容摘要前缀）
+     */
+    private static final int THUMBNAIL_VERSION_LENGTH = 16;
+
     /**
      * 将创建请求DTO转换为Video实体
      * @param request 创建请求DTO
@@ -57,12 +64,32 @@ public class BeanCopyUtils {
         response.setFilePath(video.getFilePath());
         response.setFileSize(video.getFileSize());
         response.setDuration(video.getDuration());
+        response.setWidth(video.getWidth());
+        response.setHeight(video.getHeight());
+        response.setVideoCodec(video.getVideoCodec());
+        response.setBitRate(video.getBitRate());
+        if (StringUtils.hasText(video.getThumbnailKey())) {
+            // 地址带内容版本，图片变化时地址随之变化，浏览器可长期缓存
+            String thumbnailUrl = "/api/v1/videos/" + video.getId() + "/thumbnail?v="
+                    + thumbnailVersion(video.getThumbnailKey());
+            response.setThumbnailUrl(thumbnailUrl);
+            response.setKeyframeStripUrl(thumbnailUrl + "&type=strip");
+        }
         response.setStatus(video.getStatus());
         response.setCreateTime(video.getCreateTime());
         response.setUpdateTime(video.getUpdateTime());
         return response;
     }
 
+    /**
+     * 缩略图地址中的内容版本（内容摘要的固定长度前缀）
+     * @param thumbnailKey 缩略图内容摘要
+     * @return 内容版本
+     */
+    public static String thumbnailVersion(String thumbnailKey) {
+        return thumbnailKey.substring(0, Math.min(THUMBNAIL_VERSION_LENGTH, thumbnailKey.length()));
+    }
+
     /**
      * 将Video实体列表转换为响应DTO列表
      * @param videos Video实体列表
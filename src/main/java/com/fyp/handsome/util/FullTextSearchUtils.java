@@ -0,0 +1,51 @@
+package com.fyp.handsome.util;
+
+import java.util.regex.Pattern;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * 全文检索工具类
+ * 视频名称和拍摄地点建有 ngram 全文索引（ngram_token_size = 2），关键字按短语匹配，
+ * 效果等同于子串匹配；不足一个分词长度的关键字无法命中索引，由调用方退回 LIKE 查询
+ * @author ziye
+ */
+public class FullTextSearchUtils {
+
+    /**
+     * 分词长度，与MySQL参数 ngram_token_size 保持一致
+     */
+    public static final int NGRAM_TOKEN_SIZE = 2;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * 规范化关键字：去除双引号（短语定界符）、首尾空白，合并连续空白
+     * @param keyword 原始关键字
+     * @return 规范化后的关键字，为空时返回null
+     */
+    public static String normalize(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return null;
+        }
+        String normalized = WHITESPACE.matcher(keyword.replace('"', ' ').trim()).replaceAll(" ");
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * 关键字能否使用全文索引
+     * @param normalized 规范化后的关键字
+     */
+    public static boolean isIndexable(String normalized) {
+        return normalized != null && normalized.length() >= NGRAM_TOKEN_SIZE;
+    }
+
+    /**
+     * 构造布尔模式的短语表达式
+     * @param normalized 规范化后的关键字
+     * @return 形如 "关键字" 的表达式
+     */
+    public static String toPhrase(String normalized) {
+        return "\"" + normalized + "\"";
+    }
+}
@@ -0,0 +1,218 @@
+package com.fyp.handsome.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * MP4（ISO-BMFF）元数据解析工具类
+ * 只读取顶层box头定位moov，再以内存映射方式解析moov，不读取媒体数据、不解码
+ * @author ziye
+ */
+public class Mp4MetadataUtils {
+
+    /**
+     * box头长度（size + type）
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * moov 映射上限，超出视为文件损坏
+     */
+    private static final long MAX_MOOV_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * 样本描述类型到编码名称的映射
+     */
+    private static final Map<String, String> CODEC_NAMES = Map.of(
+            "avc1", "h264", "avc3", "h264",
+            "hvc1", "h265", "hev1", "h265",
+            "av01", "av1", "vp09", "vp9", "mp4v", "mpeg4");
+
+    /**
+     * 解析结果
+     * @param fileSize 文件大小（字节）
+     * @param durationSeconds 时长（秒，未知时为null）
+     * @param width 视频宽度（像素，无视频轨时为null）
+     * @param height 视频高度（像素，无视频轨时为null）
+     * @param videoCodec 视频编码（如 h264、h265，未识别时为样本描述类型）
+     * @param bitRate 平均码率（bps，未知时为null）
+     */
+    public record Mp4Metadata(long fileSize, Integer durationSeconds, Integer width, Integer height,
+                              String videoCodec, Long bitRate) {
+    }
+
+    /**
+     * 解析MP4文件元数据
+     * @param file 视频文件
+     * @return 解析结果，不是MP4文件（找不到moov）时返回null
+     */
+    public static Mp4Metadata probe(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long moovOffset = -1;
+            long moovSize = 0;
+            long mediaBytes = 0;
+
+            // 1. 扫描顶层box，只读取box头
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + Long.BYTES);
+            long position = 0;
+            while (position + HEADER_SIZE <= fileSize) {
+                header.clear();
+                channel.read(header, position);
+                header.flip();
+                if (header.remaining() < HEADER_SIZE) {
+                    break;
+                }
+                long size = Integer.toUnsignedLong(header.getInt());
+                String type = fourCc(header);
+                int headerLength = HEADER_SIZE;
+                if (size == 1) {
+                    if (header.remaining() < Long.BYTES) {
+                        break;
+                    }
+                    size = header.getLong();
+                    headerLength += Long.BYTES;
+                } else if (size == 0) {
+                    size = fileSize - position;
+                }
+                if (size < headerLength) {
+                    break;
+                }
+                if ("moov".equals(type)) {
+                    moovOffset = position + headerLength;
+                    moovSize = size - headerLength;
+                } else if ("mdat".equals(type)) {
+                    mediaBytes += size - headerLength;
+                }
+                position += size;
+            }
+            if (moovOffset < 0 || moovSize > MAX_MOOV_SIZE || moovOffset + moovSize > fileSize) {
+                return null;
+            }
+
+            // 2. 内存映射解析moov
+            MappedByteBuffer moov = channel.map(FileChannel.MapMode.READ_ONLY, moovOffset, moovSize);
+            MoovInfo info = new MoovInfo();
+            parseMoov(moov, info);
+
+            Integer durationSeconds = null;
+            Long bitRate = null;
+            if (info.timescale > 0 && info.duration > 0) {
+                double seconds = (double) info.duration / info.timescale;
+                durationSeconds = (int) Math.round(seconds);
+                bitRate = Math.round((mediaBytes > 0 ? mediaBytes : fileSize) * 8 / seconds);
+            }
+            return new Mp4Metadata(fileSize, durationSeconds, info.width, info.height, info.videoCodec, bitRate);
+        }
+    }
+
+    /**
+     * moov解析中间结果
+     */
+    private static class MoovInfo {
+        long timescale;
+        long duration;
+        Integer width;
+        Integer height;
+        String videoCodec;
+    }
+
+    /**
+     * 解析moov下的mvhd和第一条视频轨
+     */
+    private static void parseMoov(ByteBuffer moov, MoovInfo info) {
+        forEachChild(moov, (type, body) -> {
+            if ("mvhd".equals(type)) {
+                int version = Byte.toUnsignedInt(body.get());
+                body.position(body.position() + 3 + (version == 1 ? 16 : 8));
+                info.timescale = Integer.toUnsignedLong(body.getInt());
+                info.duration = version == 1 ? body.getLong() : Integer.toUnsignedLong(body.getInt());
+            } else if ("trak".equals(type) && info.videoCodec == null) {
+                parseTrack(body, info);
+            }
+        });
+    }
+
+    /**
+     * 解析轨道：trak/mdia/hdlr 为 vide 时读取 trak/mdia/minf/stbl/stsd 的第一个样本描述
+     */
+    private static void parseTrack(ByteBuffer trak, MoovInfo info) {
+        ByteBuffer mdia = findChild(trak, "mdia");
+        ByteBuffer hdlr = mdia == null ? null : findChild(mdia, "hdlr");
+        if (hdlr == null || hdlr.remaining() < 12) {
+            return;
+        }
+        hdlr.position(hdlr.position() + 8);
+        if (!"vide".equals(fourCc(hdlr))) {
+            return;
+        }
+        ByteBuffer minf = findChild(mdia, "minf");
+        ByteBuffer stbl = minf == null ? null : findChild(minf, "stbl");
+        ByteBuffer stsd = stbl == null ? null : findChild(stbl, "stsd");
+        // version/flags(4) + entry_count(4) + 第一个样本描述头(8) + 保留(6) + 数据引用(2) + 预定义(16) + 宽高(4)
+        if (stsd == null || stsd.remaining() < 44) {
+            return;
+        }
+        stsd.position(stsd.position() + 12);
+        String sampleType = fourCc(stsd);
+        info.videoCodec = CODEC_NAMES.getOrDefault(sampleType, sampleType);
+        stsd.position(stsd.position() + 24);
+        info.width = Short.toUnsignedInt(stsd.getShort());
+        info.height = Short.toUnsignedInt(stsd.getShort());
+    }
+
+    private interface BoxVisitor {
+        void visit(String type, ByteBuffer body);
+    }
+
+    /**
+     * 遍历容器box的直接子box（子box内容以独立视图传入，越界时停止）
+     */
+    private static void forEachChild(ByteBuffer container, BoxVisitor visitor) {
+        ByteBuffer buffer = container.duplicate();
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int start = buffer.position();
+            long size = Integer.toUnsignedLong(buffer.getInt());
+            String type = fourCc(buffer);
+            int headerLength = HEADER_SIZE;
+            if (size == 1) {
+                if (buffer.remaining() < Long.BYTES) {
+                    return;
+                }
+                size = buffer.getLong();
+                headerLength += Long.BYTES;
+            } else if (size == 0) {
+                size = buffer.limit() - start;
+            }
+            if (size < headerLength || start + size > buffer.limit()) {
+                return;
+            }
+            ByteBuffer body = buffer.duplicate();
+            body.position(start + headerLength).limit((int) (start + size));
+            visitor.visit(type, body.slice());
+            buffer.position((int) (start + size));
+        }
+    }
+
+    private static ByteBuffer findChild(ByteBuffer container, String childType) {
+        ByteBuffer[] found = new ByteBuffer[1];
+        forEachChild(container, (type, body) -> {
+            if (found[0] == null && childType.equals(type)) {
+                found[0] = body;
+            }
+        });
+        return found[0];
+    }
+
+    private static String fourCc(ByteBuffer buffer) {
+        byte[] bytes = new byte[4];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
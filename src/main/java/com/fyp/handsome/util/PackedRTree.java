@@ -0,0 +1,279 @@
+package com.fyp.handsome.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 只读的二维点R树（STR批量装载）
+ * 构建时一次性按经度分片、片内按纬度排序后打包成满节点，叶子节点对应数组中的连续区间；
+ * 构建后不可修改，可被多个线程同时查询，数据变化时整体重建后替换引用
+ * @author ziye
+ */
+public class PackedRTree<T> {
+
+    /**
+     * 节点最大子节点数
+     */
+    private static final int NODE_CAPACITY = 16;
+
+    /**
+     * 地球平均半径（米）
+     */
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    /**
+     * 经纬度矩形（闭区间，不跨越180度经线）
+     */
+    public record Box(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+        boolean contains(double latitude, double longitude) {
+            return latitude >= minLatitude && latitude <= maxLatitude
+                    && longitude >= minLongitude && longitude <= maxLongitude;
+        }
+
+        boolean intersects(Node node) {
+            return node.minLatitude <= maxLatitude && node.maxLatitude >= minLatitude
+                    && node.minLongitude <= maxLongitude && node.maxLongitude >= minLongitude;
+        }
+    }
+
+    /**
+     * 最近邻查询结果
+     * @param item 数据项
+     * @param distanceMeters 球面距离（米）
+     */
+    public record Neighbor<T>(T item, double distanceMeters) {
+    }
+
+    private static final class Node {
+        double minLatitude = Double.POSITIVE_INFINITY;
+        double maxLatitude = Double.NEGATIVE_INFINITY;
+        double minLongitude = Double.POSITIVE_INFINITY;
+        double maxLongitude = Double.NEGATIVE_INFINITY;
+
+        /**
+         * 子节点（叶子节点为null）
+         */
+        Node[] children;
+
+        /**
+         * 叶子节点在数据数组中的区间 [start, end)
+         */
+        int start;
+        int end;
+
+        void expand(double minLat, double maxLat, double minLng, double maxLng) {
+            minLatitude = Math.min(minLatitude, minLat);
+            maxLatitude = Math.max(maxLatitude, maxLat);
+            minLongitude = Math.min(minLongitude, minLng);
+            maxLongitude = Math.max(maxLongitude, maxLng);
+        }
+
+        double centerLatitude() {
+            return (minLatitude + maxLatitude) / 2;
+        }
+
+        double centerLongitude() {
+            return (minLongitude + maxLongitude) / 2;
+        }
+    }
+
+    private final Object[] items;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final Node root;
+
+    private PackedRTree(Object[] items, double[] latitudes, double[] longitudes, Node root) {
+        this.items = items;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.root = root;
+    }
+
+    /**
+     * 构建R树
+     * @param source 数据项
+     * @param latitude 纬度读取函数
+     * @param longitude 经度读取函数
+     */
+    public static <T> PackedRTree<T> build(Collection<T> source,
+                                           ToDoubleFunction<T> latitude, ToDoubleFunction<T> longitude) {
+        record Entry(Object item, double latitude, double longitude) {
+        }
+        List<Entry> entries = new ArrayList<>(source.size());
+        for (T item : source) {
+            entries.add(new Entry(item, latitude.applyAsDouble(item), longitude.applyAsDouble(item)));
+        }
+        sortTileRecursive(entries, Entry::latitude, Entry::longitude);
+
+        int size = entries.size();
+        Object[] items = new Object[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        List<Node> level = new ArrayList<>((size + NODE_CAPACITY - 1) / NODE_CAPACITY);
+        for (int i = 0; i < size; i++) {
+            Entry entry = entries.get(i);
+            items[i] = entry.item();
+            latitudes[i] = entry.latitude();
+            longitudes[i] = entry.longitude();
+            if (i % NODE_CAPACITY == 0) {
+                Node leaf = new Node();
+                leaf.start = i;
+                level.add(leaf);
+            }
+            Node leaf = level.get(level.size() - 1);
+            leaf.end = i + 1;
+            leaf.expand(entry.latitude(), entry.latitude(), entry.longitude(), entry.longitude());
+        }
+
+        // 逐层向上打包，直到只剩根节点
+        while (level.size() > 1) {
+            sortTileRecursive(level, Node::centerLatitude, Node::centerLongitude);
+            List<Node> parents = new ArrayList<>((level.size() + NODE_CAPACITY - 1) / NODE_CAPACITY);
+            for (int i = 0; i < level.size(); i += NODE_CAPACITY) {
+                Node parent = new Node();
+                parent.children = level.subList(i, Math.min(i + NODE_CAPACITY, level.size())).toArray(new Node[0]);
+                for (Node child : parent.children) {
+                    parent.expand(child.minLatitude, child.maxLatitude, child.minLongitude, child.maxLongitude);
+                }
+                parents.add(parent);
+            }
+            level = parents;
+        }
+        return new PackedRTree<>(items, latitudes, longitudes, level.isEmpty() ? null : level.get(0));
+    }
+
+    /**
+     * STR排序：先按经度排序并切成若干竖条，每个竖条再按纬度排序，
+     * 之后按顺序每 NODE_CAPACITY 个元素组成一个节点
+     */
+    private static <E> void sortTileRecursive(List<E> elements,
+                                              ToDoubleFunction<E> latitude, ToDoubleFunction<E> longitude) {
+        int nodeCount = (elements.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+        elements.sort(Comparator.comparingDouble(longitude));
+        for (int start = 0; start < elements.size(); start += sliceSize) {
+            elements.subList(start, Math.min(start + sliceSize, elements.size()))
+                    .sort(Comparator.comparingDouble(latitude));
+        }
+    }
+
+    /**
+     * 数据项数量
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * 矩形范围查询
+     * @param box 查询范围
+     * @return 范围内的数据项
+     */
+    public List<T> search(Box box) {
+        List<T> result = new ArrayList<>();
+        if (root != null) {
+            search(root, box, result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void search(Node node, Box box, List<T> result) {
+        if (!box.intersects(node)) {
+            return;
+        }
+        if (node.children == null) {
+            for (int i = node.start; i < node.end; i++) {
+                if (box.contains(latitudes[i], longitudes[i])) {
+                    result.add((T) items[i]);
+                }
+            }
+            return;
+        }
+        for (Node child : node.children) {
+            search(child, box, result);
+        }
+    }
+
+    /**
+     * 最近邻查询（按球面距离由近到远）
+     * 以节点矩形到查询点的距离为下界做最佳优先搜索，只展开可能包含更近结果的节点
+     * @param latitude 查询点纬度
+     * @param longitude 查询点经度
+     * @param limit 返回条数
+     * @param box 限定范围（可选，为null时不限定）
+     * @return 最近的数据项及其距离
+     */
+    @SuppressWarnings("unchecked")
+    public List<Neighbor<T>> nearest(double latitude, double longitude, int limit, Box box) {
+        record Candidate(double distance, Node node, int index) {
+        }
+        List<Neighbor<T>> result = new ArrayList<>(Math.min(limit, items.length));
+        if (root == null || limit <= 0 || (box != null && !box.intersects(root))) {
+            return result;
+        }
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        queue.add(new Candidate(distanceToNode(latitude, longitude, root), root, -1));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node();
+            if (node == null) {
+                result.add(new Neighbor<>((T) items[candidate.index()], candidate.distance()));
+            } else if (node.children == null) {
+                for (int i = node.start; i < node.end; i++) {
+                    if (box == null || box.contains(latitudes[i], longitudes[i])) {
+                        queue.add(new Candidate(distance(latitude, longitude, latitudes[i], longitudes[i]), null, i));
+                    }
+                }
+            } else {
+                for (Node child : node.children) {
+                    if (box == null || box.intersects(child)) {
+                        queue.add(new Candidate(distanceToNode(latitude, longitude, child), child, -1));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查询点到节点矩形的距离（取矩形内离查询点最近的经纬度，城市尺度下可视为下界）
+     */
+    private static double distanceToNode(double latitude, double longitude, Node node) {
+        double nearestLatitude = Math.max(node.minLatitude, Math.min(latitude, node.maxLatitude));
+        double nearestLongitude;
+        if (longitude >= node.minLongitude && longitude <= node.maxLongitude) {
+            nearestLongitude = longitude;
+        } else {
+            nearestLongitude = longitudeGap(longitude, node.minLongitude) <= longitudeGap(longitude, node.maxLongitude)
+                    ? node.minLongitude : node.maxLongitude;
+        }
+        return distance(latitude, longitude, nearestLatitude, nearestLongitude);
+    }
+
+    /**
+     * 两个经度之间的最小夹角（考虑跨越180度经线）
+     */
+    private static double longitudeGap(double from, double to) {
+        double gap = Math.abs(from - to) % 360;
+        return gap > 180 ? 360 - gap : gap;
+    }
+
+    /**
+     * 球面距离（haversine公式，米）
+     */
+    public static double distance(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double deltaLatitude = Math.toRadians(toLatitude - fromLatitude);
+        double deltaLongitude = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+                * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
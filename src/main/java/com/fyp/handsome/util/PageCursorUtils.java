@@ -0,0 +1,68 @@
+package com.fyp.handsome.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.springframework.util.StringUtils;
+
+import com.fyp.handsome.exception.VideoValidationException;
+
+/**
+ * 分页游标工具类
+ * 将排序键 (create_time, id) 编码为对客户端不透明的游标字符串
+ * @author ziye
+ */
+public class PageCursorUtils {
+
+    /**
+     * 游标内部字段分隔符
+     */
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 游标解码结果
+     * @param createTime 上一页最后一条记录的创建时间
+     * @param id 上一页最后一条记录的ID
+     */
+    public record Cursor(LocalDateTime createTime, Long id) {
+    }
+
+    /**
+     * 编码游标
+     * @param createTime 创建时间
+     * @param id 记录ID
+     * @return 游标字符串
+     */
+    public static String encode(LocalDateTime createTime, Long id) {
+        if (createTime == null || id == null) {
+            return null;
+        }
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @param cursor 游标字符串（为空表示从第一页开始）
+     * @return 游标内容，首页返回null
+     */
+    public static Cursor decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new VideoValidationException("分页游标格式不正确");
+            }
+            LocalDateTime createTime = LocalDateTime.parse(raw.substring(0, index));
+            Long id = Long.valueOf(raw.substring(index + 1));
+            return new Cursor(createTime, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new VideoValidationException("分页游标格式不正确", e);
+        }
+    }
+}
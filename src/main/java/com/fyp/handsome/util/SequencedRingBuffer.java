@@ -0,0 +1,121 @@
+package com.fyp.handsome.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * 定长无锁环形缓冲区
+ * 每条记录分配一个从1开始递增的序号，写满后覆盖最旧的记录；
+ * 多个线程可同时写入和读取，读取时按序号连续返回已写入的记录，
+ * 遇到已分配序号但尚未写完的槽位即停止，保证返回结果没有空洞
+ * @author ziye
+ */
+public class SequencedRingBuffer<T> {
+
+    /**
+     * 已写入的记录
+     * @param sequence 序号
+     * @param value 数据
+     */
+    public record Entry<T>(long sequence, T value) {
+    }
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final int mask;
+
+    /**
+     * 最后分配的序号
+     */
+    private final AtomicLong claimed = new AtomicLong();
+
+    /**
+     * @param capacity 容量（向上取整为2的幂）
+     */
+    public SequencedRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("容量必须大于0");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 容量
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * 最后分配的序号（尚未写入任何记录时为0）
+     */
+    public long lastSequence() {
+        return claimed.get();
+    }
+
+    /**
+     * 写入一条记录
+     * @param valueFactory 根据序号生成数据
+     * @return 写入的记录
+     */
+    public Entry<T> append(LongFunction<T> valueFactory) {
+        long sequence = claimed.incrementAndGet();
+        Entry<T> entry = new Entry<>(sequence, valueFactory.apply(sequence));
+        int index = (int) (sequence & mask);
+        Entry<T> current;
+        do {
+            current = slots.get(index);
+            // 写入过慢、槽位已被更新的记录占用时放弃写入
+            if (current != null && current.sequence() > sequence) {
+                return entry;
+            }
+        } while (!slots.compareAndSet(index, current, entry));
+        return entry;
+    }
+
+    /**
+     * 读取指定序号之后的记录（按序号递增）
+     * 起始序号已被覆盖时从缓冲区中最旧的记录开始
+     * @param afterSequence 起始序号（不含）
+     * @param limit 最多返回条数
+     * @return 记录列表
+     */
+    public List<Entry<T>> readAfter(long afterSequence, int limit) {
+        long last = claimed.get();
+        long from = Math.max(afterSequence + 1, last - slots.length() + 1);
+        List<Entry<T>> result = new ArrayList<>((int) Math.max(0, Math.min(limit, last - from + 1)));
+        for (long sequence = Math.max(from, 1); sequence <= last && result.size() < limit; sequence++) {
+            Entry<T> entry = slots.get((int) (sequence & mask));
+            if (entry == null || entry.sequence() < sequence) {
+                // 已分配但尚未写完
+                break;
+            }
+            if (entry.sequence() == sequence) {
+                result.add(entry);
+            }
+            // 序号更大说明读取期间已被覆盖，跳过
+        }
+        return result;
+    }
+
+    /**
+     * 读取最新的若干条记录（按序号递减）
+     * @param limit 最多返回条数
+     * @return 记录列表
+     */
+    public List<Entry<T>> readLatest(int limit) {
+        long last = claimed.get();
+        long from = Math.max(1, last - Math.min(limit, slots.length()) + 1);
+        List<Entry<T>> result = new ArrayList<>(readAfter(from - 1, limit));
+        Collections.reverse(result);
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+-- 检测流量分钟表（历史数据由应用启动后分批回填）
+CREATE TABLE IF NOT EXISTS analysis_detection_minute (
+    object_class VARCHAR(32) NOT NULL COMMENT '目标类别:person-人员,vehicle-车辆等',
+    bucket_time DATETIME NOT NULL COMMENT '分钟桶起始时间(拍摄时间+检测偏移)',
+    video_id BIGINT NOT NULL COMMENT '视频编号',
+    detection_count INT NOT NULL DEFAULT 0 COMMENT '检测数量',
+    
+    PRIMARY KEY (object_class, bucket_time, video_id),
+    INDEX idx_video_id (video_id)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='检测流量分钟表-按目标类别、分钟和视频统计检测数量';
@@ -0,0 +1,12 @@
+-- 分析结果二进制表（与分析结果分表存放，列表查询不读取）
+CREATE TABLE IF NOT EXISTS video_analysis_payload (
+    result_id BIGINT PRIMARY KEY COMMENT '分析结果编号',
+    format_version TINYINT NOT NULL COMMENT '编码格式版本',
+    payload MEDIUMBLOB NOT NULL COMMENT '分析结果二进制(摘要、置信度、检测目标及其余字段)',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    
+    FOREIGN KEY (result_id) REFERENCES video_analysis_result(id) ON DELETE CASCADE
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='分析结果二进制表-与分析结果分表存放，列表查询不读取';
@@ -0,0 +1,17 @@
+-- 有效视频名称唯一约束：status = 1 的行生成列取视频名称，已删除的行为 NULL（唯一索引允许多个 NULL），
+-- 并发导入或创建同名视频时由数据库拒绝后写入的一方
+-- 库中已有重复的有效名称时建索引失败、应用启动失败，需先处理重复数据（保留一条，其余改名或删除）后再启动
+-- 列和索引不存在时才添加（按完整表结构手工建库的数据库上不重复添加）
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND COLUMN_NAME = 'active_video_name'),
+    'DO 0',
+    'ALTER TABLE video_info ADD COLUMN active_video_name VARCHAR(255) GENERATED ALWAYS AS (IF(status = 1, video_name, NULL)) VIRTUAL COMMENT ''有效视频名称(生成列,用于唯一约束)'' AFTER thumbnail_key');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND INDEX_NAME = 'uk_active_video_name'),
+    'DO 0',
+    'ALTER TABLE video_info ADD UNIQUE INDEX uk_active_video_name (active_video_name)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
@@ -0,0 +1,9 @@
+-- 分析任务领取标识：每次领取写入新的标识，标记成功或失败时校验，
+-- 超时放回队列后被重新领取的任务，旧的执行者无法再回写状态和保存结果
+-- 列不存在时才添加（按完整表结构手工建库的数据库上不重复添加）
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_analysis_job' AND COLUMN_NAME = 'claim_token'),
+    'DO 0',
+    'ALTER TABLE video_analysis_job ADD COLUMN claim_token CHAR(32) COMMENT ''领取标识(每次领取重新生成,回写状态时校验)'' AFTER error_message');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
@@ -0,0 +1,15 @@
+-- 分析结果查询的复合索引
+-- idx_video_time        按视频查询，按分析时间排序
+-- idx_video_type_time   按视频和分析类型查询，按分析时间排序
+-- idx_type_time         按分析类型查询，按分析时间排序
+-- idx_status_time       最新结果、时间范围查询及按时间统计（含分析类型和置信度，统计时只读索引）
+-- 删除被以上索引前缀覆盖的单列索引（idx_video_id 的外键由 idx_video_time 支持）
+ALTER TABLE video_analysis_result
+    ADD INDEX idx_video_time (video_id, analysis_time),
+    ADD INDEX idx_video_type_time (video_id, analysis_type, analysis_time),
+    ADD INDEX idx_type_time (analysis_type, analysis_time),
+    ADD INDEX idx_status_time (status, analysis_time, analysis_type, confidence_score),
+    DROP INDEX idx_video_id,
+    DROP INDEX idx_analysis_type,
+    DROP INDEX idx_status,
+    ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,11 @@
+-- 访问令牌吊销记录（重启后恢复吊销名单，多实例间定期同步）
+CREATE TABLE IF NOT EXISTS token_revocation (
+    revoke_key VARCHAR(64) PRIMARY KEY COMMENT '吊销键:t:令牌ID-单个令牌,u:用户ID-用户在吊销时间之前签发的令牌',
+    revoke_value BIGINT NOT NULL COMMENT '令牌为过期时间,用户为吊销时间(毫秒时间戳)',
+    expire_at BIGINT NOT NULL COMMENT '记录失效时间(毫秒时间戳,之后所覆盖的令牌均已过期)',
+    
+    INDEX idx_expire_at (expire_at)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='访问令牌吊销表-持久化令牌吊销名单';
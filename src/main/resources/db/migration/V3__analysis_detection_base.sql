@@ -0,0 +1,10 @@
+-- 检测流量计入时间记录（删除分析结果时按计入时的基准时间扣减，不受之后修改视频拍摄时间影响）
+CREATE TABLE IF NOT EXISTS analysis_detection_base (
+    result_id BIGINT PRIMARY KEY COMMENT '分析结果编号',
+    base_time DATETIME NOT NULL COMMENT '计入检测流量时的基准时间(拍摄时间,没有时为分析时间)',
+    
+    FOREIGN KEY (result_id) REFERENCES video_analysis_result(id) ON DELETE CASCADE
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='检测流量基准时间表-记录分析结果计入分钟桶时使用的基准时间';
@@ -0,0 +1,8 @@
+-- 视频列表游标分页索引（按状态过滤，按创建时间和ID排序）
+-- 列和索引不存在时才添加（按完整表结构手工建库或已执行旧版基线的数据库上不重复添加）
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND INDEX_NAME = 'idx_status_create_time'),
+    'DO 0',
+    'ALTER TABLE video_info ADD INDEX idx_status_create_time (status, create_time, id)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
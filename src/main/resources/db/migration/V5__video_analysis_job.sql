@@ -0,0 +1,19 @@
+-- 异步分析任务队列
+CREATE TABLE IF NOT EXISTS video_analysis_job (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '任务编号',
+    video_id BIGINT NOT NULL COMMENT '视频编号',
+    analysis_type VARCHAR(50) NOT NULL COMMENT '分析类型',
+    job_status TINYINT DEFAULT 0 COMMENT '任务状态:0-排队中,1-执行中,2-成功,3-失败',
+    result_id BIGINT COMMENT '分析结果编号(成功时回填)',
+    error_message VARCHAR(500) COMMENT '失败原因',
+    start_time DATETIME COMMENT '开始执行时间',
+    finish_time DATETIME COMMENT '结束时间',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '提交时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    
+    INDEX idx_status_type (job_status, analysis_type, id),
+    INDEX idx_video_id (video_id)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='视频分析任务表-异步分析任务队列';
@@ -0,0 +1,12 @@
+-- 视频来源和地点分组计数（由应用维护，首次启动时按 video_info 重建）
+CREATE TABLE IF NOT EXISTS video_stat_counter (
+    dimension VARCHAR(20) NOT NULL COMMENT '统计维度:source-来源,location-拍摄地点',
+    dim_value VARCHAR(255) NOT NULL DEFAULT '' COMMENT '维度取值(空值记为空字符串)',
+    video_count BIGINT NOT NULL DEFAULT 0 COMMENT '有效视频数量',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    
+    PRIMARY KEY (dimension, dim_value)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='视频分组计数表-视频来源和地点统计';
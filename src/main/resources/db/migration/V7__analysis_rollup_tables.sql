@@ -0,0 +1,37 @@
+-- 分析结果小时/天汇总表及回填进度表（历史数据由应用启动后分批回填）
+CREATE TABLE IF NOT EXISTS analysis_stat_hourly (
+    bucket_time DATETIME NOT NULL COMMENT '小时桶起始时间(整点)',
+    analysis_type VARCHAR(50) NOT NULL COMMENT '分析类型',
+    result_count BIGINT NOT NULL DEFAULT 0 COMMENT '分析结果数量',
+    confidence_sum DECIMAL(20,4) NOT NULL DEFAULT 0 COMMENT '置信度之和',
+    confidence_count BIGINT NOT NULL DEFAULT 0 COMMENT '有置信度的结果数量',
+    
+    PRIMARY KEY (bucket_time, analysis_type)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='分析结果小时汇总表-按小时和分析类型统计';
+
+CREATE TABLE IF NOT EXISTS analysis_stat_daily (
+    bucket_time DATETIME NOT NULL COMMENT '天桶起始时间(零点)',
+    analysis_type VARCHAR(50) NOT NULL COMMENT '分析类型',
+    result_count BIGINT NOT NULL DEFAULT 0 COMMENT '分析结果数量',
+    confidence_sum DECIMAL(20,4) NOT NULL DEFAULT 0 COMMENT '置信度之和',
+    confidence_count BIGINT NOT NULL DEFAULT 0 COMMENT '有置信度的结果数量',
+    
+    PRIMARY KEY (bucket_time, analysis_type)
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='分析结果天汇总表-按天和分析类型统计';
+
+CREATE TABLE IF NOT EXISTS analysis_rollup_checkpoint (
+    job_name VARCHAR(50) PRIMARY KEY COMMENT '回填任务名',
+    watermark_id BIGINT NOT NULL COMMENT '回填上限ID(之后的结果由增量维护)',
+    last_id BIGINT NOT NULL DEFAULT 0 COMMENT '已回填到的ID',
+    finished TINYINT NOT NULL DEFAULT 0 COMMENT '是否完成:0-否,1-是',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB 
+  DEFAULT CHARSET=utf8mb4 
+  COLLATE=utf8mb4_unicode_ci 
+  COMMENT='汇总回填进度表-记录历史数据回填位置';
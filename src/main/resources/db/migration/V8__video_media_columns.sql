@@ -0,0 +1,50 @@
+-- 视频媒体属性（由文件探测）和缩略图摘要列
+-- 列和索引不存在时才添加（按完整表结构手工建库或已执行旧版基线的数据库上不重复添加）
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND COLUMN_NAME = 'width'),
+    'DO 0',
+    'ALTER TABLE video_info ADD COLUMN width INT COMMENT ''视频宽度(像素,由文件探测)'' AFTER duration');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND COLUMN_NAME = 'height'),
+    'DO 0',
+    'ALTER TABLE video_info ADD COLUMN height INT COMMENT ''视频高度(像素,由文件探测)'' AFTER width');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND COLUMN_NAME = 'video_codec'),
+    'DO 0',
+    'ALTER TABLE video_info ADD COLUMN video_codec VARCHAR(32) COMMENT ''视频编码(由文件探测)'' AFTER height');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND COLUMN_NAME = 'bit_rate'),
+    'DO 0',
+    'ALTER TABLE video_info ADD COLUMN bit_rate BIGINT COMMENT ''平均码率(bps,由文件探测)'' AFTER video_codec');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND COLUMN_NAME = 'thumbnail_key'),
+    'DO 0',
+    'ALTER TABLE video_info ADD COLUMN thumbnail_key CHAR(64) COMMENT ''缩略图内容摘要(为空表示尚未生成)'' AFTER bit_rate');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND INDEX_NAME = 'idx_thumbnail_key'),
+    'DO 0',
+    'ALTER TABLE video_info ADD INDEX idx_thumbnail_key (thumbnail_key)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND INDEX_NAME = 'idx_video_codec'),
+    'DO 0',
+    'ALTER TABLE video_info ADD INDEX idx_video_codec (video_codec)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
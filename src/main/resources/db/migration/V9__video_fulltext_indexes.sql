@@ -0,0 +1,16 @@
+-- 视频名称和拍摄地点全文索引(ngram分词,需保持 ngram_token_size=2,并建议关闭 innodb_ft_enable_stopword)
+-- 首个全文索引会重建表，大表请在低峰期启动
+-- 列和索引不存在时才添加（按完整表结构手工建库或已执行旧版基线的数据库上不重复添加）
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND INDEX_NAME = 'ft_video_name'),
+    'DO 0',
+    'ALTER TABLE video_info ADD FULLTEXT INDEX ft_video_name (video_name) WITH PARSER ngram');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS(SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'video_info' AND INDEX_NAME = 'ft_shooting_location'),
+    'DO 0',
+    'ALTER TABLE video_info ADD FULLTEXT INDEX ft_shooting_location (shooting_location) WITH PARSER ngram');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
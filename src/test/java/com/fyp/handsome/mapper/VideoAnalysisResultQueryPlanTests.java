@@ -0,0 +1,193 @@
+package com.fyp.handsome.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * 分析结果查询执行计划检查
+ * 写入固定的测试数据并 ANALYZE TABLE 后，对 VideoAnalysisResultMapper 的列表和统计查询执行 EXPLAIN，
+ * 未使用预期的复合索引、出现全表扫描或 filesort 时失败（索引由 db/migration 脚本在启动时添加）。
+ * 测试直接写入和删除数据并执行 ANALYZE TABLE，只在指定独立的空数据库时运行，不使用开发库：
+ * <pre>
+ * mvn test -Dquery-plan.datasource.url=jdbc:mysql://127.0.0.1:3306/handsome_plan_test \
+ *     -Dquery-plan.datasource.username=root -Dquery-plan.datasource.password=...
+ * </pre>
+ * @author ziye
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = VideoAnalysisResultQueryPlanTests.DATASOURCE_URL, matches = ".+",
+		disabledReason = "未指定独立的测试数据库（-Dquery-plan.datasource.url）")
+class VideoAnalysisResultQueryPlanTests {
+
+	static final String DATASOURCE_URL = "query-plan.datasource.url";
+
+	private static final String NAMESPACE = VideoAnalysisResultMapper.class.getName();
+
+	/**
+	 * 测试视频名称（用于清理测试数据）
+	 */
+	private static final String SEED_VIDEO_NAME = "query-plan-test";
+
+	private static final int SEED_VIDEOS = 20;
+
+	private static final int SEED_RESULTS_PER_TYPE = 40;
+
+	private static final int SEED_DAYS = 60;
+
+	private static final List<String> ANALYSIS_TYPES = List.of("face_recognition", "behavior_analysis", "event_detection");
+
+	private static final Set<String> STATUS_TIME = Set.of("idx_status_time");
+
+	@Autowired
+	private SqlSessionFactory sqlSessionFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long videoId;
+
+	/**
+	 * 使用命令行指定的独立数据库（启动时由迁移脚本建表）
+	 */
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getProperty(DATASOURCE_URL));
+		registry.add("spring.datasource.username", () -> System.getProperty("query-plan.datasource.username", "root"));
+		registry.add("spring.datasource.password", () -> System.getProperty("query-plan.datasource.password", ""));
+	}
+
+	/**
+	 * 写入固定分布的测试数据并更新索引统计，执行计划不受库中已有数据量影响
+	 */
+	@BeforeAll
+	void seed() {
+		cleanup();
+		LocalDateTime now = LocalDateTime.now();
+		List<Long> videoIds = new ArrayList<>();
+		for (int i = 0; i < SEED_VIDEOS; i++) {
+			int index = i;
+			KeyHolder keyHolder = new GeneratedKeyHolder();
+			jdbcTemplate.update(connection -> {
+				PreparedStatement statement = connection.prepareStatement("INSERT INTO video_info "
+						+ "(video_name, shooting_time, shooting_location, video_source) VALUES (?, ?, ?, ?)",
+						Statement.RETURN_GENERATED_KEYS);
+				statement.setString(1, SEED_VIDEO_NAME);
+				statement.setTimestamp(2, Timestamp.valueOf(now.minusDays(index % SEED_DAYS)));
+				statement.setString(3, "location-" + (index % 5));
+				statement.setString(4, "source-" + (index % 3));
+				return statement;
+			}, keyHolder);
+			videoIds.add(Objects.requireNonNull(keyHolder.getKey()).longValue());
+		}
+		videoId = videoIds.get(0);
+
+		List<Object[]> rows = new ArrayList<>();
+		for (Long id : videoIds) {
+			for (String type : ANALYSIS_TYPES) {
+				for (int i = 0; i < SEED_RESULTS_PER_TYPE; i++) {
+					LocalDateTime analysisTime = now.minusHours((long) i * SEED_DAYS * 24 / SEED_RESULTS_PER_TYPE)
+							.minusMinutes(id % 60);
+					rows.add(new Object[] {id, type, new BigDecimal("0." + (50 + i % 50)),
+							Timestamp.valueOf(analysisTime), i % 20 == 0 ? 0 : 1});
+				}
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO video_analysis_result "
+				+ "(video_id, analysis_type, analysis_result, confidence_score, analysis_time, status) "
+				+ "VALUES (?, ?, '{}', ?, ?, ?)", rows);
+		jdbcTemplate.queryForList("ANALYZE TABLE video_info, video_analysis_result");
+	}
+
+	@AfterAll
+	void cleanup() {
+		// 分析结果随视频级联删除
+		jdbcTemplate.update("DELETE FROM video_info WHERE video_name = ?", SEED_VIDEO_NAME);
+	}
+
+	Stream<Arguments> queries() {
+		LocalDateTime endTime = LocalDateTime.now();
+		LocalDateTime startTime = endTime.minusDays(7);
+		return Stream.of(
+				Arguments.of("selectByVideoId", Set.of("idx_video_time"), params("videoId", videoId)),
+				Arguments.of("selectByAnalysisType", Set.of("idx_type_time"), params("analysisType", "face_recognition")),
+				Arguments.of("selectByVideoIdAndType", Set.of("idx_video_type_time"),
+						params("videoId", videoId, "analysisType", "face_recognition")),
+				Arguments.of("selectByAnalysisTimeRange", STATUS_TIME, params("startTime", startTime, "endTime", endTime)),
+				Arguments.of("selectLatestResults", STATUS_TIME, params("limit", 10)),
+				Arguments.of("selectPageWithConditions", STATUS_TIME, params("videoId", null, "analysisType", null,
+						"startTime", null, "endTime", null)),
+				Arguments.of("selectPageWithConditions", Set.of("idx_video_time"),
+						params("videoId", videoId, "analysisType", null, "startTime", null, "endTime", null)),
+				Arguments.of("selectPageWithConditions", Set.of("idx_video_type_time"), params("videoId", videoId,
+						"analysisType", "face_recognition", "startTime", null, "endTime", null)),
+				Arguments.of("selectPageWithConditions", Set.of("idx_type_time", "idx_status_time"),
+						params("videoId", null, "analysisType", "face_recognition",
+								"startTime", startTime, "endTime", endTime)),
+				Arguments.of("countByTimeRange", STATUS_TIME, params("startTime", startTime, "endTime", endTime)),
+				Arguments.of("countAlerts", STATUS_TIME, params("analysisTypes", List.of("event_detection"),
+						"minConfidence", new BigDecimal("0.8"), "startTime", startTime)));
+	}
+
+	@ParameterizedTest(name = "{0} {2}")
+	@MethodSource("queries")
+	void usesIndexWithoutFilesort(String statementId, Set<String> expectedKeys, Map<String, Object> params) {
+		MappedStatement statement = sqlSessionFactory.getConfiguration().getMappedStatement(NAMESPACE + "." + statementId);
+		BoundSql boundSql = statement.getBoundSql(params);
+		Object[] args = boundSql.getParameterMappings().stream()
+				.map(mapping -> boundSql.hasAdditionalParameter(mapping.getProperty())
+						? boundSql.getAdditionalParameter(mapping.getProperty())
+						: params.get(mapping.getProperty()))
+				.toArray();
+
+		List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + boundSql.getSql(), args);
+		for (Map<String, Object> row : plan) {
+			String extra = Objects.toString(row.get("Extra"), "");
+			assertNotEquals("ALL", row.get("type"), statementId + " 全表扫描：" + row);
+			assertFalse(extra.contains("Using filesort"), statementId + " 使用了filesort：" + row);
+			assertTrue(expectedKeys.contains(Objects.toString(row.get("key"), "")),
+					statementId + " 未使用预期索引" + expectedKeys + "：" + row);
+		}
+	}
+
+	private static Map<String, Object> params(Object... keyValues) {
+		Map<String, Object> params = new HashMap<>();
+		for (int i = 0; i < keyValues.length; i += 2) {
+			params.put((String) keyValues[i], keyValues[i + 1]);
+		}
+		return params;
+	}
+
+}
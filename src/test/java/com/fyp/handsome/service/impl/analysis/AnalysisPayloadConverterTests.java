@@ -0,0 +1,124 @@
+package com.fyp.handsome.service.impl.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fyp.handsome.dto.analysis.AnalysisPayload;
+import com.fyp.handsome.util.AnalysisPayloadCodec;
+
+/**
+ * 分析结果JSON转换测试：哪些JSON能原样还原，哪些在类型化后会丢失或改写
+ * @author ziye
+ */
+class AnalysisPayloadConverterTests {
+
+	private final AnalysisPayloadConverter converter = new AnalysisPayloadConverter(new ObjectMapper());
+
+	@Test
+	void roundTripsCanonicalJson() {
+		String json = """
+				{"summary":"两车剐蹭","confidence":0.95,"detectedObjects":["person",
+				{"class":"car","count":2,"offsetSeconds":1.5,"confidence":0.87,"box":{"x":0.25,"y":0.5,"width":0.125,"height":0.75}},
+				{"class":"truck","count":1,"offsetSeconds":12}],
+				"analyzer":"remote","taskId":"t-1","scenes":[{"start":0,"text":"路口"}]}
+				""";
+
+		AnalysisPayload payload = converter.fromJson(json);
+		assertEquals("两车剐蹭", payload.summary());
+		assertEquals(0.95, payload.confidence());
+		assertEquals(List.of(
+				new AnalysisPayload.Detection("person", 1, 0, null, null),
+				new AnalysisPayload.Detection("car", 2, 1500, 0.87, new AnalysisPayload.BoundingBox(0.25f, 0.5f, 0.125f, 0.75f)),
+				new AnalysisPayload.Detection("truck", 1, 12000, null, null)), payload.detections());
+		assertTrue(converter.isLossless(json, payload));
+		// 经过二进制编码后仍然一致
+		assertTrue(converter.isLossless(json, AnalysisPayloadCodec.decode(AnalysisPayloadCodec.encode(payload))));
+	}
+
+	@Test
+	void roundTripsExtraOnlyJson() {
+		String json = "{\"analyzer\":\"local-stub\",\"usage\":{\"tokens\":12}}";
+		AnalysisPayload payload = converter.fromJson(json);
+		assertNull(payload.summary());
+		assertTrue(payload.detections().isEmpty());
+		assertTrue(converter.isLossless(json, payload));
+	}
+
+	@Test
+	void rejectsNonObjectJson() {
+		assertNull(converter.fromJson(null));
+		assertNull(converter.fromJson(" "));
+		assertNull(converter.fromJson("not json"));
+		assertNull(converter.fromJson("[1,2]"));
+		assertFalse(converter.isLossless("not json", new AnalysisPayload(null, null, List.of(), null)));
+	}
+
+	@Test
+	void dropsDetectionsWithoutClass() {
+		String json = "{\"detectedObjects\":[\"car\",{\"count\":3},42]}";
+		AnalysisPayload payload = converter.fromJson(json);
+		assertEquals(List.of(new AnalysisPayload.Detection("car", 1, 0, null, null)), payload.detections());
+		assertFalse(converter.isLossless(json, payload));
+	}
+
+	@Test
+	void dropsNonArrayDetectedObjects() {
+		String json = "{\"summary\":\"s\",\"detectedObjects\":{\"car\":2}}";
+		AnalysisPayload payload = converter.fromJson(json);
+		assertTrue(payload.detections().isEmpty());
+		assertNull(payload.extra());
+		assertFalse(converter.isLossless(json, payload));
+	}
+
+	@Test
+	void dropsNonNumericConfidence() {
+		String json = "{\"summary\":\"s\",\"confidence\":\"0.9\"}";
+		AnalysisPayload payload = converter.fromJson(json);
+		assertNull(payload.confidence());
+		assertFalse(converter.isLossless(json, payload));
+	}
+
+	@Test
+	void rewritesNonTextSummary() {
+		String json = "{\"summary\":42}";
+		AnalysisPayload payload = converter.fromJson(json);
+		assertEquals("42", payload.summary());
+		assertEquals("{\"summary\":\"42\"}", converter.toJson(payload));
+		assertFalse(converter.isLossless(json, payload));
+	}
+
+	@Test
+	void rewritesFieldAliasesToCanonicalNames() {
+		String json = """
+				{"detectedObjects":[
+				{"type":"car","offsetMillis":1500,"score":0.5},
+				{"label":"person","bbox":[1,2,3,4]}]}
+				""";
+		AnalysisPayload payload = converter.fromJson(json);
+		assertEquals(List.of(
+				new AnalysisPayload.Detection("car", 1, 1500, 0.5, null),
+				new AnalysisPayload.Detection("person", 1, 0, null, new AnalysisPayload.BoundingBox(1, 2, 3, 4))),
+				payload.detections());
+
+		// 别名改写为 class、offsetSeconds、confidence、box，原JSON不再一致，但语义不变
+		assertFalse(converter.isLossless(json, payload));
+		assertEquals(payload, converter.fromJson(converter.toJson(payload)));
+	}
+
+	@Test
+	void detectsPrecisionLostByBinaryEncoding() {
+		String json = "{\"confidence\":0.123456,\"detectedObjects\":[\"car\"]}";
+		AnalysisPayload payload = converter.fromJson(json);
+		assertTrue(converter.isLossless(json, payload));
+		// 二进制格式只保留四位小数，不能据此清空原JSON
+		assertFalse(converter.isLossless(json, AnalysisPayloadCodec.decode(AnalysisPayloadCodec.encode(payload))));
+	}
+
+}
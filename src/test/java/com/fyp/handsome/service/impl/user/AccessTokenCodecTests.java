@@ -0,0 +1,98 @@
+package com.fyp.handsome.service.impl.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fyp.handsome.config.AuthProperties;
+
+/**
+ * 访问令牌编解码测试：篡改、过期、格式错误的令牌一律拒绝
+ * @author ziye
+ */
+class AccessTokenCodecTests {
+
+	private static final String SECRET = Base64.getEncoder()
+			.encodeToString("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+
+	private final AccessTokenCodec codec = newCodec(SECRET);
+
+	@Test
+	void decodesIssuedToken() {
+		AccessTokenClaims claims = codec.newClaims(7L, "alice", 60_000);
+		assertEquals(claims, codec.decode(codec.encode(claims)));
+	}
+
+	@Test
+	void rejectsTamperedPayload() {
+		String token = codec.encode(codec.newClaims(7L, "alice", 60_000));
+		String signature = token.substring(token.indexOf('.') + 1);
+
+		// 用原签名搭配改过用户ID的声明
+		String forged = codec.encode(codec.newClaims(1L, "admin", 60_000));
+		assertNull(codec.decode(forged.substring(0, forged.indexOf('.')) + "." + signature));
+
+		char first = token.charAt(0);
+		assertNull(codec.decode((first == 'A' ? 'B' : 'A') + token.substring(1)));
+	}
+
+	@Test
+	void rejectsTamperedSignature() {
+		String token = codec.encode(codec.newClaims(7L, "alice", 60_000));
+		int last = token.length() - 2;
+		char flipped = token.charAt(last) == 'A' ? 'B' : 'A';
+		assertNull(codec.decode(token.substring(0, last) + flipped + token.substring(last + 1)));
+		assertNull(codec.decode(token.substring(0, token.indexOf('.') + 1)));
+		assertNull(codec.decode(token.substring(0, token.indexOf('.') + 1) + "!!!"));
+	}
+
+	@Test
+	void rejectsTokenSignedWithAnotherSecret() {
+		AccessTokenCodec other = newCodec(Base64.getEncoder()
+				.encodeToString("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.US_ASCII)));
+		assertNull(codec.decode(other.encode(other.newClaims(7L, "alice", 60_000))));
+	}
+
+	@Test
+	void rejectsExpiredToken() {
+		assertNull(codec.decode(codec.encode(codec.newClaims(7L, "alice", -1))));
+		assertNull(codec.decode(codec.encode(codec.newClaims(7L, "alice", 0))));
+	}
+
+	@Test
+	void rejectsMalformedToken() {
+		String token = codec.encode(codec.newClaims(7L, "alice", 60_000));
+		assertNull(codec.decode(null));
+		assertNull(codec.decode(""));
+		assertNull(codec.decode(token.replace(".", "")));
+		assertNull(codec.decode(token + ".x"));
+		assertNull(codec.decode(token + "."));
+		assertNull(codec.decode(token.substring(token.indexOf('.'))));
+	}
+
+	@Test
+	void rejectsTokenWithoutUserId() {
+		AccessTokenClaims claims = new AccessTokenClaims("id", null, "alice", System.currentTimeMillis(),
+				System.currentTimeMillis() + 60_000);
+		assertNull(codec.decode(codec.encode(claims)));
+	}
+
+	@Test
+	void rejectsShortSecret() {
+		String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+		assertThrows(IllegalStateException.class, () -> newCodec(shortSecret));
+	}
+
+	private static AccessTokenCodec newCodec(String secret) {
+		AuthProperties properties = new AuthProperties();
+		properties.getAccessToken().setSecret(secret);
+		return new AccessTokenCodec(properties, new ObjectMapper());
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.fyp.handsome.service.impl.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fyp.handsome.config.AuthProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 文件持久化token存储测试：重启后重放日志恢复会话、旧格式（token原文）日志的重放与转换
+ * @author ziye
+ */
+class FileTokenStoreTests {
+
+	@TempDir
+	Path directory;
+
+	private final List<FileTokenStore> stores = new ArrayList<>();
+
+	@AfterEach
+	void close() {
+		stores.forEach(FileTokenStore::close);
+	}
+
+	@Test
+	void replaysSessionsAfterRestart() throws Exception {
+		Path logFile = directory.resolve("tokens.log");
+		FileTokenStore store = open(logFile, 2);
+		store.store("alice-1", 1L, Duration.ofMinutes(10));
+		store.store("alice-2", 1L, Duration.ofMinutes(10));
+		store.store("bob", 2L, Duration.ofMinutes(10));
+		store.store("carol", 3L, Duration.ofMinutes(10));
+		store.remove("carol");
+		store.store("dave", 4L, Duration.ofMinutes(10));
+		store.removeByUserId(4L);
+		store.close();
+
+		String content = Files.readString(logFile, StandardCharsets.UTF_8);
+		assertFalse(content.contains("alice-2"), "日志中不能出现token原文");
+
+		FileTokenStore restarted = open(logFile, 2);
+		assertNull(restarted.getUserId("alice-1"));
+		assertEquals(1L, restarted.getUserId("alice-2"));
+		assertEquals(2L, restarted.getUserId("bob"));
+		assertNull(restarted.getUserId("carol"));
+		assertNull(restarted.getUserId("dave"));
+		assertEquals(2, restarted.size());
+	}
+
+	@Test
+	void replaysLegacyRawTokenLog() throws Exception {
+		Path logFile = directory.resolve("legacy.log");
+		long future = System.currentTimeMillis() + 600_000;
+		long past = System.currentTimeMillis() - 1000;
+		Files.writeString(logFile, String.join("\n",
+				"P raw-token 5 " + future,
+				"P removed-token 6 " + future,
+				"R removed-token",
+				"P replaced-token 7 " + future,
+				"P latest-token 7 " + future,
+				"P expired-token 8 " + past,
+				"P truncated-token 9 12x") + "\n", StandardCharsets.UTF_8);
+
+		FileTokenStore store = open(logFile, 100);
+		assertEquals(5L, store.getUserId("raw-token"));
+		assertNull(store.getUserId("removed-token"));
+		assertNull(store.getUserId("replaced-token"));
+		assertEquals(7L, store.getUserId("latest-token"));
+		assertNull(store.getUserId("expired-token"));
+		assertNull(store.getUserId("truncated-token"));
+		assertEquals(2, store.size());
+
+		// 启动压缩后改为摘要格式，不再保留token原文
+		List<String> lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+		assertEquals("# sha256", lines.get(0));
+		assertEquals(3, lines.size());
+		assertTrue(lines.stream().noneMatch(line -> line.contains("raw-token") || line.contains("latest-token")));
+		store.close();
+
+		FileTokenStore restarted = open(logFile, 100);
+		assertEquals(5L, restarted.getUserId("raw-token"));
+		assertEquals(7L, restarted.getUserId("latest-token"));
+		assertEquals(2, restarted.size());
+	}
+
+	private FileTokenStore open(Path logFile, int compactMinRecords) {
+		AuthProperties properties = InMemoryTokenStoreTests.properties(100, 1000, 16);
+		properties.getTokenStore().setFilePath(logFile.toString());
+		properties.getTokenStore().setCompactMinRecords(compactMinRecords);
+		FileTokenStore store = new FileTokenStore(properties, new SimpleMeterRegistry());
+		stores.add(store);
+		return store;
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.fyp.handsome.service.impl.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fyp.handsome.config.AuthProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 进程内token存储测试：过期、同一用户只保留最新会话、容量淘汰最早过期的会话
+ * @author ziye
+ */
+class InMemoryTokenStoreTests {
+
+	private final List<InMemoryTokenStore> stores = new ArrayList<>();
+
+	@AfterEach
+	void close() {
+		stores.forEach(InMemoryTokenStore::close);
+	}
+
+	@Test
+	void expiresSessions() throws Exception {
+		InMemoryTokenStore store = newStore(100, 10, 16);
+		store.store("short", 1L, Duration.ofMillis(50));
+		store.store("long", 2L, Duration.ofMinutes(10));
+		assertEquals(1L, store.getUserId("short"));
+
+		TimeUnit.MILLISECONDS.sleep(80);
+		// 查询时检查过期，不依赖后台清理
+		assertNull(store.getUserId("short"));
+		assertEquals(2L, store.getUserId("long"));
+
+		long deadline = System.currentTimeMillis() + 2000;
+		while (store.size() > 1 && System.currentTimeMillis() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	void keepsOnlyLatestSessionPerUser() {
+		InMemoryTokenStore store = newStore(100, 1000, 16);
+		store.store("first", 1L, Duration.ofMinutes(10));
+		store.store("second", 1L, Duration.ofMinutes(10));
+		store.store("other", 2L, Duration.ofMinutes(10));
+
+		assertNull(store.getUserId("first"));
+		assertEquals(1L, store.getUserId("second"));
+		assertEquals(2, store.size());
+
+		store.removeByUserId(1L);
+		assertNull(store.getUserId("second"));
+		store.remove("other");
+		assertNull(store.getUserId("other"));
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	void evictsEarliestExpiringSessionAcrossWheelRounds() {
+		// 4个槽、1秒刻度：9秒后过期的会话绕过一轮，落在3秒后过期的会话之前的槽位
+		InMemoryTokenStore store = newStore(3, 1000, 4);
+		store.store("soon", 1L, Duration.ofMillis(3200));
+		store.store("wrapped", 2L, Duration.ofSeconds(9));
+		store.store("late", 3L, Duration.ofSeconds(100));
+		store.store("new", 4L, Duration.ofSeconds(50));
+
+		assertEquals(3, store.size());
+		assertNull(store.getUserId("soon"));
+		assertEquals(2L, store.getUserId("wrapped"));
+		assertEquals(3L, store.getUserId("late"));
+		assertEquals(4L, store.getUserId("new"));
+
+		store.store("newer", 5L, Duration.ofSeconds(200));
+		assertNull(store.getUserId("wrapped"));
+		assertEquals(3, store.size());
+	}
+
+	@Test
+	void evictsInExpiryOrderUnderCapacity() {
+		InMemoryTokenStore store = newStore(10, 1000, 8);
+		for (int i = 0; i < 30; i++) {
+			// 过期时间打乱，跨越多轮时间轮
+			long ttlSeconds = 10 + (i * 37L) % 30;
+			store.store("t" + i, (long) i, Duration.ofSeconds(ttlSeconds));
+		}
+		assertEquals(10, store.size());
+		for (int i = 0; i < 30; i++) {
+			long ttlSeconds = 10 + (i * 37L) % 30;
+			// 30个会话的有效期恰好是10..39秒各一个，保留最晚过期的10个
+			assertEquals(ttlSeconds >= 30 ? Long.valueOf(i) : null, store.getUserId("t" + i), "t" + i);
+		}
+	}
+
+	private InMemoryTokenStore newStore(int maxSessions, long tickMillis, int wheelSize) {
+		InMemoryTokenStore store = new InMemoryTokenStore(properties(maxSessions, tickMillis, wheelSize),
+				new SimpleMeterRegistry());
+		stores.add(store);
+		return store;
+	}
+
+	static AuthProperties properties(int maxSessions, long tickMillis, int wheelSize) {
+		AuthProperties properties = new AuthProperties();
+		properties.getTokenStore().setMaxSessions(maxSessions);
+		properties.getTokenStore().setWheelTickMs(tickMillis);
+		properties.getTokenStore().setWheelSize(wheelSize);
+		return properties;
+	}
+
+}
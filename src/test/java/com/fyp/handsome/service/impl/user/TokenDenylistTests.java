@@ -0,0 +1,161 @@
+package com.fyp.handsome.service.impl.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fyp.handsome.config.AuthProperties;
+import com.fyp.handsome.mapper.TokenRevocationMapper;
+
+/**
+ * 访问令牌吊销名单测试：按令牌吊销、按用户吊销、清理重建布隆过滤器后吊销仍然有效、重启后从吊销表加载
+ * @author ziye
+ */
+class TokenDenylistTests {
+
+	private static final long TTL_MILLIS = 30 * 60_000L;
+
+	private final InMemoryRevocationMapper mapper = new InMemoryRevocationMapper();
+	private final List<TokenDenylist> denylists = new ArrayList<>();
+
+	@AfterEach
+	void close() {
+		denylists.forEach(TokenDenylist::close);
+	}
+
+	@Test
+	void revokesSingleToken() {
+		TokenDenylist denylist = newDenylist(16);
+		AccessTokenClaims revoked = claims(7L, 0);
+		AccessTokenClaims other = claims(7L, 0);
+
+		assertFalse(denylist.isRevoked(revoked));
+		denylist.revokeToken(revoked);
+		assertTrue(denylist.isRevoked(revoked));
+		assertFalse(denylist.isRevoked(other));
+		assertFalse(denylist.isRevoked(claims(8L, 0)));
+	}
+
+	@Test
+	void revokesTokensIssuedBeforeUserRevocation() {
+		TokenDenylist denylist = newDenylist(16);
+		AccessTokenClaims before = claims(7L, -1000);
+		AccessTokenClaims sameMillis = claims(7L, 0);
+
+		denylist.revokeUser(7L);
+		assertTrue(denylist.isRevoked(before));
+		assertTrue(denylist.isRevoked(sameMillis));
+		// 吊销之后重新登录签发的令牌不受影响
+		assertFalse(denylist.isRevoked(claims(7L, 60_000)));
+		assertFalse(denylist.isRevoked(claims(8L, -1000)));
+	}
+
+	@Test
+	void keepsRevocationsAfterCleanupRebuild() {
+		TokenDenylist denylist = newDenylist(16);
+		List<AccessTokenClaims> revoked = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			AccessTokenClaims claims = claims((long) i, 0);
+			denylist.revokeToken(claims);
+			revoked.add(claims);
+		}
+		denylist.revokeUser(1000L);
+		// 已过期的条目在清理时移除，触发布隆过滤器重建（容量按剩余条目重新计算）
+		AccessTokenClaims expired = new AccessTokenClaims(UUID.randomUUID().toString(), 9L, "u9",
+				System.currentTimeMillis() - 2000, System.currentTimeMillis() - 1000);
+		denylist.revokeToken(expired);
+		assertEquals(102, denylist.size());
+
+		denylist.cleanup();
+
+		assertEquals(101, denylist.size());
+		revoked.forEach(claims -> assertTrue(denylist.isRevoked(claims), claims.tokenId()));
+		assertTrue(denylist.isRevoked(claims(1000L, -1000)));
+		assertFalse(denylist.isRevoked(claims(1000L, 60_000)));
+	}
+
+	@Test
+	void loadsPersistedRevocationsOnStartup() {
+		TokenDenylist first = newDenylist(16);
+		AccessTokenClaims token = claims(7L, 0);
+		first.revokeToken(token);
+		first.revokeUser(8L);
+
+		TokenDenylist restarted = newDenylist(16);
+		assertFalse(restarted.isRevoked(token));
+		restarted.initialize();
+		assertTrue(restarted.isRevoked(token));
+		assertTrue(restarted.isRevoked(claims(8L, -1000)));
+		assertFalse(restarted.isRevoked(claims(8L, 60_000)));
+	}
+
+	@Test
+	void picksUpOtherInstanceRevocationsOnCleanup() {
+		TokenDenylist local = newDenylist(16);
+		TokenDenylist remote = newDenylist(16);
+		AccessTokenClaims token = claims(7L, 0);
+		remote.revokeToken(token);
+
+		assertFalse(local.isRevoked(token));
+		local.cleanup();
+		assertTrue(local.isRevoked(token));
+	}
+
+	private TokenDenylist newDenylist(int expectedInsertions) {
+		AuthProperties properties = new AuthProperties();
+		properties.getAccessToken().setTtlMinutes(TTL_MILLIS / 60_000);
+		properties.getAccessToken().setDenylistExpectedInsertions(expectedInsertions);
+		properties.getAccessToken().setDenylistCleanupSeconds(3600);
+		TokenDenylist denylist = new TokenDenylist(mapper, properties);
+		denylists.add(denylist);
+		return denylist;
+	}
+
+	/**
+	 * @param issuedOffsetMillis 签发时间相对当前时间的偏移
+	 */
+	private static AccessTokenClaims claims(Long userId, long issuedOffsetMillis) {
+		long issuedAt = System.currentTimeMillis() + issuedOffsetMillis;
+		return new AccessTokenClaims(UUID.randomUUID().toString(), userId, "u" + userId, issuedAt, issuedAt + TTL_MILLIS);
+	}
+
+	/**
+	 * 内存中的吊销表，语义与 token_revocation 的SQL一致
+	 */
+	private static final class InMemoryRevocationMapper implements TokenRevocationMapper {
+
+		private final Map<String, long[]> rows = new ConcurrentHashMap<>();
+
+		@Override
+		public int upsert(String revokeKey, long revokeValue, long expireAt) {
+			rows.merge(revokeKey, new long[] {revokeValue, expireAt},
+					(old, value) -> new long[] {Math.max(old[0], value[0]), Math.max(old[1], value[1])});
+			return 1;
+		}
+
+		@Override
+		public List<Revocation> selectActive(long nowMillis) {
+			return rows.entrySet().stream()
+					.filter(row -> row.getValue()[1] > nowMillis)
+					.map(row -> new Revocation(row.getKey(), row.getValue()[0]))
+					.toList();
+		}
+
+		@Override
+		public int deleteExpired(long nowMillis) {
+			int before = rows.size();
+			rows.values().removeIf(row -> row[1] <= nowMillis);
+			return before - rows.size();
+		}
+	}
+
+}
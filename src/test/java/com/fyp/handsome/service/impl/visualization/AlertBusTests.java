@@ -0,0 +1,185 @@
+package com.fyp.handsome.service.impl.visualization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fyp.handsome.config.AlertProperties;
+import com.fyp.handsome.dto.visualization.AlertMessage;
+import com.fyp.handsome.event.AnalysisResultSavedEvent;
+
+/**
+ * 实时告警总线测试：按最后序号补发、补发与实时队列去重、起始序号已被覆盖时的丢弃通知
+ * @author ziye
+ */
+class AlertBusTests {
+
+	private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+	private AlertBus bus;
+
+	@AfterEach
+	void close() {
+		if (bus != null) {
+			bus.close();
+		}
+	}
+
+	@Test
+	void replaysAlertsAfterLastSequenceThenStreams() {
+		bus = newBus(16, 16);
+		publish(3);
+
+		RecordingEmitter emitter = subscribe(1L);
+		awaitReceived(emitter, 2);
+		publish(1);
+
+		awaitReceived(emitter, 3);
+		assertEquals(List.of(2L, 3L, 4L), emitter.sequences);
+		assertTrue(emitter.dropped.isEmpty());
+	}
+
+	@Test
+	void replaysWholeBufferWhenSequenceIsAheadOfServer() {
+		bus = newBus(16, 16);
+		publish(3);
+
+		// 客户端序号大于服务端当前序号（服务已重启）
+		RecordingEmitter emitter = subscribe(100L);
+		awaitReceived(emitter, 3);
+		assertEquals(List.of(1L, 2L, 3L), emitter.sequences);
+	}
+
+	@Test
+	void reportsDroppedAlertsWhenStartWasOverwritten() {
+		bus = newBus(4, 16);
+		publish(10);
+
+		RecordingEmitter emitter = subscribe(2L);
+		awaitReceived(emitter, 4);
+		assertEquals(List.of(7L, 8L, 9L, 10L), emitter.sequences);
+		assertEquals(List.of(4L), emitter.dropped);
+	}
+
+	@Test
+	void doesNotSendLiveAlertsWithoutLastSequence() {
+		bus = newBus(16, 16);
+		publish(2);
+
+		RecordingEmitter emitter = subscribe(null);
+		publish(1);
+		awaitReceived(emitter, 1);
+		assertEquals(List.of(3L), emitter.sequences);
+	}
+
+	@Test
+	void deduplicatesReplayAndQueueWhileAlertsArrive() throws Exception {
+		int total = 2000;
+		bus = newBus(4096, 4096);
+		publish(1);
+
+		List<RecordingEmitter> subscribed = new ArrayList<>();
+		List<Long> startSequences = new ArrayList<>();
+		Thread publisher = new Thread(() -> publish(total - 1));
+		publisher.start();
+		while (publisher.isAlive() && subscribed.size() < 50) {
+			// 登记与读取缓冲区之间到达的告警既在补发中又在队列中，只能发送一次
+			long lastSequence = bus.getRecent(1).get(0).sequence();
+			startSequences.add(lastSequence);
+			subscribed.add(subscribe(lastSequence));
+		}
+		publisher.join(10000);
+
+		for (int i = 0; i < subscribed.size(); i++) {
+			RecordingEmitter emitter = subscribed.get(i);
+			long start = startSequences.get(i);
+			awaitReceived(emitter, (int) (total - start));
+			assertEquals(LongStream.rangeClosed(start + 1, total).boxed().toList(), emitter.sequences,
+					"lastSequence=" + start);
+			assertTrue(emitter.dropped.isEmpty());
+		}
+	}
+
+	private AlertBus newBus(int bufferSize, int queueSize) {
+		AlertProperties properties = new AlertProperties();
+		properties.setBufferSize(bufferSize);
+		properties.setSubscriberQueueSize(queueSize);
+		return new AlertBus(null, null, properties) {
+
+			@Override
+			SseEmitter createEmitter(long timeoutMillis) {
+				RecordingEmitter emitter = new RecordingEmitter();
+				emitters.add(emitter);
+				return emitter;
+			}
+		};
+	}
+
+	private RecordingEmitter subscribe(Long lastSequence) {
+		return (RecordingEmitter) bus.subscribe(lastSequence);
+	}
+
+	private void publish(int count) {
+		for (int i = 0; i < count; i++) {
+			bus.onAnalysisResultSaved(new AnalysisResultSavedEvent((long) i, null, "event_detection",
+					LocalDateTime.now(), new BigDecimal("0.95")));
+		}
+	}
+
+	private static void awaitReceived(RecordingEmitter emitter, int count) {
+		awaitTrue(() -> emitter.sequences.size() >= count);
+		// 多等一会，确认没有多余（重复）的告警
+		sleep(50);
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			sleep(5);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 记录发送内容的SSE连接
+	 */
+	private static final class RecordingEmitter extends SseEmitter {
+
+		private final List<Long> sequences = new CopyOnWriteArrayList<>();
+		private final List<Long> dropped = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+				if (data.getData() instanceof AlertMessage message) {
+					sequences.add(message.sequence());
+				} else if (data.getData() instanceof Map<?, ?> map && map.get("count") instanceof Long count) {
+					dropped.add(count);
+				}
+			}
+		}
+	}
+
+}
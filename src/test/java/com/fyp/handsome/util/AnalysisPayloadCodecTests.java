@@ -0,0 +1,109 @@
+package com.fyp.handsome.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fyp.handsome.dto.analysis.AnalysisPayload;
+
+/**
+ * 分析结果二进制编解码测试：编码解码还原、按需解码跳过检测区、损坏数据拒绝
+ * @author ziye
+ */
+class AnalysisPayloadCodecTests {
+
+	@Test
+	void roundTripsFullPayload() {
+		AnalysisPayload payload = new AnalysisPayload("路口两车剐蹭，行人正常通行", 0.9512, List.of(
+				new AnalysisPayload.Detection("car", 2, 1500, 0.87, new AnalysisPayload.BoundingBox(0.1f, 0.2f, 0.3f, 0.4f)),
+				new AnalysisPayload.Detection("person", 1, 4000, null, null),
+				// 偏移不递增时差值为负
+				new AnalysisPayload.Detection("car", 1, 500, 0.0, null),
+				new AnalysisPayload.Detection("truck", 3, 7_200_000_000L, 1.0, new AnalysisPayload.BoundingBox(12f, 34.5f, 640f, 480f))),
+				"{\"analyzer\":\"remote\",\"taskId\":\"t-1\"}");
+
+		assertEquals(payload, AnalysisPayloadCodec.decode(AnalysisPayloadCodec.encode(payload)));
+	}
+
+	@Test
+	void roundTripsEmptyPayload() {
+		AnalysisPayload payload = new AnalysisPayload(null, null, List.of(), null);
+		assertEquals(payload, AnalysisPayloadCodec.decode(AnalysisPayloadCodec.encode(payload)));
+
+		AnalysisPayload withoutDetections = new AnalysisPayload("", null, null, null);
+		assertEquals(new AnalysisPayload("", null, List.of(), null),
+				AnalysisPayloadCodec.decode(AnalysisPayloadCodec.encode(withoutDetections)));
+	}
+
+	@Test
+	void quantizesConfidenceToFourDecimals() {
+		AnalysisPayload payload = new AnalysisPayload(null, 0.123456, List.of(
+				new AnalysisPayload.Detection("car", 1, 0, 0.98765, null)), null);
+
+		AnalysisPayload decoded = AnalysisPayloadCodec.decode(AnalysisPayloadCodec.encode(payload));
+		assertEquals(0.1235, decoded.confidence());
+		assertEquals(0.9877, decoded.detections().get(0).confidence());
+	}
+
+	@Test
+	void opensWithoutDecodingDetections() {
+		AnalysisPayload payload = new AnalysisPayload("摘要", 0.5, List.of(
+				new AnalysisPayload.Detection("car", 2, 1000, null, null),
+				new AnalysisPayload.Detection("person", 1, 2000, 0.7, null),
+				new AnalysisPayload.Detection("car", 1, 3000, null, null)), "{\"k\":1}");
+
+		AnalysisPayloadCodec.LazyPayload lazy = AnalysisPayloadCodec.open(AnalysisPayloadCodec.encode(payload));
+		assertEquals("摘要", lazy.summary());
+		assertEquals(0.5, lazy.confidence());
+		assertEquals(3, lazy.detectionCount());
+		assertEquals(List.of("car", "person"), lazy.objectClasses());
+		assertEquals("{\"k\":1}", lazy.extra());
+		assertEquals(payload.detections(), lazy.detections());
+		assertSame(lazy.detections(), lazy.detections());
+	}
+
+	@Test
+	void skipsCorruptDetectionBlockUntilAccessed() {
+		// 没有其余字段时检测区位于末尾：一条无置信度、无目标框的检测占5字节
+		AnalysisPayload payload = new AnalysisPayload("s", null, List.of(
+				new AnalysisPayload.Detection("car", 1, 0, null, null)), null);
+		byte[] data = AnalysisPayloadCodec.encode(payload);
+		Arrays.fill(data, data.length - 5, data.length, (byte) 0x80);
+
+		AnalysisPayloadCodec.LazyPayload lazy = AnalysisPayloadCodec.open(data);
+		assertEquals("s", lazy.summary());
+		assertNull(lazy.confidence());
+		assertEquals(1, lazy.detectionCount());
+		assertEquals(List.of("car"), lazy.objectClasses());
+		assertThrows(IllegalArgumentException.class, lazy::detections);
+	}
+
+	@Test
+	void rejectsCorruptInput() {
+		byte[] data = AnalysisPayloadCodec.encode(new AnalysisPayload("摘要", 0.9, List.of(
+				new AnalysisPayload.Detection("car", 1, 0, null, null)), "{\"k\":1}"));
+
+		assertThrows(IllegalArgumentException.class, () -> AnalysisPayloadCodec.open(new byte[0]));
+		assertThrows(IllegalArgumentException.class, () -> AnalysisPayloadCodec.open("{\"summary\":\"x\"}".getBytes()));
+
+		byte[] wrongVersion = data.clone();
+		wrongVersion[1] = (byte) (AnalysisPayloadCodec.FORMAT_VERSION + 1);
+		assertThrows(IllegalArgumentException.class, () -> AnalysisPayloadCodec.open(wrongVersion));
+
+		// 任意位置截断都不能解码成功
+		for (int length = 0; length < data.length; length++) {
+			byte[] truncated = Arrays.copyOf(data, length);
+			assertThrows(IllegalArgumentException.class, () -> AnalysisPayloadCodec.decode(truncated),
+					"length=" + length);
+		}
+		assertArrayEquals(data, AnalysisPayloadCodec.encode(AnalysisPayloadCodec.decode(data)));
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.fyp.handsome.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * 二维点R树测试：矩形查询和最近邻查询与逐个扫描的结果比对
+ * @author ziye
+ */
+class PackedRTreeTests {
+
+	/**
+	 * 城市尺度的测试范围
+	 */
+	private static final double MIN_LATITUDE = 30.0;
+	private static final double MIN_LONGITUDE = 120.0;
+	private static final double SPAN = 1.0;
+
+	private record Point(int id, double latitude, double longitude) {
+	}
+
+	@Test
+	void emptyTree() {
+		PackedRTree<Point> tree = PackedRTree.build(List.of(), Point::latitude, Point::longitude);
+		assertEquals(0, tree.size());
+		assertTrue(tree.search(new PackedRTree.Box(-90, 90, -180, 180)).isEmpty());
+		assertTrue(tree.nearest(30.5, 120.5, 5, null).isEmpty());
+	}
+
+	@ParameterizedTest(name = "size={0}")
+	@ValueSource(ints = {1, 15, 16, 17, 255, 257, 1000, 4099})
+	void searchMatchesBruteForce(int size) {
+		Random random = new Random(size);
+		List<Point> points = randomPoints(random, size);
+		PackedRTree<Point> tree = PackedRTree.build(points, Point::latitude, Point::longitude);
+		assertEquals(size, tree.size());
+
+		List<PackedRTree.Box> boxes = new ArrayList<>();
+		// 覆盖全部、完全在范围外、跨越多个叶子节点的中间区域
+		boxes.add(new PackedRTree.Box(MIN_LATITUDE, MIN_LATITUDE + SPAN, MIN_LONGITUDE, MIN_LONGITUDE + SPAN));
+		boxes.add(new PackedRTree.Box(10, 11, 10, 11));
+		boxes.add(new PackedRTree.Box(MIN_LATITUDE + 0.25, MIN_LATITUDE + 0.75, MIN_LONGITUDE + 0.3, MIN_LONGITUDE + 0.7));
+		for (int i = 0; i < 50; i++) {
+			boxes.add(randomBox(random));
+		}
+		// 边界正好落在数据点上（闭区间）
+		Point edge = points.get(random.nextInt(size));
+		boxes.add(new PackedRTree.Box(edge.latitude(), edge.latitude(), edge.longitude(), edge.longitude()));
+
+		for (PackedRTree.Box box : boxes) {
+			assertEquals(ids(bruteForceSearch(points, box)), ids(tree.search(box)), box.toString());
+		}
+	}
+
+	@ParameterizedTest(name = "size={0}")
+	@ValueSource(ints = {1, 17, 255, 1000})
+	void nearestMatchesBruteForceOrdering(int size) {
+		Random random = new Random(31L * size);
+		List<Point> points = randomPoints(random, size);
+		PackedRTree<Point> tree = PackedRTree.build(points, Point::latitude, Point::longitude);
+
+		for (int i = 0; i < 30; i++) {
+			double latitude = MIN_LATITUDE + random.nextDouble() * SPAN;
+			double longitude = MIN_LONGITUDE + random.nextDouble() * SPAN;
+			int limit = 1 + random.nextInt(20);
+			PackedRTree.Box box = i % 3 == 0 ? randomBox(random) : null;
+
+			List<Double> expected = points.stream()
+					.filter(point -> box == null || inBox(box, point))
+					.map(point -> PackedRTree.distance(latitude, longitude, point.latitude(), point.longitude()))
+					.sorted()
+					.limit(limit)
+					.toList();
+			List<PackedRTree.Neighbor<Point>> actual = tree.nearest(latitude, longitude, limit, box);
+
+			assertEquals(expected.size(), actual.size());
+			for (int j = 0; j < expected.size(); j++) {
+				PackedRTree.Neighbor<Point> neighbor = actual.get(j);
+				assertEquals(expected.get(j), neighbor.distanceMeters(), 1e-6, "第" + j + "个最近邻");
+				assertEquals(PackedRTree.distance(latitude, longitude, neighbor.item().latitude(),
+						neighbor.item().longitude()), neighbor.distanceMeters(), 1e-6);
+				assertTrue(box == null || inBox(box, neighbor.item()));
+			}
+		}
+	}
+
+	@Test
+	void nearestWithNonPositiveLimitIsEmpty() {
+		List<Point> points = randomPoints(new Random(7), 40);
+		PackedRTree<Point> tree = PackedRTree.build(points, Point::latitude, Point::longitude);
+		assertTrue(tree.nearest(30.5, 120.5, 0, null).isEmpty());
+	}
+
+	private static List<Point> randomPoints(Random random, int size) {
+		List<Point> points = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			points.add(new Point(i, MIN_LATITUDE + random.nextDouble() * SPAN, MIN_LONGITUDE + random.nextDouble() * SPAN));
+		}
+		return points;
+	}
+
+	private static PackedRTree.Box randomBox(Random random) {
+		double latitude = MIN_LATITUDE + random.nextDouble() * SPAN;
+		double longitude = MIN_LONGITUDE + random.nextDouble() * SPAN;
+		double height = random.nextDouble() * SPAN / 3;
+		double width = random.nextDouble() * SPAN / 3;
+		return new PackedRTree.Box(latitude, latitude + height, longitude, longitude + width);
+	}
+
+	private static List<Point> bruteForceSearch(List<Point> points, PackedRTree.Box box) {
+		return points.stream().filter(point -> inBox(box, point)).toList();
+	}
+
+	private static boolean inBox(PackedRTree.Box box, Point point) {
+		return point.latitude() >= box.minLatitude() && point.latitude() <= box.maxLatitude()
+				&& point.longitude() >= box.minLongitude() && point.longitude() <= box.maxLongitude();
+	}
+
+	private static List<Integer> ids(List<Point> points) {
+		return points.stream().sorted(Comparator.comparingInt(Point::id)).map(Point::id).toList();
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.fyp.handsome.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 环形缓冲区测试：写满覆盖、起始序号已被覆盖、未写完槽位处停止读取、最新记录顺序
+ * @author ziye
+ */
+class SequencedRingBufferTests {
+
+	@Test
+	void roundsCapacityUpToPowerOfTwo() {
+		assertEquals(1, new SequencedRingBuffer<String>(1).capacity());
+		assertEquals(8, new SequencedRingBuffer<String>(5).capacity());
+		assertEquals(8, new SequencedRingBuffer<String>(8).capacity());
+		assertThrows(IllegalArgumentException.class, () -> new SequencedRingBuffer<String>(0));
+	}
+
+	@Test
+	void readsInSequenceOrderBeforeWrapping() {
+		SequencedRingBuffer<String> buffer = new SequencedRingBuffer<>(8);
+		assertTrue(buffer.readAfter(0, 10).isEmpty());
+		appendAll(buffer, 5);
+
+		assertEquals(5, buffer.lastSequence());
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), sequences(buffer.readAfter(0, 10)));
+		assertEquals(List.of(3L, 4L), sequences(buffer.readAfter(2, 2)));
+		assertTrue(buffer.readAfter(5, 10).isEmpty());
+		assertEquals("v3", buffer.readAfter(2, 1).get(0).value());
+	}
+
+	@Test
+	void overwritesOldestEntriesAfterWrapping() {
+		SequencedRingBuffer<String> buffer = new SequencedRingBuffer<>(4);
+		appendAll(buffer, 10);
+
+		assertEquals(List.of(7L, 8L, 9L, 10L), sequences(buffer.readAfter(0, 100)));
+		// 起始序号已被覆盖时从最旧的记录开始
+		assertEquals(List.of(7L, 8L, 9L, 10L), sequences(buffer.readAfter(2, 100)));
+		assertEquals(List.of(7L, 8L), sequences(buffer.readAfter(5, 2)));
+		assertEquals(List.of(9L, 10L), sequences(buffer.readAfter(8, 100)));
+		assertEquals("v10", buffer.readAfter(9, 1).get(0).value());
+	}
+
+	@Test
+	void stopsAtClaimedButUnwrittenSlot() throws Exception {
+		SequencedRingBuffer<String> buffer = new SequencedRingBuffer<>(8);
+		buffer.append(sequence -> "v" + sequence);
+
+		CountDownLatch claimed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread slowWriter = new Thread(() -> buffer.append(sequence -> {
+			claimed.countDown();
+			await(release);
+			return "v" + sequence;
+		}));
+		slowWriter.start();
+		assertTrue(claimed.await(5, TimeUnit.SECONDS));
+		buffer.append(sequence -> "v" + sequence);
+
+		// 序号2已分配但未写完，不能跳过它返回3
+		assertEquals(3, buffer.lastSequence());
+		assertEquals(List.of(1L), sequences(buffer.readAfter(0, 10)));
+		assertEquals(List.of(1L), sequences(buffer.readLatest(10)));
+
+		release.countDown();
+		slowWriter.join(5000);
+		assertEquals(List.of(1L, 2L, 3L), sequences(buffer.readAfter(0, 10)));
+	}
+
+	@Test
+	void readsLatestNewestFirst() {
+		SequencedRingBuffer<String> buffer = new SequencedRingBuffer<>(4);
+		assertTrue(buffer.readLatest(3).isEmpty());
+
+		appendAll(buffer, 2);
+		assertEquals(List.of(2L, 1L), sequences(buffer.readLatest(10)));
+
+		appendAll(buffer, 8);
+		assertEquals(List.of(10L, 9L), sequences(buffer.readLatest(2)));
+		assertEquals(List.of(10L, 9L, 8L, 7L), sequences(buffer.readLatest(100)));
+	}
+
+	@Test
+	void concurrentWritersProduceContiguousReads() throws Exception {
+		SequencedRingBuffer<Long> buffer = new SequencedRingBuffer<>(1024);
+		int writers = 4;
+		int perWriter = 200;
+		Thread[] threads = new Thread[writers];
+		for (int i = 0; i < writers; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < perWriter; j++) {
+					buffer.append(sequence -> sequence);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join(5000);
+		}
+
+		List<SequencedRingBuffer.Entry<Long>> entries = buffer.readAfter(0, writers * perWriter);
+		assertEquals(LongStream.rangeClosed(1, writers * perWriter).boxed().toList(), sequences(entries));
+		entries.forEach(entry -> assertEquals(entry.sequence(), entry.value()));
+	}
+
+	private static void appendAll(SequencedRingBuffer<String> buffer, int count) {
+		for (int i = 0; i < count; i++) {
+			buffer.append(sequence -> "v" + sequence);
+		}
+	}
+
+	private static List<Long> sequences(List<? extends SequencedRingBuffer.Entry<?>> entries) {
+		return entries.stream().map(SequencedRingBuffer.Entry::sequence).toList();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}